@@ -23,6 +23,7 @@ import java.util.Collection;
 import java.util.Set;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import net.minecraft.item.ItemStack;
 
@@ -73,6 +74,27 @@ public interface IInscriberRegistry
 	@Nonnull
 	Set<ItemStack> getInputs();
 
+	/**
+	 * Finds the recipe for an input and the two presses, which may be swapped.
+	 *
+	 * @param input item in the middle slot
+	 * @param top item in the top slot, can be empty
+	 * @param bottom item in the bottom slot, can be empty
+	 *
+	 * @return matching recipe or null if there is none
+	 */
+	@Nullable
+	IInscriberRecipe findRecipe( @Nonnull ItemStack input, @Nonnull ItemStack top, @Nonnull ItemStack bottom );
+
+	/**
+	 * Checks an item against all top and bottom optionals.
+	 *
+	 * @param is item to check
+	 *
+	 * @return true, when any recipe uses the item as top or bottom optional
+	 */
+	boolean isOptional( @Nonnull ItemStack is );
+
 	/**
 	 * add a new recipe the easy way, duplicates will not be added.
 	 * Added recipes will be automatically added to the optionals and inputs.
@@ -0,0 +1,61 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013 AlgorithmX2
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package appeng.api.networking.crafting;
+
+
+import net.minecraft.inventory.InventoryCrafting;
+
+
+/**
+ * A {@link ICraftingMedium} which can accept several copies of the same processing pattern in a single push.
+ *
+ * The crafting CPU asks for the capacity first, reserves power and inventory for that many copies at once and then
+ * pushes them all in one call. Crafting (non processing) patterns are always pushed one at a time.
+ */
+public interface IBatchCraftingMedium extends ICraftingMedium
+{
+
+	/**
+	 * determine how many copies of the pattern could be pushed right now, without modifying anything.
+	 *
+	 * @param patternDetails details
+	 * @param table the inputs of a single copy of the pattern
+	 * @param maxCopies the most copies the crafting engine is willing to push
+	 *
+	 * @return number of copies between 0 and maxCopies.
+	 */
+	int getBatchCapacity( ICraftingPatternDetails patternDetails, InventoryCrafting table, int maxCopies );
+
+	/**
+	 * instruct the medium to process several copies of the pattern, the inputs for every copy have already been
+	 * reserved by the crafting engine, any copies which are not accepted are returned to the crafting engine.
+	 *
+	 * @param patternDetails details
+	 * @param table the inputs of a single copy of the pattern
+	 * @param copies number of copies to push
+	 *
+	 * @return number of copies which were successfully pushed.
+	 */
+	int pushPatternBatch( ICraftingPatternDetails patternDetails, InventoryCrafting table, int copies );
+}
@@ -21,6 +21,7 @@ package appeng.block.misc;
 
 import javax.annotation.Nullable;
 
+import net.minecraft.block.Block;
 import net.minecraft.block.material.Material;
 import net.minecraft.block.properties.IProperty;
 import net.minecraft.block.properties.PropertyBool;
@@ -72,6 +73,26 @@ public class BlockInterface extends AEBaseTileBlock
 				.withProperty( OMNIDIRECTIONAL, omniDirectional );
 	}
 
+	@Override
+	public void neighborChanged( IBlockState state, World world, BlockPos pos, Block blockIn, BlockPos fromPos )
+	{
+		final TileInterface te = this.getTileEntity( world, pos );
+		if( te != null )
+		{
+			te.onNeighborChanged( fromPos );
+		}
+	}
+
+	@Override
+	public void onNeighborChange( final IBlockAccess world, final BlockPos pos, final BlockPos neighbor )
+	{
+		final TileInterface te = this.getTileEntity( world, pos );
+		if( te != null )
+		{
+			te.onNeighborChanged( neighbor );
+		}
+	}
+
 	@Override
 	public boolean onActivated( final World w, final BlockPos pos, final EntityPlayer p, final EnumHand hand, final @Nullable ItemStack heldItem, final EnumFacing side, final float hitX, final float hitY, final float hitZ )
 	{
@@ -21,7 +21,10 @@ package appeng.client.me;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.List;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
 import java.util.regex.Pattern;
 
 import javax.annotation.Nonnull;
@@ -51,6 +54,10 @@ public class FluidRepo
 {
 	private final IItemList<IAEFluidStack> list = AEApi.instance().storage().getStorageChannel( IFluidStorageChannel.class ).createList();
 	private final ArrayList<IAEFluidStack> view = new ArrayList<>();
+	// what the view shows for each stack of the list, a zero sized copy when only craftables are shown.
+	private final Map<IAEFluidStack, IAEFluidStack> viewEntries = new IdentityHashMap<>();
+	private final Map<IAEFluidStack, SearchKey> searchKeys = new IdentityHashMap<>();
+	private final Set<IAEFluidStack> changed = Collections.newSetFromMap( new IdentityHashMap<>() );
 	private final IScrollSource src;
 	private final ISortSource sortSrc;
 
@@ -60,6 +67,17 @@ public class FluidRepo
 	private IPartitionList<IAEFluidStack> myPartitionList;
 	private boolean hasPower;
 
+	// settings the view was built with, changed stacks are only re-sorted into it while they stay the same.
+	private boolean viewValid = false;
+	private String viewSearch;
+	private Enum viewMode;
+	private Enum viewSortBy;
+	private Enum viewSortDir;
+	private boolean viewSearchToolTips;
+	private boolean viewSearchMod;
+	private Pattern viewPattern;
+	private Comparator<IAEFluidStack> viewSorter;
+
 	public FluidRepo( final IScrollSource src, final ISortSource sortSrc )
 	{
 		this.src = src;
@@ -68,6 +86,34 @@ public class FluidRepo
 
 	public void updateView()
 	{
+		final Enum viewMode = this.sortSrc.getSortDisplay();
+		final Enum sortBy = this.sortSrc.getSortBy();
+		final Enum sortDir = this.sortSrc.getSortDir();
+		final boolean terminalSearchToolTips = AEConfig.instance().getConfigManager().getSetting( Settings.SEARCH_TOOLTIPS ) != YesNo.NO;
+
+		if( this.viewValid && this.searchString.equals( this.viewSearch ) && viewMode == this.viewMode && sortBy == this.viewSortBy && sortDir == this.viewSortDir && terminalSearchToolTips == this.viewSearchToolTips )
+		{
+			final Comparator<IAEFluidStack> sorter = this.getSorter();
+			for( final IAEFluidStack fs : this.changed )
+			{
+				if( !fs.isMeaningful() )
+				{
+					// the list drops it, so does the search.
+					this.searchKeys.remove( fs );
+				}
+				else if( this.isVisible( fs ) )
+				{
+					this.addToView( fs, sorter );
+				}
+			}
+
+			this.changed.clear();
+			return;
+		}
+
+		this.viewValid = false;
+		this.changed.clear();
+		this.viewEntries.clear();
 		this.view.clear();
 
 		this.view.ensureCapacity( this.list.size() );
@@ -98,96 +144,162 @@ public class FluidRepo
 			}
 		}
 
-		final Enum viewMode = this.sortSrc.getSortDisplay();
-		final boolean needsZeroCopy = viewMode == ViewItems.CRAFTABLE;
-		final boolean terminalSearchToolTips = AEConfig.instance().getConfigManager().getSetting( Settings.SEARCH_TOOLTIPS ) != YesNo.NO;
+		this.viewSearch = this.searchString;
+		this.viewMode = viewMode;
+		this.viewSortBy = sortBy;
+		this.viewSortDir = sortDir;
+		this.viewSearchToolTips = terminalSearchToolTips;
+		this.viewSearchMod = searchMod;
+		this.viewPattern = m;
 
-		boolean notDone = false;
-		for( IAEFluidStack fs : this.list )
+		if( sortBy == SortOrder.MOD )
 		{
-			if( this.myPartitionList != null && !this.myPartitionList.isListed( fs ) )
-			{
-				continue;
-			}
+			this.viewSorter = FluidSorters.CONFIG_BASED_SORT_BY_MOD;
+		}
+		else if( sortBy == SortOrder.AMOUNT )
+		{
+			this.viewSorter = FluidSorters.CONFIG_BASED_SORT_BY_SIZE;
+		}
+		else
+		{
+			this.viewSorter = FluidSorters.CONFIG_BASED_SORT_BY_NAME;
+		}
 
-			if( viewMode == ViewItems.CRAFTABLE && !fs.isCraftable() )
-			{
-				continue;
-			}
+		// equal stacks need a fixed order to be found again by a binary search.
+		this.viewSorter = this.viewSorter.thenComparingInt( System::identityHashCode );
+
+		final Set<IAEFluidStack> live = Collections.newSetFromMap( new IdentityHashMap<>() );
+		for( final IAEFluidStack fs : this.list )
+		{
+			live.add( fs );
 
-			if( viewMode == ViewItems.STORED && fs.getStackSize() == 0 )
+			if( this.isVisible( fs ) )
 			{
-				continue;
+				final IAEFluidStack entry = this.createEntry( fs );
+				this.viewEntries.put( fs, entry );
+				this.view.add( entry );
 			}
+		}
 
-			final String dspName = searchMod ? Platform.getModId( fs ) : Platform.getFluidDisplayName( fs );
-			boolean foundMatchingFluidStack = false;
-			notDone = true;
+		// forget the search keys of stacks the list has dropped meanwhile.
+		this.searchKeys.keySet().retainAll( live );
 
-			if( m.matcher( dspName.toLowerCase() ).find() )
-			{
-				notDone = false;
-				foundMatchingFluidStack = true;
-			}
+		Collections.sort( this.view, this.getSorter() );
+		this.viewValid = true;
+	}
 
-			if( terminalSearchToolTips && notDone && !searchMod )
-			{
-				final List<String> tooltip = Platform.getTooltip( fs );
+	public void postUpdate( final IAEFluidStack is )
+	{
+		final IAEFluidStack st = this.list.findPrecise( is );
 
-				for( final String line : tooltip )
-				{
-					if( m.matcher( line ).find() )
-					{
-						foundMatchingFluidStack = true;
-						break;
-					}
-				}
-			}
+		if( st != null )
+		{
+			// its place in the view depends on the old amounts.
+			this.removeFromView( st );
 
-			if( foundMatchingFluidStack )
-			{
-				if( needsZeroCopy )
-				{
-					fs = fs.copy();
-					fs.setStackSize( 0 );
-				}
+			st.reset();
+			st.add( is );
+			this.changed.add( st );
+		}
+		else
+		{
+			this.list.add( is );
+			this.changed.add( this.list.findPrecise( is ) );
+		}
+	}
 
-				this.view.add( fs );
-			}
+	private boolean isVisible( final IAEFluidStack fs )
+	{
+		if( !fs.isMeaningful() )
+		{
+			return false;
 		}
 
-		final Enum sortBy = this.sortSrc.getSortBy();
-		final Enum sortDir = this.sortSrc.getSortDir();
+		if( this.myPartitionList != null && !this.myPartitionList.isListed( fs ) )
+		{
+			return false;
+		}
 
-		FluidSorters.setDirection( (appeng.api.config.SortDir) sortDir );
+		if( this.viewMode == ViewItems.CRAFTABLE && !fs.isCraftable() )
+		{
+			return false;
+		}
 
-		if( sortBy == SortOrder.MOD )
+		if( this.viewMode == ViewItems.STORED && fs.getStackSize() == 0 )
 		{
-			Collections.sort( this.view, FluidSorters.CONFIG_BASED_SORT_BY_MOD );
+			return false;
 		}
-		else if( sortBy == SortOrder.AMOUNT )
+
+		SearchKey key = this.searchKeys.get( fs );
+		if( key == null )
 		{
-			Collections.sort( this.view, FluidSorters.CONFIG_BASED_SORT_BY_SIZE );
+			key = new SearchKey( fs, Platform.getFluidDisplayName( fs ), Platform.getModId( fs ) );
+			this.searchKeys.put( fs, key );
 		}
-		else
+
+		return key.matches( this.viewPattern, this.viewSearchMod, this.viewSearchToolTips );
+	}
+
+	private IAEFluidStack createEntry( final IAEFluidStack fs )
+	{
+		if( this.viewMode == ViewItems.CRAFTABLE )
 		{
-			Collections.sort( this.view, FluidSorters.CONFIG_BASED_SORT_BY_NAME );
+			final IAEFluidStack copy = fs.copy();
+			copy.setStackSize( 0 );
+			return copy;
 		}
+
+		return fs;
 	}
 
-	public void postUpdate( final IAEFluidStack is )
+	private void addToView( final IAEFluidStack fs, final Comparator<IAEFluidStack> sorter )
 	{
-		final IAEFluidStack st = this.list.findPrecise( is );
+		final IAEFluidStack entry = this.createEntry( fs );
+		this.viewEntries.put( fs, entry );
 
-		if( st != null )
+		final int idx = Collections.binarySearch( this.view, entry, sorter );
+		this.view.add( idx < 0 ? -idx - 1 : idx, entry );
+	}
+
+	private void removeFromView( final IAEFluidStack fs )
+	{
+		if( !this.viewValid )
 		{
-			st.reset();
-			st.add( is );
+			return;
 		}
-		else
+
+		final IAEFluidStack entry = this.viewEntries.remove( fs );
+		if( entry == null )
 		{
-			this.list.add( is );
+			return;
+		}
+
+		int idx = Collections.binarySearch( this.view, entry, this.getSorter() );
+		if( idx < 0 || this.view.get( idx ) != entry )
+		{
+			// identity hash codes can collide.
+			idx = -1;
+			for( int x = 0; x < this.view.size(); x++ )
+			{
+				if( this.view.get( x ) == entry )
+				{
+					idx = x;
+					break;
+				}
+			}
 		}
+
+		if( idx >= 0 )
+		{
+			this.view.remove( idx );
+		}
+	}
+
+	private Comparator<IAEFluidStack> getSorter()
+	{
+		// the sorters share their direction with every other terminal.
+		FluidSorters.setDirection( (appeng.api.config.SortDir) this.viewSortDir );
+		return this.viewSorter;
 	}
 
 	public IAEFluidStack getReferenceFluid( int idx )
@@ -209,6 +321,7 @@ public class FluidRepo
 	public void clear()
 	{
 		this.list.resetStatus();
+		this.viewValid = false;
 	}
 
 	public boolean hasPower()
@@ -21,7 +21,10 @@ package appeng.client.me;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.List;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
 import java.util.regex.Pattern;
 
 import javax.annotation.Nonnull;
@@ -52,6 +55,10 @@ public class ItemRepo
 
 	private final IItemList<IAEItemStack> list = AEApi.instance().storage().getStorageChannel( IItemStorageChannel.class ).createList();
 	private final ArrayList<IAEItemStack> view = new ArrayList<>();
+	// what the view shows for each stack of the list, a zero sized copy when only craftables are shown.
+	private final Map<IAEItemStack, IAEItemStack> viewEntries = new IdentityHashMap<>();
+	private final Map<IAEItemStack, SearchKey> searchKeys = new IdentityHashMap<>();
+	private final Set<IAEItemStack> changed = Collections.newSetFromMap( new IdentityHashMap<>() );
 	private final IScrollSource src;
 	private final ISortSource sortSrc;
 
@@ -62,6 +69,18 @@ public class ItemRepo
 	private String innerSearch = "";
 	private boolean hasPower;
 
+	// settings the view was built with, changed stacks are only re-sorted into it while they stay the same.
+	private boolean viewValid = false;
+	private String viewSearch;
+	private Enum viewSearchMode;
+	private Enum viewMode;
+	private Enum viewSortBy;
+	private Enum viewSortDir;
+	private boolean viewSearchToolTips;
+	private boolean viewSearchMod;
+	private Pattern viewPattern;
+	private Comparator<IAEItemStack> viewSorter;
+
 	public ItemRepo( final IScrollSource src, final ISortSource sortSrc )
 	{
 		this.src = src;
@@ -90,38 +109,68 @@ public class ItemRepo
 
 		if( st != null )
 		{
+			// its place in the view depends on the old amounts.
+			this.removeFromView( st );
+
 			st.reset();
 			st.add( is );
+			this.changed.add( st );
 		}
 		else
 		{
 			this.list.add( is );
+			this.changed.add( this.list.findPrecise( is ) );
 		}
 	}
 
 	public void setViewCell( final ItemStack[] list )
 	{
 		this.myPartitionList = ItemViewCell.createFilter( list );
+		this.viewValid = false;
 		this.updateView();
 	}
 
 	public void updateView()
 	{
+		final Enum viewMode = this.sortSrc.getSortDisplay();
+		final Enum searchMode = AEConfig.instance().getConfigManager().getSetting( Settings.SEARCH_MODE );
+		final Enum sortBy = this.sortSrc.getSortBy();
+		final Enum sortDir = this.sortSrc.getSortDir();
+		final boolean terminalSearchToolTips = AEConfig.instance().getConfigManager().getSetting( Settings.SEARCH_TOOLTIPS ) != YesNo.NO;
+
+		if( this.viewValid && this.searchString.equals( this.viewSearch ) && searchMode == this.viewSearchMode && viewMode == this.viewMode && sortBy == this.viewSortBy && sortDir == this.viewSortDir && terminalSearchToolTips == this.viewSearchToolTips )
+		{
+			final Comparator<IAEItemStack> sorter = this.getSorter();
+			for( final IAEItemStack is : this.changed )
+			{
+				if( !is.isMeaningful() )
+				{
+					// the list drops it, so does the search.
+					this.searchKeys.remove( is );
+				}
+				else if( this.isVisible( is ) )
+				{
+					this.addToView( is, sorter );
+				}
+			}
+
+			this.changed.clear();
+			return;
+		}
+
+		this.viewValid = false;
+		this.changed.clear();
+		this.viewEntries.clear();
 		this.view.clear();
 
 		this.view.ensureCapacity( this.list.size() );
 
-		final Enum viewMode = this.sortSrc.getSortDisplay();
-		final Enum searchMode = AEConfig.instance().getConfigManager().getSetting( Settings.SEARCH_MODE );
-		final boolean needsZeroCopy = viewMode == ViewItems.CRAFTABLE;
-
 		if( searchMode == SearchBoxMode.JEI_AUTOSEARCH || searchMode == SearchBoxMode.JEI_MANUAL_SEARCH || searchMode == SearchBoxMode.JEI_AUTOSEARCH_KEEP || searchMode == SearchBoxMode.JEI_MANUAL_SEARCH_KEEP )
 		{
 			this.updateJEI( this.searchString );
 		}
 
 		this.innerSearch = this.searchString;
-		final boolean terminalSearchToolTips = AEConfig.instance().getConfigManager().getSetting( Settings.SEARCH_TOOLTIPS ) != YesNo.NO;
 
 		boolean searchMod = false;
 		if( this.innerSearch.startsWith( "@" ) )
@@ -147,88 +196,154 @@ public class ItemRepo
 			}
 		}
 
-		boolean notDone = false;
-		for( IAEItemStack is : this.list )
+		this.viewSearch = this.searchString;
+		this.viewSearchMode = searchMode;
+		this.viewMode = viewMode;
+		this.viewSortBy = sortBy;
+		this.viewSortDir = sortDir;
+		this.viewSearchToolTips = terminalSearchToolTips;
+		this.viewSearchMod = searchMod;
+		this.viewPattern = m;
+
+		ItemSorters.init();
+
+		if( sortBy == SortOrder.MOD )
+		{
+			this.viewSorter = ItemSorters.CONFIG_BASED_SORT_BY_MOD;
+		}
+		else if( sortBy == SortOrder.AMOUNT )
+		{
+			this.viewSorter = ItemSorters.CONFIG_BASED_SORT_BY_SIZE;
+		}
+		else if( sortBy == SortOrder.INVTWEAKS )
+		{
+			this.viewSorter = ItemSorters.CONFIG_BASED_SORT_BY_INV_TWEAKS;
+		}
+		else
+		{
+			this.viewSorter = ItemSorters.CONFIG_BASED_SORT_BY_NAME;
+		}
+
+		// equal stacks need a fixed order to be found again by a binary search.
+		this.viewSorter = this.viewSorter.thenComparingInt( System::identityHashCode );
+
+		final Set<IAEItemStack> live = Collections.newSetFromMap( new IdentityHashMap<>() );
+		for( final IAEItemStack is : this.list )
 		{
-			if( this.myPartitionList != null )
-			{
-				if( !this.myPartitionList.isListed( is ) )
-				{
-					continue;
-				}
-			}
+			live.add( is );
 
-			if( viewMode == ViewItems.CRAFTABLE && !is.isCraftable() )
+			if( this.isVisible( is ) )
 			{
-				continue;
+				final IAEItemStack entry = this.createEntry( is );
+				this.viewEntries.put( is, entry );
+				this.view.add( entry );
 			}
+		}
 
-			if( viewMode == ViewItems.STORED && is.getStackSize() == 0 )
-			{
-				continue;
-			}
+		// forget the search keys of stacks the list has dropped meanwhile.
+		this.searchKeys.keySet().retainAll( live );
 
-			final String dspName = searchMod ? Platform.getModId( is ) : Platform.getItemDisplayName( is );
-			boolean foundMatchingItemStack = false;
-			notDone = true;
+		Collections.sort( this.view, this.getSorter() );
+		this.viewValid = true;
+	}
 
-			if( m.matcher( dspName.toLowerCase() ).find() )
+	private boolean isVisible( final IAEItemStack is )
+	{
+		if( !is.isMeaningful() )
+		{
+			return false;
+		}
+
+		if( this.myPartitionList != null )
+		{
+			if( !this.myPartitionList.isListed( is ) )
 			{
-				notDone = false;
-				foundMatchingItemStack = true;
+				return false;
 			}
+		}
 
-			if( terminalSearchToolTips && notDone && !searchMod )
-			{
-				final List<String> tooltip = Platform.getTooltip( is );
+		if( this.viewMode == ViewItems.CRAFTABLE && !is.isCraftable() )
+		{
+			return false;
+		}
 
-				for( final String line : tooltip )
-				{
-					if( m.matcher( line ).find() )
-					{
-						foundMatchingItemStack = true;
-						notDone = false;
-						break;
-					}
-				}
-			}
+		if( this.viewMode == ViewItems.STORED && is.getStackSize() == 0 )
+		{
+			return false;
+		}
 
-			if( foundMatchingItemStack )
-			{
-				if( needsZeroCopy )
-				{
-					is = is.copy();
-					is.setStackSize( 0 );
-				}
+		SearchKey key = this.searchKeys.get( is );
+		if( key == null )
+		{
+			key = new SearchKey( is, Platform.getItemDisplayName( is ), Platform.getModId( is ) );
+			this.searchKeys.put( is, key );
+		}
 
-				this.view.add( is );
-			}
+		return key.matches( this.viewPattern, this.viewSearchMod, this.viewSearchToolTips );
+	}
+
+	private IAEItemStack createEntry( final IAEItemStack is )
+	{
+		if( this.viewMode == ViewItems.CRAFTABLE )
+		{
+			final IAEItemStack copy = is.copy();
+			copy.setStackSize( 0 );
+			return copy;
 		}
 
-		final Enum SortBy = this.sortSrc.getSortBy();
-		final Enum SortDir = this.sortSrc.getSortDir();
+		return is;
+	}
 
-		ItemSorters.setDirection( (appeng.api.config.SortDir) SortDir );
-		ItemSorters.init();
+	private void addToView( final IAEItemStack is, final Comparator<IAEItemStack> sorter )
+	{
+		final IAEItemStack entry = this.createEntry( is );
+		this.viewEntries.put( is, entry );
+
+		final int idx = Collections.binarySearch( this.view, entry, sorter );
+		this.view.add( idx < 0 ? -idx - 1 : idx, entry );
+	}
 
-		if( SortBy == SortOrder.MOD )
+	private void removeFromView( final IAEItemStack is )
+	{
+		if( !this.viewValid )
 		{
-			Collections.sort( this.view, ItemSorters.CONFIG_BASED_SORT_BY_MOD );
+			return;
 		}
-		else if( SortBy == SortOrder.AMOUNT )
+
+		final IAEItemStack entry = this.viewEntries.remove( is );
+		if( entry == null )
 		{
-			Collections.sort( this.view, ItemSorters.CONFIG_BASED_SORT_BY_SIZE );
+			return;
 		}
-		else if( SortBy == SortOrder.INVTWEAKS )
+
+		int idx = Collections.binarySearch( this.view, entry, this.getSorter() );
+		if( idx < 0 || this.view.get( idx ) != entry )
 		{
-			Collections.sort( this.view, ItemSorters.CONFIG_BASED_SORT_BY_INV_TWEAKS );
+			// identity hash codes can collide.
+			idx = -1;
+			for( int x = 0; x < this.view.size(); x++ )
+			{
+				if( this.view.get( x ) == entry )
+				{
+					idx = x;
+					break;
+				}
+			}
 		}
-		else
+
+		if( idx >= 0 )
 		{
-			Collections.sort( this.view, ItemSorters.CONFIG_BASED_SORT_BY_NAME );
+			this.view.remove( idx );
 		}
 	}
 
+	private Comparator<IAEItemStack> getSorter()
+	{
+		// the sorters share their direction with every other terminal.
+		ItemSorters.setDirection( (appeng.api.config.SortDir) this.viewSortDir );
+		return this.viewSorter;
+	}
+
 	private void updateJEI( String filter )
 	{
 		Integrations.jei().setSearchText( filter );
@@ -242,6 +357,7 @@ public class ItemRepo
 	public void clear()
 	{
 		this.list.resetStatus();
+		this.viewValid = false;
 	}
 
 	public boolean hasPower()
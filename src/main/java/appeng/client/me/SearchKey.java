@@ -0,0 +1,75 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.client.me;
+
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+import appeng.util.Platform;
+
+
+/**
+ * The lowercase name and mod id a terminal searches a stack by, with its tooltip only looked up once a search needs it.
+ */
+final class SearchKey
+{
+	private final Object stack;
+	private final String name;
+	private final String modId;
+	private List<String> tooltip;
+
+	SearchKey( final Object stack, final String name, final String modId )
+	{
+		this.stack = stack;
+		this.name = name.toLowerCase();
+		this.modId = modId.toLowerCase();
+	}
+
+	boolean matches( final Pattern pattern, final boolean searchMod, final boolean searchToolTips )
+	{
+		if( searchMod )
+		{
+			return pattern.matcher( this.modId ).find();
+		}
+
+		if( pattern.matcher( this.name ).find() )
+		{
+			return true;
+		}
+
+		if( searchToolTips )
+		{
+			if( this.tooltip == null )
+			{
+				this.tooltip = Platform.getTooltip( this.stack );
+			}
+
+			for( final String line : this.tooltip )
+			{
+				if( pattern.matcher( line ).find() )
+				{
+					return true;
+				}
+			}
+		}
+
+		return false;
+	}
+}
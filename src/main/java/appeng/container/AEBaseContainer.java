@@ -77,6 +77,7 @@ import appeng.util.Platform;
 import appeng.util.inv.AdaptorItemHandler;
 import appeng.util.inv.WrapperCursorItemHandler;
 import appeng.util.item.AEItemStack;
+import appeng.util.item.ItemStackDictionary;
 
 
 public abstract class AEBaseContainer extends Container
@@ -96,6 +97,7 @@ public abstract class AEBaseContainer extends Container
 	private boolean sentCustomName;
 	private int ticksSinceCheck = 900;
 	private IAEItemStack clientRequestedTargetItem = null;
+	private ItemStackDictionary itemDictionary;
 
 	public AEBaseContainer( final InventoryPlayer ip, final TileEntity myTile, final IPart myPart )
 	{
@@ -198,6 +200,30 @@ public abstract class AEBaseContainer extends Container
 		return this.mySrc;
 	}
 
+	/**
+	 * Item types sent to this container's client with {@link appeng.core.sync.packets.PacketMEInventoryUpdate}.
+	 */
+	public ItemStackDictionary getItemDictionary()
+	{
+		if( this.itemDictionary == null )
+		{
+			this.itemDictionary = new ItemStackDictionary();
+		}
+
+		return this.itemDictionary;
+	}
+
+	@Override
+	public void onContainerClosed( final EntityPlayer player )
+	{
+		super.onContainerClosed( player );
+
+		if( this.itemDictionary != null )
+		{
+			this.itemDictionary.clear();
+		}
+	}
+
 	public void verifyPermissions( final SecurityPermissions security, final boolean requirePower )
 	{
 		if( Platform.isClient() )
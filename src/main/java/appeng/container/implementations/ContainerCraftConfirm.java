@@ -205,9 +205,9 @@ public class ContainerCraftConfirm extends AEBaseContainer
 
 				try
 				{
-					final PacketMEInventoryUpdate a = new PacketMEInventoryUpdate( (byte) 0 );
-					final PacketMEInventoryUpdate b = new PacketMEInventoryUpdate( (byte) 1 );
-					final PacketMEInventoryUpdate c = this.result.isSimulation() ? new PacketMEInventoryUpdate( (byte) 2 ) : null;
+					final PacketMEInventoryUpdate a = new PacketMEInventoryUpdate( (byte) 0, this );
+					final PacketMEInventoryUpdate b = new PacketMEInventoryUpdate( (byte) 1, this );
+					final PacketMEInventoryUpdate c = this.result.isSimulation() ? new PacketMEInventoryUpdate( (byte) 2, this ) : null;
 
 					final IItemList<IAEItemStack> plan = AEApi.instance().storage().getStorageChannel( IItemStorageChannel.class ).createList();
 					this.result.populatePlan( plan );
@@ -20,6 +20,8 @@ package appeng.container.implementations;
 
 
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
 
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.EntityPlayerMP;
@@ -54,6 +56,8 @@ public class ContainerCraftingCPU extends AEBaseContainer implements IMEMonitorH
 {
 
 	private final IItemList<IAEItemStack> list = AEApi.instance().storage().getStorageChannel( IItemStorageChannel.class ).createList();
+	// storage, active and pending amounts the client was last sent for each item.
+	private final Map<IAEItemStack, long[]> sent = new HashMap<>();
 	private IGrid network;
 	private CraftingCPUCluster monitor = null;
 	private String cpuName = null;
@@ -114,6 +118,7 @@ public class ContainerCraftingCPU extends AEBaseContainer implements IMEMonitorH
 			this.cpuName = c.getName();
 			this.setMonitor( (CraftingCPUCluster) c );
 			this.list.resetStatus();
+			this.sent.clear();
 			this.getMonitor().getListOfItem( this.list, CraftingItemList.ALL );
 			this.getMonitor().addListener( this, null );
 			this.setEstimatedTime( 0 );
@@ -173,15 +178,23 @@ public class ContainerCraftingCPU extends AEBaseContainer implements IMEMonitorH
 			{
 				try
 				{
-					final PacketMEInventoryUpdate a = new PacketMEInventoryUpdate( (byte) 0 );
-					final PacketMEInventoryUpdate b = new PacketMEInventoryUpdate( (byte) 1 );
-					final PacketMEInventoryUpdate c = new PacketMEInventoryUpdate( (byte) 2 );
+					final PacketMEInventoryUpdate a = new PacketMEInventoryUpdate( (byte) 0, this );
+					final PacketMEInventoryUpdate b = new PacketMEInventoryUpdate( (byte) 1, this );
+					final PacketMEInventoryUpdate c = new PacketMEInventoryUpdate( (byte) 2, this );
 
 					for( final IAEItemStack out : this.list )
 					{
-						a.appendItem( this.getMonitor().getItemStack( out, CraftingItemList.STORAGE ) );
-						b.appendItem( this.getMonitor().getItemStack( out, CraftingItemList.ACTIVE ) );
-						c.appendItem( this.getMonitor().getItemStack( out, CraftingItemList.PENDING ) );
+						long[] amounts = this.sent.get( out );
+						if( amounts == null )
+						{
+							amounts = new long[] { -1, -1, -1 };
+							this.sent.put( out.copy(), amounts );
+						}
+
+						// only the amounts that changed since the last update are sent.
+						this.appendChanged( a, amounts, 0, this.getMonitor().getItemStack( out, CraftingItemList.STORAGE ) );
+						this.appendChanged( b, amounts, 1, this.getMonitor().getItemStack( out, CraftingItemList.ACTIVE ) );
+						this.appendChanged( c, amounts, 2, this.getMonitor().getItemStack( out, CraftingItemList.PENDING ) );
 					}
 
 					this.list.resetStatus();
@@ -216,6 +229,15 @@ public class ContainerCraftingCPU extends AEBaseContainer implements IMEMonitorH
 		super.detectAndSendChanges();
 	}
 
+	private void appendChanged( final PacketMEInventoryUpdate packet, final long[] amounts, final int which, final IAEItemStack is ) throws IOException
+	{
+		if( amounts[which] != is.getStackSize() )
+		{
+			amounts[which] = is.getStackSize();
+			packet.appendItem( is );
+		}
+	}
+
 	@Override
 	public boolean isValid( final Object verificationToken )
 	{
@@ -21,10 +21,13 @@ package appeng.container.implementations;
 
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 
 import appeng.api.config.Upgrades;
+import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.entity.player.InventoryPlayer;
 import net.minecraft.item.ItemStack;
@@ -43,6 +46,7 @@ import appeng.core.sync.network.NetworkHandler;
 import appeng.core.sync.packets.PacketCompressedNBT;
 import appeng.helpers.DualityInterface;
 import appeng.helpers.IInterfaceHost;
+import appeng.helpers.IInterfaceWatcher;
 import appeng.helpers.InventoryAction;
 import appeng.items.misc.ItemEncodedPattern;
 import appeng.parts.misc.PartInterface;
@@ -59,18 +63,27 @@ import appeng.util.inv.WrapperRangeItemHandler;
 import appeng.util.inv.filter.IAEItemFilter;
 
 
-public final class ContainerInterfaceTerminal extends AEBaseContainer
+public final class ContainerInterfaceTerminal extends AEBaseContainer implements IInterfaceWatcher
 {
 
+	/**
+	 * interfaces report their own pattern changes, this full check catches anything they can't report.
+	 */
+	private static final int RECONCILE_INTERVAL = 20;
+
 	/**
 	 * this stuff is all server side..
 	 */
 
 	private static long autoBase = Long.MIN_VALUE;
 	private final Map<IInterfaceHost, InvTracker> diList = new HashMap<>();
+	private final Map<DualityInterface, InvTracker> byDuality = new HashMap<>();
 	private final Map<Long, InvTracker> byId = new HashMap<>();
+	private final Set<InvTracker> dirty = new HashSet<>();
 	private IGrid grid;
 	private NBTTagCompound data = new NBTTagCompound();
+	private boolean needsRegen = false;
+	private int ticksSinceReconcile = RECONCILE_INTERVAL;
 
 	public ContainerInterfaceTerminal( final InventoryPlayer ip, final PartInterfaceTerminal anchor )
 	{
@@ -99,6 +112,21 @@ public final class ContainerInterfaceTerminal extends AEBaseContainer
 			return;
 		}
 
+		if( !this.needsRegen && ++this.ticksSinceReconcile < RECONCILE_INTERVAL )
+		{
+			for( final InvTracker inv : this.dirty )
+			{
+				this.sendChangedSlots( inv );
+			}
+
+			this.dirty.clear();
+			this.sendData();
+			return;
+		}
+
+		this.ticksSinceReconcile = 0;
+		this.dirty.clear();
+
 		int total = 0;
 		boolean missing = false;
 
@@ -126,8 +154,9 @@ public final class ContainerInterfaceTerminal extends AEBaseContainer
 						}
 						else
 						{
+							// custom names report their changes, only names taken from the neighbor are compared.
 							final DualityInterface dual = ih.getInterfaceDuality();
-							if( !t.unlocalizedName.equals( dual.getTermName() ) )
+							if( !dual.hasCustomTermName() && !t.unlocalizedName.equals( dual.getTermName() ) )
 							{
 								missing = true;
 							}
@@ -155,8 +184,9 @@ public final class ContainerInterfaceTerminal extends AEBaseContainer
 						}
 						else
 						{
+							// custom names report their changes, only names taken from the neighbor are compared.
 							final DualityInterface dual = ih.getInterfaceDuality();
-							if( !t.unlocalizedName.equals( dual.getTermName() ) )
+							if( !dual.hasCustomTermName() && !t.unlocalizedName.equals( dual.getTermName() ) )
 							{
 								missing = true;
 							}
@@ -168,7 +198,7 @@ public final class ContainerInterfaceTerminal extends AEBaseContainer
 			}
 		}
 
-		if( total != this.diList.size() || missing )
+		if( total != this.diList.size() || missing || this.needsRegen )
 		{
 			this.regenList( this.data );
 		}
@@ -176,17 +206,58 @@ public final class ContainerInterfaceTerminal extends AEBaseContainer
 		{
 			for( final Entry<IInterfaceHost, InvTracker> en : this.diList.entrySet() )
 			{
-				final InvTracker inv = en.getValue();
-				for( int x = 0; x < inv.server.getSlots(); x++ )
-				{
-					if( this.isDifferent( inv.server.getStackInSlot( x ), inv.client.getStackInSlot( x ) ) )
-					{
-						this.addItems( this.data, inv, x, 1 );
-					}
-				}
+				this.sendChangedSlots( en.getValue() );
 			}
 		}
 
+		this.sendData();
+	}
+
+	@Override
+	public void onInterfaceChanged( final DualityInterface duality, final int slot )
+	{
+		final InvTracker inv = this.byDuality.get( duality );
+		if( inv == null )
+		{
+			return;
+		}
+
+		if( slot < 0 )
+		{
+			this.needsRegen = true;
+		}
+		else
+		{
+			this.dirty.add( inv );
+		}
+	}
+
+	@Override
+	public void onContainerClosed( final EntityPlayer player )
+	{
+		super.onContainerClosed( player );
+
+		for( final DualityInterface dual : this.byDuality.keySet() )
+		{
+			dual.removeWatcher( this );
+		}
+
+		this.byDuality.clear();
+	}
+
+	private void sendChangedSlots( final InvTracker inv )
+	{
+		for( int x = 0; x < inv.server.getSlots(); x++ )
+		{
+			if( this.isDifferent( inv.server.getStackInSlot( x ), inv.client.getStackInSlot( x ) ) )
+			{
+				this.addItems( this.data, inv, x, 1 );
+			}
+		}
+	}
+
+	private void sendData()
+	{
 		if( !this.data.hasNoTags() )
 		{
 			try
@@ -339,8 +410,15 @@ public final class ContainerInterfaceTerminal extends AEBaseContainer
 
 	private void regenList( final NBTTagCompound data )
 	{
+		for( final DualityInterface dual : this.byDuality.keySet() )
+		{
+			dual.removeWatcher( this );
+		}
+
 		this.byId.clear();
 		this.diList.clear();
+		this.byDuality.clear();
+		this.needsRegen = false;
 
 		final IActionHost host = this.getActionHost();
 		if( host != null )
@@ -375,7 +453,10 @@ public final class ContainerInterfaceTerminal extends AEBaseContainer
 		for( final Entry<IInterfaceHost, InvTracker> en : this.diList.entrySet() )
 		{
 			final InvTracker inv = en.getValue();
+			final DualityInterface dual = en.getKey().getInterfaceDuality();
 			this.byId.put( inv.which, inv );
+			this.byDuality.put( dual, inv );
+			dual.addWatcher( this );
 			this.addItems( data, inv, 0, inv.server.getSlots() );
 		}
 	}
@@ -225,7 +225,7 @@ public class ContainerMEMonitorable extends AEBaseContainer implements IConfigMa
 				{
 					final IItemList<IAEItemStack> monitorCache = this.monitor.getStorageList();
 
-					final PacketMEInventoryUpdate piu = new PacketMEInventoryUpdate();
+					final PacketMEInventoryUpdate piu = new PacketMEInventoryUpdate( this );
 
 					for( final IAEItemStack is : this.items )
 					{
@@ -334,7 +334,7 @@ public class ContainerMEMonitorable extends AEBaseContainer implements IConfigMa
 		{
 			try
 			{
-				PacketMEInventoryUpdate piu = new PacketMEInventoryUpdate();
+				PacketMEInventoryUpdate piu = new PacketMEInventoryUpdate( this );
 				final IItemList<IAEItemStack> monitorCache = this.monitor.getStorageList();
 
 				for( final IAEItemStack send : monitorCache )
@@ -347,7 +347,7 @@ public class ContainerMEMonitorable extends AEBaseContainer implements IConfigMa
 					{
 						NetworkHandler.instance().sendTo( piu, (EntityPlayerMP) c );
 
-						piu = new PacketMEInventoryUpdate();
+						piu = new PacketMEInventoryUpdate( this );
 						piu.appendItem( send );
 					}
 				}
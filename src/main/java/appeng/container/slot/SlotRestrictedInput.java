@@ -170,15 +170,7 @@ public class SlotRestrictedInput extends AppEngSlot
 					return true;
 				}
 
-				for( final ItemStack optional : AEApi.instance().registries().inscriber().getOptionals() )
-				{
-					if( Platform.itemComparisons().isSameItem( i, optional ) )
-					{
-						return true;
-					}
-				}
-
-				return false;
+				return AEApi.instance().registries().inscriber().isOptional( i );
 
 			case INSCRIBER_INPUT:
 				return true;/*
@@ -87,6 +87,8 @@ public final class AEConfig extends Configuration implements IConfigurableObject
 	private boolean useColoredCraftingStatus;
 	private boolean disableColoredCableRecipesInJEI = true;
 	private int craftingCalculationTimePerTick = 5;
+	private int craftingCalculationThreads = 0;
+	private int tickTimingSampleRate = 0;
 	private PowerUnits selectedPowerUnit = PowerUnits.AE;
 
 	// GUI Buttons
@@ -157,6 +159,9 @@ public final class AEConfig extends Configuration implements IConfigurableObject
 
 		this.removeCrashingItemsOnLoad = this.get( "general", "removeCrashingItemsOnLoad", false,
 				"Will auto-remove items that crash when being loaded from storage. This will destroy those items instead of crashing the game!" ).getBoolean();
+		this.tickTimingSampleRate = this.get( "general", "tickTimingSampleRate", this.tickTimingSampleRate,
+				"Measures the tick time of grids, their caches and ticking devices every N ticks. 1 measures every tick, 0 turns it off." )
+				.getInt( this.tickTimingSampleRate );
 
 		this.setCategoryComment( "GrindStone",
 				"Creates recipe of the following pattern automatically: '1 oreTYPE => 2 dustTYPE' and '(1 ingotTYPE or 1 crystalTYPE or 1 gemTYPE) => 1 dustTYPE'" );
@@ -273,6 +278,9 @@ public final class AEConfig extends Configuration implements IConfigurableObject
 			this.craftingCalculationTimePerTick = this.get( "craftingCPU", "craftingCalculationTimePerTick", this.craftingCalculationTimePerTick )
 					.getInt(
 							this.craftingCalculationTimePerTick );
+			this.craftingCalculationThreads = this.get( "craftingCPU", "craftingCalculationThreads", this.craftingCalculationThreads,
+					"Threads used to plan independent parts of a crafting job in parallel, 0 plans every job on a single thread." )
+					.getInt( this.craftingCalculationThreads );
 		}
 
 		this.updatable = true;
@@ -615,6 +623,24 @@ public final class AEConfig extends Configuration implements IConfigurableObject
 		return this.craftingCalculationTimePerTick;
 	}
 
+	public int getCraftingCalculationThreads()
+	{
+		return this.craftingCalculationThreads;
+	}
+
+	public int getTickTimingSampleRate()
+	{
+		return this.tickTimingSampleRate;
+	}
+
+	/**
+	 * Changes the sample rate until the next restart, used by the TickTimes command.
+	 */
+	public void setTickTimingSampleRate( final int tickTimingSampleRate )
+	{
+		this.tickTimingSampleRate = Math.max( 0, tickTimingSampleRate );
+	}
+
 	public PowerUnits getSelectedPowerUnit()
 	{
 		return this.selectedPowerUnit;
@@ -39,6 +39,7 @@ import net.minecraftforge.fml.common.Mod.EventHandler;
 import net.minecraftforge.fml.common.SidedProxy;
 import net.minecraftforge.fml.common.event.FMLInitializationEvent;
 import net.minecraftforge.fml.common.event.FMLInterModComms;
+import net.minecraftforge.fml.common.event.FMLModIdMappingEvent;
 import net.minecraftforge.fml.common.event.FMLPostInitializationEvent;
 import net.minecraftforge.fml.common.event.FMLPreInitializationEvent;
 import net.minecraftforge.fml.common.event.FMLServerAboutToStartEvent;
@@ -58,6 +59,7 @@ import appeng.core.stats.AdvancementTriggers;
 import appeng.core.sync.GuiBridge;
 import appeng.core.sync.network.NetworkHandler;
 import appeng.core.worlddata.WorldData;
+import appeng.helpers.CraftingRecipeIndex;
 import appeng.hooks.TickHandler;
 import appeng.integration.IntegrationRegistry;
 import appeng.integration.IntegrationType;
@@ -253,6 +255,13 @@ public final class AppEng
 		imcHandler.handleIMCEvent( event );
 	}
 
+	@EventHandler
+	private void idMappingChanged( final FMLModIdMappingEvent event )
+	{
+		// the recipe registry may have been replaced, e.g. by the one of the server the client joined.
+		CraftingRecipeIndex.invalidate();
+	}
+
 	@EventHandler
 	private void serverAboutToStart( final FMLServerAboutToStartEvent evt )
 	{
@@ -0,0 +1,215 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2015, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.core.features.registries.inscriber;
+
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.Nullable;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+
+import appeng.api.features.IInscriberRecipe;
+import appeng.util.Platform;
+
+
+/**
+ * Immutable lookup tables over the inscriber recipes, built by {@link InscriberRegistry} whenever its recipes change.
+ *
+ * Recipes and optionals are indexed by item and damage, the remaining NBT check only runs on the few candidates. Ore
+ * dictionary inputs arrive already expanded into one stack per entry, so they are indexed like any other input.
+ */
+final class InscriberRecipeIndex
+{
+
+	// bounds the result cache, automation can try any item against any press.
+	private static final int MAX_CACHED_RESULTS = 4096;
+
+	private final Long2ObjectMap<List<IInscriberRecipe>> byInput = new Long2ObjectOpenHashMap<>();
+	private final Long2ObjectMap<List<ItemStack>> optionals = new Long2ObjectOpenHashMap<>();
+	private final Map<Lookup, Optional<IInscriberRecipe>> results = new ConcurrentHashMap<>();
+
+	InscriberRecipeIndex( final Collection<IInscriberRecipe> recipes, final Collection<ItemStack> optionals )
+	{
+		for( final IInscriberRecipe recipe : recipes )
+		{
+			for( final ItemStack input : recipe.getInputs() )
+			{
+				final List<IInscriberRecipe> candidates = this.byInput.computeIfAbsent( key( input ), k -> new ArrayList<>( 2 ) );
+				if( !candidates.contains( recipe ) )
+				{
+					candidates.add( recipe );
+				}
+			}
+		}
+
+		for( final ItemStack optional : optionals )
+		{
+			this.optionals.computeIfAbsent( key( optional ), k -> new ArrayList<>( 1 ) ).add( optional );
+		}
+	}
+
+	@Nullable
+	IInscriberRecipe findRecipe( final ItemStack input, final ItemStack top, final ItemStack bottom )
+	{
+		if( input.isEmpty() )
+		{
+			return null;
+		}
+
+		// without NBT the result only depends on the item and damage of each slot.
+		final Lookup lookup = input.hasTagCompound() || top.hasTagCompound() || bottom.hasTagCompound() ? null : new Lookup( key( input ), key( top ), key(
+				bottom ) );
+
+		if( lookup != null )
+		{
+			final Optional<IInscriberRecipe> known = this.results.get( lookup );
+			if( known != null )
+			{
+				return known.orElse( null );
+			}
+		}
+
+		IInscriberRecipe found = null;
+		for( final IInscriberRecipe recipe : this.byInput.getOrDefault( key( input ), Collections.emptyList() ) )
+		{
+			if( matches( recipe, input, top, bottom ) )
+			{
+				found = recipe;
+				break;
+			}
+		}
+
+		if( lookup != null )
+		{
+			if( this.results.size() >= MAX_CACHED_RESULTS )
+			{
+				this.results.clear();
+			}
+
+			this.results.put( lookup, Optional.ofNullable( found ) );
+		}
+
+		return found;
+	}
+
+	boolean isOptional( final ItemStack is )
+	{
+		if( is.isEmpty() )
+		{
+			return false;
+		}
+
+		for( final ItemStack optional : this.optionals.getOrDefault( key( is ), Collections.emptyList() ) )
+		{
+			if( Platform.itemComparisons().isSameItem( is, optional ) )
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private static boolean matches( final IInscriberRecipe recipe, final ItemStack input, final ItemStack top, final ItemStack bottom )
+	{
+		final boolean platesMatch = ( matchesPlate( top, recipe.getTopOptional() ) && matchesPlate( bottom, recipe.getBottomOptional() ) ) || ( matchesPlate(
+				bottom, recipe.getTopOptional() ) && matchesPlate( top, recipe.getBottomOptional() ) );
+
+		if( !platesMatch )
+		{
+			return false;
+		}
+
+		for( final ItemStack option : recipe.getInputs() )
+		{
+			if( Platform.itemComparisons().isSameItem( input, option ) )
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private static boolean matchesPlate( final ItemStack plate, final Optional<ItemStack> expected )
+	{
+		if( plate.isEmpty() )
+		{
+			return !expected.isPresent();
+		}
+
+		return expected.isPresent() && Platform.itemComparisons().isSameItem( plate, expected.get() );
+	}
+
+	private static long key( final ItemStack is )
+	{
+		if( is.isEmpty() )
+		{
+			return 0;
+		}
+
+		return ( (long) Item.getIdFromItem( is.getItem() ) << 32 ) | ( is.getItemDamage() & 0xffffffffL );
+	}
+
+	private static final class Lookup
+	{
+
+		private final long input;
+		private final long top;
+		private final long bottom;
+		private final int hash;
+
+		private Lookup( final long input, final long top, final long bottom )
+		{
+			this.input = input;
+			this.top = top;
+			this.bottom = bottom;
+			this.hash = 31 * ( 31 * Long.hashCode( input ) + Long.hashCode( top ) ) + Long.hashCode( bottom );
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return this.hash;
+		}
+
+		@Override
+		public boolean equals( final Object obj )
+		{
+			if( !( obj instanceof Lookup ) )
+			{
+				return false;
+			}
+
+			final Lookup other = (Lookup) obj;
+			return this.input == other.input && this.top == other.top && this.bottom == other.bottom;
+		}
+	}
+}
@@ -28,6 +28,7 @@ import java.util.List;
 import java.util.Set;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import com.google.common.base.Preconditions;
 
@@ -50,6 +51,9 @@ public final class InscriberRegistry implements IInscriberRegistry
 	private final Set<ItemStack> optionals;
 	private final Set<ItemStack> inputs;
 
+	// rebuilt on first use after the recipes changed.
+	private volatile InscriberRecipeIndex index;
+
 	public InscriberRegistry()
 	{
 		this.inputs = new HashSet<>();
@@ -78,6 +82,19 @@ public final class InscriberRegistry implements IInscriberRegistry
 		return this.inputs;
 	}
 
+	@Nullable
+	@Override
+	public IInscriberRecipe findRecipe( @Nonnull final ItemStack input, @Nonnull final ItemStack top, @Nonnull final ItemStack bottom )
+	{
+		return this.getIndex().findRecipe( input, top, bottom );
+	}
+
+	@Override
+	public boolean isOptional( @Nonnull final ItemStack is )
+	{
+		return this.getIndex().isOptional( is );
+	}
+
 	@Nonnull
 	@Override
 	public IInscriberRecipeBuilder builder()
@@ -96,6 +113,7 @@ public final class InscriberRegistry implements IInscriberRegistry
 			recipe.getBottomOptional().ifPresent( this.optionals::add );
 
 			this.inputs.addAll( recipe.getInputs() );
+			this.index = null;
 
 			return true;
 		}
@@ -120,9 +138,26 @@ public final class InscriberRegistry implements IInscriberRegistry
 			}
 		}
 
+		if( changed )
+		{
+			this.index = null;
+		}
+
 		return changed;
 	}
 
+	private InscriberRecipeIndex getIndex()
+	{
+		InscriberRecipeIndex index = this.index;
+		if( index == null )
+		{
+			index = new InscriberRecipeIndex( this.recipes, this.optionals );
+			this.index = index;
+		}
+
+		return index;
+	}
+
 	/**
 	 * Internal {@link IInscriberRecipeBuilder} implementation.
 	 * Needs to be adapted to represent a correct {@link IInscriberRecipe}
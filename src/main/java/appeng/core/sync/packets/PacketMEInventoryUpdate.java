@@ -32,10 +32,14 @@ import javax.annotation.Nullable;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.GuiScreen;
+import net.minecraft.client.gui.inventory.GuiContainer;
 import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.inventory.Container;
 import net.minecraftforge.fml.common.network.internal.FMLProxyPacket;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
@@ -45,10 +49,12 @@ import appeng.client.gui.implementations.GuiCraftConfirm;
 import appeng.client.gui.implementations.GuiCraftingCPU;
 import appeng.client.gui.implementations.GuiMEMonitorable;
 import appeng.client.gui.implementations.GuiNetworkStatus;
+import appeng.container.AEBaseContainer;
 import appeng.core.AELog;
 import appeng.core.sync.AppEngPacket;
 import appeng.core.sync.network.INetworkInfo;
 import appeng.util.item.AEItemStack;
+import appeng.util.item.ItemStackDictionary;
 
 
 public class PacketMEInventoryUpdate extends AppEngPacket
@@ -60,14 +66,24 @@ public class PacketMEInventoryUpdate extends AppEngPacket
 
 	// input.
 	@Nullable
-	private final List<IAEItemStack> list;
+	private List<IAEItemStack> list;
+	@Nullable
+	private final ByteBuf received;
 	// output...
 	private final byte ref;
+	// window of the container whose item dictionary is used, 0 if none.
+	private final byte window;
 
 	@Nullable
 	private final ByteBuf data;
 	@Nullable
 	private final GZIPOutputStream compressFrame;
+	@Nullable
+	private final ByteBuf tmp;
+	@Nullable
+	private final ItemStackDictionary dictionary;
+	@Nullable
+	private final Object2IntMap<IAEItemStack> introduced;
 
 	private int writtenBytes = 0;
 	private boolean empty = true;
@@ -77,8 +93,11 @@ public class PacketMEInventoryUpdate extends AppEngPacket
 	{
 		this.data = null;
 		this.compressFrame = null;
-		this.list = new ArrayList<>();
+		this.tmp = null;
+		this.dictionary = null;
+		this.introduced = null;
 		this.ref = stream.readByte();
+		this.window = stream.readByte();
 
 		// int originalBytes = stream.readableBytes();
 
@@ -109,14 +128,11 @@ public class PacketMEInventoryUpdate extends AppEngPacket
 				}
 			}
 
-			while( uncompressed.readableBytes() > 0 )
-			{
-				this.list.add( AEItemStack.fromPacket( uncompressed ) );
-			}
+			// items are only decoded once the gui they belong to is known.
+			this.received = uncompressed;
 		}
 
-		this.empty = this.list.isEmpty();
-
+		this.empty = this.received.readableBytes() == 0;
 	}
 
 	// api
@@ -127,11 +143,35 @@ public class PacketMEInventoryUpdate extends AppEngPacket
 
 	// api
 	public PacketMEInventoryUpdate( final byte ref ) throws IOException
+	{
+		this( ref, null );
+	}
+
+	// api
+	public PacketMEInventoryUpdate( final AEBaseContainer container ) throws IOException
+	{
+		this( (byte) 0, container );
+	}
+
+	/**
+	 * Item types this container's client already received are only sent as an id after the first time.
+	 */
+	public PacketMEInventoryUpdate( final byte ref, @Nullable final AEBaseContainer container ) throws IOException
 	{
 		this.ref = ref;
+		this.window = container == null ? 0 : (byte) container.windowId;
+		this.dictionary = container == null ? null : container.getItemDictionary();
+		this.introduced = container == null ? null : new Object2IntOpenHashMap<>();
+		if( this.introduced != null )
+		{
+			this.introduced.defaultReturnValue( -1 );
+		}
+
+		this.tmp = Unpooled.buffer( OPERATION_BYTE_LIMIT );
 		this.data = Unpooled.buffer( OPERATION_BYTE_LIMIT );
 		this.data.writeInt( this.getPacketID() );
 		this.data.writeByte( this.ref );
+		this.data.writeByte( this.window );
 
 		this.compressFrame = new GZIPOutputStream( new OutputStream()
 		{
@@ -143,6 +183,7 @@ public class PacketMEInventoryUpdate extends AppEngPacket
 		} );
 
 		this.list = null;
+		this.received = null;
 	}
 
 	@Override
@@ -151,6 +192,40 @@ public class PacketMEInventoryUpdate extends AppEngPacket
 	{
 		final GuiScreen gs = Minecraft.getMinecraft().currentScreen;
 
+		ItemStackDictionary dictionary = null;
+		if( this.window != 0 )
+		{
+			// ids are only meaningful to the container that was open when they were sent, whichever screen shows it.
+			final Container open = Minecraft.getMinecraft().player.openContainer;
+			if( !( open instanceof AEBaseContainer ) || (byte) open.windowId != this.window )
+			{
+				return;
+			}
+
+			dictionary = ( (AEBaseContainer) open ).getItemDictionary();
+
+			if( !( gs instanceof GuiContainer ) || ( (GuiContainer) gs ).inventorySlots != open )
+			{
+				// still learn the definitions, later updates for this container only carry their ids.
+				while( this.received.readableBytes() > 0 )
+				{
+					dictionary.read( this.received );
+				}
+
+				return;
+			}
+		}
+
+		this.list = new ArrayList<>();
+		while( this.received.readableBytes() > 0 )
+		{
+			final IAEItemStack is = dictionary == null ? AEItemStack.fromPacket( this.received ) : dictionary.read( this.received );
+			if( is != null )
+			{
+				this.list.add( is );
+			}
+		}
+
 		if( gs instanceof GuiCraftConfirm )
 		{
 			( (GuiCraftConfirm) gs ).postUpdate( this.list, this.ref );
@@ -180,6 +255,13 @@ public class PacketMEInventoryUpdate extends AppEngPacket
 		{
 			this.compressFrame.close();
 
+			if( this.dictionary != null )
+			{
+				// the client learns about these item types with this packet.
+				this.dictionary.commit( this.introduced );
+				this.introduced.clear();
+			}
+
 			this.configureWrite( this.data );
 			return super.getProxy();
 		}
@@ -193,10 +275,31 @@ public class PacketMEInventoryUpdate extends AppEngPacket
 
 	public void appendItem( final IAEItemStack is ) throws IOException, BufferOverflowException
 	{
-		final ByteBuf tmp = Unpooled.buffer( OPERATION_BYTE_LIMIT );
-		is.writeToPacket( tmp );
+		final ByteBuf tmp = this.tmp;
+		tmp.clear();
+
+		int id = -1;
+		boolean definition = false;
+		if( this.dictionary == null )
+		{
+			is.writeToPacket( tmp );
+		}
+		else
+		{
+			id = this.dictionary.getId( is );
+			if( id < 0 )
+			{
+				id = this.introduced.getInt( is );
+			}
+			if( id < 0 )
+			{
+				id = this.dictionary.allocateId();
+				definition = true;
+			}
+
+			ItemStackDictionary.write( tmp, is, id, definition );
+		}
 
-		this.compressFrame.flush();
 		if( this.writtenBytes + tmp.readableBytes() > UNCOMPRESSED_PACKET_BYTE_LIMIT )
 		{
 			throw new BufferOverflowException();
@@ -204,8 +307,13 @@ public class PacketMEInventoryUpdate extends AppEngPacket
 		else
 		{
 			this.writtenBytes += tmp.readableBytes();
-			this.compressFrame.write( tmp.array(), 0, tmp.readableBytes() );
+			this.compressFrame.write( tmp.array(), tmp.arrayOffset() + tmp.readerIndex(), tmp.readableBytes() );
 			this.empty = false;
+
+			if( definition )
+			{
+				this.introduced.put( is.copy(), id );
+			}
 		}
 	}
 
@@ -20,7 +20,12 @@ package appeng.crafting;
 
 
 import java.util.HashMap;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import javax.annotation.Nullable;
 
 import com.google.common.base.Stopwatch;
 
@@ -64,13 +69,20 @@ public class CraftingJob implements Runnable, ICraftingJob
 	private final IAEItemStack output;
 	private boolean simulate = false;
 	private MECraftingInventory availableCheck;
+	// branches are opened per planner thread, so the parallel planner can explore several at once.
+	private final ThreadLocal<MECraftingInventory> branchCheck = new ThreadLocal<>();
+	private final ThreadLocal<CraftingUndoLog> undoLog = new ThreadLocal<>();
+	private volatile Thread runner;
 	private long bytes = 0;
 	private final IActionSource actionSrc;
 	private final ICraftingCallback callback;
-	private boolean running = false;
+	// read by paused planner threads without holding the monitor.
+	private volatile boolean running = false;
+	private final Pause pause = new Pause( this.monitor, () -> this.running );
 	private boolean done = false;
 	private int time;
-	private int incTime;
+	// shared by every thread planning this job, so the pause check keeps its rhythm under the parallel planner.
+	private final AtomicInteger incTime = new AtomicInteger();
 
 	private World wrapWorld( final World w )
 	{
@@ -78,6 +90,15 @@ public class CraftingJob implements Runnable, ICraftingJob
 	}
 
 	public CraftingJob( final World w, final IGrid grid, final IActionSource actionSrc, final IAEItemStack what, final ICraftingCallback callback )
+	{
+		this( w, grid, actionSrc, what, callback, null );
+	}
+
+	/**
+	 * @param template a tree from {@link #createTemplate()} of an earlier job for the same item, the patterns of the
+	 * grid must not have changed since.
+	 */
+	public CraftingJob( final World w, final IGrid grid, final IActionSource actionSrc, final IAEItemStack what, final ICraftingCallback callback, @Nullable final CraftingTreeNode template )
 	{
 		this.world = this.wrapWorld( w );
 		this.output = what.copy();
@@ -89,7 +110,7 @@ public class CraftingJob implements Runnable, ICraftingJob
 		this.original = new MECraftingInventory( sg
 				.getInventory( AEApi.instance().storage().getStorageChannel( IItemStorageChannel.class ) ), actionSrc, false, false, false );
 
-		this.setTree( this.getCraftingTree( cc, what ) );
+		this.setTree( template == null ? this.getCraftingTree( cc, what ) : new CraftingTreeNode( template, this, null ) );
 		this.availableCheck = null;
 	}
 
@@ -98,14 +119,97 @@ public class CraftingJob implements Runnable, ICraftingJob
 		return new CraftingTreeNode( cc, this, what, null, -1, 0 );
 	}
 
+	/**
+	 * @return a copy of the pattern tree of this job which can be used to start further jobs for the same item.
+	 */
+	public CraftingTreeNode createTemplate()
+	{
+		return new CraftingTreeNode( this.tree, null, null );
+	}
+
 	void refund( final IAEItemStack o )
 	{
-		this.availableCheck.injectItems( o, Actionable.MODULATE, this.actionSrc );
+		this.getAvailableCheck().injectItems( o, Actionable.MODULATE, this.actionSrc );
 	}
 
 	IAEItemStack checkUse( final IAEItemStack available )
 	{
-		return this.availableCheck.extractItems( available, Actionable.MODULATE, this.actionSrc );
+		return this.getAvailableCheck().extractItems( available, Actionable.MODULATE, this.actionSrc );
+	}
+
+	MECraftingInventory getAvailableCheck()
+	{
+		final MECraftingInventory branch = this.branchCheck.get();
+		return branch != null ? branch : this.availableCheck;
+	}
+
+	/**
+	 * Starts a tentative branch, uses and refunds are kept in a separate layer until the branch ends.
+	 *
+	 * @return the inventory to hand back to {@link #endBranch(MECraftingInventory, boolean)}
+	 */
+	MECraftingInventory beginBranch()
+	{
+		return this.beginBranch( new MECraftingInventory( this.getAvailableCheck(), true, true, false ) );
+	}
+
+	/**
+	 * Starts a tentative branch on the current thread which uses the given layer.
+	 */
+	MECraftingInventory beginBranch( final MECraftingInventory layer )
+	{
+		final MECraftingInventory previous = this.branchCheck.get();
+		this.branchCheck.set( layer );
+		return previous;
+	}
+
+	void endBranch( final MECraftingInventory previous, final boolean keep )
+	{
+		if( keep )
+		{
+			this.branchCheck.get().commit( this.actionSrc );
+		}
+
+		if( previous == null )
+		{
+			this.branchCheck.remove();
+		}
+		else
+		{
+			this.branchCheck.set( previous );
+		}
+	}
+
+	/**
+	 * @return the log which has to save tree elements before they change on this thread, null outside of any branch.
+	 */
+	CraftingUndoLog getUndoLog()
+	{
+		return this.undoLog.get();
+	}
+
+	/**
+	 * Makes the given log the one tree elements record into on the current thread.
+	 *
+	 * @return the log to hand back to {@link #endUndoLog(CraftingUndoLog)}
+	 */
+	CraftingUndoLog beginUndoLog( final CraftingUndoLog log )
+	{
+		final CraftingUndoLog previous = this.undoLog.get();
+		this.undoLog.set( log );
+		return previous;
+	}
+
+	void endUndoLog( final CraftingUndoLog previous )
+	{
+		if( previous == null )
+		{
+			this.undoLog.remove();
+		}
+		else
+		{
+			this.undoLog.set( previous );
+		}
 	}
 
 	public void writeToNBT( final NBTTagCompound out )
@@ -136,6 +240,7 @@ public class CraftingJob implements Runnable, ICraftingJob
 		{
 			try
 			{
+				this.runner = Thread.currentThread();
 				TickHandler.INSTANCE.registerCraftingSimulation( this.world, this );
 				this.handlePausing();
 
@@ -221,37 +326,48 @@ public class CraftingJob implements Runnable, ICraftingJob
 
 	void handlePausing() throws InterruptedException
 	{
-		if( !this.actionSrc.player().isPresent() && this.incTime > 100 )
+		if( !this.actionSrc.player().isPresent() && this.incTime.getAndIncrement() > 100 )
 		{
-			this.incTime = 0;
+			this.incTime.set( 0 );
+			final boolean paused;
+
 			synchronized ( this.monitor )
 			{
-				if( this.watch.elapsed( TimeUnit.MICROSECONDS ) > this.time )
+				// another planner thread may already have stopped the watch for this time slice.
+				if( this.watch.isRunning() && this.watch.elapsed( TimeUnit.MICROSECONDS ) > this.time )
 				{
 					this.running = false;
 					this.watch.stop();
-					this.monitor.notify();
+					this.monitor.notifyAll();
 				}
 
-				if( !this.running )
-				{
-					AELog.craftingDebug( "crafting job will now sleep" );
+				paused = !this.running;
+			}
 
-					while ( !this.running )
-					{
-						this.monitor.wait();
-					}
+			if( paused )
+			{
+				AELog.craftingDebug( "crafting job will now sleep" );
 
-					AELog.craftingDebug( "crafting job now active" );
-				}
+				// lets the planner pool start another thread meanwhile, so other jobs are not stuck behind this one.
+				ForkJoinPool.managedBlock( this.pause );
+
+				AELog.craftingDebug( "crafting job now active" );
 			}
 
-			if( Thread.interrupted() )
+			if( Thread.interrupted() || this.isCancelled() )
 			{
 				throw new InterruptedException();
 			}
 		}
-		this.incTime++;
+	}
+
+	/**
+	 * @return true if the job was cancelled while parts of it are planned on other threads.
+	 */
+	private boolean isCancelled()
+	{
+		final Thread owner = this.runner;
+		return owner != null && owner != Thread.currentThread() && owner.isInterrupted();
 	}
 
 	private void finish()
@@ -262,12 +378,14 @@ public class CraftingJob implements Runnable, ICraftingJob
 		}
 
 		this.availableCheck = null;
+		this.branchCheck.remove();
+		this.undoLog.remove();
 
 		synchronized( this.monitor )
 		{
 			this.running = false;
 			this.done = true;
-			this.monitor.notify();
+			this.monitor.notifyAll();
 		}
 	}
 
@@ -325,7 +443,7 @@ public class CraftingJob implements Runnable, ICraftingJob
 			{
 				this.watch.reset();
 				this.watch.start();
-				this.monitor.notify();
+				this.monitor.notifyAll();
 			}
 
 			this.running = true;
@@ -381,6 +499,41 @@ public class CraftingJob implements Runnable, ICraftingJob
 		}
 	}
 
+	/**
+	 * Waits until the job is given time again.
+	 */
+	static final class Pause implements ForkJoinPool.ManagedBlocker
+	{
+		private final Object monitor;
+		private final BooleanSupplier running;
+
+		Pause( final Object monitor, final BooleanSupplier running )
+		{
+			this.monitor = monitor;
+			this.running = running;
+		}
+
+		@Override
+		public boolean block() throws InterruptedException
+		{
+			synchronized( this.monitor )
+			{
+				while( !this.running.getAsBoolean() )
+				{
+					this.monitor.wait();
+				}
+			}
+
+			return true;
+		}
+
+		@Override
+		public boolean isReleasable()
+		{
+			return this.running.getAsBoolean();
+		}
+	}
+
 	private static class TwoIntegers
 	{
 		private final long perOp = 0;
@@ -22,6 +22,7 @@ package appeng.crafting;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.function.LongUnaryOperator;
 
 import com.google.common.collect.Lists;
 
@@ -87,6 +88,27 @@ public class CraftingTreeNode
 		}
 	}
 
+	/**
+	 * Copies the structure of an already built tree, without looking up any patterns again.
+	 *
+	 * @param job the job the copy plans for, null for a template which is only ever copied
+	 */
+	CraftingTreeNode( final CraftingTreeNode template, final CraftingJob job, final CraftingTreeProcess par )
+	{
+		this.what = template.what.copy();
+		this.parent = par;
+		this.slot = template.slot;
+		this.world = job == null ? null : job.getWorld();
+		this.job = job;
+		this.sim = false;
+		this.canEmit = template.canEmit;
+
+		for( final CraftingTreeProcess pro : template.nodes )
+		{
+			this.nodes.add( new CraftingTreeProcess( pro, job, this ) );
+		}
+	}
+
 	boolean notRecursive( final ICraftingPatternDetails details )
 	{
 		IAEItemStack[] o = details.getCondensedOutputs();
@@ -120,13 +142,13 @@ public class CraftingTreeNode
 	IAEItemStack request( final MECraftingInventory inv, long l, final IActionSource src ) throws CraftBranchFailure, InterruptedException
 	{
 		this.job.handlePausing();
+		this.beforeChange();
 		final List<IAEItemStack> thingsUsed = new ArrayList<>();
 
 		this.what.setStackSize( l );
 		if( this.getSlot() >= 0 && this.parent != null && this.parent.details.isCraftable() )
 		{
 			final Collection<IAEItemStack> itemList;
-			final IItemList<IAEItemStack> inventoryList = inv.getItemList();
 
 			if( this.parent.details.canSubstitute() )
 			{
@@ -134,14 +156,14 @@ public class CraftingTreeNode
 				itemList = new ArrayList<>(substitutes.size());
 
 				for (IAEItemStack stack : substitutes) {
-					itemList.addAll(inventoryList.findFuzzy(stack, FuzzyMode.IGNORE_ALL));
+					itemList.addAll(inv.findFuzzy(stack, FuzzyMode.IGNORE_ALL));
 				}
 			}
 			else
 			{
 				itemList = Lists.newArrayList();
 
-				final IAEItemStack item = inventoryList.findPrecise( this.what );
+				final IAEItemStack item = inv.findPrecise( this.what );
 
 				if( item != null )
 				{
@@ -248,48 +270,74 @@ public class CraftingTreeNode
 				}
 				else
 				{
+					pro.beforeChange();
 					pro.possible = false; // ;P
 				}
 			}
 		}
 		else if( this.nodes.size() > 1 )
 		{
+			final IAEItemStack[] available = new IAEItemStack[1];
+
 			for( final CraftingTreeProcess pro : this.nodes )
 			{
-				try
+				final long perCraft = pro.getAmountCrafted( this.what ).getStackSize();
+
+				l = requestInBatches( l, remaining -> pro.getTimes( remaining, perCraft ), ( batch, missing ) ->
 				{
-					while( pro.possible && l > 0 )
+					if( !pro.possible )
 					{
-						final MECraftingInventory subInv = new MECraftingInventory( inv, true, true, true );
-						pro.request( subInv, 1, src );
+						return 0;
+					}
 
-						this.what.setStackSize( l );
-						final IAEItemStack available = subInv.extractItems( this.what, Actionable.MODULATE, src );
+					final CraftingUndoLog undo = new CraftingUndoLog( this.job.getUndoLog() );
+					final CraftingUndoLog outer = this.job.beginUndoLog( undo );
+					final MECraftingInventory availableCheck = this.job.beginBranch();
+					final MECraftingInventory subInv = new MECraftingInventory( inv, true, true, true );
 
-						if( available != null )
-						{
-							if( !subInv.commit( src ) )
-							{
-								throw new CraftBranchFailure( this.what, l );
-							}
+					try
+					{
+						pro.request( subInv, batch, src );
+					}
+					catch( final CraftBranchFailure fail )
+					{
+						this.job.endBranch( availableCheck, false );
+						undo.rollback();
+						return -1;
+					}
+					finally
+					{
+						this.job.endUndoLog( outer );
+					}
 
-							this.bytes += available.getStackSize();
-							l -= available.getStackSize();
+					this.what.setStackSize( missing );
+					available[0] = subInv.extractItems( this.what, Actionable.MODULATE, src );
 
-							if( l <= 0 )
-							{
-								return available;
-							}
-						}
-						else
-						{
-							pro.possible = false; // ;P
-						}
+					if( available[0] == null )
+					{
+						this.job.endBranch( availableCheck, false );
+						undo.rollback();
+						pro.beforeChange();
+						pro.possible = false; // ;P
+						return 0;
 					}
-				}
-				catch( final CraftBranchFailure fail )
+
+					if( !subInv.commit( src ) )
+					{
+						this.job.endBranch( availableCheck, false );
+						undo.rollback();
+						return 0;
+					}
+
+					this.job.endBranch( availableCheck, true );
+					undo.commit();
+					this.bytes += available[0].getStackSize();
+					return available[0].getStackSize();
+				} );
+
+				if( l <= 0 )
 				{
-					pro.possible = true;
+					return available[0];
 				}
 			}
 		}
@@ -313,6 +361,97 @@ public class CraftingTreeNode
 		throw new CraftBranchFailure( this.what, l );
 	}
 
+	/**
+	 * Plans one batch of a pattern as a branch of its own.
+	 */
+	@FunctionalInterface
+	interface BatchRequest
+	{
+		/**
+		 * @return the items the batch made available, 0 if the pattern can not be used any further, -1 if the branch
+		 *         failed and was undone.
+		 */
+		long request( long batch, long missing ) throws InterruptedException;
+	}
+
+	/**
+	 * Covers as much as possible with one pattern, asking for everything at once and halving the batch whenever the
+	 * branch fails.
+	 *
+	 * @return how many items are still missing.
+	 */
+	static long requestInBatches( long missing, final LongUnaryOperator times, final BatchRequest request ) throws InterruptedException
+	{
+		long batch = times.applyAsLong( missing );
+
+		while( missing > 0 && batch > 0 )
+		{
+			final long made = request.request( batch, missing );
+
+			if( made < 0 )
+			{
+				batch /= 2;
+			}
+			else if( made == 0 )
+			{
+				break;
+			}
+			else
+			{
+				missing -= made;
+				batch = Math.min( batch, times.applyAsLong( missing ) );
+			}
+		}
+
+		return missing;
+	}
+
+	/**
+	 * Lets the branch currently being planned on this thread save the state of this node before it changes.
+	 */
+	private void beforeChange()
+	{
+		final CraftingUndoLog undo = this.job.getUndoLog();
+
+		if( undo != null )
+		{
+			undo.record( this, this::saveState );
+		}
+	}
+
+	/**
+	 * Captures the planning state of this node, the processes below it save their own.
+	 *
+	 * @return an action which puts that state back, used to undo a failed branch.
+	 */
+	private Runnable saveState()
+	{
+		final int bytes = this.bytes;
+		final long missing = this.missing;
+		final long howManyEmitted = this.howManyEmitted;
+		final boolean exhausted = this.exhausted;
+		final List<IAEItemStack> used = new ArrayList<>();
+
+		for( final IAEItemStack is : this.used )
+		{
+			used.add( is.copy() );
+		}
+
+		return () ->
+		{
+			this.bytes = bytes;
+			this.missing = missing;
+			this.howManyEmitted = howManyEmitted;
+			this.exhausted = exhausted;
+
+			this.used.resetStatus();
+			for( final IAEItemStack is : used )
+			{
+				this.used.add( is );
+			}
+		};
+	}
+
 	void dive( final CraftingJob job )
 	{
 		if( this.missing > 0 )
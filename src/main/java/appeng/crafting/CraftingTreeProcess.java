@@ -19,7 +19,7 @@
 package appeng.crafting;
 
 
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 
@@ -48,7 +48,7 @@ public class CraftingTreeProcess
 	private final CraftingTreeNode parent;
 	final ICraftingPatternDetails details;
 	private final CraftingJob job;
-	private final Map<CraftingTreeNode, Long> nodes = new HashMap<>();
+	private final Map<CraftingTreeNode, Long> nodes = new LinkedHashMap<>();
 	private final int depth;
 	boolean possible = true;
 	private World world;
@@ -169,6 +169,25 @@ public class CraftingTreeProcess
 		}
 	}
 
+	/**
+	 * Copies the structure of an already built tree, without looking up any patterns again.
+	 */
+	CraftingTreeProcess( final CraftingTreeProcess template, final CraftingJob job, final CraftingTreeNode craftingTreeNode )
+	{
+		this.parent = craftingTreeNode;
+		this.details = template.details;
+		this.job = job;
+		this.depth = template.depth;
+		this.containerItems = template.containerItems;
+		this.limitQty = template.limitQty;
+		this.fullSimulation = template.fullSimulation;
+
+		for( final Entry<CraftingTreeNode, Long> entry : template.nodes.entrySet() )
+		{
+			this.nodes.put( new CraftingTreeNode( entry.getKey(), job, this ), entry.getValue() );
+		}
+	}
+
 	boolean notRecursive( final ICraftingPatternDetails details )
 	{
 		return this.parent == null || this.parent.notRecursive( details );
@@ -186,6 +205,7 @@ public class CraftingTreeProcess
 	void request( final MECraftingInventory inv, final long i, final IActionSource src ) throws CraftBranchFailure, InterruptedException
 	{
 		this.job.handlePausing();
+		this.beforeChange();
 		if( this.fullSimulation )
 		{
 			final InventoryCrafting ic = new InventoryCrafting( new ContainerNull(), 3, 3 );
@@ -211,6 +231,10 @@ public class CraftingTreeProcess
 				}
 			}
 		}
+		else if( this.nodes.size() > 1 && ParallelCraftingPlanner.isEnabled() )
+		{
+			ParallelCraftingPlanner.requestInputs( this.job, this, inv, this.nodes, i, src );
+		}
 		else
 		{
 			// request and remove inputs...
@@ -219,16 +243,7 @@ public class CraftingTreeProcess
 				final IAEItemStack item = entry.getKey().getStack( entry.getValue() );
 				final IAEItemStack stack = entry.getKey().request( inv, item.getStackSize() * i, src );
 
-				if( this.containerItems )
-				{
-					final ItemStack is = Platform.getContainerItem( stack.createItemStack() );
-					final IAEItemStack o = AEApi.instance().storage().getStorageChannel( IItemStorageChannel.class ).createStack( is );
-					if( o != null )
-					{
-						this.bytes++;
-						inv.injectItems( o, Actionable.MODULATE, src );
-					}
-				}
+				this.returnContainerItem( inv, stack, src );
 			}
 		}
 
@@ -245,6 +260,54 @@ public class CraftingTreeProcess
 		this.crafts += i;
 	}
 
+	/**
+	 * @return the container item which was put back into the inventory for the used input, if any.
+	 */
+	IAEItemStack returnContainerItem( final MECraftingInventory inv, final IAEItemStack stack, final IActionSource src )
+	{
+		if( !this.containerItems )
+		{
+			return null;
+		}
+
+		final ItemStack is = Platform.getContainerItem( stack.createItemStack() );
+		final IAEItemStack o = AEApi.instance().storage().getStorageChannel( IItemStorageChannel.class ).createStack( is );
+		if( o != null )
+		{
+			this.bytes++;
+			inv.injectItems( o, Actionable.MODULATE, src );
+		}
+
+		return o;
+	}
+
+	/**
+	 * Lets the branch currently being planned on this thread save the state of this process before it changes.
+	 */
+	void beforeChange()
+	{
+		final CraftingUndoLog undo = this.job.getUndoLog();
+
+		if( undo != null )
+		{
+			undo.record( this, this::saveState );
+		}
+	}
+
+	private Runnable saveState()
+	{
+		final boolean possible = this.possible;
+		final long crafts = this.crafts;
+		final long bytes = this.bytes;
+
+		return () ->
+		{
+			this.possible = possible;
+			this.crafts = crafts;
+			this.bytes = bytes;
+		};
+	}
+
 	void dive( final CraftingJob job )
 	{
 		job.addTask( this.getAmountCrafted( this.parent.getStack( 1 ) ), this.crafts, this.details, this.depth );
@@ -0,0 +1,91 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.crafting;
+
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.function.Supplier;
+
+import javax.annotation.Nullable;
+
+
+/**
+ * Remembers the planning state of the tree elements a tentative branch changes, so the branch can be undone.
+ *
+ * An element is only saved right before its first change within the log, elements the branch never reaches cost
+ * nothing. Logs nest: a kept branch hands its saved states to the enclosing log, which only takes those it does not
+ * already have an older state for.
+ *
+ * A log is only used by one thread at a time.
+ */
+final class CraftingUndoLog
+{
+
+	private final CraftingUndoLog parent;
+	private final Map<Object, Runnable> saved = new IdentityHashMap<>();
+
+	CraftingUndoLog( @Nullable final CraftingUndoLog parent )
+	{
+		this.parent = parent;
+	}
+
+	/**
+	 * Saves the state of the owner, unless it was already saved since this log was started.
+	 *
+	 * @param state captures the current state and returns an action which puts it back
+	 */
+	void record( final Object owner, final Supplier<Runnable> state )
+	{
+		if( !this.saved.containsKey( owner ) )
+		{
+			this.saved.put( owner, state.get() );
+		}
+	}
+
+	/**
+	 * Keeps every change, the enclosing log can still undo them.
+	 */
+	void commit()
+	{
+		if( this.parent != null )
+		{
+			for( final Entry<Object, Runnable> entry : this.saved.entrySet() )
+			{
+				this.parent.saved.putIfAbsent( entry.getKey(), entry.getValue() );
+			}
+		}
+
+		this.saved.clear();
+	}
+
+	/**
+	 * Puts every element changed since this log was started back into its previous state.
+	 */
+	void rollback()
+	{
+		for( final Runnable restore : this.saved.values() )
+		{
+			restore.run();
+		}
+
+		this.saved.clear();
+	}
+}
@@ -21,6 +21,7 @@ package appeng.crafting;
 
 import appeng.api.AEApi;
 import appeng.api.config.Actionable;
+import appeng.api.config.FuzzyMode;
 import appeng.api.networking.security.IActionSource;
 import appeng.api.storage.IMEInventory;
 import appeng.api.storage.IMEMonitor;
@@ -30,13 +31,38 @@ import appeng.api.storage.data.IAEItemStack;
 import appeng.api.storage.data.IItemList;
 import appeng.me.helpers.PlayerSource;
 import appeng.util.inv.ItemListIgnoreCrafting;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.minecraft.item.Item;
 import net.minecraft.util.text.TextComponentString;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
 
+
+/**
+ * Inventory used while calculating and starting crafting jobs.
+ *
+ * An inventory created on top of another {@link MECraftingInventory} is a copy-on-write layer, it only keeps the
+ * entries it has touched and looks everything else up in its parent on demand. Changes reach the parent through
+ * {@link #commit(IActionSource)}, discarding the layer rolls them back.
+ */
 public class MECraftingInventory implements IMEInventory<IAEItemStack>
 {
 
+	// fuzzy matches are handed out in a fixed order, so a plan does not depend on how the layers were filled.
+	private static final Comparator<IAEItemStack> FUZZY_ORDER = Comparator.comparingInt( IAEItemStack::getItemDamage )
+			.thenComparingInt( IAEItemStack::hashCode )
+			.thenComparing( is -> String.valueOf( is.getDefinition().getTagCompound() ) );
+
 	private final MECraftingInventory par;
+	private boolean flattened;
+
+	// set on layers which are filled concurrently with their siblings, see ParallelCraftingPlanner.
+	private boolean speculative;
+	private Set<Item> fuzzyReads;
 
 	private final IMEInventory<IAEItemStack> target;
 	private final IItemList<IAEItemStack> localCache;
@@ -97,9 +123,7 @@ public class MECraftingInventory implements IMEInventory<IAEItemStack>
 			this.injectedCache = null;
 		}
 
-		this.localCache = this.target
-				.getAvailableItems( new ItemListIgnoreCrafting<>( AEApi.instance().storage().getStorageChannel( IItemStorageChannel.class ).createList() ) );
-
+		this.localCache = new ItemListIgnoreCrafting<>( AEApi.instance().storage().getStorageChannel( IItemStorageChannel.class ).createList() );
 		this.par = parent;
 	}
 
@@ -180,8 +204,16 @@ public class MECraftingInventory implements IMEInventory<IAEItemStack>
 			this.injectedCache = null;
 		}
 
-		this.localCache = target.getAvailableItems( AEApi.instance().storage().getStorageChannel( IItemStorageChannel.class ).createList() );
-		this.par = null;
+		if( target instanceof MECraftingInventory )
+		{
+			this.localCache = new ItemListIgnoreCrafting<>( AEApi.instance().storage().getStorageChannel( IItemStorageChannel.class ).createList() );
+			this.par = (MECraftingInventory) target;
+		}
+		else
+		{
+			this.localCache = target.getAvailableItems( AEApi.instance().storage().getStorageChannel( IItemStorageChannel.class ).createList() );
+			this.par = null;
+		}
 	}
 
 	@Override
@@ -198,6 +230,7 @@ public class MECraftingInventory implements IMEInventory<IAEItemStack>
 			{
 				this.injectedCache.add( input );
 			}
+			this.findPrecise( input );
 			this.localCache.add( input );
 		}
 
@@ -212,7 +245,7 @@ public class MECraftingInventory implements IMEInventory<IAEItemStack>
 			return null;
 		}
 
-		final IAEItemStack list = this.localCache.findPrecise( request );
+		final IAEItemStack list = this.findPrecise( request );
 		if( list == null || list.getStackSize() == 0 )
 		{
 			return null;
@@ -250,6 +283,17 @@ public class MECraftingInventory implements IMEInventory<IAEItemStack>
 	@Override
 	public IItemList<IAEItemStack> getAvailableItems( final IItemList<IAEItemStack> out )
 	{
+		if( this.par != null && !this.flattened )
+		{
+			for( final IAEItemStack is : this.par.getAvailableItems( AEApi.instance().storage().getStorageChannel( IItemStorageChannel.class ).createList() ) )
+			{
+				if( this.localCache.findPrecise( is ) == null )
+				{
+					out.add( is );
+				}
+			}
+		}
+
 		for( final IAEItemStack is : this.localCache )
 		{
 			out.add( is );
@@ -264,11 +308,140 @@ public class MECraftingInventory implements IMEInventory<IAEItemStack>
 		return AEApi.instance().storage().getStorageChannel( IItemStorageChannel.class );
 	}
 
+	/**
+	 * On a layer this pulls every entry of the parents into the layer, prefer {@link #findPrecise(IAEItemStack)} and
+	 * {@link #findFuzzy(IAEItemStack, FuzzyMode)} where possible.
+	 */
 	public IItemList<IAEItemStack> getItemList()
 	{
+		if( this.par != null && !this.flattened )
+		{
+			for( final IAEItemStack is : this.par.getAvailableItems( AEApi.instance().storage().getStorageChannel( IItemStorageChannel.class ).createList() ) )
+			{
+				this.findPrecise( is );
+			}
+
+			this.flattened = true;
+		}
+
 		return this.localCache;
 	}
 
+	/**
+	 * @return the live entry for the item, copied from the parents into this layer on first access.
+	 */
+	IAEItemStack findPrecise( final IAEItemStack what )
+	{
+		IAEItemStack local = this.localCache.findPrecise( what );
+
+		if( local == null && this.par != null && !this.flattened )
+		{
+			if( this.speculative )
+			{
+				// the parent is shared with the sibling layers, which only ever touch it while holding its lock.
+				synchronized( this.par )
+				{
+					this.inherit( what, this.par.findPrecise( what ) );
+				}
+			}
+			else
+			{
+				this.inherit( what, this.par.findPrecise( what ) );
+			}
+
+			local = this.localCache.findPrecise( what );
+		}
+
+		return local;
+	}
+
+	Collection<IAEItemStack> findFuzzy( final IAEItemStack what, final FuzzyMode mode )
+	{
+		if( this.par != null && !this.flattened )
+		{
+			if( this.speculative )
+			{
+				this.fuzzyReads.add( what.getItem() );
+
+				synchronized( this.par )
+				{
+					for( final IAEItemStack inherited : this.par.findFuzzy( what, mode ) )
+					{
+						this.findPrecise( inherited );
+					}
+				}
+			}
+			else
+			{
+				for( final IAEItemStack inherited : this.par.findFuzzy( what, mode ) )
+				{
+					this.findPrecise( inherited );
+				}
+			}
+		}
+
+		final List<IAEItemStack> found = new ArrayList<>( this.localCache.findFuzzy( what, mode ) );
+		found.sort( FUZZY_ORDER );
+		return found;
+	}
+
+	private void inherit( final IAEItemStack what, final IAEItemStack inherited )
+	{
+		if( this.localCache.findPrecise( what ) == null )
+		{
+			this.localCache.add( inherited == null ? what.copy().setStackSize( 0 ) : inherited );
+		}
+	}
+
+	/**
+	 * Creates a logging layer which may be used on another thread while its siblings use the same parent.
+	 */
+	static MECraftingInventory speculative( final MECraftingInventory parent )
+	{
+		final MECraftingInventory layer = new MECraftingInventory( parent, true, true, false );
+		layer.speculative = true;
+		layer.fuzzyReads = new ReferenceOpenHashSet<>();
+		return layer;
+	}
+
+	/**
+	 * Adds everything this layer would change in its parent on commit.
+	 */
+	void collectWrites( final IItemList<IAEItemStack> out )
+	{
+		if( this.logInjections )
+		{
+			for( final IAEItemStack is : this.injectedCache )
+			{
+				out.add( is.copy().setStackSize( 1 ) );
+			}
+		}
+
+		if( this.logExtracted )
+		{
+			for( final IAEItemStack is : this.extractedCache )
+			{
+				out.add( is.copy().setStackSize( 1 ) );
+			}
+		}
+	}
+
+	/**
+	 * @return true if this layer looked at any of the given items, so its contents might depend on them.
+	 */
+	boolean hasRead( final IItemList<IAEItemStack> written )
+	{
+		for( final IAEItemStack is : written )
+		{
+			if( this.localCache.findPrecise( is ) != null || ( this.fuzzyReads != null && this.fuzzyReads.contains( is.getItem() ) ) )
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+
 	public boolean commit( final IActionSource src )
 	{
 		final IItemList<IAEItemStack> added = AEApi.instance().storage().getStorageChannel( IItemStorageChannel.class ).createList();
@@ -337,7 +510,7 @@ public class MECraftingInventory implements IMEInventory<IAEItemStack>
 			return false;
 		}
 
-		if( this.logMissing && this.par != null )
+		if( this.logMissing && this.par != null && this.par.logMissing )
 		{
 			for( final IAEItemStack extra : this.missingCache )
 			{
@@ -355,7 +528,7 @@ public class MECraftingInventory implements IMEInventory<IAEItemStack>
 
 	void ignore( final IAEItemStack what )
 	{
-		final IAEItemStack list = this.localCache.findPrecise( what );
+		final IAEItemStack list = this.findPrecise( what );
 		if( list != null )
 		{
 			list.setStackSize( 0 );
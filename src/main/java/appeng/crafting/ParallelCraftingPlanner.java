@@ -0,0 +1,230 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.crafting;
+
+
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+
+import appeng.api.AEApi;
+import appeng.api.networking.security.IActionSource;
+import appeng.api.storage.channels.IItemStorageChannel;
+import appeng.api.storage.data.IAEItemStack;
+import appeng.api.storage.data.IItemList;
+import appeng.core.AEConfig;
+
+
+/**
+ * Plans the inputs of a {@link CraftingTreeProcess} concurrently.
+ *
+ * Every input is first planned speculatively against its own layer of the inventory and of the job's availability
+ * check. The layers are then merged in the order the serial planner would have used. An input whose layer looked at
+ * anything an earlier input changed is rolled back and planned again against the merged state, so the result is the
+ * same as planning every input one after another.
+ */
+final class ParallelCraftingPlanner
+{
+
+	private static ForkJoinPool pool;
+
+	private ParallelCraftingPlanner()
+	{
+	}
+
+	static boolean isEnabled()
+	{
+		return AEConfig.instance().getCraftingCalculationThreads() > 0;
+	}
+
+	private static synchronized ForkJoinPool getPool()
+	{
+		if( pool == null )
+		{
+			pool = new ForkJoinPool( AEConfig.instance().getCraftingCalculationThreads(), p ->
+			{
+				final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread( p );
+				thread.setName( "AE Crafting Planner " + thread.getPoolIndex() );
+				return thread;
+			}, null, false );
+		}
+
+		return pool;
+	}
+
+	static void requestInputs( final CraftingJob job, final CraftingTreeProcess process, final MECraftingInventory inv, final Map<CraftingTreeNode, Long> inputs, final long times, final IActionSource src ) throws CraftBranchFailure, InterruptedException
+	{
+		final MECraftingInventory check = job.getAvailableCheck();
+		final Branch[] branches = new Branch[inputs.size()];
+		int x = 0;
+
+		for( final Entry<CraftingTreeNode, Long> entry : inputs.entrySet() )
+		{
+			branches[x++] = new Branch( job, entry.getKey(), entry.getValue() * times, inv, check, src );
+		}
+
+		final ForkJoinPool planner = getPool();
+		if( ForkJoinTask.getPool() == planner )
+		{
+			ForkJoinTask.invokeAll( branches );
+		}
+		else
+		{
+			planner.invoke( new RecursiveAction()
+			{
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected void compute()
+				{
+					invokeAll( branches );
+				}
+			} );
+		}
+
+		for( final Branch branch : branches )
+		{
+			if( branch.interrupted != null )
+			{
+				throw branch.interrupted;
+			}
+		}
+
+		final IItemList<IAEItemStack> written = AEApi.instance().storage().getStorageChannel( IItemStorageChannel.class ).createList();
+		final IItemList<IAEItemStack> used = AEApi.instance().storage().getStorageChannel( IItemStorageChannel.class ).createList();
+
+		for( int i = 0; i < branches.length; i++ )
+		{
+			final Branch branch = branches[i];
+
+			if( branch.layer.hasRead( written ) || branch.checkLayer.hasRead( used ) )
+			{
+				branch.replan( inv, check );
+			}
+
+			branch.layer.collectWrites( written );
+			branch.checkLayer.collectWrites( used );
+			branch.layer.commit( src );
+			branch.checkLayer.commit( src );
+			branch.undo.commit();
+
+			if( branch.failure != null )
+			{
+				// the serial planner would never have reached the remaining inputs.
+				for( int j = i + 1; j < branches.length; j++ )
+				{
+					branches[j].undo.rollback();
+				}
+
+				throw branch.failure;
+			}
+
+			final IAEItemStack container = process.returnContainerItem( inv, branch.result, src );
+			if( container != null )
+			{
+				written.add( container.copy().setStackSize( 1 ) );
+			}
+		}
+	}
+
+	private static final class Branch extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final CraftingJob job;
+		private final CraftingTreeNode node;
+		private final long amount;
+		private final IActionSource src;
+		private final CraftingUndoLog undo;
+
+		private MECraftingInventory layer;
+		private MECraftingInventory checkLayer;
+		private IAEItemStack result;
+		private CraftBranchFailure failure;
+		private InterruptedException interrupted;
+
+		private Branch( final CraftingJob job, final CraftingTreeNode node, final long amount, final MECraftingInventory inv, final MECraftingInventory check, final IActionSource src )
+		{
+			this.job = job;
+			this.node = node;
+			this.amount = amount;
+			this.src = src;
+			this.undo = new CraftingUndoLog( job.getUndoLog() );
+			this.layer = MECraftingInventory.speculative( inv );
+			this.checkLayer = MECraftingInventory.speculative( check );
+		}
+
+		@Override
+		protected void compute()
+		{
+			final MECraftingInventory previous = this.job.beginBranch( this.checkLayer );
+			final CraftingUndoLog outer = this.job.beginUndoLog( this.undo );
+
+			try
+			{
+				this.result = this.node.request( this.layer, this.amount, this.src );
+			}
+			catch( final CraftBranchFailure e )
+			{
+				this.failure = e;
+			}
+			catch( final InterruptedException e )
+			{
+				this.interrupted = e;
+			}
+			finally
+			{
+				this.job.endUndoLog( outer );
+				this.job.endBranch( previous, false );
+			}
+		}
+
+		/**
+		 * Throws away the speculative result and plans this input again on the calling thread.
+		 */
+		private void replan( final MECraftingInventory inv, final MECraftingInventory check ) throws InterruptedException
+		{
+			this.undo.rollback();
+			this.layer = new MECraftingInventory( inv, true, true, false );
+			this.checkLayer = new MECraftingInventory( check, true, true, false );
+			this.result = null;
+			this.failure = null;
+
+			final MECraftingInventory previous = this.job.beginBranch( this.checkLayer );
+			final CraftingUndoLog outer = this.job.beginUndoLog( this.undo );
+
+			try
+			{
+				this.result = this.node.request( this.layer, this.amount, this.src );
+			}
+			catch( final CraftBranchFailure e )
+			{
+				this.failure = e;
+			}
+			finally
+			{
+				this.job.endUndoLog( outer );
+				this.job.endBranch( previous, false );
+			}
+		}
+	}
+}
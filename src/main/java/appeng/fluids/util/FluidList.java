@@ -28,6 +28,8 @@ import java.util.Map;
 import appeng.api.config.FuzzyMode;
 import appeng.api.storage.data.IAEFluidStack;
 import appeng.api.storage.data.IItemList;
+import appeng.util.StorageConsistencyChecks;
+import appeng.util.item.IMeaningfulRecordListener;
 
 
 public final class FluidList implements IItemList<IAEFluidStack>
@@ -35,6 +37,13 @@ public final class FluidList implements IItemList<IAEFluidStack>
 
 	private final Map<IAEFluidStack, IAEFluidStack> records = new HashMap<>();
 
+	/**
+	 * Number of meaningful records. Records report their own changes, so callers may change the records they got from
+	 * this list at any time.
+	 */
+	private int size;
+	private final IMeaningfulRecordListener sizeTracker = meaningful -> this.size += meaningful ? 1 : -1;
+
 	@Override
 	public void add( final IAEFluidStack option )
 	{
@@ -81,7 +90,7 @@ public final class FluidList implements IItemList<IAEFluidStack>
 	@Override
 	public boolean isEmpty()
 	{
-		return !this.iterator().hasNext();
+		return this.size() == 0;
 	}
 
 	@Override
@@ -171,7 +180,12 @@ public final class FluidList implements IItemList<IAEFluidStack>
 	@Override
 	public int size()
 	{
-		return this.records.values().size();
+		if( StorageConsistencyChecks.isEnabled() )
+		{
+			StorageConsistencyChecks.verify( "FluidList size", this.size, this.recount() );
+		}
+
+		return this.size;
 	}
 
 	@Override
@@ -196,6 +210,24 @@ public final class FluidList implements IItemList<IAEFluidStack>
 
 	private IAEFluidStack putFluidRecord( final IAEFluidStack fluid )
 	{
+		( (AEFluidStack) fluid ).attach( this.sizeTracker );
+		if( fluid.isMeaningful() )
+		{
+			this.size++;
+		}
 		return this.records.put( fluid, fluid );
 	}
+
+	private int recount()
+	{
+		int size = 0;
+		for( final IAEFluidStack fluid : this.records.values() )
+		{
+			if( fluid.isMeaningful() )
+			{
+				size++;
+			}
+		}
+		return size;
+	}
 }
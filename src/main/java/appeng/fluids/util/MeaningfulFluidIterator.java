@@ -23,6 +23,7 @@ import java.util.Iterator;
 import java.util.NoSuchElementException;
 
 import appeng.api.storage.data.IAEStack;
+import appeng.util.item.AEStack;
 
 
 public class MeaningfulFluidIterator<T extends IAEStack> implements Iterator<T>
@@ -49,6 +50,7 @@ public class MeaningfulFluidIterator<T extends IAEStack> implements Iterator<T>
 			else
 			{
 				this.parent.remove(); // self cleaning :3
+				detach( this.next );
 			}
 		}
 
@@ -71,5 +73,14 @@ public class MeaningfulFluidIterator<T extends IAEStack> implements Iterator<T>
 	public void remove()
 	{
 		this.parent.remove();
+		detach( this.next );
+	}
+
+	private static void detach( final IAEStack<?> removed )
+	{
+		if( removed instanceof AEStack )
+		{
+			( (AEStack<?>) removed ).detach();
+		}
 	}
 }
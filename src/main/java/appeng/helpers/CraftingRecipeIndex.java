@@ -0,0 +1,157 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.helpers;
+
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import it.unimi.dsi.fastutil.ints.IntLists;
+
+import net.minecraft.inventory.InventoryCrafting;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.crafting.CraftingManager;
+import net.minecraft.item.crafting.IRecipe;
+import net.minecraft.world.World;
+
+
+/**
+ * Crafting recipes grouped by the item they output, so an encoded pattern only has to test the recipes that can
+ * produce what it was encoded for before it looks at the rest of the registry.
+ *
+ * Built on first use and dropped by {@link #invalidate()} whenever the registries are remapped, e.g. when joining a
+ * server.
+ */
+public final class CraftingRecipeIndex
+{
+
+	private static volatile Index index;
+
+	private CraftingRecipeIndex()
+	{
+	}
+
+	/**
+	 * Forgets the index, the next lookup builds it again from the current registry.
+	 */
+	public static void invalidate()
+	{
+		index = null;
+	}
+
+	/**
+	 * Same result as {@link CraftingManager#findMatchingRecipe}, the registry's first matching recipe.
+	 *
+	 * A recipe found through the index is only kept if no recipe with an empty or dynamic output registered before it
+	 * matches as well. Earlier recipes with a static output for another item are not tested, their result could never
+	 * be the item the pattern was encoded for.
+	 */
+	static IRecipe findMatchingRecipe( final InventoryCrafting craftingInv, final ItemStack expectedOutput, final World w )
+	{
+		if( !expectedOutput.isEmpty() )
+		{
+			final Index idx = getIndex();
+
+			final IntList candidates = idx.byOutput.getOrDefault( expectedOutput.getItem(), IntLists.EMPTY_LIST );
+			for( int x = 0; x < candidates.size(); x++ )
+			{
+				final int ordinal = candidates.getInt( x );
+				if( idx.recipes[ordinal].matches( craftingInv, w ) )
+				{
+					for( int y = 0; y < idx.special.size(); y++ )
+					{
+						final int earlier = idx.special.getInt( y );
+						if( earlier >= ordinal )
+						{
+							break;
+						}
+
+						if( idx.recipes[earlier].matches( craftingInv, w ) )
+						{
+							return idx.recipes[earlier];
+						}
+					}
+
+					return idx.recipes[ordinal];
+				}
+			}
+		}
+
+		// recipes with dynamic outputs are not indexed.
+		return CraftingManager.findMatchingRecipe( craftingInv, w );
+	}
+
+	private static Index getIndex()
+	{
+		Index idx = index;
+
+		if( idx == null )
+		{
+			synchronized( CraftingRecipeIndex.class )
+			{
+				idx = index;
+				if( idx == null )
+				{
+					idx = new Index();
+					index = idx;
+				}
+			}
+		}
+
+		return idx;
+	}
+
+	private static final class Index
+	{
+
+		// in registry order, which decides between several matching recipes.
+		private final IRecipe[] recipes;
+		private final Map<Item, IntList> byOutput = new IdentityHashMap<>();
+		// ordinals of the recipes with an empty or dynamic output, ascending.
+		private final IntList special = new IntArrayList();
+
+		private Index()
+		{
+			final List<IRecipe> ordered = new ArrayList<>();
+
+			for( final IRecipe recipe : CraftingManager.REGISTRY )
+			{
+				final ItemStack output = recipe.getRecipeOutput();
+				if( output.isEmpty() || recipe.isDynamic() )
+				{
+					this.special.add( ordered.size() );
+				}
+
+				if( !output.isEmpty() )
+				{
+					this.byOutput.computeIfAbsent( output.getItem(), item -> new IntArrayList( 1 ) ).add( ordered.size() );
+				}
+
+				ordered.add( recipe );
+			}
+
+			this.recipes = ordered.toArray( new IRecipe[0] );
+		}
+	}
+}
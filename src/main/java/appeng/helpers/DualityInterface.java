@@ -65,6 +65,7 @@ import appeng.api.implementations.tiles.ICraftingMachine;
 import appeng.api.networking.GridFlags;
 import appeng.api.networking.IGrid;
 import appeng.api.networking.IGridNode;
+import appeng.api.networking.crafting.IBatchCraftingMedium;
 import appeng.api.networking.crafting.ICraftingLink;
 import appeng.api.networking.crafting.ICraftingPatternDetails;
 import appeng.api.networking.crafting.ICraftingProvider;
@@ -108,7 +109,7 @@ import appeng.util.item.AEItemStack;
 import static gregtech.api.block.machines.BlockMachine.getMetaTileEntity;
 
 
-public class DualityInterface implements IGridTickable, IStorageMonitorable, IInventoryDestination, IAEAppEngInventory, IConfigManagerHost, ICraftingProvider, IUpgradeableHost
+public class DualityInterface implements IGridTickable, IStorageMonitorable, IInventoryDestination, IAEAppEngInventory, IConfigManagerHost, ICraftingProvider, IBatchCraftingMedium, IUpgradeableHost
 {
 	private int[] failedCraftTriesSlot = {0,0,0,0,0,0,0,0,0};
 
@@ -117,6 +118,11 @@ public class DualityInterface implements IGridTickable, IStorageMonitorable, IIn
 	public static final int NUMBER_OF_PATTERN_SLOTS = 36;
 
 	private static final Collection<Block> BAD_BLOCKS = new HashSet<>( 100 );
+
+	// the mod list is fixed once the game runs, so look it up once instead of on every push.
+	private static final boolean GREGTECH_LOADED = Loader.isModLoaded( "gregtech" );
+	private static final boolean PHANTOM_GREGTECH_LOADED = GREGTECH_LOADED && Loader.isModLoaded( "actuallyadditions" );
+
 	private final IAEItemStack[] requireWork = { null, null, null, null, null, null, null, null, null };
 	private final MultiCraftingTracker craftingTracker;
 	private final AENetworkProxy gridProxy;
@@ -143,7 +149,8 @@ public class DualityInterface implements IGridTickable, IStorageMonitorable, IIn
 	private final Accessor accessor = new Accessor();
 	private EnumSet<EnumFacing> visitedFaces = EnumSet.noneOf( EnumFacing.class );
 	private EnumMap<EnumFacing,List<ItemStack>> waitingToSendFacing = new EnumMap<>(EnumFacing.class);
-	private GTCEInventoryAdaptor GTad;
+	private final Neighbor[] neighbors = new Neighbor[EnumFacing.values().length];
+	private Set<IInterfaceWatcher> watchers = null;
 
 	public DualityInterface( final AENetworkProxy networkProxy, final IInterfaceHost ih )
 	{
@@ -174,6 +181,11 @@ public class DualityInterface implements IGridTickable, IStorageMonitorable, IIn
 	@Override
 	public void onChangeInventory( final IItemHandler inv, final int slot, final InvOperation mc, final ItemStack removed, final ItemStack added )
 	{
+		if( inv == this.patterns )
+		{
+			this.notifyWatchers( slot );
+		}
+
 		if( this.isWorking == slot )
 		{
 			return;
@@ -537,17 +549,19 @@ public class DualityInterface implements IGridTickable, IStorageMonitorable, IIn
 
 	public void notifyNeighbors()
 	{
-		if( this.gridProxy.isActive() )
+		try
 		{
-			try
+			// the grid only refreshes the patterns of providers which report a change, including going offline.
+			this.gridProxy.getGrid().postEvent( new MENetworkCraftingPatternChange( this, this.gridProxy.getNode() ) );
+
+			if( this.gridProxy.isActive() )
 			{
-				this.gridProxy.getGrid().postEvent( new MENetworkCraftingPatternChange( this, this.gridProxy.getNode() ) );
 				this.gridProxy.getTick().wakeDevice( this.gridProxy.getNode() );
 			}
-			catch( final GridAccessException e )
-			{
-				// :P
-			}
+		}
+		catch( final GridAccessException e )
+		{
+			// :P
 		}
 
 		final TileEntity te = this.iHost.getTileEntity();
@@ -723,7 +737,6 @@ public class DualityInterface implements IGridTickable, IStorageMonitorable, IIn
 		}
 
 		final TileEntity tile = this.iHost.getTileEntity();
-		final World w = tile.getWorld();
 
 		final Iterator<ItemStack> i = this.waitingToSend.iterator();
 		while( i.hasNext() )
@@ -732,13 +745,7 @@ public class DualityInterface implements IGridTickable, IStorageMonitorable, IIn
 
 			for( final EnumFacing s : possibleDirections )
 			{
-				final TileEntity te = w.getTileEntity( tile.getPos().offset( s ) );
-				if( te == null )
-				{
-					continue;
-				}
-
-				final InventoryAdaptor ad = InventoryAdaptor.getAdaptor( te, s.getOpposite() );
+				final InventoryAdaptor ad = this.getNeighbor( tile, s ).adaptor;
 				if( ad != null )
 				{
 					final ItemStack result = ad.addItems( whatToSend );
@@ -778,11 +785,8 @@ public class DualityInterface implements IGridTickable, IStorageMonitorable, IIn
 			return;
 		}
 
-		final TileEntity tile = this.iHost.getTileEntity();
-		final World w = tile.getWorld();
-
-		final TileEntity te = w.getTileEntity( tile.getPos().offset( s ) );
-		if( te == null )
+		final InventoryAdaptor ad = this.getNeighbor( this.iHost.getTileEntity(), s ).adaptor;
+		if( ad == null )
 		{
 			return;
 		}
@@ -791,18 +795,14 @@ public class DualityInterface implements IGridTickable, IStorageMonitorable, IIn
 		while ( i.hasNext() )
 		{
 			ItemStack whatToSend = i.next();
-			final InventoryAdaptor ad = InventoryAdaptor.getAdaptor( te, s.getOpposite() );
-			if( ad != null )
+			final ItemStack result = ad.addItems( whatToSend );
+			if( !result.isEmpty() )
 			{
-				final ItemStack result = ad.addItems( whatToSend );
-				if( !result.isEmpty() )
-				{
-					whatToSend.setCount( whatToSend.getCount() - ( whatToSend.getCount() - result.getCount() ) );
-				}
-				else
-				{
-					i.remove();
-				}
+				whatToSend.setCount( whatToSend.getCount() - ( whatToSend.getCount() - result.getCount() ) );
+			}
+			else
+			{
+				i.remove();
 			}
 		}
 
@@ -1038,6 +1038,11 @@ public class DualityInterface implements IGridTickable, IStorageMonitorable, IIn
 	@Override
 	public void updateSetting( final IConfigManager manager, final Enum settingName, final Enum newValue )
 	{
+		if( settingName == Settings.INTERFACE_TERMINAL )
+		{
+			this.notifyWatchers( -1 );
+		}
+
 		if( this.getInstalledUpgrades( Upgrades.CRAFTING ) == 0 )
 		{
 			this.cancelCrafting();
@@ -1074,16 +1079,6 @@ public class DualityInterface implements IGridTickable, IStorageMonitorable, IIn
 		};
 	}
 
-	private boolean invIsBlocked( InventoryAdaptor inv )
-	{
-		return  (inv.containsItems());
-	}
-
-	private static boolean invIsBlockedGTCE( GTCEInventoryAdaptor inv )
-	{
-		return ( !inv.canRemoveAllExceptCircuits() );
-	}
-
 	@Override
 	public boolean pushPattern( final ICraftingPatternDetails patternDetails, final InventoryCrafting table )
 	{
@@ -1102,7 +1097,8 @@ public class DualityInterface implements IGridTickable, IStorageMonitorable, IIn
 
 		for( final EnumFacing s : visitedFaces )
 		{
-			final TileEntity te = w.getTileEntity( tile.getPos().offset( s ) );
+			final Neighbor neighbor = this.getNeighbor( tile, s );
+			final TileEntity te = neighbor.tile;
 			if( te instanceof IInterfaceHost )
 			{
 				try
@@ -1133,40 +1129,13 @@ public class DualityInterface implements IGridTickable, IStorageMonitorable, IIn
 				}
 			}
 
-			final InventoryAdaptor ad = InventoryAdaptor.getAdaptor( te, s.getOpposite() );
+			final InventoryAdaptor ad = neighbor.adaptor;
 			if( ad != null )
 			{
-				if( this.isBlocking() )
+				if( this.isBlocking() && neighbor.isBlocked( w ) )
 				{
-					IPhantomTile phantomTE = null;
-					if( Loader.isModLoaded( "actuallyadditions" ) && Loader.isModLoaded( "gregtech" ) && te instanceof IPhantomTile )
-					{
-						phantomTE = ( (IPhantomTile) te );
-						if( phantomTE.hasBoundPosition() )
-						{
-							TileEntity phantom = w.getTileEntity( phantomTE.getBoundPosition() );
-							if( phantom instanceof MetaTileEntityHolder && isGTCEblocked( phantom, s ) )
-							{
-								visitedFaces.remove( s );
-								continue;
-							}
-						}
-					}
-
-					else if( Loader.isModLoaded( "gregtech" ) && te instanceof MetaTileEntityHolder )
-					{
-						if( isGTCEblocked( te, s ) )
-						{
-							visitedFaces.remove( s );
-							continue;
-						}
-					}
-
-					else if( invIsBlocked( ad ) )
-					{
-						visitedFaces.remove( s );
-						continue;
-					}
+					visitedFaces.remove( s );
+					continue;
 				}
 
 				if( this.acceptsItems( ad, table ) )
@@ -1189,6 +1158,221 @@ public class DualityInterface implements IGridTickable, IStorageMonitorable, IIn
 		return false;
 	}
 
+	@Override
+	public int getBatchCapacity( final ICraftingPatternDetails patternDetails, final InventoryCrafting table, final int maxCopies )
+	{
+		if( this.hasItemsToSend() || this.hasItemsToSendFacing() || !this.gridProxy.isActive() || !this.craftingList.contains( patternDetails ) )
+		{
+			return 0;
+		}
+
+		if( this.isBlocking() )
+		{
+			return Math.min( 1, maxCopies );
+		}
+
+		final TileEntity tile = this.iHost.getTileEntity();
+		int capacity = 0;
+
+		for( final EnumFacing s : this.iHost.getTargets() )
+		{
+			final Neighbor neighbor = this.getNeighbor( tile, s );
+			final TileEntity te = neighbor.tile;
+
+			if( this.isSameGridInterface( te ) )
+			{
+				continue;
+			}
+
+			if( te instanceof ICraftingMachine && ( (ICraftingMachine) te ).acceptsPlans() )
+			{
+				capacity = Math.max( capacity, Math.min( 1, maxCopies ) );
+				continue;
+			}
+
+			final InventoryAdaptor ad = neighbor.adaptor;
+			if( ad != null )
+			{
+				capacity = Math.max( capacity, getBatchCapacity( ad, table, maxCopies ) );
+			}
+		}
+
+		return capacity;
+	}
+
+	@Override
+	public int pushPatternBatch( final ICraftingPatternDetails patternDetails, final InventoryCrafting table, final int copies )
+	{
+		if( copies <= 1 || this.isBlocking() )
+		{
+			return copies > 0 && this.pushPattern( patternDetails, table ) ? 1 : 0;
+		}
+
+		if( this.hasItemsToSend() || this.hasItemsToSendFacing() || !this.gridProxy.isActive() || !this.craftingList.contains( patternDetails ) )
+		{
+			return 0;
+		}
+
+		final TileEntity tile = this.iHost.getTileEntity();
+
+		if( this.visitedFaces.isEmpty() )
+		{
+			this.visitedFaces = this.iHost.getTargets();
+		}
+
+		for( final EnumFacing s : this.visitedFaces )
+		{
+			final Neighbor neighbor = this.getNeighbor( tile, s );
+			final TileEntity te = neighbor.tile;
+
+			if( this.isSameGridInterface( te ) )
+			{
+				this.visitedFaces.remove( s );
+				continue;
+			}
+
+			if( te instanceof ICraftingMachine && ( (ICraftingMachine) te ).acceptsPlans() )
+			{
+				// machines take their plans one by one.
+				this.visitedFaces.remove( s );
+				if( ( (ICraftingMachine) te ).pushPattern( patternDetails, table, s.getOpposite() ) )
+				{
+					return 1;
+				}
+				continue;
+			}
+
+			final InventoryAdaptor ad = neighbor.adaptor;
+			if( ad != null )
+			{
+				final int accepted = getBatchCapacity( ad, table, copies );
+
+				if( accepted > 0 )
+				{
+					this.visitedFaces.remove( s );
+					for( int x = 0; x < table.getSizeInventory(); x++ )
+					{
+						final ItemStack is = table.getStackInSlot( x );
+						if( !is.isEmpty() )
+						{
+							this.addBatchToSendListFacing( is, accepted, s );
+						}
+					}
+					this.pushItemsOut( s );
+					return accepted;
+				}
+			}
+			this.visitedFaces.remove( s );
+		}
+
+		return 0;
+	}
+
+	/**
+	 * Finds the largest number of copies of the table, up to maxCopies, for which all inputs fit into the adaptor
+	 * together according to {@link InventoryAdaptor#simulateAddAll(List)}.
+	 */
+	static int getBatchCapacity( final InventoryAdaptor ad, final InventoryCrafting table, final int maxCopies )
+	{
+		final List<ItemStack> perCopy = new ArrayList<>( table.getSizeInventory() );
+
+		outer:
+		for( int x = 0; x < table.getSizeInventory(); x++ )
+		{
+			final ItemStack is = table.getStackInSlot( x );
+			if( is.isEmpty() )
+			{
+				continue;
+			}
+
+			for( final ItemStack known : perCopy )
+			{
+				if( ItemStack.areItemsEqual( known, is ) && ItemStack.areItemStackTagsEqual( known, is ) )
+				{
+					known.grow( is.getCount() );
+					continue outer;
+				}
+			}
+
+			perCopy.add( is.copy() );
+		}
+
+		if( perCopy.isEmpty() )
+		{
+			return 0;
+		}
+
+		int low = 0;
+		int high = maxCopies;
+
+		while( low < high )
+		{
+			final int mid = ( low + high + 1 ) >>> 1;
+
+			if( acceptsCopies( ad, perCopy, mid ) )
+			{
+				low = mid;
+			}
+			else
+			{
+				high = mid - 1;
+			}
+		}
+
+		return low;
+	}
+
+	private static boolean acceptsCopies( final InventoryAdaptor ad, final List<ItemStack> perCopy, final int copies )
+	{
+		final List<ItemStack> batch = new ArrayList<>( perCopy.size() );
+
+		for( final ItemStack is : perCopy )
+		{
+			final long total = (long) is.getCount() * copies;
+			if( total > Integer.MAX_VALUE )
+			{
+				return false;
+			}
+
+			final ItemStack part = is.copy();
+			part.setCount( (int) total );
+			batch.add( part );
+		}
+
+		return ad.simulateAddAll( batch );
+	}
+
+	private void addBatchToSendListFacing( final ItemStack is, final int copies, final EnumFacing f )
+	{
+		final int maxStackSize = Math.max( 1, is.getMaxStackSize() );
+		long remaining = (long) is.getCount() * copies;
+
+		while( remaining > 0 )
+		{
+			final ItemStack part = is.copy();
+			part.setCount( (int) Math.min( remaining, maxStackSize ) );
+			remaining -= part.getCount();
+			this.addToSendListFacing( part, f );
+		}
+	}
+
+	private boolean isSameGridInterface( final TileEntity te )
+	{
+		if( te instanceof IInterfaceHost )
+		{
+			try
+			{
+				return ( (IInterfaceHost) te ).getInterfaceDuality().sameGrid( this.gridProxy.getGrid() );
+			}
+			catch( final GridAccessException e )
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+
 	@Override
 	public boolean isBusy()
 	{
@@ -1209,40 +1393,11 @@ public class DualityInterface implements IGridTickable, IStorageMonitorable, IIn
 
 			for( final EnumFacing s : possibleDirections )
 			{
-				final TileEntity te = w.getTileEntity( tile.getPos().offset( s ) );
-				IPhantomTile phantomTE = null;
-
-				final InventoryAdaptor ad = InventoryAdaptor.getAdaptor( te, s.getOpposite() );
-				if( ad != null )
+				final Neighbor neighbor = this.getNeighbor( tile, s );
+				if( neighbor.adaptor != null && neighbor.isFree( w ) )
 				{
-					if( Loader.isModLoaded( "actuallyadditions") && Loader.isModLoaded( "gregtech" ) && te instanceof IPhantomTile )
-					{
-						phantomTE = ( (IPhantomTile) te );
-						if( phantomTE.hasBoundPosition() )
-						{
-							TileEntity phantom = w.getTileEntity( phantomTE.getBoundPosition() );
-							if( phantom instanceof MetaTileEntityHolder && !isGTCEblocked( phantom, s ) )
-							{
-								allAreBusy = false;
-								break;
-							}
-						}
-					}
-
-					else if( Loader.isModLoaded( "gregtech" ) && te instanceof MetaTileEntityHolder )
-					{
-						if( !isGTCEblocked( te, s ) )
-						{
-							allAreBusy = false;
-							break;
-						}
-					}
-
-					else if( !invIsBlocked( ad ) )
-					{
-						allAreBusy = false;
-						break;
-					}
+					allAreBusy = false;
+					break;
 				}
 			}
 			busy = allAreBusy;
@@ -1250,10 +1405,43 @@ public class DualityInterface implements IGridTickable, IStorageMonitorable, IIn
 		return busy;
 	}
 
-	boolean isGTCEblocked(TileEntity te, EnumFacing s)
+	/**
+	 * Forgets what is cached about the neighbor at the given position, so the next push resolves it again.
+	 */
+	public void onNeighborChanged( final BlockPos neighbor )
 	{
-		GTad = GTCEInventoryAdaptor.getAdaptor( te, s.getOpposite() );
-		return invIsBlockedGTCE( GTad );
+		final BlockPos pos = this.iHost.getTileEntity().getPos();
+
+		for( final EnumFacing s : EnumFacing.values() )
+		{
+			if( pos.offset( s ).equals( neighbor ) )
+			{
+				this.neighbors[s.ordinal()] = null;
+			}
+		}
+	}
+
+	/**
+	 * Forgets every cached neighbor, e.g. when the host is unloaded with its chunk.
+	 */
+	public void clearNeighbors()
+	{
+		Arrays.fill( this.neighbors, null );
+	}
+
+	private Neighbor getNeighbor( final TileEntity host, final EnumFacing s )
+	{
+		final World w = host.getWorld();
+		final BlockPos pos = host.getPos().offset( s );
+
+		Neighbor neighbor = this.neighbors[s.ordinal()];
+		if( neighbor == null || !neighbor.isValid( w, pos ) )
+		{
+			neighbor = new Neighbor( w.getTileEntity( pos ), s.getOpposite() );
+			this.neighbors[s.ordinal()] = neighbor;
+		}
+
+		return neighbor;
 	}
 
 	private boolean sameGrid( final IGrid grid ) throws GridAccessException
@@ -1401,6 +1589,52 @@ public class DualityInterface implements IGridTickable, IStorageMonitorable, IIn
 		this.craftingTracker.jobStateChange( link );
 	}
 
+	public void addWatcher( final IInterfaceWatcher watcher )
+	{
+		if( this.watchers == null )
+		{
+			this.watchers = new HashSet<>();
+		}
+
+		this.watchers.add( watcher );
+	}
+
+	public void removeWatcher( final IInterfaceWatcher watcher )
+	{
+		if( this.watchers != null )
+		{
+			this.watchers.remove( watcher );
+		}
+	}
+
+	/**
+	 * Lets watching terminals pick up a new custom name of the host right away.
+	 */
+	public void onCustomNameChanged()
+	{
+		this.notifyWatchers( -1 );
+	}
+
+	/**
+	 * @return true if the terminal name is the host's custom name, which is reported through
+	 *         {@link #onCustomNameChanged()} instead of having to be compared.
+	 */
+	public boolean hasCustomTermName()
+	{
+		return ( (ICustomNameObject) this.iHost ).hasCustomInventoryName();
+	}
+
+	private void notifyWatchers( final int slot )
+	{
+		if( this.watchers != null )
+		{
+			for( final IInterfaceWatcher watcher : this.watchers )
+			{
+				watcher.onInterfaceChanged( this, slot );
+			}
+		}
+	}
+
 	public String getTermName()
 	{
 		final TileEntity hostTile = this.iHost.getTileEntity();
@@ -1449,7 +1683,7 @@ public class DualityInterface implements IGridTickable, IStorageMonitorable, IIn
 				final Block directedBlock = directedBlockState.getBlock();
 				ItemStack what = new ItemStack( directedBlock, 1, directedBlock.getMetaFromState( directedBlockState ) );
 
-				if ( Loader.isModLoaded("gregtech") && directedBlock instanceof BlockMachine )
+				if ( GREGTECH_LOADED && directedBlock instanceof BlockMachine )
 				{
 					MetaTileEntity metaTileEntity = getMetaTileEntity(hostWorld, targ);
 					return metaTileEntity.getMetaFullName();
@@ -1627,4 +1861,113 @@ public class DualityInterface implements IGridTickable, IStorageMonitorable, IIn
 
 	}
 
+	private enum BlockingMode
+	{
+		/**
+		 * Blocked while the adjacent inventory holds anything.
+		 */
+		INVENTORY,
+
+		/**
+		 * Blocked while the GregTech machine holds anything but circuits.
+		 */
+		GREGTECH,
+
+		/**
+		 * Actually Additions phantom face, blocked by the GregTech machine it is bound to.
+		 */
+		PHANTOM_GREGTECH
+	}
+
+	/**
+	 * What a face of the interface pushes into, resolved once until the neighbor changes.
+	 */
+	private static final class Neighbor
+	{
+
+		@Nullable
+		private final TileEntity tile;
+		@Nullable
+		private final InventoryAdaptor adaptor;
+		private final BlockingMode blockingMode;
+		@Nullable
+		private final GTCEInventoryAdaptor gregtechAdaptor;
+		private final EnumFacing side;
+
+		private Neighbor( @Nullable final TileEntity tile, final EnumFacing side )
+		{
+			this.tile = tile;
+			this.side = side;
+			this.adaptor = InventoryAdaptor.getAdaptor( tile, side );
+
+			if( PHANTOM_GREGTECH_LOADED && tile instanceof IPhantomTile )
+			{
+				this.blockingMode = BlockingMode.PHANTOM_GREGTECH;
+				this.gregtechAdaptor = null;
+			}
+			else if( GREGTECH_LOADED && tile instanceof MetaTileEntityHolder )
+			{
+				this.blockingMode = BlockingMode.GREGTECH;
+				this.gregtechAdaptor = GTCEInventoryAdaptor.getAdaptor( tile, side );
+			}
+			else
+			{
+				this.blockingMode = BlockingMode.INVENTORY;
+				this.gregtechAdaptor = null;
+			}
+		}
+
+		private boolean isValid( final World w, final BlockPos pos )
+		{
+			return w.isBlockLoaded( pos ) && ( this.tile == null || !this.tile.isInvalid() );
+		}
+
+		/**
+		 * @return true if blocking mode has to hold patterns back; an unbound phantom face never blocks.
+		 */
+		private boolean isBlocked( final World w )
+		{
+			switch( this.blockingMode )
+			{
+				case PHANTOM_GREGTECH:
+					final GTCEInventoryAdaptor bound = this.getBoundAdaptor( w );
+					return bound != null && !bound.canRemoveAllExceptCircuits();
+				case GREGTECH:
+					return this.gregtechAdaptor != null && !this.gregtechAdaptor.canRemoveAllExceptCircuits();
+				default:
+					return this.adaptor != null && this.adaptor.containsItems();
+			}
+		}
+
+		/**
+		 * @return true if blocking mode lets a pattern through; an unbound phantom face never does.
+		 */
+		private boolean isFree( final World w )
+		{
+			switch( this.blockingMode )
+			{
+				case PHANTOM_GREGTECH:
+					final GTCEInventoryAdaptor bound = this.getBoundAdaptor( w );
+					return bound != null && bound.canRemoveAllExceptCircuits();
+				case GREGTECH:
+					return this.gregtechAdaptor != null && this.gregtechAdaptor.canRemoveAllExceptCircuits();
+				default:
+					return this.adaptor != null && !this.adaptor.containsItems();
+			}
+		}
+
+		@Nullable
+		private GTCEInventoryAdaptor getBoundAdaptor( final World w )
+		{
+			final IPhantomTile phantomTE = (IPhantomTile) this.tile;
+			if( !phantomTE.hasBoundPosition() )
+			{
+				return null;
+			}
+
+			// the phantom face can be rebound at any time, so this one is not cached.
+			final TileEntity phantom = w.getTileEntity( phantomTE.getBoundPosition() );
+			return phantom instanceof MetaTileEntityHolder ? GTCEInventoryAdaptor.getAdaptor( phantom, this.side ) : null;
+		}
+	}
 }
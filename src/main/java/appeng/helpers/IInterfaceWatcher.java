@@ -16,42 +16,17 @@
  * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
  */
 
-package appeng.me;
+package appeng.helpers;
 
 
-import appeng.api.networking.IGridNode;
-import appeng.api.networking.IGridVisitor;
-
-
-class GridSplitDetector implements IGridVisitor
+/**
+ * Told about changes to what an interface terminal shows of an interface.
+ */
+public interface IInterfaceWatcher
 {
 
-	private final IGridNode pivot;
-	private boolean pivotFound;
-
-	public GridSplitDetector( final IGridNode pivot )
-	{
-		this.pivot = pivot;
-	}
-
-	@Override
-	public boolean visitNode( final IGridNode n )
-	{
-		if( n == this.pivot )
-		{
-			this.setPivotFound( true );
-		}
-
-		return !this.isPivotFound();
-	}
-
-	public boolean isPivotFound()
-	{
-		return this.pivotFound;
-	}
-
-	private void setPivotFound( final boolean pivotFound )
-	{
-		this.pivotFound = pivotFound;
-	}
+	/**
+	 * @param slot the pattern slot that changed, or -1 if the interface's entry itself has to be rebuilt.
+	 */
+	void onInterfaceChanged( DualityInterface duality, int slot );
 }
@@ -20,12 +20,11 @@ package appeng.helpers;
 
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import net.minecraft.inventory.InventoryCrafting;
-import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
-import net.minecraft.item.crafting.CraftingManager;
 import net.minecraft.item.crafting.IRecipe;
 import net.minecraft.item.crafting.Ingredient;
 import net.minecraft.nbt.NBTTagCompound;
@@ -54,9 +53,11 @@ public class PatternHelper implements ICraftingPatternDetails, Comparable<Patter
 	private static final int CRAFTING_OUTPUT_LIMIT = 1;
 	private static final int PROCESSING_OUTPUT_LIMIT = 3;
 
+	// every thread tests recipes in its own frame, so validation never has to wait for another thread.
+	private static final ThreadLocal<InventoryCrafting> TEST_FRAME = ThreadLocal.withInitial( () -> new InventoryCrafting( new ContainerNull(), 3, 3 ) );
+
 	private final ItemStack patternItem;
-	private final InventoryCrafting crafting = new InventoryCrafting( new ContainerNull(), 3, 3 );
-	private final InventoryCrafting testFrame = new InventoryCrafting( new ContainerNull(), 3, 3 );
+	private final InventoryCrafting crafting;
 	private final ItemStack correctOutput;
 	private final IRecipe standardRecipe;
 	private final IAEItemStack[] condensedInputs;
@@ -66,13 +67,37 @@ public class PatternHelper implements ICraftingPatternDetails, Comparable<Patter
 	private final Map<Integer, List<IAEItemStack>> substituteInputs;
 	private final boolean isCrafting;
 	private final boolean canSubstitute;
-	private final Set<TestLookup> failCache = new HashSet<>();
-	private final Set<TestLookup> passCache = new HashSet<>();
+	private final RecipeSlotMemo slotMemo;
 	private final IAEItemStack pattern;
+	// the decoded pattern this one shares everything but its priority with; holding it keeps the decode cache entry alive.
+	private final PatternHelper decoded;
 	private int priority = 0;
 
+	/**
+	 * Another holder of an already decoded pattern, sharing all of its immutable state.
+	 */
+	public PatternHelper( final PatternHelper decoded )
+	{
+		this.decoded = decoded.decoded;
+		this.patternItem = decoded.patternItem;
+		this.crafting = decoded.crafting;
+		this.correctOutput = decoded.correctOutput;
+		this.standardRecipe = decoded.standardRecipe;
+		this.condensedInputs = decoded.condensedInputs;
+		this.condensedOutputs = decoded.condensedOutputs;
+		this.inputs = decoded.inputs;
+		this.outputs = decoded.outputs;
+		this.substituteInputs = decoded.substituteInputs;
+		this.isCrafting = decoded.isCrafting;
+		this.canSubstitute = decoded.canSubstitute;
+		this.slotMemo = decoded.slotMemo;
+		this.pattern = decoded.pattern;
+	}
+
 	public PatternHelper( final ItemStack is, final World w )
 	{
+		this.decoded = this;
+
 		final NBTTagCompound encodedValue = is.getTagCompound();
 
 		if( encodedValue == null )
@@ -86,6 +111,7 @@ public class PatternHelper implements ICraftingPatternDetails, Comparable<Patter
 
 		this.canSubstitute = this.isCrafting && encodedValue.getBoolean( "substitute" );
 		this.patternItem = is;
+		this.crafting = new InventoryCrafting( new ContainerNull(), 3, 3 );
 		this.pattern = AEItemStack.fromItemStack( is );
 
 		final List<IAEItemStack> in = new ArrayList<>();
@@ -103,18 +129,12 @@ public class PatternHelper implements ICraftingPatternDetails, Comparable<Patter
 
 			this.crafting.setInventorySlotContents( x, gs );
 
-			if( !gs.isEmpty() && ( !this.isCrafting || !gs.hasTagCompound() ) )
-			{
-				this.markItemAs( x, gs, TestStatus.ACCEPT );
-			}
-
 			in.add( AEApi.instance().storage().getStorageChannel( IItemStorageChannel.class ).createStack( gs ) );
-			this.testFrame.setInventorySlotContents( x, gs );
 		}
 
 		if( this.isCrafting )
 		{
-			this.standardRecipe = CraftingManager.findMatchingRecipe( this.crafting, w );
+			this.standardRecipe = CraftingRecipeIndex.findMatchingRecipe( this.crafting, new ItemStack( outTag.getCompoundTagAt( 0 ) ), w );
 
 			if( this.standardRecipe != null )
 			{
@@ -151,7 +171,7 @@ public class PatternHelper implements ICraftingPatternDetails, Comparable<Patter
 
 		this.inputs = in.toArray(new IAEItemStack[ALL_INPUT_LIMIT]);
 		this.outputs = out.toArray(new IAEItemStack[outputLength]);
-		this.substituteInputs = new HashMap<>(ALL_INPUT_LIMIT);
+		this.substituteInputs = new ConcurrentHashMap<>(ALL_INPUT_LIMIT);
 
 		final Map<IAEItemStack, IAEItemStack> tmpOutputs = new HashMap<>();
 
@@ -217,16 +237,24 @@ public class PatternHelper implements ICraftingPatternDetails, Comparable<Patter
 			this.condensedOutputs[offset] = io;
 			offset++;
 		}
-	}
 
-	private void markItemAs( final int slotIndex, final ItemStack i, final TestStatus b )
-	{
-		if( b == TestStatus.TEST || i.hasTagCompound() )
+		if( this.isCrafting )
 		{
-			return;
-		}
+			this.slotMemo = RecipeSlotMemo.forLayout( this.standardRecipe, this.inputs );
 
-		( b == TestStatus.ACCEPT ? this.passCache : this.failCache ).add( new TestLookup( slotIndex, i ) );
+			for( int x = 0; x < this.crafting.getSizeInventory(); x++ )
+			{
+				final ItemStack gs = this.crafting.getStackInSlot( x );
+				if( !gs.isEmpty() && !gs.hasTagCompound() )
+				{
+					this.slotMemo.put( x, gs, true );
+				}
+			}
+		}
+		else
+		{
+			this.slotMemo = null;
+		}
 	}
 
 	@Override
@@ -236,55 +264,71 @@ public class PatternHelper implements ICraftingPatternDetails, Comparable<Patter
 	}
 
 	@Override
-	public synchronized boolean isValidItemForSlot( final int slotIndex, final ItemStack i, final World w )
+	public boolean isValidItemForSlot( final int slotIndex, final ItemStack i, final World w )
 	{
 		if( !this.isCrafting )
 		{
 			throw new IllegalStateException( "Only crafting recipes supported." );
 		}
 
-		final TestStatus result = this.getStatus( slotIndex, i );
+		final ItemStack expected = this.crafting.getStackInSlot( slotIndex );
 
-		switch( result )
+		if( expected.isEmpty() )
 		{
-			case ACCEPT:
-				return true;
-			case DECLINE:
-				return false;
-			case TEST:
-			default:
-				break;
+			return i.isEmpty();
 		}
 
-		for( int x = 0; x < this.crafting.getSizeInventory(); x++ )
+		if( i.isEmpty() )
 		{
-			this.testFrame.setInventorySlotContents( x, this.crafting.getStackInSlot( x ) );
+			return false;
 		}
 
-		this.testFrame.setInventorySlotContents( slotIndex, i );
-
 		// If we cannot substitute, the items must match exactly
-		if (!canSubstitute && slotIndex < inputs.length) {
-			if (!inputs[slotIndex].isSameType(i)) {
-				this.markItemAs(slotIndex, i, TestStatus.DECLINE);
-				return false;
-			}
+		if( !this.canSubstitute && !isSameType( expected, i ) )
+		{
+			return false;
 		}
 
-		if( this.standardRecipe.matches( this.testFrame, w ) )
+		final boolean memoize = !i.hasTagCompound();
+		if( memoize )
 		{
-			final ItemStack testOutput = this.standardRecipe.getCraftingResult( this.testFrame );
-
-			if( Platform.itemComparisons().isSameItem( this.correctOutput, testOutput ) )
+			final int known = this.slotMemo.get( slotIndex, i );
+			if( known != RecipeSlotMemo.UNKNOWN )
 			{
-				this.testFrame.setInventorySlotContents( slotIndex, this.crafting.getStackInSlot( slotIndex ) );
-				this.markItemAs( slotIndex, i, TestStatus.ACCEPT );
-				return true;
+				return known == RecipeSlotMemo.ACCEPT;
 			}
 		}
 
-		this.markItemAs( slotIndex, i, TestStatus.DECLINE );
-		return false;
+		final InventoryCrafting testFrame = TEST_FRAME.get();
+		for( int x = 0; x < this.crafting.getSizeInventory(); x++ )
+		{
+			testFrame.setInventorySlotContents( x, this.crafting.getStackInSlot( x ) );
+		}
+
+		testFrame.setInventorySlotContents( slotIndex, i );
+
+		boolean accepted = false;
+		if( this.standardRecipe.matches( testFrame, w ) )
+		{
+			final ItemStack testOutput = this.standardRecipe.getCraftingResult( testFrame );
+			accepted = Platform.itemComparisons().isSameItem( this.correctOutput, testOutput );
+		}
+
+		if( memoize )
+		{
+			this.slotMemo.put( slotIndex, i, accepted );
+		}
+
+		return accepted;
+	}
+
+	/**
+	 * Like {@link IAEItemStack#isSameType(ItemStack)}, without touching the stack size of an item other threads may be
+	 * testing too.
+	 */
+	private static boolean isSameType( final ItemStack a, final ItemStack b )
+	{
+		return a.getItem() == b.getItem() && a.getItemDamage() == b.getItemDamage() && ItemStack.areItemStackTagsEqual( a, b );
 	}
 
 	@Override
@@ -438,36 +482,6 @@ public class PatternHelper implements ICraftingPatternDetails, Comparable<Patter
 		return ItemStack.EMPTY;
 	}
 
-	private TestStatus getStatus( final int slotIndex, final ItemStack i )
-	{
-		if( this.crafting.getStackInSlot( slotIndex ).isEmpty() )
-		{
-			return i.isEmpty() ? TestStatus.ACCEPT : TestStatus.DECLINE;
-		}
-
-		if( i.isEmpty() )
-		{
-			return TestStatus.DECLINE;
-		}
-
-		if( i.hasTagCompound() )
-		{
-			return TestStatus.TEST;
-		}
-
-		if( this.passCache.contains( new TestLookup( slotIndex, i ) ) )
-		{
-			return TestStatus.ACCEPT;
-		}
-
-		if( this.failCache.contains( new TestLookup( slotIndex, i ) ) )
-		{
-			return TestStatus.DECLINE;
-		}
-
-		return TestStatus.TEST;
-	}
-
 	@Override
 	public int getPriority()
 	{
@@ -512,55 +526,4 @@ public class PatternHelper implements ICraftingPatternDetails, Comparable<Patter
 		}
 		return false;
 	}
-
-	private enum TestStatus
-	{
-		ACCEPT, DECLINE, TEST
-	}
-
-	private static final class TestLookup
-	{
-
-		private final int slot;
-		private final int ref;
-		private final int hash;
-
-		public TestLookup( final int slot, final ItemStack i )
-		{
-			this( slot, i.getItem(), i.getItemDamage() );
-		}
-
-		public TestLookup( final int slot, final Item item, final int dmg )
-		{
-			this.slot = slot;
-			this.ref = ( dmg << Platform.DEF_OFFSET ) | ( Item.getIdFromItem( item ) & 0xffff );
-			final int offset = 3 * slot;
-			this.hash = ( this.ref << offset ) | ( this.ref >> ( offset + 32 ) );
-		}
-
-		@Override
-		public int hashCode()
-		{
-			return this.hash;
-		}
-
-		@Override
-		public boolean equals( final Object obj )
-		{
-			final boolean equality;
-
-			if( obj instanceof TestLookup )
-			{
-				final TestLookup b = (TestLookup) obj;
-
-				equality = b.slot == this.slot && b.ref == this.ref;
-			}
-			else
-			{
-				equality = false;
-			}
-
-			return equality;
-		}
-	}
 }
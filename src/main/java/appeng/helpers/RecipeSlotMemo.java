@@ -0,0 +1,251 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.helpers;
+
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.crafting.IRecipe;
+
+import appeng.api.storage.data.IAEItemStack;
+
+
+/**
+ * Remembers which items a crafting recipe accepts in each slot of a pattern's layout, shared by every pattern with the
+ * same recipe and inputs.
+ *
+ * Entries live in a lock free open addressing table of longs, so lookups neither block nor allocate. Entries lost to a
+ * concurrent resize only cost another recipe test.
+ */
+final class RecipeSlotMemo
+{
+
+	static final int UNKNOWN = 0;
+	static final int ACCEPT = 1;
+	static final int DECLINE = 2;
+
+	static final int INITIAL_CAPACITY = 32;
+	static final int MAXIMUM_CAPACITY = 1 << 16;
+	private static final long OCCUPIED = 1;
+	private static final long ACCEPTED = 2;
+	private static final long KEY_MASK = ~3L;
+
+	private static final Cache<Layout, RecipeSlotMemo> MEMOS = CacheBuilder.newBuilder().weakValues().build();
+
+	private final AtomicInteger size = new AtomicInteger();
+	private volatile AtomicLongArray table = new AtomicLongArray( INITIAL_CAPACITY );
+
+	RecipeSlotMemo()
+	{
+	}
+
+	static RecipeSlotMemo forLayout( final IRecipe recipe, final IAEItemStack[] inputs )
+	{
+		final Layout layout = new Layout( recipe, inputs );
+
+		RecipeSlotMemo memo = MEMOS.getIfPresent( layout );
+		if( memo == null )
+		{
+			memo = new RecipeSlotMemo();
+			final RecipeSlotMemo existing = MEMOS.asMap().putIfAbsent( layout, memo );
+			if( existing != null )
+			{
+				memo = existing;
+			}
+		}
+
+		return memo;
+	}
+
+	/**
+	 * @return {@link #ACCEPT}, {@link #DECLINE} or {@link #UNKNOWN} for an item without NBT.
+	 */
+	int get( final int slot, final ItemStack is )
+	{
+		return this.get( key( slot, is ) );
+	}
+
+	void put( final int slot, final ItemStack is, final boolean accepted )
+	{
+		this.put( key( slot, is ), accepted );
+	}
+
+	int get( final long key )
+	{
+		final AtomicLongArray t = this.table;
+		final int mask = t.length() - 1;
+
+		int idx = hash( key ) & mask;
+		for( int probes = 0; probes <= mask; probes++ )
+		{
+			final long e = t.get( idx );
+
+			if( e == 0 )
+			{
+				return UNKNOWN;
+			}
+
+			if( ( e & KEY_MASK ) == key )
+			{
+				return ( e & ACCEPTED ) != 0 ? ACCEPT : DECLINE;
+			}
+
+			idx = ( idx + 1 ) & mask;
+		}
+
+		return UNKNOWN;
+	}
+
+	void put( final long key, final boolean accepted )
+	{
+		final long entry = key | OCCUPIED | ( accepted ? ACCEPTED : 0 );
+		final AtomicLongArray t = this.table;
+		final int mask = t.length() - 1;
+
+		int idx = hash( key ) & mask;
+		for( int probes = 0; probes <= mask; probes++ )
+		{
+			final long e = t.get( idx );
+
+			if( e == 0 )
+			{
+				if( t.compareAndSet( idx, 0, entry ) )
+				{
+					if( this.size.incrementAndGet() * 2 > t.length() )
+					{
+						this.grow( t );
+					}
+					return;
+				}
+
+				// lost the slot, look at it again.
+				probes--;
+				continue;
+			}
+
+			if( ( e & KEY_MASK ) == key )
+			{
+				return;
+			}
+
+			idx = ( idx + 1 ) & mask;
+		}
+	}
+
+	private void grow( final AtomicLongArray old )
+	{
+		if( old.length() >= MAXIMUM_CAPACITY || this.table != old )
+		{
+			return;
+		}
+
+		final AtomicLongArray t = new AtomicLongArray( old.length() * 2 );
+		final int mask = t.length() - 1;
+		int copied = 0;
+
+		for( int x = 0; x < old.length(); x++ )
+		{
+			final long e = old.get( x );
+			if( e != 0 )
+			{
+				int idx = hash( e & KEY_MASK ) & mask;
+				while( t.get( idx ) != 0 )
+				{
+					idx = ( idx + 1 ) & mask;
+				}
+
+				t.set( idx, e );
+				copied++;
+			}
+		}
+
+		this.size.set( copied );
+		this.table = t;
+	}
+
+	int size()
+	{
+		return this.size.get();
+	}
+
+	int capacity()
+	{
+		return this.table.length();
+	}
+
+	private static long key( final int slot, final ItemStack is )
+	{
+		return key( slot, Item.getIdFromItem( is.getItem() ), is.getItemDamage() );
+	}
+
+	/**
+	 * Packs the damage into bits 24-55, the item id into bits 8-23 and the slot into bits 2-7. The lowest two bits
+	 * stay free for the flags of an entry.
+	 */
+	static long key( final int slot, final int itemId, final int damage )
+	{
+		return ( ( damage & 0xffffffffL ) << 24 ) | ( ( itemId & 0xffff ) << 8 ) | ( ( slot & 0x3f ) << 2 );
+	}
+
+	private static int hash( final long key )
+	{
+		final long h = key * 0x9E3779B97F4A7C15L;
+		return (int) ( h ^ ( h >>> 32 ) );
+	}
+
+	private static final class Layout
+	{
+
+		private final IRecipe recipe;
+		private final IAEItemStack[] inputs;
+		private final int hash;
+
+		private Layout( final IRecipe recipe, final IAEItemStack[] inputs )
+		{
+			this.recipe = recipe;
+			this.inputs = inputs;
+			this.hash = 31 * System.identityHashCode( recipe ) + Arrays.hashCode( inputs );
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return this.hash;
+		}
+
+		@Override
+		public boolean equals( final Object obj )
+		{
+			if( !( obj instanceof Layout ) )
+			{
+				return false;
+			}
+
+			final Layout other = (Layout) obj;
+			return this.recipe == other.recipe && Arrays.equals( this.inputs, other.inputs );
+		}
+	}
+}
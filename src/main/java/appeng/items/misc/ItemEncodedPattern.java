@@ -23,6 +23,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.WeakHashMap;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 import net.minecraft.client.util.ITooltipFlag;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.InventoryPlayer;
@@ -47,6 +50,7 @@ import appeng.helpers.InvalidPatternHelper;
 import appeng.helpers.PatternHelper;
 import appeng.items.AEBaseItem;
 import appeng.util.Platform;
+import appeng.util.item.AEItemStack;
 
 
 public class ItemEncodedPattern extends AEBaseItem implements ICraftingPatternItem
@@ -54,6 +58,9 @@ public class ItemEncodedPattern extends AEBaseItem implements ICraftingPatternIt
 	// rather simple client side caching.
 	private static final Map<ItemStack, ItemStack> SIMPLE_CACHE = new WeakHashMap<>();
 
+	// decoded patterns shared by every holder of an equal pattern, dropped once none of them is left.
+	private static final Cache<IAEItemStack, PatternHelper> DECODED = CacheBuilder.newBuilder().weakValues().build();
+
 	public ItemEncodedPattern()
 	{
 		this.setMaxStackSize( 64 );
@@ -200,7 +207,21 @@ public class ItemEncodedPattern extends AEBaseItem implements ICraftingPatternIt
 	{
 		try
 		{
-			return new PatternHelper( is, w );
+			final IAEItemStack key = AEItemStack.fromItemStack( is );
+			if( key == null )
+			{
+				return null;
+			}
+
+			PatternHelper decoded = DECODED.getIfPresent( key );
+			if( decoded == null )
+			{
+				decoded = new PatternHelper( is.copy(), w );
+				DECODED.put( key, decoded );
+			}
+
+			// each holder sets its own priority.
+			return new PatternHelper( decoded );
 		}
 		catch( final Throwable t )
 		{
@@ -22,6 +22,7 @@ package appeng.me;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -38,18 +39,35 @@ import appeng.api.networking.events.MENetworkPostCacheConstruction;
 import appeng.api.util.IReadOnlyCollection;
 import appeng.core.worlddata.WorldData;
 import appeng.hooks.TickHandler;
+import appeng.me.helpers.TimingStatistics;
 import appeng.util.ReadOnlyCollection;
 import appeng.me.cache.CraftingGridCache;
 
 
 public class Grid implements IGrid
 {
-	private final NetworkEventBus eventBus = new NetworkEventBus();
+	private final NetworkEventBus eventBus = new NetworkEventBus( new NetworkEventBus.Members()
+	{
+		@Override
+		public Object getCache( final Class<?> c )
+		{
+			final GridCacheWrapper cache = Grid.this.caches.get( c );
+			return cache == null ? null : cache.getCache();
+		}
+
+		@Override
+		public IReadOnlyCollection<IGridNode> getMachines( final Class<? extends IGridHost> c )
+		{
+			return Grid.this.getMachines( c );
+		}
+	} );
 	private final Map<Class<? extends IGridHost>, MachineSet> machines = new HashMap<>();
 	private final Map<Class<? extends IGridCache>, GridCacheWrapper> caches = new HashMap<>();
 	private GridNode pivot;
 	private int priority; // how import is this network?
 	private GridStorage myStorage;
+	private final TimingStatistics timings = new TimingStatistics();
+	private long updates = 0;
 
 	public Grid( final GridNode center )
 	{
@@ -116,6 +134,7 @@ public class Grid implements IGrid
 		{
 			nodes.remove( gridNode );
 		}
+		this.eventBus.invalidate();
 
 		gridNode.setGridStorage( null );
 
@@ -199,6 +218,7 @@ public class Grid implements IGrid
 
 		// track node.
 		nodes.add( gridNode );
+		this.eventBus.invalidate();
 
 		for( final IGridCache cache : this.caches.values() )
 		{
@@ -221,7 +241,7 @@ public class Grid implements IGrid
 	public MENetworkEvent postEvent( final MENetworkEvent ev )
 	{
 		CraftingGridCache.pauseRebuilds();
-		final MENetworkEvent ret = this.eventBus.postEvent( this, ev );
+		final MENetworkEvent ret = this.eventBus.postEvent( ev );
 		CraftingGridCache.unpauseRebuilds();
 		return ret;
 	}
@@ -276,14 +296,43 @@ public class Grid implements IGrid
 
 	public void update()
 	{
-		for( final IGridCache gc : this.caches.values() )
+		final boolean sampled = TimingStatistics.isSampled( ++this.updates );
+		final long start = sampled ? System.nanoTime() : 0;
+
+		for( final GridCacheWrapper gc : this.caches.values() )
 		{
 			// are there any nodes left?
 			if( this.pivot != null )
 			{
-				gc.onUpdateTick();
+				gc.onUpdateTick( sampled );
 			}
 		}
+
+		if( sampled )
+		{
+			this.timings.add( System.nanoTime() - start );
+		}
+	}
+
+	/**
+	 * @return the time spent in {@link #update()}, only measured while tick timings are sampled.
+	 */
+	public TimingStatistics getUpdateTimings()
+	{
+		return this.timings;
+	}
+
+	/**
+	 * @return the update tick times of every grid cache, by cache class name.
+	 */
+	public Map<String, TimingStatistics> getCacheTimings()
+	{
+		final Map<String, TimingStatistics> out = new LinkedHashMap<>();
+		for( final GridCacheWrapper gc : this.caches.values() )
+		{
+			out.put( gc.getName(), gc.getTimings() );
+		}
+		return out;
 	}
 
 	void saveState()
@@ -23,6 +23,7 @@ import appeng.api.networking.IGridCache;
 import appeng.api.networking.IGridHost;
 import appeng.api.networking.IGridNode;
 import appeng.api.networking.IGridStorage;
+import appeng.me.helpers.TimingStatistics;
 
 
 public class GridCacheWrapper implements IGridCache
@@ -30,6 +31,7 @@ public class GridCacheWrapper implements IGridCache
 
 	private final IGridCache myCache;
 	private final String name;
+	private final TimingStatistics timings = new TimingStatistics();
 
 	public GridCacheWrapper( final IGridCache gc )
 	{
@@ -43,6 +45,25 @@ public class GridCacheWrapper implements IGridCache
 		this.getCache().onUpdateTick();
 	}
 
+	void onUpdateTick( final boolean sampled )
+	{
+		if( sampled )
+		{
+			final long start = System.nanoTime();
+			this.getCache().onUpdateTick();
+			this.timings.add( System.nanoTime() - start );
+		}
+		else
+		{
+			this.getCache().onUpdateTick();
+		}
+	}
+
+	public TimingStatistics getTimings()
+	{
+		return this.timings;
+	}
+
 	@Override
 	public void removeNode( final IGridNode gridNode, final IGridHost machine )
 	{
@@ -37,6 +37,7 @@ import appeng.api.util.IReadOnlyCollection;
 import appeng.core.AEConfig;
 import appeng.core.AELog;
 import appeng.core.features.AEFeature;
+import appeng.me.cache.PathGridCache;
 import appeng.me.pathfinding.IPathItem;
 import appeng.util.Platform;
 import appeng.util.ReadOnlyCollection;
@@ -49,6 +50,7 @@ public class GridConnection implements IGridConnection, IPathItem
 
 	private static final MENetworkChannelsChanged EVENT = new MENetworkChannelsChanged();
 	private int channelData = 0;
+	private boolean treeEdge = false;
 	private Object visitorIterationNumber = null;
 	private GridNode sideA;
 	private AEPartLocation fromAtoB;
@@ -102,15 +104,28 @@ public class GridConnection implements IGridConnection, IPathItem
 	@Override
 	public void destroy()
 	{
-		// a connection was destroyed RE-PATH!!
-		final IPathingGrid p = this.sideA.getInternalGrid().getCache( IPathingGrid.class );
-		p.repath();
+		// a connection was destroyed, update the paths that went through it.
+		final PathGridCache p = this.sideA.getInternalGrid().getCache( IPathingGrid.class );
+		p.removeConnection( this );
 
 		this.sideA.removeConnection( this );
 		this.sideB.removeConnection( this );
 
-		this.sideA.validateGrid();
-		this.sideB.validateGrid();
+		// only connections of the grid's spanning tree can split it.
+		if( this.treeEdge )
+		{
+			GridConnectivity.treeEdgeRemoved( this.sideA, this.sideB );
+		}
+	}
+
+	boolean isTreeEdge()
+	{
+		return this.treeEdge;
+	}
+
+	void setTreeEdge( final boolean treeEdge )
+	{
+		this.treeEdge = treeEdge;
 	}
 
 	@Override
@@ -182,6 +197,12 @@ public class GridConnection implements IGridConnection, IPathItem
 		this.channelData += usedChannels;
 	}
 
+	@Override
+	public int getChannelCount()
+	{
+		return this.getLastUsedChannels();
+	}
+
 	@Override
 	public EnumSet<GridFlags> getFlags()
 	{
@@ -261,6 +282,9 @@ public class GridConnection implements IGridConnection, IPathItem
 		// Create the actual connection
 		final GridConnection connection = new GridConnection( a, b, fromAtoB );
 
+		// a connection that joins two grids becomes part of the spanning tree of the merged grid.
+		connection.setTreeEdge( a.getMyGrid() == null || a.getMyGrid() != b.getMyGrid() );
+
 		// Update both nodes with the new connection.
 		if( a.getMyGrid() == null )
 		{
@@ -290,9 +314,9 @@ public class GridConnection implements IGridConnection, IPathItem
 			}
 		}
 
-		// a connection was destroyed RE-PATH!!
-		final IPathingGrid p = connection.sideA.getInternalGrid().getCache( IPathingGrid.class );
-		p.repath();
+		// a connection was created, route it.
+		final PathGridCache p = connection.sideA.getInternalGrid().getCache( IPathingGrid.class );
+		p.addConnection( connection );
 
 		connection.sideA.addConnection( connection );
 		connection.sideB.addConnection( connection );
@@ -0,0 +1,219 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.me;
+
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+import appeng.api.networking.IGridConnection;
+
+
+/**
+ * Keeps grids split correctly when connections are destroyed.
+ *
+ * Every grid has a spanning tree made of the connections flagged as tree edges. A connection becomes a tree edge
+ * when it merges two grids. Losing any other connection can never split a grid. When a tree edge goes away, both
+ * halves of the tree are searched in lock step until the smaller one is fully known. A connection leading out of it
+ * becomes the new tree edge, otherwise the smaller half is moved to a new grid.
+ */
+final class GridConnectivity
+{
+
+	private static final Graph<GridNode, IGridConnection> GRID = new Graph<GridNode, IGridConnection>()
+	{
+		@Override
+		public Iterable<IGridConnection> connections( final GridNode node )
+		{
+			return node.getConnections();
+		}
+
+		@Override
+		public GridNode otherSide( final IGridConnection connection, final GridNode node )
+		{
+			return (GridNode) connection.getOtherSide( node );
+		}
+
+		@Override
+		public boolean isTreeEdge( final IGridConnection connection )
+		{
+			return ( (GridConnection) connection ).isTreeEdge();
+		}
+
+		@Override
+		public void setTreeEdge( final IGridConnection connection )
+		{
+			( (GridConnection) connection ).setTreeEdge( true );
+		}
+	};
+
+	private GridConnectivity()
+	{
+	}
+
+	/**
+	 * Called after a tree edge between a and b was removed from both nodes.
+	 */
+	static void treeEdgeRemoved( final GridNode a, final GridNode b )
+	{
+		final Set<GridNode> smaller = findSplit( GRID, a, b );
+		if( smaller == null )
+		{
+			return;
+		}
+
+		final GridNode start = smaller.contains( a ) ? a : b;
+		final GridNode remaining = start == a ? b : a;
+
+		final Grid grid = remaining.getInternalGrid();
+		if( smaller.contains( grid.getPivot() ) )
+		{
+			grid.setPivot( remaining );
+		}
+
+		start.beginVisit( new GridPropagator( new Grid( start ) ) );
+	}
+
+	/**
+	 * Searches both halves after the tree edge between a and b was removed.
+	 *
+	 * @return the nodes of the smaller half if it lost its connection to the other one, null if a connection was
+	 * promoted to a tree edge in place of the removed one.
+	 */
+	@Nullable
+	static <N, E> Set<N> findSplit( final Graph<N, E> graph, final N a, final N b )
+	{
+		final Side<N, E> sideA = new Side<>( graph, a );
+		final Side<N, E> sideB = new Side<>( graph, b );
+
+		while( true )
+		{
+			if( sideA.step( sideB ) || sideB.step( sideA ) )
+			{
+				// found a replacement edge on the way.
+				return null;
+			}
+
+			if( sideA.isDone() )
+			{
+				return sideA.split();
+			}
+
+			if( sideB.isDone() )
+			{
+				return sideB.split();
+			}
+		}
+	}
+
+	/**
+	 * The parts of a network the search looks at.
+	 */
+	interface Graph<N, E>
+	{
+		Iterable<E> connections( N node );
+
+		N otherSide( E connection, N node );
+
+		boolean isTreeEdge( E connection );
+
+		void setTreeEdge( E connection );
+	}
+
+	private static class Side<N, E>
+	{
+		private final Graph<N, E> graph;
+		private final Set<N> visited = new HashSet<>();
+		private final Deque<N> open = new ArrayDeque<>();
+
+		private Side( final Graph<N, E> graph, final N start )
+		{
+			this.graph = graph;
+			this.visited.add( start );
+			this.open.add( start );
+		}
+
+		private boolean isDone()
+		{
+			return this.open.isEmpty();
+		}
+
+		/**
+		 * Expands one node along tree edges.
+		 *
+		 * @return true if a connection to a node already reached by the other side was promoted to a tree edge.
+		 */
+		private boolean step( final Side<N, E> other )
+		{
+			final N node = this.open.poll();
+			if( node == null )
+			{
+				return false;
+			}
+
+			for( final E c : this.graph.connections( node ) )
+			{
+				final N next = this.graph.otherSide( c, node );
+
+				if( this.graph.isTreeEdge( c ) )
+				{
+					if( this.visited.add( next ) )
+					{
+						this.open.add( next );
+					}
+				}
+				else if( other.visited.contains( next ) )
+				{
+					this.graph.setTreeEdge( c );
+					return true;
+				}
+			}
+
+			return false;
+		}
+
+		/**
+		 * Called once this half is fully known.
+		 *
+		 * @return the half, null if a connection leaving it was promoted to a tree edge.
+		 */
+		@Nullable
+		private Set<N> split()
+		{
+			// anything leaving the fully searched half keeps the grid together.
+			for( final N node : this.visited )
+			{
+				for( final E c : this.graph.connections( node ) )
+				{
+					if( !this.graph.isTreeEdge( c ) && !this.visited.contains( this.graph.otherSide( c, node ) ) )
+					{
+						this.graph.setTreeEdge( c );
+						return null;
+					}
+				}
+			}
+
+			return this.visited;
+		}
+	}
+}
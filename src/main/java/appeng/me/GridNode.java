@@ -139,17 +139,6 @@ public class GridNode implements IGridNode, IPathItem
 		return false;
 	}
 
-	void validateGrid()
-	{
-		final GridSplitDetector gsd = new GridSplitDetector( this.getInternalGrid().getPivot() );
-		this.beginVisit( gsd );
-		if( !gsd.isPivotFound() )
-		{
-			final IGridVisitor gp = new GridPropagator( new Grid( this ) );
-			this.beginVisit( gp );
-		}
-	}
-
 	public Grid getInternalGrid()
 	{
 		if( this.myGrid == null )
@@ -664,6 +653,12 @@ public class GridNode implements IGridNode, IPathItem
 		this.usedChannels += usedChannels;
 	}
 
+	@Override
+	public int getChannelCount()
+	{
+		return this.usedChannels;
+	}
+
 	@Override
 	public EnumSet<GridFlags> getFlags()
 	{
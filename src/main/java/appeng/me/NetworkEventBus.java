@@ -19,7 +19,13 @@
 package appeng.me;
 
 
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -28,10 +34,13 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
+import javax.annotation.Nullable;
+
+import appeng.api.networking.IGridHost;
 import appeng.api.networking.IGridNode;
-import appeng.api.networking.IMachineSet;
 import appeng.api.networking.events.MENetworkEvent;
 import appeng.api.networking.events.MENetworkEventSubscribe;
+import appeng.api.util.IReadOnlyCollection;
 import appeng.core.AELog;
 
 
@@ -39,6 +48,45 @@ public class NetworkEventBus
 {
 	private static final Collection<Class> READ_CLASSES = new HashSet<>();
 	private static final Map<Class<? extends MENetworkEvent>, Map<Class, MENetworkEventInfo>> EVENTS = new HashMap<>();
+	private static final Subscriber[] NO_SUBSCRIBERS = new Subscriber[0];
+
+	/**
+	 * bumped whenever a new subscriber class is read, so every grid rebuilds its index.
+	 */
+	private static int generation;
+
+	/**
+	 * per grid list of event targets, built on first use and dropped when the grid changes.
+	 */
+	private final Map<Class<? extends MENetworkEvent>, Subscriber[]> index = new HashMap<>();
+	private final Members members;
+	private int indexGeneration = -1;
+	private int modifications;
+
+	NetworkEventBus( final Members members )
+	{
+		this.members = members;
+	}
+
+	/**
+	 * The caches and machines of a grid, which its events are posted to.
+	 */
+	interface Members
+	{
+		@Nullable
+		Object getCache( Class<?> c );
+
+		IReadOnlyCollection<IGridNode> getMachines( Class<? extends IGridHost> c );
+	}
+
+	/**
+	 * Called by the grid whenever a node joins or leaves.
+	 */
+	void invalidate()
+	{
+		this.modifications++;
+		this.index.clear();
+	}
 
 	void readClass( final Class listAs, final Class c )
 	{
@@ -47,6 +95,7 @@ public class NetworkEventBus
 			return;
 		}
 		READ_CLASSES.add( c );
+		generation++;
 
 		try
 		{
@@ -96,39 +145,26 @@ public class NetworkEventBus
 		}
 	}
 
-	MENetworkEvent postEvent( final Grid g, final MENetworkEvent e )
+	MENetworkEvent postEvent( final MENetworkEvent e )
 	{
-		final Map<Class, MENetworkEventInfo> subscribers = EVENTS.get( e.getClass() );
+		final Subscriber[] targets = this.getSubscribers( e.getClass() );
+		final int expected = this.modifications;
 		int x = 0;
 
 		try
 		{
-			if( subscribers != null )
+			for( final Subscriber target : targets )
 			{
-				for( final Entry<Class, MENetworkEventInfo> subscriber : subscribers.entrySet() )
+				if( target.node == null )
 				{
-					final MENetworkEventInfo target = subscriber.getValue();
-					final GridCacheWrapper cache = g.getCaches().get( subscriber.getKey() );
-					if( cache != null )
-					{
-						x++;
-						target.invoke( cache.getCache(), e );
-					}
-
-					// events may create or remove grid nodes in rare cases
-					final IMachineSet machines = g.getMachines( subscriber.getKey() );
-					final List<IGridNode> work = new ArrayList<>( machines.size() );
-					machines.forEach( work::add );
-
-					for( final IGridNode obj : work )
-					{
-						// stil part of grid?
-						if( machines.contains( obj ) )
-						{
-							x++;
-							target.invoke( obj.getMachine(), e );
-						}
-					}
+					x++;
+					target.info.invoke( target.cache, e );
+				}
+				// events may create or remove grid nodes in rare cases, only check membership once that happened.
+				else if( this.modifications == expected || this.members.getMachines( target.node.getMachineClass() ).contains( target.node ) )
+				{
+					x++;
+					target.info.invoke( target.node.getMachine(), e );
 				}
 			}
 		}
@@ -141,6 +177,47 @@ public class NetworkEventBus
 		return e;
 	}
 
+	private Subscriber[] getSubscribers( final Class<? extends MENetworkEvent> event )
+	{
+		if( this.indexGeneration != generation )
+		{
+			this.index.clear();
+			this.indexGeneration = generation;
+		}
+
+		Subscriber[] targets = this.index.get( event );
+		if( targets == null )
+		{
+			final Map<Class, MENetworkEventInfo> subscribers = EVENTS.get( event );
+			if( subscribers == null )
+			{
+				targets = NO_SUBSCRIBERS;
+			}
+			else
+			{
+				final List<Subscriber> work = new ArrayList<>();
+				for( final Entry<Class, MENetworkEventInfo> subscriber : subscribers.entrySet() )
+				{
+					final MENetworkEventInfo info = subscriber.getValue();
+					final Object cache = this.members.getCache( subscriber.getKey() );
+					if( cache != null )
+					{
+						work.add( new Subscriber( info, cache, null ) );
+					}
+
+					final IReadOnlyCollection<IGridNode> machines = this.members.getMachines( subscriber.getKey() );
+					for( final IGridNode node : machines )
+					{
+						work.add( new Subscriber( info, null, node ) );
+					}
+				}
+				targets = work.toArray( new Subscriber[work.size()] );
+			}
+			this.index.put( event, targets );
+		}
+		return targets;
+	}
+
 	MENetworkEvent postEventTo( final Grid grid, final GridNode node, final MENetworkEvent e )
 	{
 		final Map<Class, MENetworkEventInfo> subscribers = EVENTS.get( e.getClass() );
@@ -173,25 +250,75 @@ public class NetworkEventBus
 		private static final long serialVersionUID = -3079021487019171205L;
 	}
 
+	/**
+	 * Functional form of a subscriber method, implemented through {@link LambdaMetafactory} where possible.
+	 */
+	interface EventInvoker
+	{
+		void invoke( Object target, MENetworkEvent e ) throws Throwable;
+	}
+
+	private static class Subscriber
+	{
+
+		private final MENetworkEventInfo info;
+		private final Object cache;
+		private final IGridNode node;
+
+		private Subscriber( final MENetworkEventInfo info, final Object cache, final IGridNode node )
+		{
+			this.info = info;
+			this.cache = cache;
+			this.node = node;
+		}
+	}
+
+	static EventInvoker compile( final Method m )
+	{
+		final Class<?> owner = m.getDeclaringClass();
+
+		try
+		{
+			// the generated class is defined next to the bus, so it has to be able to see the handler.
+			if( Modifier.isPublic( owner.getModifiers() ) && Class.forName( owner.getName(), false, NetworkEventBus.class.getClassLoader() ) == owner )
+			{
+				final MethodHandles.Lookup lookup = MethodHandles.lookup();
+				final MethodHandle handle = lookup.unreflect( m );
+				final CallSite site = LambdaMetafactory.metafactory( lookup, "invoke", MethodType.methodType( EventInvoker.class ),
+						MethodType.methodType( void.class, Object.class, MENetworkEvent.class ), handle,
+						MethodType.methodType( void.class, owner, m.getParameterTypes()[0] ) );
+				return (EventInvoker) site.getTarget().invoke();
+			}
+		}
+		catch( final Throwable t )
+		{
+			AELog.debug( t );
+		}
+
+		return m::invoke;
+	}
+
 	private class EventMethod
 	{
 
 		private final Class objClass;
 		private final Method objMethod;
 		private final Class objEvent;
+		private final EventInvoker invoker;
 
 		public EventMethod( final Class Event, final Class ObjClass, final Method ObjMethod )
 		{
 			this.objClass = ObjClass;
 			this.objMethod = ObjMethod;
 			this.objEvent = Event;
+			this.invoker = compile( ObjMethod );
 		}
 
 		private void invoke( final Object obj, final MENetworkEvent e ) throws NetworkEventDone
 		{
 			try
 			{
-				this.objMethod.invoke( obj, e );
+				this.invoker.invoke( obj, e );
 			}
 			catch( final Throwable e1 )
 			{
@@ -26,6 +26,7 @@ import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -42,6 +43,8 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Multimap;
 
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import it.unimi.dsi.fastutil.objects.Object2ObjectMap;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.objects.ObjectRBTreeSet;
@@ -84,6 +87,7 @@ import appeng.api.storage.data.IItemList;
 import appeng.crafting.CraftingJob;
 import appeng.crafting.CraftingLink;
 import appeng.crafting.CraftingLinkNexus;
+import appeng.crafting.CraftingTreeNode;
 import appeng.crafting.CraftingWatcher;
 import appeng.me.cluster.implementations.CraftingCPUCluster;
 import appeng.me.helpers.BaseActionSource;
@@ -96,6 +100,7 @@ public class CraftingGridCache implements ICraftingGrid, ICraftingProviderHelper
 {
 
 	private static final ExecutorService CRAFTING_POOL;
+	private static final int MAX_PLAN_TEMPLATES = 64;
 	private static final Comparator<ICraftingPatternDetails> COMPARATOR = ( firstDetail, nextDetail ) -> nextDetail.getPriority() - firstDetail.getPriority();
 
 	static
@@ -111,13 +116,28 @@ public class CraftingGridCache implements ICraftingGrid, ICraftingProviderHelper
 	private final IGrid grid;
 	private final Object2ObjectMap<ICraftingPatternDetails, List<ICraftingMedium>> craftingMethods = new Object2ObjectOpenHashMap<>();
 	private final Object2ObjectMap<IAEItemStack, ImmutableList<ICraftingPatternDetails>> craftableItems = new Object2ObjectOpenHashMap<>();
-	private final Set<IAEItemStack> emitableItems = new HashSet<>();
+	private final Object2IntMap<IAEItemStack> emitableItems = new Object2IntOpenHashMap<>();
+	// what every provider added during its last provideCrafting, so it can be retracted on its own.
+	private final Map<ICraftingProvider, ProviderPatterns> providerPatterns = new HashMap<>();
+	private final Object2ObjectMap<IAEItemStack, List<ICraftingPatternDetails>> patternsByOutput = new Object2ObjectOpenHashMap<>();
+	private final Set<ICraftingProvider> dirtyProviders = new HashSet<>();
+	private ProviderPatterns currentProvider;
 	private final Map<String, CraftingLinkNexus> craftingLinks = new HashMap<>();
 	private final Multimap<IAEStack, CraftingWatcher> interests = HashMultimap.create();
 	private final GenericInterestManager<CraftingWatcher> interestManager = new GenericInterestManager<>( this.interests );
 	private IStorageGrid storageGrid;
 	private IEnergyGrid energyGrid;
 	private boolean updateList = false;
+	private final Map<IAEItemStack, PlanTemplate> planTemplates = new LinkedHashMap<IAEItemStack, PlanTemplate>( 16, 0.75f, true )
+	{
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry( final Map.Entry<IAEItemStack, PlanTemplate> eldest )
+		{
+			return this.size() > MAX_PLAN_TEMPLATES;
+		}
+	};
 	private static int pauseRebuilds = 0;
 	private static Set<CraftingGridCache> rebuildNeeded = new HashSet<>();
 
@@ -191,7 +211,7 @@ public class CraftingGridCache implements ICraftingGrid, ICraftingProviderHelper
 		if( machine instanceof ICraftingProvider )
 		{
 			this.craftingProviders.remove( machine );
-			this.updatePatterns();
+			this.updatePatterns( (ICraftingProvider) machine );
 		}
 	}
 
@@ -225,7 +245,7 @@ public class CraftingGridCache implements ICraftingGrid, ICraftingProviderHelper
 		if( machine instanceof ICraftingProvider )
 		{
 			this.craftingProviders.add( (ICraftingProvider) machine );
-			this.updatePatterns();
+			this.updatePatterns( (ICraftingProvider) machine );
 		}
 	}
 
@@ -265,6 +285,12 @@ public class CraftingGridCache implements ICraftingGrid, ICraftingProviderHelper
 		}
 	}
 
+	private void updatePatterns( final ICraftingProvider provider )
+	{
+		this.dirtyProviders.add( provider );
+		this.updatePatterns();
+	}
+
 	private void updatePatterns()
 	{
 		// coalesce change events during a grid traversal to a single rebuild
@@ -274,53 +300,167 @@ public class CraftingGridCache implements ICraftingGrid, ICraftingProviderHelper
 			return;
 		}
 
-		final Object2ObjectMap<IAEItemStack, ImmutableList<ICraftingPatternDetails>> oldItems = this.craftableItems;
+		if( this.dirtyProviders.isEmpty() )
+		{
+			return;
+		}
+
+		// the cached pattern trees were built from the old patterns.
+		this.planTemplates.clear();
+
+		final Object2ObjectMap<IAEItemStack, IAEItemStack> changed = new Object2ObjectOpenHashMap<>();
+
+		for( final ICraftingProvider provider : this.dirtyProviders )
+		{
+			final ProviderPatterns old = this.providerPatterns.remove( provider );
+			if( old != null )
+			{
+				this.retractPatterns( old, changed );
+			}
+
+			if( this.craftingProviders.contains( provider ) )
+			{
+				final ProviderPatterns added = new ProviderPatterns();
+				this.currentProvider = added;
+
+				try
+				{
+					provider.provideCrafting( this );
+				}
+				finally
+				{
+					this.currentProvider = null;
+				}
+
+				this.providerPatterns.put( provider, added );
+				this.addPatterns( added, changed );
+			}
+		}
+
+		this.dirtyProviders.clear();
 
-		// erase list.
-		this.craftingMethods.clear();
-		this.craftableItems.clear();
-		this.emitableItems.clear();
+		for( final IAEItemStack out : changed.keySet() )
+		{
+			final List<ICraftingPatternDetails> methods = this.patternsByOutput.get( out );
 
-		// update the stuff that was in the list...
-		this.storageGrid.postAlterationOfStoredItems( AEApi.instance().storage().getStorageChannel( IItemStorageChannel.class ), oldItems.keySet(),
-				new BaseActionSource() );
+			if( methods == null )
+			{
+				this.craftableItems.remove( out );
+			}
+			else
+			{
+				final ObjectSet<ICraftingPatternDetails> sorted = new ObjectRBTreeSet<>( COMPARATOR );
+				sorted.addAll( methods );
+				this.craftableItems.remove( out );
+				this.craftableItems.put( out, ImmutableList.copyOf( sorted ) );
+			}
+		}
 
-		// re-create list..
-		for( final ICraftingProvider provider : this.craftingProviders )
+		if( !changed.isEmpty() )
 		{
-			provider.provideCrafting( this );
+			// update the stuff that changed in the list...
+			this.storageGrid.postAlterationOfStoredItems( AEApi.instance().storage().getStorageChannel( IItemStorageChannel.class ), changed.values(),
+					new BaseActionSource() );
 		}
+	}
+
+	private void addPatterns( final ProviderPatterns added, final Object2ObjectMap<IAEItemStack, IAEItemStack> changed )
+	{
+		for( int x = 0; x < added.patterns.size(); x++ )
+		{
+			final ICraftingPatternDetails details = added.patterns.get( x );
+			List<ICraftingMedium> mediums = this.craftingMethods.get( details );
+
+			if( mediums == null )
+			{
+				this.craftingMethods.put( details, mediums = new ArrayList<>() );
+
+				for( final IAEItemStack out : this.getCraftableKeys( details ) )
+				{
+					this.patternsByOutput.computeIfAbsent( out, k -> new ArrayList<>() ).add( details );
+					changed.put( out, out );
+				}
+			}
+
+			mediums.add( added.mediums.get( x ) );
+		}
+
+		for( final IAEItemStack emitable : added.emitables )
+		{
+			if( this.emitableItems.getInt( emitable ) == 0 )
+			{
+				changed.put( emitable, emitable );
+			}
 
-		final Object2ObjectMap<IAEItemStack, ObjectSet<ICraftingPatternDetails>> tmpCraft = new Object2ObjectOpenHashMap<>();
+			this.emitableItems.put( emitable, this.emitableItems.getInt( emitable ) + 1 );
+		}
+	}
 
-		// new craftables!
-		for( final ICraftingPatternDetails details : this.craftingMethods.keySet() )
+	private void retractPatterns( final ProviderPatterns old, final Object2ObjectMap<IAEItemStack, IAEItemStack> changed )
+	{
+		for( int x = 0; x < old.patterns.size(); x++ )
 		{
-			for( IAEItemStack out : details.getCondensedOutputs() )
+			final ICraftingPatternDetails details = old.patterns.get( x );
+			final List<ICraftingMedium> mediums = this.craftingMethods.get( details );
+
+			if( mediums == null )
 			{
-				out = out.copy();
-				out.reset();
-				out.setCraftable( true );
+				continue;
+			}
 
-				ObjectSet<ICraftingPatternDetails> methods = tmpCraft.get( out );
+			mediums.remove( old.mediums.get( x ) );
 
-				if( methods == null )
+			if( mediums.isEmpty() )
+			{
+				this.craftingMethods.remove( details );
+
+				for( final IAEItemStack out : this.getCraftableKeys( details ) )
 				{
-					tmpCraft.put( out, methods = new ObjectRBTreeSet<>( COMPARATOR ) );
+					final List<ICraftingPatternDetails> methods = this.patternsByOutput.get( out );
+					if( methods != null )
+					{
+						methods.remove( details );
+						if( methods.isEmpty() )
+						{
+							this.patternsByOutput.remove( out );
+						}
+					}
+
+					changed.put( out, out );
 				}
+			}
+		}
+
+		for( final IAEItemStack emitable : old.emitables )
+		{
+			final int count = this.emitableItems.getInt( emitable ) - 1;
 
-				methods.add( details );
+			if( count <= 0 )
+			{
+				this.emitableItems.removeInt( emitable );
+				changed.put( emitable, emitable );
+			}
+			else
+			{
+				this.emitableItems.put( emitable, count );
 			}
 		}
+	}
+
+	private List<IAEItemStack> getCraftableKeys( final ICraftingPatternDetails details )
+	{
+		final IAEItemStack[] outputs = details.getCondensedOutputs();
+		final List<IAEItemStack> keys = new ArrayList<>( outputs.length );
 
-		// make them immutable
-		for( final Entry<IAEItemStack, ObjectSet<ICraftingPatternDetails>> e : tmpCraft.entrySet() )
+		for( IAEItemStack out : outputs )
 		{
-			this.craftableItems.put( e.getKey(), ImmutableList.copyOf( e.getValue() ) );
+			out = out.copy();
+			out.reset();
+			out.setCraftable( true );
+			keys.add( out );
 		}
 
-		this.storageGrid.postAlterationOfStoredItems( AEApi.instance().storage().getStorageChannel( IItemStorageChannel.class ), this.craftableItems.keySet(),
-				new BaseActionSource() );
+		return keys;
 	}
 
 	private void updateCPUClusters()
@@ -369,29 +509,41 @@ public class CraftingGridCache implements ICraftingGrid, ICraftingProviderHelper
 	@MENetworkEventSubscribe
 	public void updateCPUClusters( final MENetworkCraftingPatternChange c )
 	{
+		final Object machine = c.node == null ? null : c.node.getMachine();
+
+		if( machine instanceof ICraftingProvider && this.craftingProviders.contains( machine ) )
+		{
+			this.dirtyProviders.add( (ICraftingProvider) machine );
+		}
+		else if( this.craftingProviders.contains( c.provider ) )
+		{
+			this.dirtyProviders.add( c.provider );
+		}
+		else
+		{
+			this.dirtyProviders.addAll( this.craftingProviders );
+		}
+
 		this.updatePatterns();
 	}
 
 	@Override
 	public void addCraftingOption( final ICraftingMedium medium, final ICraftingPatternDetails api )
 	{
-		List<ICraftingMedium> details = this.craftingMethods.get( api );
-		if( details == null )
+		if( this.currentProvider != null )
 		{
-			details = new ArrayList<>();
-			details.add( medium );
-			this.craftingMethods.put( api, details );
-		}
-		else
-		{
-			details.add( medium );
+			this.currentProvider.mediums.add( medium );
+			this.currentProvider.patterns.add( api );
 		}
 	}
 
 	@Override
 	public void setEmitable( final IAEItemStack someItem )
 	{
-		this.emitableItems.add( someItem.copy() );
+		if( this.currentProvider != null )
+		{
+			this.currentProvider.emitables.add( someItem.copy() );
+		}
 	}
 
 	@Override
@@ -477,7 +629,7 @@ public class CraftingGridCache implements ICraftingGrid, ICraftingProviderHelper
 			out.addCrafting( stack );
 		}
 
-		for( final IAEItemStack st : this.emitableItems )
+		for( final IAEItemStack st : this.emitableItems.keySet() )
 		{
 			out.addCrafting( st );
 		}
@@ -528,7 +680,17 @@ public class CraftingGridCache implements ICraftingGrid, ICraftingProviderHelper
 			throw new IllegalArgumentException( "Invalid Crafting Job Request" );
 		}
 
-		final CraftingJob job = new CraftingJob( world, grid, actionSrc, slotItem, cb );
+		final IAEItemStack key = slotItem.copy();
+		key.setStackSize( 1 );
+
+		final PlanTemplate cached = this.planTemplates.get( key );
+		final boolean reusable = cached != null && cached.world == world;
+		final CraftingJob job = new CraftingJob( world, grid, actionSrc, slotItem, cb, reusable ? cached.tree : null );
+
+		if( !reusable )
+		{
+			this.planTemplates.put( key, new PlanTemplate( world, job.createTemplate() ) );
+		}
 
 		return CRAFTING_POOL.submit( job, (ICraftingJob) job );
 	}
@@ -602,7 +764,7 @@ public class CraftingGridCache implements ICraftingGrid, ICraftingProviderHelper
 	@Override
 	public boolean canEmitFor( final IAEItemStack someItem )
 	{
-		return this.emitableItems.contains( someItem );
+		return this.emitableItems.containsKey( someItem );
 	}
 
 	@Override
@@ -698,4 +860,29 @@ public class CraftingGridCache implements ICraftingGrid, ICraftingProviderHelper
 			// no..
 		}
 	}
+
+	/**
+	 * The pattern tree of an earlier job, so repeated requests for the same item skip the pattern lookups.
+	 */
+	private static class PlanTemplate
+	{
+		private final World world;
+		private final CraftingTreeNode tree;
+
+		private PlanTemplate( final World world, final CraftingTreeNode tree )
+		{
+			this.world = world;
+			this.tree = tree;
+		}
+	}
+
+	/**
+	 * Everything a single provider offered to the grid.
+	 */
+	private static class ProviderPatterns
+	{
+		private final List<ICraftingMedium> mediums = new ArrayList<>();
+		private final List<ICraftingPatternDetails> patterns = new ArrayList<>();
+		private final List<IAEItemStack> emitables = new ArrayList<>();
+	}
 }
@@ -19,18 +19,14 @@
 package appeng.me.cache;
 
 
+import java.util.ArrayDeque;
 import java.util.Collection;
-import java.util.Comparator;
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.NavigableSet;
-import java.util.PriorityQueue;
 import java.util.Queue;
 import java.util.Set;
 
-import com.google.common.base.Preconditions;
 import com.google.common.collect.HashMultiset;
 import com.google.common.collect.Multiset;
 import com.google.common.collect.Sets;
@@ -53,49 +49,42 @@ import appeng.api.networking.events.MENetworkPostCacheConstruction;
 import appeng.api.networking.events.MENetworkPowerIdleChange;
 import appeng.api.networking.events.MENetworkPowerStatusChange;
 import appeng.api.networking.events.MENetworkPowerStorage;
-import appeng.api.networking.events.MENetworkPowerStorage.PowerEventType;
 import appeng.api.networking.pathing.IPathingGrid;
 import appeng.me.Grid;
 import appeng.me.GridNode;
 import appeng.me.energy.EnergyThreshold;
 import appeng.me.energy.EnergyWatcher;
+import appeng.me.energy.PowerStorageList;
 
 
 public class EnergyGridCache implements IEnergyGrid
 {
 
 	private static final double MAX_BUFFER_STORAGE = 800;
-	private static final Comparator<IEnergyGridProvider> COMPARATOR_HIGHEST_AMOUNT_STORED_FIRST = ( o1, o2 ) -> Double.compare( o2.getProviderStoredEnergy(),
-			o1.getProviderStoredEnergy() );
+	private static final IEnergyGridProvider[] NO_PROVIDERS = new IEnergyGridProvider[0];
 
-	private static final Comparator<IEnergyGridProvider> COMPARATOR_LOWEST_PERCENTAGE_FIRST = ( o1, o2 ) ->
-	{
-		final double percent1 = ( o1.getProviderStoredEnergy() + 1 ) / ( o1.getProviderMaxEnergy() + 1 );
-		final double percent2 = ( o2.getProviderStoredEnergy() + 1 ) / ( o2.getProviderMaxEnergy() + 1 );
-
-		return Double.compare( percent1, percent2 );
-	};
+	/**
+	 * bumped whenever any grid gains or loses an {@link IEnergyGridProvider}, which invalidates every cached topology.
+	 */
+	private static int topologyVersion = 0;
 
 	private final NavigableSet<EnergyThreshold> interests = Sets.newTreeSet();
 
-	// Should only be modified from the add/remove methods below to guard against
-	// concurrent modifications
 	private final double averageLength = 40.0;
-	private final Set<IAEPowerStorage> providers = new LinkedHashSet<>();
-	// Used to track whether an extraction is currently in progress, to fail fast
-	// when something externally
-	// modifies the energy grid.
-	private boolean ongoingExtractOperation = false;
-
-	// Should only be modified from the add/remove methods below to guard against
-	// concurrent modifications
-	private final Set<IAEPowerStorage> requesters = new LinkedHashSet<>();
-	// Used to track whether an injection is currently in progress, to fail fast
-	// when something externally
-	// modifies the energy grid.
-	private boolean ongoingInjectOperation = false;
+
+	// Both lists can be modified while they are walked, removed entries are compacted once per tick.
+	private final PowerStorageList providers = new PowerStorageList();
+	private final PowerStorageList requesters = new PowerStorageList();
 
 	private final Multiset<IEnergyGridProvider> energyGridProviders = HashMultiset.create();
+
+	/**
+	 * every provider reachable from this grid, starting with this grid itself.
+	 */
+	private IEnergyGridProvider[] topology = NO_PROVIDERS;
+	private int cachedTopologyVersion = -1;
+	private double[] visitOrder = new double[0];
+	private boolean visiting = false;
 	private final IGrid myGrid;
 	private final HashMap<IGridNode, IEnergyWatcher> watchers = new HashMap<>();
 
@@ -126,10 +115,6 @@ public class EnergyGridCache implements IEnergyGrid
 	private double lastStoredPower = -1;
 
 	private final GridPowerStorage localStorage = new GridPowerStorage();
-	private Set<IAEPowerStorage> providerToRemove = new HashSet<>();
-	private Set<IAEPowerStorage> requesterToRemove = new HashSet<>();
-	private Set<IAEPowerStorage> providersToAdd = new HashSet<>();
-	private Set<IAEPowerStorage> requesterToAdd = new HashSet<>();
 
 	public EnergyGridCache( final IGrid g )
 	{
@@ -168,27 +153,13 @@ public class EnergyGridCache implements IEnergyGrid
 				case PROVIDE_POWER:
 					if( ev.storage.getPowerFlow() != AccessRestriction.WRITE )
 					{
-						if( !ongoingExtractOperation )
-						{
-							addProvider( ev.storage );
-						}
-						else
-						{
-							this.providersToAdd.add( ev.storage );
-						}
+						this.providers.add( ev.storage );
 					}
 					break;
 				case REQUEST_POWER:
 					if( ev.storage.getPowerFlow() != AccessRestriction.READ )
 					{
-						if( !ongoingInjectOperation )
-						{
-							addRequester( ev.storage );
-						}
-						else
-						{
-							this.requesterToAdd.add( ev.storage );
-						}
+						this.requesters.add( ev.storage );
 					}
 					break;
 			}
@@ -202,6 +173,9 @@ public class EnergyGridCache implements IEnergyGrid
 	@Override
 	public void onUpdateTick()
 	{
+		this.providers.compact();
+		this.requesters.compact();
+
 		if( !this.interests.isEmpty() )
 		{
 			final double oldPower = this.lastStoredPower;
@@ -268,29 +242,122 @@ public class EnergyGridCache implements IEnergyGrid
 	public double extractAEPower( final double amt, final Actionable mode, final PowerMultiplier pm )
 	{
 		final double toExtract = pm.multiply( amt );
-		final Queue<IEnergyGridProvider> toVisit = new PriorityQueue<>( COMPARATOR_HIGHEST_AMOUNT_STORED_FIRST );
-		final Set<IEnergyGridProvider> visited = new HashSet<>();
 
-		double extracted = 0;
-		toVisit.add( this );
+		// this grid is always asked first, the other providers only when it runs short.
+		double extracted = this.extractProviderPower( toExtract, mode );
+
+		if( extracted < toExtract )
+		{
+			final IEnergyGridProvider[] providers = this.getTopology();
+			if( providers.length > 1 )
+			{
+				final double[] order = this.beginVisit( providers.length );
+				try
+				{
+					for( int i = 1; i < providers.length; i++ )
+					{
+						order[i] = providers[i].getProviderStoredEnergy();
+					}
+
+					// highest amount stored first
+					for( int i = next( order, providers.length, false ); i > 0 && extracted < toExtract; i = next( order, providers.length, false ) )
+					{
+						extracted += providers[i].extractProviderPower( toExtract - extracted, mode );
+					}
+				}
+				finally
+				{
+					this.endVisit( order );
+				}
+			}
+		}
+
+		return pm.divide( extracted );
+	}
 
-		while( !toVisit.isEmpty() && extracted < toExtract )
+	/**
+	 * Returns the cached provider graph, rebuilt only if any grid changed its providers since it was collected.
+	 */
+	private IEnergyGridProvider[] getTopology()
+	{
+		if( this.cachedTopologyVersion != topologyVersion )
 		{
-			final IEnergyGridProvider next = toVisit.poll();
-			visited.add( next );
+			final Set<IEnergyGridProvider> visited = new LinkedHashSet<>();
+			final Queue<IEnergyGridProvider> toVisit = new ArrayDeque<>();
 
-			extracted += next.extractProviderPower( toExtract - extracted, mode );
+			visited.add( this );
+			toVisit.add( this );
 
-			for( IEnergyGridProvider iEnergyGridProvider : next.providers() )
+			while( !toVisit.isEmpty() )
 			{
-				if( !visited.contains( iEnergyGridProvider ) )
+				for( final IEnergyGridProvider provider : toVisit.poll().providers() )
 				{
-					toVisit.add( iEnergyGridProvider );
+					if( visited.add( provider ) )
+					{
+						toVisit.add( provider );
+					}
 				}
 			}
+
+			this.topology = visited.toArray( new IEnergyGridProvider[visited.size()] );
+			this.cachedTopologyVersion = topologyVersion;
 		}
 
-		return pm.divide( extracted );
+		return this.topology;
+	}
+
+	private double[] beginVisit( final int length )
+	{
+		// a provider reaching back into this grid gets its own scratch space.
+		if( this.visiting )
+		{
+			return new double[length];
+		}
+
+		if( this.visitOrder.length < length )
+		{
+			this.visitOrder = new double[length];
+		}
+
+		this.visiting = true;
+		return this.visitOrder;
+	}
+
+	private void endVisit( final double[] order )
+	{
+		if( order == this.visitOrder )
+		{
+			this.visiting = false;
+		}
+	}
+
+	/**
+	 * Picks the next provider to visit from the sort keys and marks it as visited.
+	 *
+	 * @return the index of the provider, or -1 once all were visited. Index 0 is this grid and never returned.
+	 */
+	private static int next( final double[] order, final int length, final boolean lowestFirst )
+	{
+		int best = -1;
+		for( int i = 1; i < length; i++ )
+		{
+			if( !Double.isNaN( order[i] ) && ( best < 0 || ( lowestFirst ? order[i] < order[best] : order[i] > order[best] ) ) )
+			{
+				best = i;
+			}
+		}
+
+		if( best > 0 )
+		{
+			order[best] = Double.NaN;
+		}
+
+		return best;
+	}
+
+	private static double getFillRatio( final IEnergyGridProvider provider )
+	{
+		return ( provider.getProviderStoredEnergy() + 1 ) / ( provider.getProviderMaxEnergy() + 1 );
 	}
 
 	@Override
@@ -318,9 +385,13 @@ public class EnergyGridCache implements IEnergyGrid
 	{
 		this.availableTicksSinceUpdate = 0;
 		this.globalAvailablePower = 0;
-		for( final IAEPowerStorage p : this.providers )
+		for( int i = 0; i < this.providers.slots(); i++ )
 		{
-			this.globalAvailablePower += p.getAECurrentPower();
+			final IAEPowerStorage p = this.providers.get( i );
+			if( p != null )
+			{
+				this.globalAvailablePower += p.getAECurrentPower();
+			}
 		}
 	}
 
@@ -335,32 +406,22 @@ public class EnergyGridCache implements IEnergyGrid
 	{
 		double extractedPower = 0;
 
-		this.providers.addAll( providersToAdd );
-		providersToAdd.clear();
-
-		final Iterator<IAEPowerStorage> it = this.providers.iterator();
-
-		ongoingExtractOperation = true;
-		try
+		for( int i = 0; extractedPower < amt && i < this.providers.slots(); i++ )
 		{
-			while ( extractedPower < amt && it.hasNext() )
+			final IAEPowerStorage node = this.providers.get( i );
+			if( node == null )
 			{
-				final IAEPowerStorage node = it.next();
+				continue;
+			}
 
-				final double req = amt - extractedPower;
-				final double newPower = node.extractAEPower( req, mode, PowerMultiplier.ONE );
-				extractedPower += newPower;
+			final double req = amt - extractedPower;
+			final double newPower = node.extractAEPower( req, mode, PowerMultiplier.ONE );
+			extractedPower += newPower;
 
-				if( newPower < req && mode == Actionable.MODULATE )
-				{
-					it.remove();
-				}
+			if( newPower < req && mode == Actionable.MODULATE )
+			{
+				this.providers.removeSlot( i );
 			}
-		} finally
-		{
-			providers.removeIf( p -> providerToRemove.contains( p ) );
-			this.providerToRemove.clear();
-			ongoingExtractOperation = false;
 		}
 
 		final double result = Math.min( extractedPower, amt );
@@ -384,30 +445,20 @@ public class EnergyGridCache implements IEnergyGrid
 	{
 		final double originalAmount = amt;
 
-		this.requesters.addAll( requesterToAdd );
-		requesterToAdd.clear();
-
-		final Iterator<IAEPowerStorage> it = this.requesters.iterator();
-
-		ongoingInjectOperation = true;
-		try
+		for( int i = 0; amt > 0 && i < this.requesters.slots(); i++ )
 		{
-			while ( amt > 0 && it.hasNext() )
+			final IAEPowerStorage node = this.requesters.get( i );
+			if( node == null )
 			{
-				final IAEPowerStorage node = it.next();
+				continue;
+			}
 
-				amt = node.injectAEPower( amt, mode );
+			amt = node.injectAEPower( amt, mode );
 
-				if( amt > 0 && mode == Actionable.MODULATE )
-				{
-					it.remove();
-				}
+			if( amt > 0 && mode == Actionable.MODULATE )
+			{
+				this.requesters.removeSlot( i );
 			}
-		} finally
-		{
-			requesters.removeIf( r -> requesterToRemove.contains( r ) );
-			this.requesterToRemove.clear();
-			ongoingInjectOperation = false;
 		}
 
 		final double overflow = Math.max( 0.0, amt );
@@ -425,11 +476,10 @@ public class EnergyGridCache implements IEnergyGrid
 	{
 		double required = 0;
 
-		final Iterator<IAEPowerStorage> it = this.requesters.iterator();
-		while( required < maxRequired && it.hasNext() )
+		for( int i = 0; required < maxRequired && i < this.requesters.slots(); i++ )
 		{
-			final IAEPowerStorage node = it.next();
-			if( node.getPowerFlow() != AccessRestriction.READ )
+			final IAEPowerStorage node = this.requesters.get( i );
+			if( node != null && node.getPowerFlow() != AccessRestriction.READ )
 			{
 				required += Math.max( 0.0, node.getAEMaxPower() - node.getAECurrentPower() );
 			}
@@ -459,24 +509,30 @@ public class EnergyGridCache implements IEnergyGrid
 	@Override
 	public double injectPower( final double amt, final Actionable mode )
 	{
-		final Queue<IEnergyGridProvider> toVisit = new PriorityQueue<>( COMPARATOR_LOWEST_PERCENTAGE_FIRST );
-		final Set<IEnergyGridProvider> visited = new HashSet<>();
-		toVisit.add( this );
+		double leftover = this.injectProviderPower( amt, mode );
 
-		double leftover = amt;
-
-		while( !toVisit.isEmpty() && leftover > 0 )
+		if( leftover > 0 )
 		{
-			final IEnergyGridProvider next = toVisit.poll();
-			visited.add( next );
-
-			leftover = next.injectProviderPower( leftover, mode );
-
-			for( IEnergyGridProvider iEnergyGridProvider : next.providers() )
+			final IEnergyGridProvider[] providers = this.getTopology();
+			if( providers.length > 1 )
 			{
-				if( !visited.contains( iEnergyGridProvider ) )
+				final double[] order = this.beginVisit( providers.length );
+				try
 				{
-					toVisit.add( iEnergyGridProvider );
+					for( int i = 1; i < providers.length; i++ )
+					{
+						order[i] = getFillRatio( providers[i] );
+					}
+
+					// lowest percentage first
+					for( int i = next( order, providers.length, true ); i > 0 && leftover > 0; i = next( order, providers.length, true ) )
+					{
+						leftover = providers[i].injectProviderPower( leftover, mode );
+					}
+				}
+				finally
+				{
+					this.endVisit( order );
 				}
 			}
 		}
@@ -500,24 +556,29 @@ public class EnergyGridCache implements IEnergyGrid
 	@Override
 	public double getEnergyDemand( final double maxRequired )
 	{
-		final Queue<IEnergyGridProvider> toVisit = new PriorityQueue<>( COMPARATOR_LOWEST_PERCENTAGE_FIRST );
-		final Set<IEnergyGridProvider> visited = new HashSet<>();
-		toVisit.add( this );
-
-		double required = 0;
+		double required = this.getProviderEnergyDemand( maxRequired );
 
-		while( !toVisit.isEmpty() && required < maxRequired )
+		if( required < maxRequired )
 		{
-			final IEnergyGridProvider next = toVisit.poll();
-			visited.add( next );
-
-			required += next.getProviderEnergyDemand( maxRequired - required );
-
-			for( IEnergyGridProvider iEnergyGridProvider : next.providers() )
+			final IEnergyGridProvider[] providers = this.getTopology();
+			if( providers.length > 1 )
 			{
-				if( !visited.contains( iEnergyGridProvider ) )
+				final double[] order = this.beginVisit( providers.length );
+				try
+				{
+					for( int i = 1; i < providers.length; i++ )
+					{
+						order[i] = getFillRatio( providers[i] );
+					}
+
+					for( int i = next( order, providers.length, true ); i > 0 && required < maxRequired; i = next( order, providers.length, true ) )
+					{
+						required += providers[i].getProviderEnergyDemand( maxRequired - required );
+					}
+				}
+				finally
 				{
-					toVisit.add( iEnergyGridProvider );
+					this.endVisit( order );
 				}
 			}
 		}
@@ -543,6 +604,7 @@ public class EnergyGridCache implements IEnergyGrid
 		if( machine instanceof IEnergyGridProvider )
 		{
 			this.energyGridProviders.remove( machine );
+			topologyVersion++;
 		}
 
 		// idle draw.
@@ -560,22 +622,8 @@ public class EnergyGridCache implements IEnergyGrid
 					this.globalMaxPower -= ps.getAEMaxPower();
 					this.globalAvailablePower -= ps.getAECurrentPower();
 				}
-				if( !ongoingExtractOperation )
-				{
-					removeProvider( ps );
-				}
-				else
-				{
-					this.providerToRemove.add( ps );
-				}
-				if( !ongoingInjectOperation )
-				{
-					removeRequester( ps );
-				}
-				else
-				{
-					this.requesterToRemove.add( ps );
-				}
+				this.providers.remove( ps );
+				this.requesters.remove( ps );
 			}
 		}
 
@@ -591,37 +639,13 @@ public class EnergyGridCache implements IEnergyGrid
 		}
 	}
 
-	private void addRequester(IAEPowerStorage requester) {
-		Preconditions.checkState(!ongoingInjectOperation,
-				"Cannot modify energy requesters while energy is being injected.");
-		this.requesters.add(requester);
-	}
-
-	private void removeRequester(IAEPowerStorage requester) {
-		Preconditions.checkState(!ongoingInjectOperation,
-				"Cannot modify energy requesters while energy is being injected.");
-		this.requesters.remove(requester);
-	}
-
-	private void addProvider(IAEPowerStorage provider) {
-		Preconditions.checkState(!ongoingExtractOperation,
-				"Cannot modify energy providers while energy is being extracted.");
-		this.providers.add(provider);
-	}
-
-	private void removeProvider(IAEPowerStorage provider) {
-		Preconditions.checkState(!ongoingExtractOperation,
-				"Cannot modify energy providers while energy is being extracted.");
-		this.providers.remove(provider);
-	}
-
-
 	@Override
 	public void addNode( final IGridNode node, final IGridHost machine )
 	{
 		if( machine instanceof IEnergyGridProvider )
 		{
 			this.energyGridProviders.add( (IEnergyGridProvider) machine );
+			topologyVersion++;
 		}
 
 		// idle draw...
@@ -647,26 +671,12 @@ public class EnergyGridCache implements IEnergyGrid
 				if( current > 0 && ps.getPowerFlow() != AccessRestriction.WRITE )
 				{
 					this.globalAvailablePower += current;
-					if( !ongoingExtractOperation )
-					{
-						addProvider( ps );
-					}
-					else
-					{
-						this.providersToAdd.add( ps );
-					}
+					this.providers.add( ps );
 				}
 
 				if( current < max && ps.getPowerFlow() != AccessRestriction.READ )
 				{
-					if( !ongoingInjectOperation )
-					{
-						addRequester( ps );
-					}
-					else
-					{
-						this.requesterToAdd.add( ps );
-					}
+					this.requesters.add( ps );
 				}
 			}
 		}
@@ -771,9 +781,10 @@ public class EnergyGridCache implements IEnergyGrid
 		{
 			this.stored += amount;
 
+			// only this cache listens to its own buffer, so skip the event.
 			if( this.stored > 0.01 )
 			{
-				EnergyGridCache.this.myGrid.postEvent( new MENetworkPowerStorage( this, PowerEventType.PROVIDE_POWER ) );
+				EnergyGridCache.this.providers.add( this );
 			}
 		}
 
@@ -783,7 +794,7 @@ public class EnergyGridCache implements IEnergyGrid
 
 			if( this.stored < MAX_BUFFER_STORAGE - 0.001 )
 			{
-				EnergyGridCache.this.myGrid.postEvent( new MENetworkPowerStorage( this, PowerEventType.REQUEST_POWER ) );
+				EnergyGridCache.this.requesters.add( this );
 			}
 
 			if( this.stored < 0.01 )
@@ -20,11 +20,14 @@ package appeng.me.cache;
 
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.SetMultimap;
@@ -68,6 +71,14 @@ public class GridStorageCache implements IStorageGrid
 	private final HashMap<IGridNode, IStackWatcher> watchers = new HashMap<>();
 	private Map<IStorageChannel<? extends IAEStack>, NetworkInventoryHandler<?>> storageNetworks;
 	private Map<IStorageChannel<? extends IAEStack>, NetworkMonitor<?>> storageMonitors;
+	/**
+	 * The handlers each active cell provider has mounted into the storage network of a channel.
+	 */
+	private final Map<IStorageChannel<? extends IAEStack>, Map<ICellProvider, List<IMEInventoryHandler<?>>>> mountedCells = new IdentityHashMap<>();
+	/**
+	 * Storage networks which have to be reconciled with their cell providers before their next use.
+	 */
+	private final Set<IStorageChannel<? extends IAEStack>> staleNetworks = Collections.newSetFromMap( new IdentityHashMap<>() );
 
 	public GridStorageCache( final IGrid g )
 	{
@@ -159,7 +170,19 @@ public class GridStorageCache implements IStorageGrid
 
 	public <T extends IAEStack<T>> IMEInventoryHandler<T> getInventoryHandler( IStorageChannel<T> channel )
 	{
-		return (IMEInventoryHandler<T>) this.storageNetworks.computeIfAbsent( channel, this::buildNetworkStorage );
+		NetworkInventoryHandler<T> storageNetwork = (NetworkInventoryHandler<T>) this.storageNetworks.get( channel );
+
+		if( storageNetwork == null )
+		{
+			storageNetwork = this.buildNetworkStorage( channel );
+			this.storageNetworks.put( channel, storageNetwork );
+		}
+		else if( this.staleNetworks.remove( channel ) )
+		{
+			this.updateNetworkStorage( channel, storageNetwork );
+		}
+
+		return storageNetwork;
 	}
 
 	@Override
@@ -174,6 +197,7 @@ public class GridStorageCache implements IStorageGrid
 		{
 			this.inactiveCellProviders.remove( cc );
 			this.activeCellProviders.add( cc );
+			this.staleNetworks.addAll( this.storageNetworks.keySet() );
 
 			final IActionSource actionSrc = cc instanceof IActionHost ? new MachineSource( (IActionHost) cc ) : new BaseActionSource();
 
@@ -195,6 +219,7 @@ public class GridStorageCache implements IStorageGrid
 		{
 			this.activeCellProviders.remove( cc );
 			this.inactiveCellProviders.add( cc );
+			this.staleNetworks.addAll( this.storageNetworks.keySet() );
 
 			final IActionSource actionSrc = cc instanceof IActionHost ? new MachineSource( (IActionHost) cc ) : new BaseActionSource();
 
@@ -213,7 +238,8 @@ public class GridStorageCache implements IStorageGrid
 	@MENetworkEventSubscribe
 	public void cellUpdate( final MENetworkCellArrayUpdate ev )
 	{
-		this.storageNetworks.clear();
+		// Any provider might have changed its cells, but only the ones which actually did are remounted later.
+		this.staleNetworks.addAll( this.storageNetworks.keySet() );
 
 		final List<ICellProvider> ll = new ArrayList<ICellProvider>();
 		ll.addAll( this.inactiveCellProviders );
@@ -264,15 +290,79 @@ public class GridStorageCache implements IStorageGrid
 
 		final NetworkInventoryHandler<T> storageNetwork = new NetworkInventoryHandler<>( chan, security );
 
+		this.mountedCells.remove( chan );
+		this.updateNetworkStorage( chan, storageNetwork );
+
+		return storageNetwork;
+	}
+
+	/**
+	 * Brings the mounted handlers of a storage network in line with the current cell arrays of the active providers,
+	 * only touching the providers whose cells were replaced, reprioritized or repartitioned.
+	 */
+	private <T extends IAEStack<T>, C extends IStorageChannel<T>> void updateNetworkStorage( final C chan, final NetworkInventoryHandler<T> storageNetwork )
+	{
+		final Map<ICellProvider, List<IMEInventoryHandler<?>>> mounted = this.mountedCells.computeIfAbsent( chan, c -> new IdentityHashMap<>() );
+
+		final Iterator<Map.Entry<ICellProvider, List<IMEInventoryHandler<?>>>> it = mounted.entrySet().iterator();
+		while( it.hasNext() )
+		{
+			final Map.Entry<ICellProvider, List<IMEInventoryHandler<?>>> entry = it.next();
+			if( !this.activeCellProviders.contains( entry.getKey() ) )
+			{
+				for( final IMEInventoryHandler<?> h : entry.getValue() )
+				{
+					storageNetwork.removeStorage( (IMEInventoryHandler<T>) h );
+				}
+				it.remove();
+			}
+		}
+
 		for( final ICellProvider cc : this.activeCellProviders )
 		{
-			for( final IMEInventoryHandler<T> h : cc.getCellArray( chan ) )
+			final List<IMEInventoryHandler> cells = cc.getCellArray( chan );
+			final List<IMEInventoryHandler<?>> previous = mounted.get( cc );
+
+			if( previous != null && this.isMountedAsIs( storageNetwork, previous, cells ) )
+			{
+				continue;
+			}
+
+			if( previous != null )
+			{
+				for( final IMEInventoryHandler<?> h : previous )
+				{
+					storageNetwork.removeStorage( (IMEInventoryHandler<T>) h );
+				}
+			}
+
+			final List<IMEInventoryHandler<?>> current = new ArrayList<>( cells.size() );
+			for( final IMEInventoryHandler<T> h : cells )
 			{
 				storageNetwork.addNewStorage( h );
+				current.add( h );
+			}
+			mounted.put( cc, current );
+		}
+	}
+
+	private <T extends IAEStack<T>> boolean isMountedAsIs( final NetworkInventoryHandler<T> storageNetwork, final List<IMEInventoryHandler<?>> previous, final List<IMEInventoryHandler> cells )
+	{
+		if( previous.size() != cells.size() )
+		{
+			return false;
+		}
+
+		for( int i = 0; i < previous.size(); i++ )
+		{
+			final IMEInventoryHandler<T> h = cells.get( i );
+			if( previous.get( i ) != h || !storageNetwork.isStorageCurrent( h ) )
+			{
+				return false;
 			}
 		}
 
-		return storageNetwork;
+		return true;
 	}
 
 	@Override
@@ -21,9 +21,12 @@ package appeng.me.cache;
 
 import java.util.ArrayList;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import net.minecraft.entity.player.EntityPlayer;
@@ -56,6 +59,7 @@ import appeng.me.pathfinding.AdHocChannelUpdater;
 import appeng.me.pathfinding.ControllerChannelUpdater;
 import appeng.me.pathfinding.ControllerValidator;
 import appeng.me.pathfinding.IPathItem;
+import appeng.me.pathfinding.PathRouter;
 import appeng.me.pathfinding.PathSegment;
 import appeng.tile.networking.TileController;
 
@@ -79,6 +83,57 @@ public class PathGridCache implements IPathingGrid
 	private int lastChannels = 0;
 	private HashSet<IPathItem> semiOpen = new HashSet<>();
 
+	/**
+	 * Route of every item reached by the last controller pass, controllers map to null.
+	 */
+	private final Map<IPathItem, IPathItem> routes = new HashMap<>();
+	private final Set<IPathItem> granted = new HashSet<>();
+	private final Set<IPathItem> starved = new LinkedHashSet<>();
+	private final Set<IPathItem> detached = new LinkedHashSet<>();
+	private final Set<IPathItem> touched = new HashSet<>();
+	private final PathRouter router = new PathRouter( this.routes );
+	private final PathRouter.Host host = new PathRouter.Host()
+	{
+		@Override
+		public boolean isPartOfGrid( final IPathItem pi )
+		{
+			return PathGridCache.this.isPartOfGrid( pi );
+		}
+
+		@Override
+		public boolean canRoute( final IPathItem pi )
+		{
+			// controllers never route to each other.
+			if( pi instanceof IGridConnection )
+			{
+				final IGridConnection gc = (IGridConnection) pi;
+				return !( gc.a().getMachine() instanceof TileController && gc.b().getMachine() instanceof TileController );
+			}
+
+			return true;
+		}
+
+		@Override
+		public void routed( final IPathItem pi )
+		{
+			PathGridCache.this.touched.add( pi );
+
+			final EnumSet<GridFlags> flags = pi.getFlags();
+			if( flags.contains( GridFlags.REQUIRE_CHANNEL ) )
+			{
+				PathGridCache.this.useChannel( pi, flags.contains( GridFlags.COMPRESSED_CHANNEL ) );
+			}
+		}
+
+		@Override
+		public boolean detach( final IPathItem pi )
+		{
+			return PathGridCache.this.detach( pi );
+		}
+	};
+	private boolean incremental = false;
+	private boolean released = false;
+
 	public PathGridCache( final IGrid g )
 	{
 		this.myGrid = g;
@@ -141,24 +196,23 @@ public class PathGridCache implements IPathingGrid
 			{
 				final int nodes = this.myGrid.getNodes().size();
 				this.ticksUntilReady = 20 + Math.max( 0, nodes / 100 - 20 );
-				final HashSet<IPathItem> closedList = new HashSet<>();
 				this.semiOpen = new HashSet<>();
 
 				// myGrid.getPivot().beginVisit( new AdHocChannelUpdater( 0 )
 				// );
 				for( final IGridNode node : this.myGrid.getMachines( TileController.class ) )
 				{
-					closedList.add( (IPathItem) node );
+					this.routes.put( (IPathItem) node, null );
 					for( final IGridConnection gcc : node.getConnections() )
 					{
 						final GridConnection gc = (GridConnection) gcc;
 						if( !( gc.getOtherSide( node ).getMachine() instanceof TileController ) )
 						{
 							final List<IPathItem> open = new ArrayList<>();
-							closedList.add( gc );
+							this.routes.put( gc, (IPathItem) node );
 							open.add( gc );
 							gc.setControllerRoute( (GridNode) node, true );
-							this.active.add( new PathSegment( this, open, this.semiOpen, closedList ) );
+							this.active.add( new PathSegment( this, open, this.semiOpen, this.routes ) );
 						}
 					}
 				}
@@ -190,6 +244,9 @@ public class PathGridCache implements IPathingGrid
 						final TileController controller = controllerIterator.next();
 						controller.getGridNode( AEPartLocation.INTERNAL ).beginVisit( new ControllerChannelUpdater() );
 					}
+
+					// from now on changes only re-route the part of the network they touch.
+					this.incremental = !this.routes.isEmpty();
 				}
 
 				// check for achievements
@@ -200,6 +257,10 @@ public class PathGridCache implements IPathingGrid
 				this.myGrid.postEvent( new MENetworkBootingStatusChange() );
 			}
 		}
+		else if( this.incremental && ( !this.detached.isEmpty() || !this.touched.isEmpty() ) )
+		{
+			this.updatePaths();
+		}
 	}
 
 	@Override
@@ -223,7 +284,14 @@ public class PathGridCache implements IPathingGrid
 			this.blockDense.remove( gridNode );
 		}
 
-		this.repath();
+		if( machine instanceof TileController || !this.incremental )
+		{
+			this.repath();
+		}
+		else if( this.detach( (IPathItem) gridNode ) )
+		{
+			this.detached.remove( gridNode );
+		}
 	}
 
 	@Override
@@ -247,7 +315,44 @@ public class PathGridCache implements IPathingGrid
 			this.blockDense.add( gridNode );
 		}
 
-		this.repath();
+		if( machine instanceof TileController || flags.contains( GridFlags.MULTIBLOCK ) || !this.incremental )
+		{
+			this.repath();
+		}
+		else
+		{
+			this.detached.add( (IPathItem) gridNode );
+		}
+	}
+
+	/**
+	 * Called by a new connection once both sides are part of this grid.
+	 */
+	public void addConnection( final IGridConnection connection )
+	{
+		if( this.incremental )
+		{
+			this.detached.add( (IPathItem) connection );
+		}
+		else
+		{
+			this.repath();
+		}
+	}
+
+	/**
+	 * Called by a connection that is about to be destroyed, while it still links both sides.
+	 */
+	public void removeConnection( final IGridConnection connection )
+	{
+		if( !this.incremental )
+		{
+			this.repath();
+		}
+		else if( this.detach( (IPathItem) connection ) )
+		{
+			this.detached.remove( connection );
+		}
 	}
 
 	@Override
@@ -341,6 +446,165 @@ public class PathGridCache implements IPathingGrid
 		return depth;
 	}
 
+	/**
+	 * Gives a channel to start along its route, the way a controller pass does.
+	 */
+	public boolean useChannel( final IPathItem start, final boolean dense )
+	{
+		IPathItem pi = start;
+		while( pi != null )
+		{
+			if( !pi.canSupportMoreChannels() || ( dense && pi.getFlags().contains( GridFlags.CANNOT_CARRY_COMPRESSED ) ) )
+			{
+				this.starved.add( start );
+				return false;
+			}
+
+			pi = this.getRoute( pi );
+		}
+
+		pi = start;
+		while( pi != null )
+		{
+			this.setChannelsByBlocks( this.getChannelsByBlocks() + 1 );
+			pi.incrementChannelCount( 1 );
+			if( this.incremental )
+			{
+				this.touched.add( pi );
+			}
+
+			pi = this.getRoute( pi );
+		}
+
+		this.granted.add( start );
+		this.setChannelsInUse( this.getChannelsInUse() + 1 );
+		return true;
+	}
+
+	/**
+	 * same as {@link IPathItem#getControllerRoute()}, but based on the recorded routes so it survives connection
+	 * sorting.
+	 */
+	private IPathItem getRoute( final IPathItem pi )
+	{
+		final IPathItem route = this.routes.get( pi );
+		if( route == null )
+		{
+			return null;
+		}
+
+		if( pi instanceof IGridNode )
+		{
+			return pi.getFlags().contains( GridFlags.CANNOT_CARRY ) ? null : route;
+		}
+
+		return route.getFlags().contains( GridFlags.CANNOT_CARRY ) ? null : route;
+	}
+
+	/**
+	 * Releases the channels of everything routed through root and queues it to be routed again.
+	 *
+	 * @return false if the network had to fall back to a full repath.
+	 */
+	private boolean detach( final IPathItem root )
+	{
+		if( !this.routes.containsKey( root ) )
+		{
+			this.detached.add( root );
+			return true;
+		}
+
+		final List<IPathItem> subtree = this.router.getRoutedThrough( root );
+		for( final IPathItem pi : subtree )
+		{
+			// multiblocks share channels outside of their routes.
+			if( pi.getFlags().contains( GridFlags.MULTIBLOCK ) )
+			{
+				this.repath();
+				return false;
+			}
+		}
+
+		final int through = root.getChannelCount();
+		if( through > 0 )
+		{
+			for( IPathItem pi = this.getRoute( root ); pi != null; pi = this.getRoute( pi ) )
+			{
+				this.setChannelsByBlocks( this.getChannelsByBlocks() - through );
+				pi.incrementChannelCount( -through );
+				this.touched.add( pi );
+			}
+			this.released = true;
+		}
+
+		for( final IPathItem pi : subtree )
+		{
+			this.router.remove( pi );
+			this.starved.remove( pi );
+			if( this.granted.remove( pi ) )
+			{
+				this.setChannelsInUse( this.getChannelsInUse() - 1 );
+			}
+
+			this.setChannelsByBlocks( this.getChannelsByBlocks() - pi.getChannelCount() );
+			pi.setControllerRoute( null, true );
+			this.touched.add( pi );
+			this.detached.add( pi );
+		}
+
+		return true;
+	}
+
+	/**
+	 * Routes detached items from the closest routed neighbor outwards, then gives freed channels to starved devices.
+	 */
+	private void updatePaths()
+	{
+		if( !this.router.route( this.detached, this.host ) )
+		{
+			return;
+		}
+
+		if( this.released )
+		{
+			this.released = false;
+
+			for( final IPathItem pi : new ArrayList<>( this.starved ) )
+			{
+				if( this.routes.containsKey( pi ) )
+				{
+					this.starved.remove( pi );
+					this.useChannel( pi, pi.getFlags().contains( GridFlags.COMPRESSED_CHANNEL ) );
+				}
+			}
+		}
+
+		final List<IPathItem> changed = new ArrayList<>( this.touched );
+		this.touched.clear();
+
+		for( final IPathItem pi : changed )
+		{
+			if( this.isPartOfGrid( pi ) )
+			{
+				pi.finalizeChannels();
+			}
+		}
+
+		this.setChannelPowerUsage( this.getChannelsByBlocks() / 128.0 );
+		this.achievementPost();
+	}
+
+	private boolean isPartOfGrid( final IPathItem pi )
+	{
+		if( pi instanceof IGridNode )
+		{
+			return ( (IGridNode) pi ).getGrid() == this.myGrid;
+		}
+
+		final IGridConnection gc = (IGridConnection) pi;
+		return gc.a().getGrid() == this.myGrid && gc.b().getGrid() == this.myGrid && gc.a().getConnections().contains( gc );
+	}
+
 	private void achievementPost()
 	{
 		if( this.lastChannels != this.getChannelsInUse() && AEConfig.instance().isFeatureEnabled( AEFeature.CHANNELS ) )
@@ -396,7 +660,14 @@ public class PathGridCache implements IPathingGrid
 			this.requireChannels.remove( gridNode );
 		}
 
-		this.repath();
+		if( this.incremental )
+		{
+			this.detach( (IPathItem) gridNode );
+		}
+		else
+		{
+			this.repath();
+		}
 	}
 
 	@Override
@@ -416,6 +687,13 @@ public class PathGridCache implements IPathingGrid
 	{
 		// clean up...
 		this.active.clear();
+		this.router.clear();
+		this.granted.clear();
+		this.starved.clear();
+		this.detached.clear();
+		this.touched.clear();
+		this.incremental = false;
+		this.released = false;
 
 		this.setChannelsByBlocks( 0 );
 		this.updateNetwork = true;
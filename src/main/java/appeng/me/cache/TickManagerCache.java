@@ -19,9 +19,10 @@
 package appeng.me.cache;
 
 
-import java.util.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 
-import appeng.parts.automation.PartLevelEmitter;
 import com.google.common.base.Preconditions;
 
 import net.minecraft.crash.CrashReport;
@@ -37,19 +38,19 @@ import appeng.api.networking.ticking.ITickManager;
 import appeng.api.networking.ticking.TickRateModulation;
 import appeng.api.networking.ticking.TickingRequest;
 import appeng.me.cache.helpers.TickTracker;
+import appeng.me.cache.helpers.TickWheel;
+import appeng.me.helpers.TimingStatistics;
 
 
 public class TickManagerCache implements ITickManager
 {
 
 	private final IGrid myGrid;
-	private final HashMap<IGridNode, TickTracker> alertable = new HashMap<>();
-	private final HashMap<IGridNode, TickTracker> sleeping = new HashMap<>();
-	private final HashMap<IGridNode, TickTracker> awake = new HashMap<>();
-	private final HashMap<IGridNode, TickTracker> laterTicker = new HashMap<>();
-	private final PriorityQueue<TickTracker> upcomingTicks = new PriorityQueue<>();
+	private final HashMap<IGridNode, TickTracker> trackers = new HashMap<>();
+	private final TickWheel upcomingTicks = new TickWheel( 0 );
 
 	private long currentTick = 0;
+	private boolean ticking = false;
 
 	public TickManagerCache( final IGrid g )
 	{
@@ -63,19 +64,32 @@ public class TickManagerCache implements ITickManager
 
 	public long getAvgNanoTime( final IGridNode node )
 	{
-		TickTracker tt = this.awake.get( node );
+		final TickTracker tt = this.trackers.get( node );
 
 		if( tt == null )
 		{
-			tt = this.sleeping.get( node );
+			return -1;
 		}
 
-		if( tt == null )
+		return tt.getAvgNanos();
+	}
+
+	/**
+	 * @return the measured devices of this grid, slowest first.
+	 */
+	public List<TickTracker> getSlowestTickables( final int limit )
+	{
+		final List<TickTracker> measured = new ArrayList<>();
+		for( final TickTracker tt : this.trackers.values() )
 		{
-			return -1;
+			if( tt.getTimings() != null )
+			{
+				measured.add( tt );
+			}
 		}
 
-		return tt.getAvgNanos();
+		measured.sort( ( a, b ) -> Long.compare( b.getAvgNanos(), a.getAvgNanos() ) );
+		return measured.size() > limit ? new ArrayList<>( measured.subList( 0, limit ) ) : measured;
 	}
 
 	@Override
@@ -86,22 +100,23 @@ public class TickManagerCache implements ITickManager
 		try
 		{
 			this.currentTick++;
+			this.upcomingTicks.advance( this.currentTick );
+			this.ticking = true;
 
-			while ( !this.upcomingTicks.isEmpty() )
+			final boolean sampled = TimingStatistics.isSampled( this.currentTick );
+
+			// devices alerted while ticking are still picked up in this tick.
+			while( ( tt = this.upcomingTicks.poll() ) != null )
 			{
-				tt = this.upcomingTicks.peek();
+				final int diff = (int) ( this.currentTick - tt.getLastTick() );
+				final long start = sampled ? System.nanoTime() : 0;
+				final TickRateModulation mod = tt.getGridTickable().tickingRequest( tt.getNode(), diff );
 
-				// Stop once it reaches a TickTracker running at a later tick
-				if( tt.getNextTick() > this.currentTick )
+				if( sampled )
 				{
-					break;
+					tt.addTickTime( System.nanoTime() - start );
 				}
 
-				this.upcomingTicks.poll();
-
-				final int diff = (int) ( this.currentTick - tt.getLastTick() );
-				final TickRateModulation mod = tt.getGridTickable().tickingRequest( tt.getNode(), diff );
-
 				switch ( mod )
 				{
 					case FASTER:
@@ -125,14 +140,18 @@ public class TickManagerCache implements ITickManager
 						break;
 				}
 
-				if( this.awake.containsKey( tt.getNode() ) )
+				if( tt.isAwake() )
 				{
 					this.addToQueue( tt );
 				}
 			}
+
+			this.ticking = false;
 		}
 		catch( final Throwable t )
 		{
+			this.ticking = false;
+
 			final CrashReport crashreport = CrashReport.makeCrashReport( t, "Ticking GridNode" );
 			final CrashReportCategory crashreportcategory = crashreport.makeCategory( tt.getGridTickable().getClass().getSimpleName() + " being ticked." );
 			tt.addEntityCrashInfo( crashreportcategory );
@@ -143,7 +162,14 @@ public class TickManagerCache implements ITickManager
 	private void addToQueue( final TickTracker tt )
 	{
 		tt.setLastTick( this.currentTick );
-		this.upcomingTicks.add( tt );
+		this.schedule( tt );
+	}
+
+	private void schedule( final TickTracker tt )
+	{
+		// outside of onUpdateTick the current tick is already done.
+		final long earliest = this.ticking ? this.currentTick : this.currentTick + 1;
+		this.upcomingTicks.schedule( tt, Math.max( earliest, tt.getNextTick() ) );
 	}
 
 	@Override
@@ -151,9 +177,12 @@ public class TickManagerCache implements ITickManager
 	{
 		if( machine instanceof IGridTickable )
 		{
-			this.alertable.remove( gridNode );
-			this.sleeping.remove( gridNode );
-			this.awake.remove( gridNode );
+			final TickTracker tt = this.trackers.remove( gridNode );
+			if( tt != null )
+			{
+				tt.setAwake( false );
+				this.upcomingTicks.cancel( tt );
+			}
 		}
 	}
 
@@ -169,18 +198,11 @@ public class TickManagerCache implements ITickManager
 
 			final TickTracker tt = new TickTracker( tr, gridNode, (IGridTickable) machine, this.currentTick, this );
 
-			if( tr.canBeAlerted )
-			{
-				this.alertable.put( gridNode, tt );
-			}
+			this.trackers.put( gridNode, tt );
 
-			if( tr.isSleeping )
+			if( !tr.isSleeping )
 			{
-				this.sleeping.put( gridNode, tt );
-			}
-			else
-			{
-				this.awake.put( gridNode, tt );
+				tt.setAwake( true );
 				this.addToQueue( tt );
 			}
 		}
@@ -209,8 +231,8 @@ public class TickManagerCache implements ITickManager
 	{
 		Preconditions.checkNotNull( node );
 
-		final TickTracker tt = this.alertable.get( node );
-		if( tt == null )
+		final TickTracker tt = this.trackers.get( node );
+		if( tt == null || !tt.getRequest().canBeAlerted )
 		{
 			return false;
 		}
@@ -218,16 +240,14 @@ public class TickManagerCache implements ITickManager
 		// "Invalid alerted device, this node is not marked as alertable, or part of this grid." );
 
 		// set to awake, this is for sanity.
-		this.sleeping.remove( node );
-		this.awake.put( node, tt );
+		tt.setAwake( true );
 
 		// configure sort.
 		tt.setLastTick( tt.getLastTick() - tt.getRequest().maxTickRate );
 		tt.setCurrentRate( tt.getRequest().minTickRate );
 
 		// prevent dupes and tick build up.
-		this.upcomingTicks.remove( tt );
-		this.upcomingTicks.add( tt );
+		this.schedule( tt );
 
 		return true;
 	}
@@ -237,11 +257,11 @@ public class TickManagerCache implements ITickManager
 	{
 		Preconditions.checkNotNull( node );
 
-		if( this.awake.containsKey( node ) )
+		final TickTracker gt = this.trackers.get( node );
+		if( gt != null && gt.isAwake() )
 		{
-			final TickTracker gt = this.awake.get( node );
-			this.awake.remove( node );
-			this.sleeping.put( node, gt );
+			// an already scheduled tick still happens, like before.
+			gt.setAwake( false );
 
 			return true;
 		}
@@ -254,12 +274,10 @@ public class TickManagerCache implements ITickManager
 	{
 		Preconditions.checkNotNull( node );
 
-		if( this.sleeping.containsKey( node ) )
+		final TickTracker gt = this.trackers.get( node );
+		if( gt != null && !gt.isAwake() )
 		{
-			final TickTracker gt = this.sleeping.get( node );
-			this.sleeping.remove( node );
-			this.awake.put( node, gt );
-			this.upcomingTicks.remove( gt );
+			gt.setAwake( true );
 			this.addToQueue( gt );
 
 			return true;
@@ -19,8 +19,6 @@
 package appeng.me.cache.helpers;
 
 
-import javax.annotation.Nonnull;
-
 import net.minecraft.crash.CrashReportCategory;
 
 import appeng.api.networking.IGridNode;
@@ -28,20 +26,27 @@ import appeng.api.networking.ticking.IGridTickable;
 import appeng.api.networking.ticking.TickingRequest;
 import appeng.api.util.DimensionalCoord;
 import appeng.me.cache.TickManagerCache;
+import appeng.me.helpers.TimingStatistics;
 import appeng.parts.AEBasePart;
 
 
-public class TickTracker implements Comparable<TickTracker>
+public class TickTracker
 {
 
 	private final TickingRequest request;
 	private final IGridTickable gt;
 	private final IGridNode node;
 
-	private final long LastFiveTicksTime = 0;
-
 	private long lastTick;
 	private int currentRate;
+	private boolean awake;
+	private TimingStatistics timings;
+
+	// position in the TickWheel
+	long due;
+	int wheelSlot = -1;
+	TickTracker prevInSlot;
+	TickTracker nextInSlot;
 
 	public TickTracker( final TickingRequest req, final IGridNode node, final IGridTickable gt, final long currentTick, final TickManagerCache tickManagerCache )
 	{
@@ -54,28 +59,25 @@ public class TickTracker implements Comparable<TickTracker>
 
 	public long getAvgNanos()
 	{
-		return( this.LastFiveTicksTime / 5 );
+		return this.timings == null ? 0 : this.timings.getAverageNanos();
 	}
 
-	@Override
-	public int compareTo( @Nonnull final TickTracker t )
+	public void addTickTime( final long nanos )
 	{
-		int next = Long.compare( this.getNextTick(), t.getNextTick() );
-
-		if( next != 0 )
-		{
-			return next;
-		}
-
-		int last = Long.compare( this.getLastTick(), t.getLastTick() );
-
-		if( last != 0 )
+		if( this.timings == null )
 		{
-			return last;
+			this.timings = new TimingStatistics();
 		}
 
-		return Integer.compare( this.getCurrentRate(), t.getCurrentRate() );
+		this.timings.add( nanos );
+	}
 
+	/**
+	 * @return the tick times of this device, or null if it was never measured.
+	 */
+	public TimingStatistics getTimings()
+	{
+		return this.timings;
 	}
 
 	public void addEntityCrashInfo( final CrashReportCategory crashreportcategory )
@@ -125,6 +127,16 @@ public class TickTracker implements Comparable<TickTracker>
 		this.lastTick = lastTick;
 	}
 
+	public boolean isAwake()
+	{
+		return this.awake;
+	}
+
+	public void setAwake( final boolean awake )
+	{
+		this.awake = awake;
+	}
+
 	public IGridNode getNode()
 	{
 		return this.node;
@@ -0,0 +1,161 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.me.cache.helpers;
+
+
+/**
+ * Two level hashed timing wheel for {@link TickTracker}s.
+ *
+ * The first level has a slot for each of the next 64 ticks, the second one a slot for each following block of 64
+ * ticks. Trackers further out than the second level covers wait in their second level slot until a later round
+ * reaches them. Scheduling and cancelling are constant time, a tracker is linked into at most one slot.
+ */
+public class TickWheel
+{
+
+	private static final int BITS = 6;
+	private static final int SIZE = 1 << BITS;
+	private static final int MASK = SIZE - 1;
+
+	private final TickTracker[] heads = new TickTracker[SIZE * 2];
+	private final TickTracker[] tails = new TickTracker[SIZE * 2];
+	private long now;
+	private int size = 0;
+
+	public TickWheel( final long currentTick )
+	{
+		this.now = currentTick;
+	}
+
+	/**
+	 * Moves the wheel to the given tick, which must be the one after the last tick it was advanced to.
+	 */
+	public void advance( final long tick )
+	{
+		this.now = tick;
+
+		if( ( tick & MASK ) == 0 )
+		{
+			// pull the next block of ticks down to the first level.
+			final int slot = SIZE + (int) ( ( tick >> BITS ) & MASK );
+			TickTracker tt = this.heads[slot];
+			this.heads[slot] = null;
+			this.tails[slot] = null;
+
+			while( tt != null )
+			{
+				final TickTracker next = tt.nextInSlot;
+				tt.prevInSlot = null;
+				tt.nextInSlot = null;
+				tt.wheelSlot = -1;
+				this.size--;
+				this.schedule( tt, tt.due );
+				tt = next;
+			}
+		}
+	}
+
+	/**
+	 * Schedules the tracker for the given tick, ticks in the past are moved to the current one.
+	 */
+	public void schedule( final TickTracker tt, final long due )
+	{
+		this.cancel( tt );
+
+		tt.due = Math.max( due, this.now );
+
+		final int slot;
+		if( tt.due - this.now < SIZE )
+		{
+			slot = (int) ( tt.due & MASK );
+		}
+		else
+		{
+			slot = SIZE + (int) ( ( tt.due >> BITS ) & MASK );
+		}
+
+		tt.wheelSlot = slot;
+		tt.prevInSlot = this.tails[slot];
+		if( this.tails[slot] == null )
+		{
+			this.heads[slot] = tt;
+		}
+		else
+		{
+			this.tails[slot].nextInSlot = tt;
+		}
+		this.tails[slot] = tt;
+		this.size++;
+	}
+
+	public void cancel( final TickTracker tt )
+	{
+		final int slot = tt.wheelSlot;
+		if( slot < 0 )
+		{
+			return;
+		}
+
+		if( tt.prevInSlot == null )
+		{
+			this.heads[slot] = tt.nextInSlot;
+		}
+		else
+		{
+			tt.prevInSlot.nextInSlot = tt.nextInSlot;
+		}
+
+		if( tt.nextInSlot == null )
+		{
+			this.tails[slot] = tt.prevInSlot;
+		}
+		else
+		{
+			tt.nextInSlot.prevInSlot = tt.prevInSlot;
+		}
+
+		tt.prevInSlot = null;
+		tt.nextInSlot = null;
+		tt.wheelSlot = -1;
+		this.size--;
+	}
+
+	/**
+	 * @return the next tracker due in the current tick, already removed from the wheel, or null if none are left.
+	 */
+	public TickTracker poll()
+	{
+		final TickTracker tt = this.heads[(int) ( this.now & MASK )];
+		if( tt != null )
+		{
+			this.cancel( tt );
+		}
+		return tt;
+	}
+
+	public boolean isScheduled( final TickTracker tt )
+	{
+		return tt.wheelSlot >= 0;
+	}
+
+	public int size()
+	{
+		return this.size;
+	}
+}
@@ -43,6 +43,7 @@ import appeng.api.networking.IGrid;
 import appeng.api.networking.IGridHost;
 import appeng.api.networking.IGridNode;
 import appeng.api.networking.crafting.CraftingItemList;
+import appeng.api.networking.crafting.IBatchCraftingMedium;
 import appeng.api.networking.crafting.ICraftingCPU;
 import appeng.api.networking.crafting.ICraftingGrid;
 import appeng.api.networking.crafting.ICraftingJob;
@@ -101,6 +102,8 @@ public final class CraftingCPUCluster implements IAECluster, ICraftingCPU
 	private IAEItemStack finalOutput;
 	private boolean waiting = false;
 	private IItemList<IAEItemStack> waitingFor = AEApi.instance().storage().getStorageChannel( IItemStorageChannel.class ).createList();
+	// outputs of all tasks times their remaining crafts, kept up to date with the tasks.
+	private final IItemList<IAEItemStack> pending = AEApi.instance().storage().getStorageChannel( IItemStorageChannel.class ).createList();
 	private long availableStorage = 0;
 	private MachineSource machineSrc = null;
 	private int accelerator = 0;
@@ -614,6 +617,7 @@ public final class CraftingCPUCluster implements IAECluster, ICraftingCPU
 		this.isComplete = true;
 		this.myLastLink = null;
 		this.tasks.clear();
+		this.pending.resetStatus();
 
 		// final ImmutableSet<IAEItemStack> items = ImmutableSet.copyOf( this.waitingFor );
 		final List<IAEItemStack> items = new ArrayList<>( this.waitingFor.size() );
@@ -724,6 +728,42 @@ public final class CraftingCPUCluster implements IAECluster, ICraftingCPU
 
 					if( m != null && !m.isBusy() )
 					{
+						if( ic == null && m instanceof IBatchCraftingMedium && !details.isCraftable() && e.getValue().value > 1 )
+						{
+							final int pushed = this.pushBatch( eg, details, (IBatchCraftingMedium) m, e.getValue().value );
+
+							if( pushed > 0 )
+							{
+								this.somethingChanged = true;
+								this.remainingOperations--;
+
+								for( final IAEItemStack condensed : details.getCondensedOutputs() )
+								{
+									final IAEItemStack out = condensed.copy();
+									out.setStackSize( condensed.getStackSize() * pushed );
+									this.postChange( out, this.machineSrc );
+									this.waitingFor.add( out.copy() );
+									this.postCraftingStatusChange( out.copy() );
+								}
+
+								this.markDirty();
+
+								e.getValue().value -= pushed;
+								this.addPending( details, -pushed );
+								if( e.getValue().value <= 0 )
+								{
+									continue;
+								}
+
+								if( this.remainingOperations == 0 )
+								{
+									return;
+								}
+
+								continue;
+							}
+						}
+
 						if( ic == null )
 						{
 							final IAEItemStack[] input = details.getInputs();
@@ -859,6 +899,7 @@ public final class CraftingCPUCluster implements IAECluster, ICraftingCPU
 							this.markDirty();
 
 							e.getValue().value--;
+							this.addPending( details, -1 );
 							if( e.getValue().value <= 0 )
 							{
 								continue;
@@ -888,6 +929,114 @@ public final class CraftingCPUCluster implements IAECluster, ICraftingCPU
 		}
 	}
 
+	/**
+	 * Pushes as many copies of a processing pattern as the medium, the stored inputs and the available power allow.
+	 * Power and inputs are reserved once for the whole batch, anything the medium did not accept is returned.
+	 *
+	 * @return the number of copies pushed, 0 if the batch was not worth it and the single push should be used instead.
+	 */
+	private int pushBatch( final IEnergyGrid eg, final ICraftingPatternDetails details, final IBatchCraftingMedium m, final long requested )
+	{
+		final IAEItemStack[] condensedInputs = details.getCondensedInputs();
+		long copies = Math.min( requested, Integer.MAX_VALUE );
+
+		for( final IAEItemStack input : condensedInputs )
+		{
+			final IAEItemStack wanted = input.copy();
+			wanted.setStackSize( input.getStackSize() * copies );
+
+			final IAEItemStack available = this.inventory.extractItems( wanted, Actionable.SIMULATE, this.machineSrc );
+			copies = available == null ? 0 : Math.min( copies, available.getStackSize() / input.getStackSize() );
+
+			if( copies <= 1 )
+			{
+				return 0;
+			}
+		}
+
+		final IAEItemStack[] input = details.getInputs();
+		final InventoryCrafting table = new InventoryCrafting( new ContainerNull(), 3, 3 );
+		double sum = 0;
+
+		for( int x = 0; x < input.length; x++ )
+		{
+			if( input[x] != null )
+			{
+				sum += input[x].getStackSize();
+				table.setInventorySlotContents( x, input[x].createItemStack() );
+			}
+		}
+
+		copies = Math.min( copies, m.getBatchCapacity( details, table, (int) copies ) );
+
+		if( sum > 0 )
+		{
+			final double power = eg.extractAEPower( sum * copies, Actionable.SIMULATE, PowerMultiplier.CONFIG );
+			copies = Math.min( copies, (long) ( ( power + 0.01 ) / sum ) );
+		}
+
+		if( copies <= 1 )
+		{
+			return 0;
+		}
+
+		if( eg.extractAEPower( sum * copies, Actionable.MODULATE, PowerMultiplier.CONFIG ) < sum * copies - 0.01 )
+		{
+			return 0;
+		}
+
+		final IAEItemStack[] reserved = new IAEItemStack[condensedInputs.length];
+		boolean complete = true;
+
+		for( int x = 0; x < condensedInputs.length; x++ )
+		{
+			final IAEItemStack wanted = condensedInputs[x].copy();
+			wanted.setStackSize( condensedInputs[x].getStackSize() * copies );
+
+			reserved[x] = this.inventory.extractItems( wanted, Actionable.MODULATE, this.machineSrc );
+
+			if( reserved[x] == null || reserved[x].getStackSize() < wanted.getStackSize() )
+			{
+				complete = false;
+				break;
+			}
+		}
+
+		final int pushed = complete ? Math.max( 0, Math.min( (int) copies, m.pushPatternBatch( details, table, (int) copies ) ) ) : 0;
+
+		for( int x = 0; x < condensedInputs.length; x++ )
+		{
+			if( reserved[x] == null )
+			{
+				continue;
+			}
+
+			final long used = condensedInputs[x].getStackSize() * pushed;
+
+			if( used > 0 )
+			{
+				final IAEItemStack change = condensedInputs[x].copy();
+				change.setStackSize( used );
+				this.postChange( change, this.machineSrc );
+			}
+
+			if( reserved[x].getStackSize() > used )
+			{
+				// put back what the medium did not take..
+				final IAEItemStack back = reserved[x].copy();
+				back.setStackSize( reserved[x].getStackSize() - used );
+				this.inventory.injectItems( back, Actionable.MODULATE, this.machineSrc );
+			}
+		}
+
+		if( pushed < copies )
+		{
+			eg.injectPower( PowerMultiplier.CONFIG.multiply( sum * ( copies - pushed ) ), Actionable.MODULATE );
+		}
+
+		return pushed;
+	}
+
 	private void storeItems()
 	{
 		Preconditions.checkState(isComplete, "CPU should be complete to prevent re-insertion when dumping items");
@@ -987,12 +1136,14 @@ public final class CraftingCPUCluster implements IAECluster, ICraftingCPU
 			else
 			{
 				this.tasks.clear();
+				this.pending.resetStatus();
 				this.inventory.getItemList().resetStatus();
 			}
 		}
 		catch( final CraftBranchFailure e )
 		{
 			this.tasks.clear();
+			this.pending.resetStatus();
 			this.inventory.getItemList().resetStatus();
 			// AELog.error( e );
 		}
@@ -1100,14 +1251,9 @@ public final class CraftingCPUCluster implements IAECluster, ICraftingCPU
 				}
 				break;
 			case PENDING:
-				for( final Entry<ICraftingPatternDetails, TaskProgress> t : this.tasks.entrySet() )
+				for( final IAEItemStack ais : this.pending )
 				{
-					for( IAEItemStack ais : t.getKey().getCondensedOutputs() )
-					{
-						ais = ais.copy();
-						ais.setStackSize( ais.getStackSize() * t.getValue().value );
-						list.add( ais );
-					}
+					list.add( ais );
 				}
 				break;
 			case STORAGE:
@@ -1122,14 +1268,9 @@ public final class CraftingCPUCluster implements IAECluster, ICraftingCPU
 					list.add( ais );
 				}
 
-				for( final Entry<ICraftingPatternDetails, TaskProgress> t : this.tasks.entrySet() )
+				for( final IAEItemStack ais : this.pending )
 				{
-					for( IAEItemStack ais : t.getKey().getCondensedOutputs() )
-					{
-						ais = ais.copy();
-						ais.setStackSize( ais.getStackSize() * t.getValue().value );
-						list.add( ais );
-					}
+					list.add( ais );
 				}
 				break;
 		}
@@ -1156,6 +1297,17 @@ public final class CraftingCPUCluster implements IAECluster, ICraftingCPU
 		}
 
 		i.value += crafts;
+		this.addPending( details, crafts );
+	}
+
+	private void addPending( final ICraftingPatternDetails details, final long crafts )
+	{
+		for( final IAEItemStack out : details.getCondensedOutputs() )
+		{
+			final IAEItemStack change = out.copy();
+			change.setStackSize( out.getStackSize() * crafts );
+			this.pending.add( change );
+		}
 	}
 
 	public IAEItemStack getItemStack( final IAEItemStack what, final CraftingItemList storage2 )
@@ -1171,21 +1323,10 @@ public final class CraftingCPUCluster implements IAECluster, ICraftingCPU
 				is = this.waitingFor.findPrecise( what );
 				break;
 			case PENDING:
+				final IAEItemStack crafts = this.pending.findPrecise( what );
 
 				is = what.copy();
-				is.setStackSize( 0 );
-
-				for( final Entry<ICraftingPatternDetails, TaskProgress> t : this.tasks.entrySet() )
-				{
-					for( final IAEItemStack ais : t.getKey().getCondensedOutputs() )
-					{
-						if( ais.isSameType( is ) )
-						{
-							is.setStackSize( is.getStackSize() + ais.getStackSize() * t.getValue().value );
-						}
-					}
-				}
-
+				is.setStackSize( crafts == null ? 0 : crafts.getStackSize() );
 				break;
 			default:
 			case ALL:
@@ -1304,6 +1445,7 @@ public final class CraftingCPUCluster implements IAECluster, ICraftingCPU
 					final TaskProgress tp = new TaskProgress();
 					tp.value = item.getLong( "craftingProgress" );
 					this.tasks.put( details, tp );
+					this.addPending( details, tp.value );
 				}
 			}
 		}
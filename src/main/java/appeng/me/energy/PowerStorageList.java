@@ -0,0 +1,133 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.me.energy;
+
+
+import java.util.Arrays;
+
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+
+import appeng.api.networking.energy.IAEPowerStorage;
+
+
+/**
+ * Insertion ordered set of power storages, which can be modified while it is walked by slot.
+ *
+ * Removed storages leave an empty slot behind, which is only closed by {@link #compact()}. New storages are appended,
+ * so a walk in progress will still reach them.
+ */
+public class PowerStorageList
+{
+
+	private final Reference2IntMap<IAEPowerStorage> slots = new Reference2IntOpenHashMap<>();
+	private IAEPowerStorage[] storages = new IAEPowerStorage[8];
+	private int size = 0;
+	private int holes = 0;
+
+	public PowerStorageList()
+	{
+		this.slots.defaultReturnValue( -1 );
+	}
+
+	public boolean add( final IAEPowerStorage storage )
+	{
+		if( this.slots.containsKey( storage ) )
+		{
+			return false;
+		}
+
+		if( this.size == this.storages.length )
+		{
+			this.storages = Arrays.copyOf( this.storages, this.size * 2 );
+		}
+
+		this.slots.put( storage, this.size );
+		this.storages[this.size++] = storage;
+		return true;
+	}
+
+	public boolean remove( final IAEPowerStorage storage )
+	{
+		final int slot = this.slots.removeInt( storage );
+		if( slot < 0 )
+		{
+			return false;
+		}
+
+		this.storages[slot] = null;
+		this.holes++;
+		return true;
+	}
+
+	/**
+	 * Removes the storage in the given slot, used while walking the list.
+	 */
+	public void removeSlot( final int slot )
+	{
+		final IAEPowerStorage storage = this.storages[slot];
+		if( storage != null )
+		{
+			this.remove( storage );
+		}
+	}
+
+	/**
+	 * @return the number of slots, including empty ones.
+	 */
+	public int slots()
+	{
+		return this.size;
+	}
+
+	/**
+	 * @return the storage in this slot, or null if it was removed.
+	 */
+	public IAEPowerStorage get( final int slot )
+	{
+		return this.storages[slot];
+	}
+
+	/**
+	 * Closes the slots of removed storages, must not be called while the list is walked.
+	 */
+	public void compact()
+	{
+		if( this.holes == 0 )
+		{
+			return;
+		}
+
+		int out = 0;
+		for( int in = 0; in < this.size; in++ )
+		{
+			final IAEPowerStorage storage = this.storages[in];
+			if( storage != null )
+			{
+				this.storages[out] = storage;
+				this.slots.put( storage, out );
+				out++;
+			}
+		}
+
+		Arrays.fill( this.storages, out, this.size, null );
+		this.size = out;
+		this.holes = 0;
+	}
+}
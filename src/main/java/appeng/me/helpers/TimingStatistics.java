@@ -0,0 +1,106 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.me.helpers;
+
+
+import appeng.core.AEConfig;
+
+
+/**
+ * Rolling tick time statistics for grids, grid caches and ticking devices.
+ *
+ * Times are only recorded for sampled ticks, see {@link #isSampled(long)}.
+ */
+public class TimingStatistics
+{
+
+	private static final int WINDOW = 5;
+
+	private final long[] recent = new long[WINDOW];
+	private int next = 0;
+	private long recentNanos = 0;
+	private long totalNanos = 0;
+	private long maxNanos = 0;
+	private long samples = 0;
+
+	/**
+	 * @return true if the given tick should be measured with the configured sample rate.
+	 */
+	public static boolean isSampled( final long tick )
+	{
+		final int rate = AEConfig.instance().getTickTimingSampleRate();
+		return rate > 0 && tick % rate == 0;
+	}
+
+	public void add( final long nanos )
+	{
+		this.recentNanos += nanos - this.recent[this.next];
+		this.recent[this.next] = nanos;
+		this.next = ( this.next + 1 ) % WINDOW;
+
+		this.totalNanos += nanos;
+		this.maxNanos = Math.max( this.maxNanos, nanos );
+		this.samples++;
+	}
+
+	/**
+	 * @return the average of the last five samples.
+	 */
+	public long getAverageNanos()
+	{
+		return this.recentNanos / Math.max( 1, Math.min( WINDOW, this.samples ) );
+	}
+
+	/**
+	 * @return the average of all samples since the last reset.
+	 */
+	public long getMeanNanos()
+	{
+		return this.samples == 0 ? 0 : this.totalNanos / this.samples;
+	}
+
+	public long getMaxNanos()
+	{
+		return this.maxNanos;
+	}
+
+	public long getTotalNanos()
+	{
+		return this.totalNanos;
+	}
+
+	public long getSamples()
+	{
+		return this.samples;
+	}
+
+	public void reset()
+	{
+		for( int i = 0; i < WINDOW; i++ )
+		{
+			this.recent[i] = 0;
+		}
+
+		this.next = 0;
+		this.recentNanos = 0;
+		this.totalNanos = 0;
+		this.maxNanos = 0;
+		this.samples = 0;
+	}
+}
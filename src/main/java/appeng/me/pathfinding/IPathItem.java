@@ -47,6 +47,11 @@ public interface IPathItem
 	 */
 	void incrementChannelCount( int usedChannels );
 
+	/**
+	 * channels counted so far, including ones that have not been finalized yet.
+	 */
+	int getChannelCount();
+
 	/**
 	 * get the grid flags for this IPathItem.
 	 *
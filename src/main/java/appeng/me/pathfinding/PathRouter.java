@@ -0,0 +1,290 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.me.pathfinding;
+
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+
+/**
+ * Routes path items between controller passes, keeping every route as short as a controller pass would.
+ *
+ * A controller pass routes in layers, so every item ends up one step further from a controller than its route.
+ * Here items are routed in the order of their distance, starting next to the items which are still routed, and an
+ * item which is reached on a shorter way than its current route is routed again. Between several equally short
+ * routes the choice can differ from a controller pass, and with it which devices get the last channels of a full
+ * cable.
+ */
+public class PathRouter
+{
+
+	private final Map<IPathItem, IPathItem> routes;
+	// distance to a controller, filled in from the routes when first asked for.
+	private final Map<IPathItem, Integer> depths = new HashMap<>();
+	private int found;
+
+	/**
+	 * @param routes route of every routed item, controllers map to null.
+	 */
+	public PathRouter( final Map<IPathItem, IPathItem> routes )
+	{
+		this.routes = routes;
+	}
+
+	/**
+	 * Gets told what routing changes and needs.
+	 */
+	public interface Host
+	{
+		/**
+		 * @return false for items which left the network since they were queued.
+		 */
+		boolean isPartOfGrid( IPathItem pi );
+
+		/**
+		 * @return false for items which must never get a route.
+		 */
+		boolean canRoute( IPathItem pi );
+
+		/**
+		 * Called right after the item got its route.
+		 */
+		void routed( IPathItem pi );
+
+		/**
+		 * Removes the routes of the item and everything routed through it and queues them as detached.
+		 *
+		 * @return false if the network fell back to a full repath instead.
+		 */
+		boolean detach( IPathItem pi );
+	}
+
+	/**
+	 * Forgets everything, for a new controller pass.
+	 */
+	public void clear()
+	{
+		this.routes.clear();
+		this.depths.clear();
+	}
+
+	/**
+	 * Forgets the route of a single item, whatever is routed through it has to be removed as well.
+	 */
+	public void remove( final IPathItem pi )
+	{
+		this.routes.remove( pi );
+		this.depths.remove( pi );
+	}
+
+	/**
+	 * @return the item and everything routed through it, the item first.
+	 */
+	public List<IPathItem> getRoutedThrough( final IPathItem root )
+	{
+		final List<IPathItem> found = new ArrayList<>();
+		found.add( root );
+
+		for( int x = 0; x < found.size(); x++ )
+		{
+			final IPathItem pi = found.get( x );
+			for( final IPathItem option : pi.getPossibleOptions() )
+			{
+				if( this.routes.get( option ) == pi )
+				{
+					found.add( option );
+				}
+			}
+		}
+
+		return found;
+	}
+
+	/**
+	 * @return the number of steps from the item to its controller, -1 if it has no route.
+	 */
+	public int getDepth( final IPathItem pi )
+	{
+		final List<IPathItem> chain = new ArrayList<>();
+		IPathItem at = pi;
+		int depth;
+
+		while( true )
+		{
+			final Integer known = this.depths.get( at );
+			if( known != null )
+			{
+				depth = known;
+				break;
+			}
+
+			if( !this.routes.containsKey( at ) )
+			{
+				return -1;
+			}
+
+			final IPathItem route = this.routes.get( at );
+			if( route == null )
+			{
+				depth = 0;
+				this.depths.put( at, depth );
+				break;
+			}
+
+			chain.add( at );
+			at = route;
+		}
+
+		for( int x = chain.size() - 1; x >= 0; x-- )
+		{
+			this.depths.put( chain.get( x ), ++depth );
+		}
+
+		return depth;
+	}
+
+	/**
+	 * Routes every detached item that can be reached from a routed one.
+	 *
+	 * @param detached items without a route, emptied on the way and refilled by {@link Host#detach(IPathItem)}
+	 * @return false if the network fell back to a full repath.
+	 */
+	public boolean route( final Set<IPathItem> detached, final Host host )
+	{
+		final PriorityQueue<Queued> open = new PriorityQueue<>();
+		this.queue( detached, host, open );
+
+		while( !open.isEmpty() )
+		{
+			final Queued next = open.poll();
+			final IPathItem pi = next.item;
+			if( this.routes.containsKey( pi ) || !host.isPartOfGrid( pi ) )
+			{
+				continue;
+			}
+
+			final IPathItem route = this.findRoute( pi, host );
+			if( route == null )
+			{
+				// may still be reached from another detached item.
+				continue;
+			}
+
+			final int depth = this.getDepth( route ) + 1;
+			if( depth > next.depth )
+			{
+				// the neighbor it was found through has been routed again since.
+				open.add( new Queued( depth, pi, this.found++ ) );
+				continue;
+			}
+
+			pi.setControllerRoute( route, true );
+			this.routes.put( pi, route );
+			this.depths.put( pi, depth );
+			host.routed( pi );
+
+			for( final IPathItem option : pi.getPossibleOptions() )
+			{
+				if( !this.routes.containsKey( option ) )
+				{
+					open.add( new Queued( depth + 1, option, this.found++ ) );
+				}
+				else if( this.getDepth( option ) > depth + 1 )
+				{
+					// found a shorter way to an item that is already routed.
+					if( !host.detach( option ) )
+					{
+						return false;
+					}
+
+					this.queue( detached, host, open );
+				}
+			}
+		}
+
+		return true;
+	}
+
+	private void queue( final Set<IPathItem> detached, final Host host, final PriorityQueue<Queued> open )
+	{
+		final List<IPathItem> items = new ArrayList<>( detached );
+		detached.clear();
+
+		for( final IPathItem pi : items )
+		{
+			final IPathItem route = this.routes.containsKey( pi ) ? null : this.findRoute( pi, host );
+			if( route != null )
+			{
+				open.add( new Queued( this.getDepth( route ) + 1, pi, this.found++ ) );
+			}
+		}
+	}
+
+	/**
+	 * @return the first routed neighbor closest to a controller.
+	 */
+	private IPathItem findRoute( final IPathItem pi, final Host host )
+	{
+		if( !host.canRoute( pi ) )
+		{
+			return null;
+		}
+
+		IPathItem best = null;
+		int bestDepth = Integer.MAX_VALUE;
+
+		for( final IPathItem option : pi.getPossibleOptions() )
+		{
+			final int depth = this.getDepth( option );
+			if( depth >= 0 && depth < bestDepth )
+			{
+				best = option;
+				bestDepth = depth;
+			}
+		}
+
+		return best;
+	}
+
+	private static final class Queued implements Comparable<Queued>
+	{
+		private final int depth;
+		private final IPathItem item;
+		// keeps items of the same depth in the order they were found.
+		private final int order;
+
+		private Queued( final int depth, final IPathItem item, final int order )
+		{
+			this.depth = depth;
+			this.item = item;
+			this.order = order;
+		}
+
+		@Override
+		public int compareTo( final Queued o )
+		{
+			return this.depth != o.depth ? Integer.compare( this.depth, o.depth ) : Integer.compare( this.order, o.order );
+		}
+	}
+}
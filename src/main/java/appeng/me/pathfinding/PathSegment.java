@@ -23,6 +23,7 @@ import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import appeng.api.networking.GridFlags;
@@ -36,11 +37,11 @@ public class PathSegment
 
 	private final PathGridCache pgc;
 	private final Set<IPathItem> semiOpen;
-	private final Set<IPathItem> closed;
+	private final Map<IPathItem, IPathItem> closed;
 	private boolean isDead;
 	private List<IPathItem> open;
 
-	public PathSegment( final PathGridCache myPGC, final List<IPathItem> open, final Set<IPathItem> semiOpen, final Set<IPathItem> closed )
+	public PathSegment( final PathGridCache myPGC, final List<IPathItem> open, final Set<IPathItem> semiOpen, final Map<IPathItem, IPathItem> closed )
 	{
 		this.open = open;
 		this.semiOpen = semiOpen;
@@ -60,25 +61,17 @@ public class PathSegment
 			{
 				final EnumSet<GridFlags> flags = pi.getFlags();
 
-				if( !this.closed.contains( pi ) )
+				if( !this.closed.containsKey( pi ) )
 				{
 					pi.setControllerRoute( i, true );
+					this.closed.put( pi, i );
 
 					if( flags.contains( GridFlags.REQUIRE_CHANNEL ) )
 					{
 						// close the semi open.
 						if( !this.semiOpen.contains( pi ) )
 						{
-							final boolean worked;
-
-							if( flags.contains( GridFlags.COMPRESSED_CHANNEL ) )
-							{
-								worked = this.useDenseChannel( pi );
-							}
-							else
-							{
-								worked = this.useChannel( pi );
-							}
+							final boolean worked = this.pgc.useChannel( pi, flags.contains( GridFlags.COMPRESSED_CHANNEL ) );
 
 							if( worked && flags.contains( GridFlags.MULTIBLOCK ) )
 							{
@@ -100,7 +93,6 @@ public class PathSegment
 						}
 					}
 
-					this.closed.add( pi );
 					this.open.add( pi );
 				}
 			}
@@ -109,56 +101,6 @@ public class PathSegment
 		return this.open.isEmpty();
 	}
 
-	private boolean useDenseChannel( final IPathItem start )
-	{
-		IPathItem pi = start;
-		while( pi != null )
-		{
-			if( !pi.canSupportMoreChannels() || pi.getFlags().contains( GridFlags.CANNOT_CARRY_COMPRESSED ) )
-			{
-				return false;
-			}
-
-			pi = pi.getControllerRoute();
-		}
-
-		pi = start;
-		while( pi != null )
-		{
-			this.pgc.setChannelsByBlocks( this.pgc.getChannelsByBlocks() + 1 );
-			pi.incrementChannelCount( 1 );
-			pi = pi.getControllerRoute();
-		}
-
-		this.pgc.setChannelsInUse( this.pgc.getChannelsInUse() + 1 );
-		return true;
-	}
-
-	private boolean useChannel( final IPathItem start )
-	{
-		IPathItem pi = start;
-		while( pi != null )
-		{
-			if( !pi.canSupportMoreChannels() )
-			{
-				return false;
-			}
-
-			pi = pi.getControllerRoute();
-		}
-
-		pi = start;
-		while( pi != null )
-		{
-			this.pgc.setChannelsByBlocks( this.pgc.getChannelsByBlocks() + 1 );
-			pi.incrementChannelCount( 1 );
-			pi = pi.getControllerRoute();
-		}
-
-		this.pgc.setChannelsInUse( this.pgc.getChannelsInUse() + 1 );
-		return true;
-	}
-
 	public boolean isDead()
 	{
 		return this.isDead;
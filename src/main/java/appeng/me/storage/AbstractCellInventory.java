@@ -30,6 +30,7 @@ import appeng.api.storage.ISaveProvider;
 import appeng.api.storage.data.IAEStack;
 import appeng.api.storage.data.IItemList;
 import appeng.util.Platform;
+import appeng.util.StorageConsistencyChecks;
 
 
 /**
@@ -99,6 +100,10 @@ public abstract class AbstractCellInventory<T extends IAEStack<T>> implements IC
 		{
 			this.cellItems = this.getChannel().createList();
 			this.loadCellItems();
+
+			// Later changes only apply deltas, so start from what was actually loaded rather than the NBT totals.
+			this.storedItems = (short) this.cellItems.size();
+			this.storedItemCount = this.countStoredItems();
 		}
 
 		return this.cellItems;
@@ -164,12 +169,57 @@ public abstract class AbstractCellInventory<T extends IAEStack<T>> implements IC
 	{
 		// recalculate values
 		this.storedItems = (short) this.cellItems.size();
-		this.storedItemCount = 0;
+		this.storedItemCount = this.countStoredItems();
+
+		this.markDirty();
+	}
+
+	/**
+	 * Saves a change of which the caller already knows the effect on the stored totals, avoiding a full walk over the
+	 * cell contents.
+	 *
+	 * @param itemCountDelta change of the stored item count
+	 * @param typeDelta change of the number of stored types
+	 */
+	protected void saveChanges( final long itemCountDelta, final int typeDelta )
+	{
+		this.storedItems += typeDelta;
+		this.storedItemCount += itemCountDelta;
+
+		if( StorageConsistencyChecks.isEnabled() )
+		{
+			StorageConsistencyChecks.verify( "Cell type count", this.storedItems, this.cellItems.size() );
+			StorageConsistencyChecks.verify( "Cell item count", this.storedItemCount, this.countStoredItems() );
+		}
+
+		this.markDirty();
+	}
+
+	/**
+	 * Updates the totals after changing a stack already held in {@link #cellItems}.
+	 *
+	 * @param stored the stack after it was changed
+	 * @param wasMeaningful whether the stack was meaningful before the change
+	 * @param oldStackSize the size of the stack before the change
+	 */
+	protected void saveChanges( final T stored, final boolean wasMeaningful, final long oldStackSize )
+	{
+		final int typeDelta = ( stored.isMeaningful() ? 1 : 0 ) - ( wasMeaningful ? 1 : 0 );
+		this.saveChanges( stored.getStackSize() - oldStackSize, typeDelta );
+	}
+
+	private int countStoredItems()
+	{
+		int count = 0;
 		for( final T v : this.cellItems )
 		{
-			this.storedItemCount += v.getStackSize();
+			count += v.getStackSize();
 		}
+		return count;
+	}
 
+	private void markDirty()
+	{
 		this.isPersisted = false;
 		if( this.container != null )
 		{
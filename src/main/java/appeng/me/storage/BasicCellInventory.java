@@ -157,8 +157,10 @@ public class BasicCellInventory<T extends IAEStack<T>> extends AbstractCellInven
 				r.setStackSize( r.getStackSize() - remainingItemCount );
 				if( mode == Actionable.MODULATE )
 				{
-					l.setStackSize( l.getStackSize() + remainingItemCount );
-					this.saveChanges();
+					final boolean wasMeaningful = l.isMeaningful();
+					final long oldStackSize = l.getStackSize();
+					l.setStackSize( oldStackSize + remainingItemCount );
+					this.saveChanges( l, wasMeaningful, oldStackSize );
 				}
 				return r;
 			}
@@ -166,8 +168,10 @@ public class BasicCellInventory<T extends IAEStack<T>> extends AbstractCellInven
 			{
 				if( mode == Actionable.MODULATE )
 				{
-					l.setStackSize( l.getStackSize() + input.getStackSize() );
-					this.saveChanges();
+					final boolean wasMeaningful = l.isMeaningful();
+					final long oldStackSize = l.getStackSize();
+					l.setStackSize( oldStackSize + input.getStackSize() );
+					this.saveChanges( l, wasMeaningful, oldStackSize );
 				}
 				return null;
 			}
@@ -188,7 +192,7 @@ public class BasicCellInventory<T extends IAEStack<T>> extends AbstractCellInven
 						toWrite.setStackSize( remainingItemCount );
 
 						this.cellItems.add( toWrite );
-						this.saveChanges();
+						this.saveChanges( remainingItemCount, 1 );
 					}
 					return toReturn;
 				}
@@ -196,7 +200,7 @@ public class BasicCellInventory<T extends IAEStack<T>> extends AbstractCellInven
 				if( mode == Actionable.MODULATE )
 				{
 					this.cellItems.add( input );
-					this.saveChanges();
+					this.saveChanges( input.getStackSize(), 1 );
 				}
 
 				return null;
@@ -228,8 +232,10 @@ public class BasicCellInventory<T extends IAEStack<T>> extends AbstractCellInven
 				Results.setStackSize( l.getStackSize() );
 				if( mode == Actionable.MODULATE )
 				{
+					final boolean wasMeaningful = l.isMeaningful();
+					final long oldStackSize = l.getStackSize();
 					l.setStackSize( 0 );
-					this.saveChanges();
+					this.saveChanges( l, wasMeaningful, oldStackSize );
 				}
 			}
 			else
@@ -237,8 +243,10 @@ public class BasicCellInventory<T extends IAEStack<T>> extends AbstractCellInven
 				Results.setStackSize( size );
 				if( mode == Actionable.MODULATE )
 				{
-					l.setStackSize( l.getStackSize() - size );
-					this.saveChanges();
+					final boolean wasMeaningful = l.isMeaningful();
+					final long oldStackSize = l.getStackSize();
+					l.setStackSize( oldStackSize - size );
+					this.saveChanges( l, wasMeaningful, oldStackSize );
 				}
 			}
 		}
@@ -20,12 +20,12 @@ package appeng.me.storage;
 
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map.Entry;
-import java.util.NavigableMap;
-import java.util.concurrent.ConcurrentSkipListMap;
 
 import net.minecraft.item.ItemStack;
 
@@ -43,23 +43,42 @@ import appeng.api.storage.data.IAEItemStack;
 import appeng.api.storage.data.IItemList;
 import appeng.util.InventoryAdaptor;
 import appeng.util.Platform;
+import appeng.util.inv.ISlotTrackingAdaptor;
 import appeng.util.inv.ItemSlot;
 
 
+/**
+ * Monitors an {@link InventoryAdaptor} by keeping a per slot snapshot and posting the difference to it.
+ * <p>
+ * If the adaptor is an {@link ISlotTrackingAdaptor}, changes made through this monitor only rescan the slots they
+ * touched, while changes made by others are picked up by a rolling window of {@link #RESCAN_WINDOW} slots per tick.
+ * Other adaptors are rescanned completely.
+ */
 public class MEMonitorIInventory implements IMEMonitor<IAEItemStack>, ITickingMonitor
 {
 
+	/**
+	 * Number of slots checked per tick for changes made outside of AE.
+	 */
+	private static final int RESCAN_WINDOW = 64;
+
 	private final InventoryAdaptor adaptor;
+	private final ISlotTrackingAdaptor slotAdaptor;
 	private final IItemList<IAEItemStack> list = AEApi.instance().storage().getStorageChannel( IItemStorageChannel.class ).createList();
 	private final HashMap<IMEMonitorHandlerReceiver<IAEItemStack>, Object> listeners = new HashMap<>();
-	private final NavigableMap<Integer, CachedItemStack> memory;
+	private final ItemSlot itemSlot = new ItemSlot();
+	private final BitSet dirtySlots = new BitSet();
+	private CachedItemStack[] memory = new CachedItemStack[0];
+	private int memorySlots = 0;
+	private int rescanCursor = 0;
+	private boolean needsFullScan = true;
 	private IActionSource mySource;
 	private StorageFilter mode = StorageFilter.EXTRACTABLE_ONLY;
 
 	public MEMonitorIInventory( final InventoryAdaptor adaptor )
 	{
 		this.adaptor = adaptor;
-		this.memory = new ConcurrentSkipListMap<>();
+		this.slotAdaptor = adaptor instanceof ISlotTrackingAdaptor ? (ISlotTrackingAdaptor) adaptor : null;
 	}
 
 	@Override
@@ -85,12 +104,20 @@ public class MEMonitorIInventory implements IMEMonitor<IAEItemStack>, ITickingMo
 		}
 		else
 		{
-			out = this.adaptor.addItems( input.createItemStack() );
+			this.trackSlots( true );
+			try
+			{
+				out = this.adaptor.addItems( input.createItemStack() );
+			}
+			finally
+			{
+				this.trackSlots( false );
+			}
 		}
 
 		if( type == Actionable.MODULATE )
 		{
-			this.onTick();
+			this.onModulate();
 		}
 
 		if( out.isEmpty() )
@@ -115,7 +142,15 @@ public class MEMonitorIInventory implements IMEMonitor<IAEItemStack>, ITickingMo
 		}
 		else
 		{
-			out = this.adaptor.removeItems( (int) request.getStackSize(), request.getDefinition(), null );
+			this.trackSlots( true );
+			try
+			{
+				out = this.adaptor.removeItems( (int) request.getStackSize(), request.getDefinition(), null );
+			}
+			finally
+			{
+				this.trackSlots( false );
+			}
 		}
 
 		if( out.isEmpty() )
@@ -129,7 +164,7 @@ public class MEMonitorIInventory implements IMEMonitor<IAEItemStack>, ITickingMo
 
 		if( type == Actionable.MODULATE )
 		{
-			this.onTick();
+			this.onModulate();
 		}
 
 		return o;
@@ -144,90 +179,213 @@ public class MEMonitorIInventory implements IMEMonitor<IAEItemStack>, ITickingMo
 	@Override
 	public TickRateModulation onTick()
 	{
-
 		final List<IAEItemStack> changes = new ArrayList<>();
+		final boolean changed;
 
-		this.list.resetStatus();
-		int high = 0;
-		boolean changed = false;
-		for( final ItemSlot is : this.adaptor )
+		if( this.slotAdaptor == null || this.needsFullScan )
+		{
+			changed = this.scanAll( changes );
+			this.needsFullScan = false;
+		}
+		else
 		{
-			final CachedItemStack old = this.memory.get( is.getSlot() );
-			high = Math.max( high, is.getSlot() );
+			changed = this.scanDirtySlots( changes ) | this.scanWindow( changes );
+		}
 
-			final ItemStack newIS = !is.isExtractable() && this.getMode() == StorageFilter.EXTRACTABLE_ONLY ? ItemStack.EMPTY : is.getItemStack();
-			final ItemStack oldIS = old == null ? ItemStack.EMPTY : old.itemStack;
+		if( !changes.isEmpty() )
+		{
+			this.postDifference( changes );
+		}
 
-			if( this.isDifferent( newIS, oldIS ) )
-			{
-				final CachedItemStack cis = new CachedItemStack( is.getItemStack() );
-				this.memory.put( is.getSlot(), cis );
+		return changed ? TickRateModulation.URGENT : TickRateModulation.SLOWER;
+	}
 
-				if( old != null && old.aeStack != null )
-				{
-					old.aeStack.setStackSize( -old.aeStack.getStackSize() );
-					changes.add( old.aeStack );
-				}
+	/**
+	 * Brings the snapshot up to date after this monitor changed the inventory itself.
+	 */
+	private void onModulate()
+	{
+		if( this.slotAdaptor == null || this.needsFullScan )
+		{
+			this.onTick();
+			return;
+		}
 
-				if( cis.aeStack != null )
-				{
-					changes.add( cis.aeStack );
-					this.list.add( cis.aeStack );
-				}
+		final List<IAEItemStack> changes = new ArrayList<>();
+		this.scanDirtySlots( changes );
 
-				changed = true;
+		if( !changes.isEmpty() )
+		{
+			this.postDifference( changes );
+		}
+	}
+
+	private void trackSlots( final boolean track )
+	{
+		if( this.slotAdaptor != null )
+		{
+			this.slotAdaptor.setChangedSlots( track ? this.dirtySlots : null );
+		}
+	}
+
+	private boolean scanAll( final List<IAEItemStack> changes )
+	{
+		boolean changed = false;
+		int slots = 0;
+
+		if( this.slotAdaptor != null )
+		{
+			slots = this.slotAdaptor.getSlots();
+			this.ensureCapacity( slots );
+			for( int slot = 0; slot < slots; slot++ )
+			{
+				changed |= this.updateSlot( this.slotAdaptor.getSlot( slot, this.itemSlot ), changes );
 			}
-			else
+		}
+		else
+		{
+			for( final ItemSlot is : this.adaptor )
 			{
-				final int newSize = ( newIS.isEmpty() ? 0 : newIS.getCount() );
-				final int diff = newSize - ( oldIS.isEmpty() ? 0 : oldIS.getCount() );
-
-				final IAEItemStack stack = ( old == null || old.aeStack == null ? AEApi.instance()
-						.storage()
-						.getStorageChannel( IItemStorageChannel.class )
-						.createStack( newIS ) : old.aeStack.copy() );
-				if( stack != null )
-				{
-					stack.setStackSize( newSize );
-					this.list.add( stack );
-				}
+				slots = Math.max( slots, is.getSlot() + 1 );
+				this.ensureCapacity( slots );
+				changed |= this.updateSlot( is, changes );
+			}
+		}
 
-				if( diff != 0 && stack != null )
-				{
-					final CachedItemStack cis = new CachedItemStack( is.getItemStack() );
-					this.memory.put( is.getSlot(), cis );
+		this.dirtySlots.clear();
+		changed |= this.truncate( slots, changes );
+		return changed;
+	}
 
-					final IAEItemStack a = stack.copy();
-					a.setStackSize( diff );
-					changes.add( a );
-					changed = true;
-				}
+	private boolean scanDirtySlots( final List<IAEItemStack> changes )
+	{
+		if( this.dirtySlots.isEmpty() )
+		{
+			return false;
+		}
+
+		final int slots = this.slotAdaptor.getSlots();
+		this.ensureCapacity( slots );
+
+		boolean changed = false;
+		for( int slot = this.dirtySlots.nextSetBit( 0 ); slot >= 0 && slot < slots; slot = this.dirtySlots.nextSetBit( slot + 1 ) )
+		{
+			changed |= this.updateSlot( this.slotAdaptor.getSlot( slot, this.itemSlot ), changes );
+		}
+
+		this.dirtySlots.clear();
+		changed |= this.truncate( slots, changes );
+		return changed;
+	}
+
+	private boolean scanWindow( final List<IAEItemStack> changes )
+	{
+		final int slots = this.slotAdaptor.getSlots();
+		this.ensureCapacity( slots );
+
+		boolean changed = this.truncate( slots, changes );
+		if( slots == 0 )
+		{
+			return changed;
+		}
+
+		final int window = Math.min( slots, RESCAN_WINDOW );
+		for( int i = 0; i < window; i++ )
+		{
+			if( this.rescanCursor >= slots )
+			{
+				this.rescanCursor = 0;
 			}
+
+			changed |= this.updateSlot( this.slotAdaptor.getSlot( this.rescanCursor++, this.itemSlot ), changes );
 		}
 
-		// detect dropped items; should fix non IISided Inventory Changes.
-		final NavigableMap<Integer, CachedItemStack> end = this.memory.tailMap( high, false );
-		if( !end.isEmpty() )
+		return changed;
+	}
+
+	/**
+	 * Compares one slot against the snapshot and records the difference.
+	 *
+	 * @return true if the slot changed
+	 */
+	private boolean updateSlot( final ItemSlot is, final List<IAEItemStack> changes )
+	{
+		final int slot = is.getSlot();
+		final CachedItemStack old = this.memory[slot];
+
+		final ItemStack newIS = !is.isExtractable() && this.getMode() == StorageFilter.EXTRACTABLE_ONLY ? ItemStack.EMPTY : is.getItemStack();
+		final ItemStack oldIS = old == null ? ItemStack.EMPTY : old.itemStack;
+
+		if( this.isDifferent( newIS, oldIS ) )
 		{
-			for( final CachedItemStack cis : end.values() )
+			final CachedItemStack cis = newIS.isEmpty() ? null : new CachedItemStack( newIS );
+			this.memory[slot] = cis;
+
+			if( old != null && old.aeStack != null )
 			{
-				if( cis != null && cis.aeStack != null )
-				{
-					final IAEItemStack a = cis.aeStack.copy();
-					a.setStackSize( -a.getStackSize() );
-					changes.add( a );
-					changed = true;
-				}
+				final IAEItemStack a = old.aeStack.copy();
+				a.setStackSize( -a.getStackSize() );
+				changes.add( a );
+				this.list.addStorage( a );
 			}
-			end.clear();
+
+			if( cis != null && cis.aeStack != null )
+			{
+				changes.add( cis.aeStack.copy() );
+				this.list.addStorage( cis.aeStack );
+			}
+
+			return true;
 		}
 
-		if( !changes.isEmpty() )
+		final int newSize = newIS.isEmpty() ? 0 : newIS.getCount();
+		final int diff = newSize - ( oldIS.isEmpty() ? 0 : oldIS.getCount() );
+
+		if( diff != 0 && old != null && old.aeStack != null )
 		{
-			this.postDifference( changes );
+			this.memory[slot] = new CachedItemStack( newIS );
+
+			final IAEItemStack a = old.aeStack.copy();
+			a.setStackSize( diff );
+			changes.add( a );
+			this.list.addStorage( a );
+			return true;
 		}
 
-		return changed ? TickRateModulation.URGENT : TickRateModulation.SLOWER;
+		return false;
+	}
+
+	private void ensureCapacity( final int slots )
+	{
+		if( slots > this.memory.length )
+		{
+			this.memory = Arrays.copyOf( this.memory, Math.max( slots, this.memory.length * 2 ) );
+		}
+	}
+
+	/**
+	 * Drops the snapshot of slots the inventory no longer has.
+	 */
+	private boolean truncate( final int slots, final List<IAEItemStack> changes )
+	{
+		boolean changed = false;
+
+		for( int slot = slots; slot < this.memorySlots; slot++ )
+		{
+			final CachedItemStack cis = this.memory[slot];
+			if( cis != null && cis.aeStack != null )
+			{
+				final IAEItemStack a = cis.aeStack.copy();
+				a.setStackSize( -a.getStackSize() );
+				changes.add( a );
+				this.list.addStorage( a );
+				changed = true;
+			}
+			this.memory[slot] = null;
+		}
+
+		this.memorySlots = slots;
+		return changed;
 	}
 
 	private boolean isDifferent( final ItemStack a, final ItemStack b )
@@ -306,9 +464,9 @@ public class MEMonitorIInventory implements IMEMonitor<IAEItemStack>, ITickingMo
 	@Override
 	public IItemList<IAEItemStack> getAvailableItems( final IItemList out )
 	{
-		for( final CachedItemStack is : this.memory.values() )
+		for( final IAEItemStack is : this.list )
 		{
-			out.addStorage( is.aeStack );
+			out.addStorage( is );
 		}
 
 		return out;
@@ -327,6 +485,10 @@ public class MEMonitorIInventory implements IMEMonitor<IAEItemStack>, ITickingMo
 
 	public void setMode( final StorageFilter mode )
 	{
+		if( this.mode != mode )
+		{
+			this.needsFullScan = true;
+		}
 		this.mode = mode;
 	}
 
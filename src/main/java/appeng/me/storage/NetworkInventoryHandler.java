@@ -23,23 +23,37 @@ import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.NavigableMap;
 import java.util.TreeMap;
 
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+
+import net.minecraft.item.Item;
+
 import appeng.api.config.AccessRestriction;
 import appeng.api.config.Actionable;
+import appeng.api.config.IncludeExclude;
 import appeng.api.config.SecurityPermissions;
 import appeng.api.networking.IGrid;
 import appeng.api.networking.IGridNode;
 import appeng.api.networking.security.IActionSource;
 import appeng.api.networking.security.ISecurityGrid;
+import appeng.api.storage.IMEInventory;
 import appeng.api.storage.IMEInventoryHandler;
 import appeng.api.storage.IStorageChannel;
+import appeng.api.storage.data.IAEItemStack;
 import appeng.api.storage.data.IAEStack;
 import appeng.api.storage.data.IItemList;
 import appeng.me.cache.SecurityCache;
+import appeng.util.prioritylist.FuzzyPriorityList;
+import appeng.util.prioritylist.IPartitionList;
+import appeng.util.prioritylist.PrecisePriorityList;
 
 
 public class NetworkInventoryHandler<T extends IAEStack<T>> implements IMEInventoryHandler<T>
@@ -52,7 +66,8 @@ public class NetworkInventoryHandler<T extends IAEStack<T>> implements IMEInvent
 	private static int currentPass = 0;
 	private final IStorageChannel<T> myChannel;
 	private final SecurityCache security;
-	private final NavigableMap<Integer, List<IMEInventoryHandler<T>>> priorityInventory;
+	private final NavigableMap<Integer, PriorityBucket<T>> priorityInventory;
+	private final Map<IMEInventoryHandler<T>, Route<T>> routes = new IdentityHashMap<>();
 	private int myPass = 0;
 
 	public NetworkInventoryHandler( final IStorageChannel<T> chan, final SecurityCache security )
@@ -64,14 +79,44 @@ public class NetworkInventoryHandler<T extends IAEStack<T>> implements IMEInvent
 
 	public void addNewStorage( final IMEInventoryHandler<T> h )
 	{
+		if( this.routes.containsKey( h ) )
+		{
+			return;
+		}
+
 		final int priority = h.getPriority();
-		List<IMEInventoryHandler<T>> list = this.priorityInventory.get( priority );
-		if( list == null )
+		PriorityBucket<T> bucket = this.priorityInventory.get( priority );
+		if( bucket == null )
+		{
+			this.priorityInventory.put( priority, bucket = new PriorityBucket<>() );
+		}
+
+		this.routes.put( h, bucket.add( h, priority ) );
+	}
+
+	public void removeStorage( final IMEInventoryHandler<T> h )
+	{
+		final Route<T> route = this.routes.remove( h );
+		if( route == null )
+		{
+			return;
+		}
+
+		final PriorityBucket<T> bucket = this.priorityInventory.get( route.priority );
+		bucket.remove( route );
+		if( bucket.handlers.isEmpty() )
 		{
-			this.priorityInventory.put( priority, list = new ArrayList<>() );
+			this.priorityInventory.remove( route.priority );
 		}
+	}
 
-		list.add( h );
+	/**
+	 * @return true if the handler is mounted and neither its priority nor its partitioning changed since.
+	 */
+	public boolean isStorageCurrent( final IMEInventoryHandler<T> h )
+	{
+		final Route<T> route = this.routes.get( h );
+		return route != null && route.isCurrent();
 	}
 
 	@Override
@@ -88,8 +133,19 @@ public class NetworkInventoryHandler<T extends IAEStack<T>> implements IMEInvent
 			return input;
 		}
 
-		for( final List<IMEInventoryHandler<T>> invList : this.priorityInventory.values() )
+		final List<IMEInventoryHandler<T>> invList = new ArrayList<>();
+		for( final PriorityBucket<T> bucket : this.priorityInventory.values() )
 		{
+			if( input == null )
+			{
+				break;
+			}
+
+			// Only handlers whose partitioning could accept the input are considered, everything else would fail
+			// canAccept anyway.
+			invList.clear();
+			bucket.collectCandidates( input, invList );
+
 			Iterator<IMEInventoryHandler<T>> ii = invList.iterator();
 			while( ii.hasNext() && input != null )
 			{
@@ -208,7 +264,7 @@ public class NetworkInventoryHandler<T extends IAEStack<T>> implements IMEInvent
 			return null;
 		}
 
-		final Iterator<List<IMEInventoryHandler<T>>> i = this.priorityInventory.descendingMap().values().iterator();// priorityInventory.asMap().descendingMap().entrySet().iterator();
+		final Iterator<PriorityBucket<T>> i = this.priorityInventory.descendingMap().values().iterator();// priorityInventory.asMap().descendingMap().entrySet().iterator();
 
 		final T output = request.copy();
 		request = request.copy();
@@ -217,7 +273,7 @@ public class NetworkInventoryHandler<T extends IAEStack<T>> implements IMEInvent
 
 		while( i.hasNext() )
 		{
-			final List<IMEInventoryHandler<T>> invList = i.next();
+			final List<IMEInventoryHandler<T>> invList = i.next().handlers;
 
 			final Iterator<IMEInventoryHandler<T>> ii = invList.iterator();
 			while( ii.hasNext() && output.getStackSize() < req )
@@ -248,9 +304,9 @@ public class NetworkInventoryHandler<T extends IAEStack<T>> implements IMEInvent
 		}
 
 		// for (Entry<Integer, IMEInventoryHandler<T>> h : priorityInventory.entries())
-		for( final List<IMEInventoryHandler<T>> i : this.priorityInventory.values() )
+		for( final PriorityBucket<T> i : this.priorityInventory.values() )
 		{
-			for( final IMEInventoryHandler<T> j : i )
+			for( final IMEInventoryHandler<T> j : i.handlers )
 			{
 				out = j.getAvailableItems( out );
 			}
@@ -326,4 +382,189 @@ public class NetworkInventoryHandler<T extends IAEStack<T>> implements IMEInvent
 	{
 		return true;
 	}
+
+	/**
+	 * Finds the {@link MEInventoryHandler} which restricts what the given inventory can accept to a whitelist we are
+	 * able to index.
+	 *
+	 * @return the restricting handler or null, if the inventory could accept anything
+	 */
+	private static <T extends IAEStack<T>> MEInventoryHandler<T> findPartitioningHandler( final IMEInventory<T> inv )
+	{
+		IMEInventory<T> current = inv;
+		while( current instanceof MEInventoryHandler )
+		{
+			final MEInventoryHandler<T> handler = (MEInventoryHandler<T>) current;
+			if( handler.getWhitelist() == IncludeExclude.WHITELIST && isIndexable( handler.getPartitionList() ) )
+			{
+				return handler;
+			}
+
+			// MEInventoryHandler#canAccept always consults its internal inventory too, so its restrictions apply.
+			current = handler.getInternal();
+		}
+
+		return null;
+	}
+
+	private static <T extends IAEStack<T>> boolean isIndexable( final IPartitionList<T> list )
+	{
+		if( list.isEmpty() )
+		{
+			return false;
+		}
+
+		if( list instanceof PrecisePriorityList )
+		{
+			return true;
+		}
+
+		if( list instanceof FuzzyPriorityList )
+		{
+			// Fuzzy matches are indexed by item, other channels do not have a well defined fuzzy match.
+			for( final T stack : list.getItems() )
+			{
+				if( !( stack instanceof IAEItemStack ) )
+				{
+					return false;
+				}
+			}
+			return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * A mounted handler and the keys it was indexed under.
+	 */
+	private static final class Route<T extends IAEStack<T>>
+	{
+		private final IMEInventoryHandler<T> handler;
+		private final int priority;
+		private final int order;
+		private final MEInventoryHandler<T> partitionedBy;
+		private final IPartitionList<T> partitionList;
+
+		private Route( final IMEInventoryHandler<T> handler, final int priority, final int order )
+		{
+			this.handler = handler;
+			this.priority = priority;
+			this.order = order;
+			this.partitionedBy = findPartitioningHandler( handler );
+			this.partitionList = this.partitionedBy != null ? this.partitionedBy.getPartitionList() : null;
+		}
+
+		private boolean isCurrent()
+		{
+			if( this.handler.getPriority() != this.priority )
+			{
+				return false;
+			}
+
+			final MEInventoryHandler<T> current = findPartitioningHandler( this.handler );
+			return current == this.partitionedBy && ( current == null || current.getPartitionList() == this.partitionList );
+		}
+	}
+
+	/**
+	 * All handlers sharing one priority, in the order they were mounted.
+	 * <p>
+	 * Handlers restricted to a whitelist are additionally indexed by the stacks (or for fuzzy lists the items) they
+	 * accept, so an injection only has to look at handlers able to take the stack and the unpartitioned ones.
+	 */
+	private static final class PriorityBucket<T extends IAEStack<T>>
+	{
+		private final List<IMEInventoryHandler<T>> handlers = new ArrayList<>();
+		private final List<Route<T>> unpartitioned = new ArrayList<>();
+		private final Map<T, List<Route<T>>> preciseIndex = new HashMap<>();
+		private final Reference2ObjectMap<Item, List<Route<T>>> fuzzyIndex = new Reference2ObjectOpenHashMap<>();
+		private int nextOrder = 0;
+
+		private Route<T> add( final IMEInventoryHandler<T> h, final int priority )
+		{
+			final Route<T> route = new Route<>( h, priority, this.nextOrder++ );
+			this.handlers.add( h );
+
+			if( route.partitionList instanceof PrecisePriorityList )
+			{
+				for( final T stack : route.partitionList.getItems() )
+				{
+					this.preciseIndex.computeIfAbsent( stack, k -> new ArrayList<>( 2 ) ).add( route );
+				}
+			}
+			else if( route.partitionList instanceof FuzzyPriorityList )
+			{
+				for( final T stack : route.partitionList.getItems() )
+				{
+					final List<Route<T>> routes = this.fuzzyIndex.computeIfAbsent( ( (IAEItemStack) stack ).getItem(), k -> new ArrayList<>( 2 ) );
+					// several config slots can share one item
+					if( routes.isEmpty() || routes.get( routes.size() - 1 ) != route )
+					{
+						routes.add( route );
+					}
+				}
+			}
+			else
+			{
+				this.unpartitioned.add( route );
+			}
+
+			return route;
+		}
+
+		private void remove( final Route<T> route )
+		{
+			this.handlers.remove( route.handler );
+			this.unpartitioned.remove( route );
+			this.preciseIndex.values().removeIf( routes -> routes.remove( route ) && routes.isEmpty() );
+			this.fuzzyIndex.values().removeIf( routes -> routes.remove( route ) && routes.isEmpty() );
+		}
+
+		/**
+		 * Adds every handler which might accept the input to the output list, preserving the mount order.
+		 */
+		private void collectCandidates( final T input, final List<IMEInventoryHandler<T>> out )
+		{
+			final List<Route<T>> precise = this.preciseIndex.isEmpty() ? null : this.preciseIndex.get( input );
+			final List<Route<T>> fuzzy = this.fuzzyIndex.isEmpty() || !( input instanceof IAEItemStack ) ? null : this.fuzzyIndex.get( ( (IAEItemStack) input )
+					.getItem() );
+
+			if( precise == null && fuzzy == null )
+			{
+				for( final Route<T> route : this.unpartitioned )
+				{
+					out.add( route.handler );
+				}
+				return;
+			}
+
+			int a = 0;
+			int b = 0;
+			int c = 0;
+			final int sizeA = this.unpartitioned.size();
+			final int sizeB = precise == null ? 0 : precise.size();
+			final int sizeC = fuzzy == null ? 0 : fuzzy.size();
+
+			while( a < sizeA || b < sizeB || c < sizeC )
+			{
+				final int orderA = a < sizeA ? this.unpartitioned.get( a ).order : Integer.MAX_VALUE;
+				final int orderB = b < sizeB ? precise.get( b ).order : Integer.MAX_VALUE;
+				final int orderC = c < sizeC ? fuzzy.get( c ).order : Integer.MAX_VALUE;
+
+				if( orderA <= orderB && orderA <= orderC )
+				{
+					out.add( this.unpartitioned.get( a++ ).handler );
+				}
+				else if( orderB <= orderC )
+				{
+					out.add( precise.get( b++ ).handler );
+				}
+				else
+				{
+					out.add( fuzzy.get( c++ ).handler );
+				}
+			}
+		}
+	}
 }
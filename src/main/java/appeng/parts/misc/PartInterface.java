@@ -32,7 +32,9 @@ import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.util.EnumHand;
 import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.IBlockAccess;
 import net.minecraftforge.common.capabilities.Capability;
 import net.minecraftforge.items.IItemHandler;
 
@@ -147,6 +149,19 @@ public class PartInterface extends PartBasicState implements IGridTickable, ISto
 		this.duality.initialize();
 	}
 
+	@Override
+	public void removeFromWorld()
+	{
+		super.removeFromWorld();
+		this.duality.clearNeighbors();
+	}
+
+	@Override
+	public void onNeighborChanged( final IBlockAccess w, final BlockPos pos, final BlockPos neighbor )
+	{
+		this.duality.onNeighborChanged( neighbor );
+	}
+
 	@Override
 	public void getDrops( final List<ItemStack> drops, final boolean wrenched )
 	{
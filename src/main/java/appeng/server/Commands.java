@@ -21,11 +21,12 @@ package appeng.server;
 
 import appeng.server.subcommands.ChunkLogger;
 import appeng.server.subcommands.Supporters;
+import appeng.server.subcommands.TickTimes;
 
 
 public enum Commands
 {
-	Chunklogger( 4, new ChunkLogger() ), Supporters( 0, new Supporters() );
+	Chunklogger( 4, new ChunkLogger() ), Supporters( 0, new Supporters() ), TickTimes( 4, new TickTimes() );
 
 	public final int level;
 	public final ISubCommand command;
@@ -0,0 +1,140 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.server.subcommands;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import net.minecraft.command.ICommandSender;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.text.ITextComponent;
+import net.minecraft.util.text.TextComponentString;
+import net.minecraft.util.text.TextComponentTranslation;
+
+import appeng.api.networking.IGridNode;
+import appeng.api.networking.ticking.ITickManager;
+import appeng.api.util.DimensionalCoord;
+import appeng.core.AEConfig;
+import appeng.hooks.TickHandler;
+import appeng.me.Grid;
+import appeng.me.cache.TickManagerCache;
+import appeng.me.cache.helpers.TickTracker;
+import appeng.me.helpers.TimingStatistics;
+import appeng.server.ISubCommand;
+
+
+public class TickTimes implements ISubCommand
+{
+
+	private static final int SHOWN_GRIDS = 5;
+	private static final int SHOWN_DEVICES = 5;
+
+	@Override
+	public String getHelp( final MinecraftServer srv )
+	{
+		return "commands.ae2.TickTimes";
+	}
+
+	@Override
+	public void call( final MinecraftServer srv, final String[] data, final ICommandSender sender )
+	{
+		if( data.length > 1 )
+		{
+			int sampleRate;
+
+			try
+			{
+				sampleRate = Integer.parseInt( data[1] );
+			}
+			catch( final NumberFormatException e )
+			{
+				sampleRate = -1;
+			}
+
+			if( sampleRate < 0 )
+			{
+				sender.sendMessage( new TextComponentTranslation( this.getHelp( srv ) ) );
+				return;
+			}
+
+			AEConfig.instance().setTickTimingSampleRate( sampleRate );
+		}
+
+		final int rate = AEConfig.instance().getTickTimingSampleRate();
+		if( rate <= 0 )
+		{
+			sender.sendMessage( new TextComponentTranslation( "commands.ae2.TickTimesOff" ) );
+			return;
+		}
+
+		sender.sendMessage( new TextComponentTranslation( "commands.ae2.TickTimesOn", rate ) );
+
+		final List<Grid> grids = new ArrayList<>();
+		for( final Grid g : TickHandler.INSTANCE.getGridList() )
+		{
+			if( !g.isEmpty() && g.getUpdateTimings().getSamples() > 0 )
+			{
+				grids.add( g );
+			}
+		}
+
+		grids.sort( ( a, b ) -> Long.compare( b.getUpdateTimings().getAverageNanos(), a.getUpdateTimings().getAverageNanos() ) );
+
+		for( final Grid g : grids.subList( 0, Math.min( SHOWN_GRIDS, grids.size() ) ) )
+		{
+			final DimensionalCoord dc = g.getPivot().getGridBlock().getLocation();
+			sender.sendMessage( new TextComponentTranslation( "commands.ae2.TickTimesGrid", dc, format( g.getUpdateTimings() ) ) );
+
+			for( final Map.Entry<String, TimingStatistics> cache : g.getCacheTimings().entrySet() )
+			{
+				if( cache.getValue().getAverageNanos() > 0 )
+				{
+					final String name = cache.getKey().substring( cache.getKey().lastIndexOf( '.' ) + 1 );
+					sender.sendMessage( indent( new TextComponentTranslation( "commands.ae2.TickTimesCache", name, format( cache.getValue() ) ) ) );
+				}
+			}
+
+			final TickManagerCache tmc = g.getCache( ITickManager.class );
+			for( final TickTracker tt : tmc.getSlowestTickables( SHOWN_DEVICES ) )
+			{
+				final IGridNode node = tt.getNode();
+				sender.sendMessage( indent( new TextComponentTranslation( "commands.ae2.TickTimesDevice", tt.getGridTickable().getClass().getSimpleName(), node
+						.getGridBlock().getLocation(), format( tt.getTimings() ) ) ) );
+			}
+		}
+	}
+
+	private static ITextComponent indent( final ITextComponent line )
+	{
+		return new TextComponentString( "  " ).appendSibling( line );
+	}
+
+	private static ITextComponent format( final TimingStatistics timings )
+	{
+		return new TextComponentTranslation( "commands.ae2.TickTimesStats", micros( timings.getAverageNanos() ), micros( timings.getMeanNanos() ), micros(
+				timings.getMaxNanos() ), timings.getSamples() );
+	}
+
+	private static String micros( final long nanos )
+	{
+		return String.format( "%.1f", nanos / 1000.0 );
+	}
+}
@@ -324,36 +324,7 @@ public class TileInscriber extends AENetworkPowerTile implements IGridTickable,
 			return this.makeNamePressRecipe( input, plateB, plateA );
 		}
 
-		for( final IInscriberRecipe recipe : AEApi.instance().registries().inscriber().getRecipes() )
-		{
-
-			final boolean matchA = ( plateA.isEmpty() && !recipe.getTopOptional().isPresent() ) || ( Platform.itemComparisons()
-					.isSameItem( plateA,
-							recipe.getTopOptional().orElse( ItemStack.EMPTY ) ) ) && // and...
-					( ( plateB.isEmpty() && !recipe.getBottomOptional().isPresent() ) || ( Platform.itemComparisons()
-							.isSameItem( plateB,
-									recipe.getBottomOptional().orElse( ItemStack.EMPTY ) ) ) );
-
-			final boolean matchB = ( plateB.isEmpty() && !recipe.getTopOptional().isPresent() ) || ( Platform.itemComparisons()
-					.isSameItem( plateB,
-							recipe.getTopOptional().orElse( ItemStack.EMPTY ) ) ) && // and...
-					( ( plateA.isEmpty() && !recipe.getBottomOptional().isPresent() ) || ( Platform.itemComparisons()
-							.isSameItem( plateA,
-									recipe.getBottomOptional().orElse( ItemStack.EMPTY ) ) ) );
-
-			if( matchA || matchB )
-			{
-				for( final ItemStack option : recipe.getInputs() )
-				{
-					if( Platform.itemComparisons().isSameItem( input, option ) )
-					{
-						return recipe;
-					}
-				}
-			}
-		}
-
-		return null;
+		return AEApi.instance().registries().inscriber().findRecipe( input, plateA, plateB );
 	}
 
 	@Override
@@ -621,14 +592,7 @@ public class TileInscriber extends AENetworkPowerTile implements IGridTickable,
 				{
 					return true;
 				}
-				for( final ItemStack optionals : AEApi.instance().registries().inscriber().getOptionals() )
-				{
-					if( Platform.itemComparisons().isSameItem( stack, optionals ) )
-					{
-						return true;
-					}
-				}
-				return false;
+				return AEApi.instance().registries().inscriber().isOptional( stack );
 			}
 			return true;
 		}
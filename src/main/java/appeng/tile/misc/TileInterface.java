@@ -157,6 +157,18 @@ public class TileInterface extends AENetworkInvTile implements IGridTickable, II
 		this.duality.gridChanged();
 	}
 
+	@Override
+	public void onChunkUnload()
+	{
+		super.onChunkUnload();
+		this.duality.clearNeighbors();
+	}
+
+	public void onNeighborChanged( final BlockPos neighbor )
+	{
+		this.duality.onNeighborChanged( neighbor );
+	}
+
 	@Override
 	public void onReady()
 	{
@@ -185,6 +197,13 @@ public class TileInterface extends AENetworkInvTile implements IGridTickable, II
 		this.duality.readFromNBT( data );
 	}
 
+	@Override
+	public void setName( final String name )
+	{
+		super.setName( name );
+		this.duality.onCustomNameChanged();
+	}
+
 	@Override
 	protected boolean readFromStream( final ByteBuf data ) throws IOException
 	{
@@ -19,9 +19,12 @@
 package appeng.tile.storage;
 
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import net.minecraft.block.Block;
 import net.minecraft.item.ItemStack;
@@ -80,6 +83,9 @@ public class TileIOPort extends AENetworkInvTile implements IUpgradeableHost, IC
 	private static final int NUMBER_OF_CELL_SLOTS = 6;
 	private static final int NUMBER_OF_UPGRADE_SLOTS = 3;
 
+	// weight of the latest operation in the average throughput.
+	private static final double THROUGHPUT_SMOOTHING = 0.1;
+
 	private final ConfigManager manager;
 
 	private final AppEngInternalInventory inputCells = new AppEngInternalInventory( this, NUMBER_OF_CELL_SLOTS );
@@ -94,6 +100,8 @@ public class TileIOPort extends AENetworkInvTile implements IUpgradeableHost, IC
 	private YesNo lastRedstoneState;
 	private ItemStack currentCell;
 	private Map<IStorageChannel<?>, IMEInventory<?>> cachedInventories;
+	private long itemsMovedLastOperation;
+	private double averageItemsPerTick;
 
 	public TileIOPort()
 	{
@@ -279,6 +287,7 @@ public class TileIOPort extends AENetworkInvTile implements IUpgradeableHost, IC
 
 		TickRateModulation ret = TickRateModulation.SLEEP;
 		long itemsToMove = 256;
+		final long itemLimit;
 
 		switch( this.getInstalledUpgrades( Upgrades.SPEED ) )
 		{
@@ -293,9 +302,15 @@ public class TileIOPort extends AENetworkInvTile implements IUpgradeableHost, IC
 				break;
 		}
 
+		itemLimit = itemsToMove;
+
 		try
 		{
 			final IEnergySource energy = this.getProxy().getEnergy();
+
+			// every cell empties into the same network, so what it refused once it refuses for the whole operation.
+			final Set<IAEStack<?>> rejectedByNetwork = new HashSet<>();
+
 			for( int x = 0; x < NUMBER_OF_CELL_SLOTS; x++ )
 			{
 				final ItemStack is = this.inputCells.getStackInSlot( x );
@@ -317,11 +332,11 @@ public class TileIOPort extends AENetworkInvTile implements IUpgradeableHost, IC
 
 							if( this.manager.getSetting( Settings.OPERATION_MODE ) == OperationMode.EMPTY )
 							{
-								itemsToMove = this.transferContents( energy, inv, network, itemsToMove, c );
+								itemsToMove = this.transferContents( energy, inv, network, itemsToMove, c, rejectedByNetwork );
 							}
 							else
 							{
-								itemsToMove = this.transferContents( energy, network, inv, itemsToMove, c );
+								itemsToMove = this.transferContents( energy, network, inv, itemsToMove, c, new HashSet<>() );
 							}
 
 							shouldMove &= this.shouldMove( inv );
@@ -354,9 +369,28 @@ public class TileIOPort extends AENetworkInvTile implements IUpgradeableHost, IC
 			ret = TickRateModulation.IDLE;
 		}
 
+		this.itemsMovedLastOperation = itemLimit - itemsToMove;
+		this.averageItemsPerTick += THROUGHPUT_SMOOTHING * ( (double) this.itemsMovedLastOperation / Math.max( 1, ticksSinceLastCall ) - this.averageItemsPerTick );
+
 		return ret;
 	}
 
+	/**
+	 * @return items, or buckets of fluid, moved by the last operation of the port.
+	 */
+	public long getItemsMovedLastOperation()
+	{
+		return this.itemsMovedLastOperation;
+	}
+
+	/**
+	 * @return smoothed number of items, or buckets of fluid, the port moves per tick.
+	 */
+	public double getAverageItemsPerTick()
+	{
+		return this.averageItemsPerTick;
+	}
+
 	@Override
 	public int getInstalledUpgrades( final Upgrades u )
 	{
@@ -379,12 +413,25 @@ public class TileIOPort extends AENetworkInvTile implements IUpgradeableHost, IC
 		return this.cachedInventories.get( chan );
 	}
 
-	private long transferContents( final IEnergySource energy, final IMEInventory src, final IMEInventory destination, long itemsToMove, final IStorageChannel chan )
+	/**
+	 * Moves up to itemsToMove from src to destination in a single pass over the source contents, one extraction and one
+	 * injection per type. Types the destination refused are remembered in rejected and not offered again.
+	 *
+	 * @return how many items of the budget are left.
+	 */
+	private long transferContents( final IEnergySource energy, final IMEInventory src, final IMEInventory destination, long itemsToMove, final IStorageChannel chan, final Set<IAEStack<?>> rejected )
 	{
-		final IItemList<? extends IAEStack> myList;
+		final Iterable<? extends IAEStack> myList;
 		if( src instanceof IMEMonitor )
 		{
-			myList = ( (IMEMonitor) src ).getStorageList();
+			// the storage list changes with every extraction, so walk a snapshot of it.
+			final IItemList<? extends IAEStack> storageList = ( (IMEMonitor) src ).getStorageList();
+			final List<IAEStack> snapshot = new ArrayList<>( storageList.size() );
+			for( final IAEStack s : storageList )
+			{
+				snapshot.add( s );
+			}
+			myList = snapshot;
 		}
 		else
 		{
@@ -393,60 +440,52 @@ public class TileIOPort extends AENetworkInvTile implements IUpgradeableHost, IC
 
 		itemsToMove *= chan.transferFactor();
 
-		boolean didStuff;
-
-		do
+		for( final IAEStack s : myList )
 		{
-			didStuff = false;
+			if( itemsToMove <= 0 )
+			{
+				break;
+			}
 
-			for( final IAEStack s : myList )
+			final long totalStackSize = s.getStackSize();
+			if( totalStackSize <= 0 || rejected.contains( s ) )
 			{
-				final long totalStackSize = s.getStackSize();
-				if( totalStackSize > 0 )
-				{
-					final IAEStack stack = destination.injectItems( s, Actionable.SIMULATE, this.mySrc );
+				continue;
+			}
 
-					long possible = 0;
-					if( stack == null )
-					{
-						possible = totalStackSize;
-					}
-					else
-					{
-						possible = totalStackSize - stack.getStackSize();
-					}
+			final IAEStack request = s.copy();
+			request.setStackSize( Math.min( totalStackSize, itemsToMove ) );
 
-					if( possible > 0 )
-					{
-						possible = Math.min( possible, itemsToMove );
-						s.setStackSize( possible );
+			final IAEStack notAccepted = destination.injectItems( request, Actionable.SIMULATE, this.mySrc );
+			final long possible = notAccepted == null ? request.getStackSize() : request.getStackSize() - notAccepted.getStackSize();
 
-						final IAEStack extracted = src.extractItems( s, Actionable.MODULATE, this.mySrc );
-						if( extracted != null )
-						{
-							possible = extracted.getStackSize();
-							extracted.setCraftable( false );
-							final IAEStack failed = Platform.poweredInsert( energy, destination, extracted, this.mySrc );
+			if( possible <= 0 )
+			{
+				rejected.add( request );
+				continue;
+			}
 
-							if( failed != null )
-							{
-								possible -= failed.getStackSize();
-								src.injectItems( failed, Actionable.MODULATE, this.mySrc );
-							}
+			request.setStackSize( possible );
 
-							if( possible > 0 )
-							{
-								itemsToMove -= possible;
-								didStuff = true;
-							}
+			final IAEStack extracted = src.extractItems( request, Actionable.MODULATE, this.mySrc );
+			if( extracted == null )
+			{
+				continue;
+			}
 
-							break;
-						}
-					}
-				}
+			long moved = extracted.getStackSize();
+			extracted.setCraftable( false );
+			final IAEStack failed = Platform.poweredInsert( energy, destination, extracted, this.mySrc );
+
+			if( failed != null )
+			{
+				moved -= failed.getStackSize();
+				src.injectItems( failed, Actionable.MODULATE, this.mySrc );
+				rejected.add( request );
 			}
+
+			itemsToMove -= moved;
 		}
-		while( itemsToMove > 0 && didStuff );
 
 		return itemsToMove / chan.transferFactor();
 	}
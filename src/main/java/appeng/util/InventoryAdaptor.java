@@ -19,6 +19,8 @@
 package appeng.util;
 
 
+import java.util.List;
+
 import appeng.util.inv.*;
 import com.jaquadro.minecraft.storagedrawers.api.capabilities.IItemRepository;
 import net.minecraft.entity.player.EntityPlayer;
@@ -92,6 +94,24 @@ public abstract class InventoryAdaptor implements Iterable<ItemSlot>
 
 	public abstract ItemStack simulateAdd( ItemStack toBeSimulated );
 
+	/**
+	 * Checks whether all the stacks fit at the same time, so two stacks never count on the same free space.
+	 *
+	 * Adaptors which cannot tell only check each stack on its own.
+	 */
+	public boolean simulateAddAll( final List<ItemStack> toBeSimulated )
+	{
+		for( final ItemStack is : toBeSimulated )
+		{
+			if( !this.simulateAdd( is ).isEmpty() )
+			{
+				return false;
+			}
+		}
+
+		return true;
+	}
+
 	public abstract boolean containsItems();
 
 	public abstract boolean hasSlots();
@@ -0,0 +1,57 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2017, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.util;
+
+
+/**
+ * Switch for verifying the incrementally maintained totals of item lists and storage cells against a full recount.
+ * <p>
+ * Disabled by default, as it turns the O(1) lookups back into full scans. Enable it with
+ * {@code -Dappeng.storageConsistencyChecks=true} or {@link #setEnabled(boolean)} from tests.
+ */
+public final class StorageConsistencyChecks
+{
+
+	private static volatile boolean enabled = Boolean.getBoolean( "appeng.storageConsistencyChecks" );
+
+	private StorageConsistencyChecks()
+	{
+	}
+
+	public static boolean isEnabled()
+	{
+		return enabled;
+	}
+
+	public static void setEnabled( final boolean enabled )
+	{
+		StorageConsistencyChecks.enabled = enabled;
+	}
+
+	/**
+	 * @throws IllegalStateException if the tracked value diverged from the recounted one.
+	 */
+	public static void verify( final String what, final long tracked, final long recounted )
+	{
+		if( tracked != recounted )
+		{
+			throw new IllegalStateException( what + " is out of sync: tracked " + tracked + " but recounted " + recounted );
+		}
+	}
+}
@@ -19,19 +19,26 @@
 package appeng.util.inv;
 
 
+import java.util.BitSet;
 import java.util.Iterator;
+import java.util.List;
+
+import javax.annotation.Nullable;
 
 import net.minecraft.item.ItemStack;
 import net.minecraftforge.items.IItemHandler;
+import net.minecraftforge.items.ItemHandlerHelper;
 
 import appeng.api.config.FuzzyMode;
 import appeng.util.InventoryAdaptor;
 import appeng.util.Platform;
 
 
-public class AdaptorItemHandler extends InventoryAdaptor
+public class AdaptorItemHandler extends InventoryAdaptor implements ISlotTrackingAdaptor
 {
 	protected final IItemHandler itemHandler;
+	@Nullable
+	private BitSet changedSlots;
 
 	public AdaptorItemHandler( IItemHandler itemHandler )
 	{
@@ -80,6 +87,8 @@ public class AdaptorItemHandler extends InventoryAdaptor
 				continue;
 			}
 
+			this.markChanged( slot );
+
 			if( rv.isEmpty() )
 			{
 				// Use the first stack as a template for the result
@@ -177,6 +186,11 @@ public class AdaptorItemHandler extends InventoryAdaptor
 
 			// Attempt extracting it
 			extracted = this.itemHandler.extractItem( slot, amount, false );
+
+			if( !extracted.isEmpty() )
+			{
+				this.markChanged( slot );
+			}
 		}
 
 		return extracted;
@@ -223,6 +237,48 @@ public class AdaptorItemHandler extends InventoryAdaptor
 		return this.addItems( toBeSimulated, true );
 	}
 
+	/**
+	 * Keeps track of what the earlier stacks already put into each slot, the handler itself is only ever simulated
+	 * against.
+	 */
+	@Override
+	public boolean simulateAddAll( final List<ItemStack> toBeSimulated )
+	{
+		final int slots = this.itemHandler.getSlots();
+		final ItemStack[] added = new ItemStack[slots];
+
+		for( final ItemStack is : toBeSimulated )
+		{
+			int left = is.getCount();
+
+			for( int slot = 0; slot < slots && left > 0; slot++ )
+			{
+				final ItemStack before = added[slot];
+				if( before != null && !ItemHandlerHelper.canItemStacksStack( before, is ) )
+				{
+					continue;
+				}
+
+				final int already = before == null ? 0 : before.getCount();
+				final ItemStack probe = ItemHandlerHelper.copyStackWithSize( is, (int) Math.min( Integer.MAX_VALUE, (long) already + left ) );
+				final int accepted = probe.getCount() - this.itemHandler.insertItem( slot, probe, true ).getCount() - already;
+
+				if( accepted > 0 )
+				{
+					added[slot] = ItemHandlerHelper.copyStackWithSize( is, already + accepted );
+					left -= accepted;
+				}
+			}
+
+			if( left > 0 )
+			{
+				return false;
+			}
+		}
+
+		return true;
+	}
+
 	protected ItemStack addItems( final ItemStack itemsToAdd, final boolean simulate )
 	{
 		if( itemsToAdd.isEmpty() )
@@ -234,8 +290,14 @@ public class AdaptorItemHandler extends InventoryAdaptor
 
 		for( int slot = 0; slot < this.itemHandler.getSlots(); slot++ )
 		{
+			final int before = left.getCount();
 			left = this.itemHandler.insertItem( slot, left, simulate );
 
+			if( !simulate && left.getCount() != before )
+			{
+				this.markChanged( slot );
+			}
+
 			if( left.isEmpty() )
 			{
 				return ItemStack.EMPTY;
@@ -265,4 +327,33 @@ public class AdaptorItemHandler extends InventoryAdaptor
 		return new ItemHandlerIterator( this.itemHandler );
 	}
 
+	@Override
+	public int getSlots()
+	{
+		return this.itemHandler.getSlots();
+	}
+
+	@Override
+	public ItemSlot getSlot( final int slot, final ItemSlot out )
+	{
+		out.setExtractable( !this.itemHandler.extractItem( slot, Integer.MAX_VALUE, true ).isEmpty() );
+		out.setItemStack( this.itemHandler.getStackInSlot( slot ) );
+		out.setSlot( slot );
+		return out;
+	}
+
+	@Override
+	public void setChangedSlots( @Nullable final BitSet changedSlots )
+	{
+		this.changedSlots = changedSlots;
+	}
+
+	protected void markChanged( final int slot )
+	{
+		if( this.changedSlots != null )
+		{
+			this.changedSlots.set( slot );
+		}
+	}
+
 }
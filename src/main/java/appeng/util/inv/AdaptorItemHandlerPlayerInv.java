@@ -52,7 +52,12 @@ public class AdaptorItemHandlerPlayerInv extends AdaptorItemHandler
 
 			if( Platform.itemComparisons().isSameItem( is, left ) )
 			{
+				final int before = left.getCount();
 				left = this.itemHandler.insertItem( slot, left, simulate );
+				if( !simulate && left.getCount() != before )
+				{
+					this.markChanged( slot );
+				}
 			}
 			if( left.isEmpty() )
 			{
@@ -62,7 +67,12 @@ public class AdaptorItemHandlerPlayerInv extends AdaptorItemHandler
 
 		for( int slot = 0; slot < this.itemHandler.getSlots(); slot++ )
 		{
+			final int before = left.getCount();
 			left = this.itemHandler.insertItem( slot, left, simulate );
+			if( !simulate && left.getCount() != before )
+			{
+				this.markChanged( slot );
+			}
 			if( left.isEmpty() )
 			{
 				return ItemStack.EMPTY;
@@ -5,14 +5,58 @@ import appeng.util.InventoryAdaptor;
 
 import appeng.util.Platform;
 import com.jaquadro.minecraft.storagedrawers.api.capabilities.IItemRepository;
+import it.unimi.dsi.fastutil.Hash;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenCustomHashMap;
 import net.minecraft.item.ItemStack;
+import net.minecraft.util.NonNullList;
 
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
 
+import javax.annotation.Nullable;
 
-public class AdaptorItemRepository extends InventoryAdaptor
+
+/**
+ * Adapts an {@link IItemRepository}. It has no real slots, so every record returned by
+ * {@link IItemRepository#getAllItems()} is exposed as one slot.
+ */
+public class AdaptorItemRepository extends InventoryAdaptor implements ISlotTrackingAdaptor
 {
+    /**
+     * Hashes like {@link appeng.util.helpers.ItemComparisonHelper#isSameItem(ItemStack, ItemStack)} compares, leaving
+     * out the tag.
+     */
+    private static final Hash.Strategy<ItemStack> SAME_ITEM = new Hash.Strategy<ItemStack>()
+    {
+        @Override
+        public int hashCode( final ItemStack is )
+        {
+            return is == null ? 0 : System.identityHashCode( is.getItem() ) * 31 + is.getItemDamage();
+        }
+
+        @Override
+        public boolean equals( final ItemStack a, final ItemStack b )
+        {
+            return a == b || ( a != null && b != null && Platform.itemComparisons().isSameItem( a, b ) );
+        }
+    };
+
     protected final IItemRepository itemRepository;
+    private List<IItemRepository.ItemRecord> records = Collections.emptyList();
+    // slot of the first record of each item in records, built on the first change after they were read.
+    @Nullable
+    private Object2IntMap<ItemStack> slotByItem;
+    // first slots whose item has more records further on.
+    private final BitSet repeated = new BitSet();
+    // records added since they were read, and the first slot from which they may have moved.
+    private int added;
+    private int movedFrom = Integer.MAX_VALUE;
+    @Nullable
+    private BitSet changedSlots;
 
     public AdaptorItemRepository( IItemRepository itemRepository )
     {
@@ -52,6 +96,7 @@ public class AdaptorItemRepository extends InventoryAdaptor
         }
 
         extracted = this.itemRepository.extractItem( filter, amount, false );
+        this.markChanged( extracted, true );
 
         return extracted;
     }
@@ -121,6 +166,7 @@ public class AdaptorItemRepository extends InventoryAdaptor
         }
 
         extracted = this.itemRepository.extractItem( extracted, amount, false );
+        this.markChanged( extracted, true );
 
         return extracted;
     }
@@ -174,6 +220,11 @@ public class AdaptorItemRepository extends InventoryAdaptor
 
         left = this.itemRepository.insertItem( left, simulate );
 
+        if( !simulate && left.getCount() != itemsToAdd.getCount() )
+        {
+            this.markChanged( itemsToAdd, false );
+        }
+
         if( left.isEmpty() )
         {
             return ItemStack.EMPTY;
@@ -203,7 +254,151 @@ public class AdaptorItemRepository extends InventoryAdaptor
     @Override
     public Iterator<ItemSlot> iterator()
     {
-        return null;
+        final NonNullList<IItemRepository.ItemRecord> all = this.itemRepository.getAllItems();
+        final ItemSlot itemSlot = new ItemSlot();
+
+        return new Iterator<ItemSlot>()
+        {
+            private int slot = 0;
+
+            @Override
+            public boolean hasNext()
+            {
+                return this.slot < all.size();
+            }
+
+            @Override
+            public ItemSlot next()
+            {
+                if( !this.hasNext() )
+                {
+                    throw new NoSuchElementException();
+                }
+                return readRecord( all.get( this.slot ), this.slot++, itemSlot );
+            }
+        };
+    }
+
+    @Override
+    public int getSlots()
+    {
+        this.records = this.itemRepository.getAllItems();
+        this.slotByItem = null;
+        this.added = 0;
+        this.movedFrom = Integer.MAX_VALUE;
+        return this.records.size();
+    }
+
+    @Override
+    public ItemSlot getSlot( final int slot, final ItemSlot out )
+    {
+        if( slot >= this.records.size() )
+        {
+            out.setExtractable( false );
+            out.setItemStack( ItemStack.EMPTY );
+            out.setSlot( slot );
+            return out;
+        }
+        return readRecord( this.records.get( slot ), slot, out );
+    }
+
+    @Override
+    public void setChangedSlots( @Nullable final BitSet changedSlots )
+    {
+        this.changedSlots = changedSlots;
+    }
+
+    private static ItemSlot readRecord( final IItemRepository.ItemRecord record, final int slot, final ItemSlot out )
+    {
+        final ItemStack is;
+        if( record.itemPrototype.isEmpty() || record.count <= 0 )
+        {
+            is = ItemStack.EMPTY;
+        }
+        else
+        {
+            is = record.itemPrototype.copy();
+            is.setCount( record.count );
+        }
+
+        out.setExtractable( true );
+        out.setItemStack( is );
+        out.setSlot( slot );
+        return out;
     }
-}
 
+    /**
+     * Marks the record holding the given item as changed, found through the records read by {@link #getSlots()}.
+     *
+     * The records only move when one is added or dropped. A new item may be put anywhere and marks everything, taking
+     * out all of an item marks everything from its record on.
+     */
+    private void markChanged( final ItemStack stack, final boolean removed )
+    {
+        if( this.changedSlots == null || stack.isEmpty() )
+        {
+            return;
+        }
+
+        final int slot = this.getSlotByItem().getInt( stack );
+
+        if( slot < 0 )
+        {
+            this.added++;
+            this.movedFrom = 0;
+        }
+        else if( removed && this.itemRepository.getStoredItemCount( stack ) <= 0 )
+        {
+            this.movedFrom = Math.min( this.movedFrom, slot );
+        }
+
+        final int end = this.records.size() + this.added;
+
+        if( slot < 0 || slot >= this.movedFrom )
+        {
+            this.changedSlots.set( this.movedFrom, end );
+        }
+        else if( this.repeated.get( slot ) )
+        {
+            // the repository decides which of the item's records it used.
+            this.changedSlots.set( slot, end );
+        }
+        else
+        {
+            this.changedSlots.set( slot );
+        }
+    }
+
+    private Object2IntMap<ItemStack> getSlotByItem()
+    {
+        if( this.slotByItem == null )
+        {
+            final Object2IntMap<ItemStack> map = new Object2IntOpenCustomHashMap<>( this.records.size(), SAME_ITEM );
+            map.defaultReturnValue( -1 );
+            this.repeated.clear();
+
+            for( int slot = 0; slot < this.records.size(); slot++ )
+            {
+                final ItemStack prototype = this.records.get( slot ).itemPrototype;
+                if( prototype.isEmpty() )
+                {
+                    continue;
+                }
+
+                final int first = map.getInt( prototype );
+                if( first < 0 )
+                {
+                    map.put( prototype, slot );
+                }
+                else
+                {
+                    this.repeated.set( first );
+                }
+            }
+
+            this.slotByItem = map;
+        }
+
+        return this.slotByItem;
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2020, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.util.inv;
+
+
+import java.util.BitSet;
+
+import javax.annotation.Nullable;
+
+
+/**
+ * Implemented by {@link appeng.util.InventoryAdaptor}s which can read single slots and report which slots their
+ * modifying operations touched, so monitors do not have to rescan the whole inventory after every change.
+ */
+public interface ISlotTrackingAdaptor
+{
+
+	/**
+	 * @return the current number of slots. Also refreshes the view {@link #getSlot(int, ItemSlot)} reads from.
+	 */
+	int getSlots();
+
+	/**
+	 * Reads the given slot into the passed {@link ItemSlot}.
+	 *
+	 * @return the passed slot for convenience
+	 */
+	ItemSlot getSlot( int slot, ItemSlot out );
+
+	/**
+	 * Every slot changed by a non-simulated add or remove is set in the given set, until it is replaced with null.
+	 */
+	void setChangedSlots( @Nullable BitSet changedSlots );
+}
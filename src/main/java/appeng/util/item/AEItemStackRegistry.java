@@ -23,41 +23,131 @@
 
 package appeng.util.item;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
-import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.annotation.Nonnull;
 
 import net.minecraft.item.ItemStack;
+import net.minecraftforge.items.ItemHandlerHelper;
 
+/**
+ * Interns {@link AESharedItemStack} instances so every {@link AEItemStack} of the same item, damage, NBT and capability
+ * data shares a single definition.
+ * <p>
+ * Lookups are lock-free and never touch the passed {@link ItemStack}. Values are only weakly reachable from the table,
+ * so a shared stack disappears once no {@link AEItemStack} refers to it anymore. Cleared entries are expunged through a
+ * {@link ReferenceQueue} whenever the registry is queried.
+ */
 public final class AEItemStackRegistry {
-    private static final WeakHashMap<AESharedItemStack, WeakReference<AESharedItemStack>> REGISTRY = new WeakHashMap<>();
+    private static final int INITIAL_CAPACITY = 4096;
+    private static final int CONCURRENCY_LEVEL = 64;
+
+    private static final ConcurrentMap<StackKey, SharedStackReference> REGISTRY = new ConcurrentHashMap<>(INITIAL_CAPACITY, 0.75f, CONCURRENCY_LEVEL);
+    private static final ReferenceQueue<AESharedItemStack> STALE_ENTRIES = new ReferenceQueue<>();
 
     private AEItemStackRegistry() {
     }
 
-    static synchronized AESharedItemStack getRegisteredStack(final @Nonnull ItemStack itemStack) {
+    static AESharedItemStack getRegisteredStack(final @Nonnull ItemStack itemStack) {
         if (itemStack.isEmpty()) {
             throw new IllegalArgumentException("stack cannot be empty");
         }
 
-        int oldStackSize = itemStack.getCount();
-        itemStack.setCount(1);
+        expungeStaleEntries();
+
+        // The probe only wraps the caller's stack and ignores its count, so there is no need to copy or resize it.
+        final StackKey probe = new StackKey(itemStack, AESharedItemStack.hashOf(itemStack));
+        final SharedStackReference found = REGISTRY.get(probe);
+        if (found != null) {
+            final AESharedItemStack ret = found.get();
+            if (ret != null) {
+                return ret;
+            }
+        }
+
+        final ItemStack definition = ItemHandlerHelper.copyStackWithSize(itemStack, 1);
+        final AESharedItemStack created = new AESharedItemStack(definition);
+        final StackKey key = new StackKey(definition, probe.hashCode);
+        final SharedStackReference ref = new SharedStackReference(created, key, STALE_ENTRIES);
+
+        while (true) {
+            final SharedStackReference existing = REGISTRY.putIfAbsent(key, ref);
+            if (existing == null) {
+                return created;
+            }
+
+            final AESharedItemStack other = existing.get();
+            if (other != null) {
+                // Another thread won the race, use its instance so both end up sharing it.
+                return other;
+            }
+
+            if (REGISTRY.replace(key, existing, ref)) {
+                return created;
+            }
+        }
+    }
+
+    private static void expungeStaleEntries() {
+        Reference<? extends AESharedItemStack> stale;
+        while ((stale = STALE_ENTRIES.poll()) != null) {
+            final SharedStackReference ref = (SharedStackReference) stale;
+            // Only remove the mapping if it was not already replaced by a live one.
+            REGISTRY.remove(ref.key, ref);
+        }
+    }
 
-        AESharedItemStack search = new AESharedItemStack(itemStack);
-        WeakReference<AESharedItemStack> weak = REGISTRY.get(search);
-        AESharedItemStack ret = null;
+    /**
+     * Map key comparing two {@link ItemStack} by item, damage, NBT and capability data while ignoring their count, just
+     * like {@link ItemStack#areItemStacksEqual(ItemStack, ItemStack)} does for stacks of the same size.
+     */
+    private static final class StackKey {
+        private final ItemStack stack;
+        private final int hashCode;
+
+        private StackKey(final ItemStack stack, final int hashCode) {
+            this.stack = stack;
+            this.hashCode = hashCode;
+        }
 
-        if (weak != null) {
-            ret = weak.get();
+        @Override
+        public int hashCode() {
+            return this.hashCode;
         }
 
-        if (ret == null) {
-            ret = new AESharedItemStack(itemStack.copy());
-            REGISTRY.put(ret, new WeakReference<>(ret));
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof StackKey)) {
+                return false;
+            }
+
+            final StackKey other = (StackKey) obj;
+            if (this.hashCode != other.hashCode) {
+                return false;
+            }
+
+            final ItemStack a = this.stack;
+            final ItemStack b = other.stack;
+            return a == b || (a.getItem() == b.getItem()
+                    && a.getItemDamage() == b.getItemDamage()
+                    && ItemStack.areItemStackTagsEqual(a, b)
+                    && a.areCapsCompatible(b));
         }
-        itemStack.setCount(oldStackSize);
+    }
 
-        return ret;
+    private static final class SharedStackReference extends WeakReference<AESharedItemStack> {
+        private final StackKey key;
+
+        private SharedStackReference(final AESharedItemStack referent, final StackKey key, final ReferenceQueue<AESharedItemStack> queue) {
+            super(referent, queue);
+            this.key = key;
+        }
     }
 }
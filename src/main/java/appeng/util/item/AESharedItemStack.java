@@ -84,10 +84,22 @@ final class AESharedItemStack {
     }
 
     private int makeHashCode() {
+        return hashOf(this.itemId, this.itemDamage, this.itemStack);
+    }
+
+    /**
+     * Computes the same hash code a shared stack created for the given {@link ItemStack} would have, without
+     * requiring its count to be 1.
+     */
+    static int hashOf(final ItemStack itemStack) {
+        return hashOf(Item.getIdFromItem(itemStack.getItem()), itemStack.getItemDamage(), itemStack);
+    }
+
+    private static int hashOf(final int itemId, final int itemDamage, final ItemStack itemStack) {
         return Objects.hash(
-                this.itemId,
-                this.itemDamage,
-                this.itemStack.hasTagCompound() ? this.itemStack.getTagCompound() : 0);
+                itemId,
+                itemDamage,
+                itemStack.hasTagCompound() ? itemStack.getTagCompound() : 0);
     }
 
 }
@@ -28,6 +28,12 @@ public abstract class AEStack<T extends IAEStack<T>> implements IAEStack<T> {
     private long stackSize;
     private long countRequestable;
 
+    /**
+     * The list this stack is a record of. Callers may change records they got from a list, so the record itself has to
+     * keep the list's count of meaningful stacks up to date.
+     */
+    private IMeaningfulRecordListener owner;
+
     protected static long getPacketValue( final byte type, final ByteBuf tag )
     {
         if( type == 0 )
@@ -59,7 +65,9 @@ public abstract class AEStack<T extends IAEStack<T>> implements IAEStack<T> {
 
     @Override
     public T setStackSize(final long ss) {
+        final boolean wasMeaningful = this.owner != null && this.isMeaningful();
         this.stackSize = ss;
+        this.changed(wasMeaningful);
         return (T) this;
     }
 
@@ -70,7 +78,9 @@ public abstract class AEStack<T extends IAEStack<T>> implements IAEStack<T> {
 
     @Override
     public T setCountRequestable(final long countRequestable) {
+        final boolean wasMeaningful = this.owner != null && this.isMeaningful();
         this.countRequestable = countRequestable;
+        this.changed(wasMeaningful);
         return (T) this;
     }
 
@@ -81,15 +91,19 @@ public abstract class AEStack<T extends IAEStack<T>> implements IAEStack<T> {
 
     @Override
     public T setCraftable(final boolean isCraftable) {
+        final boolean wasMeaningful = this.owner != null && this.isMeaningful();
         this.isCraftable = isCraftable;
+        this.changed(wasMeaningful);
         return (T) this;
     }
 
     @Override
     public T reset() {
+        final boolean wasMeaningful = this.owner != null && this.isMeaningful();
         this.stackSize = 0;
-        this.setCountRequestable(0);
-        this.setCraftable(false);
+        this.countRequestable = 0;
+        this.isCraftable = false;
+        this.changed(wasMeaningful);
         return (T) this;
     }
 
@@ -107,22 +121,57 @@ public abstract class AEStack<T extends IAEStack<T>> implements IAEStack<T> {
 
     @Override
     public void incStackSize(final long i) {
+        final boolean wasMeaningful = this.owner != null && this.isMeaningful();
         this.stackSize += i;
+        this.changed(wasMeaningful);
     }
 
     @Override
     public void decStackSize(final long i) {
+        final boolean wasMeaningful = this.owner != null && this.isMeaningful();
         this.stackSize -= i;
+        this.changed(wasMeaningful);
     }
 
     @Override
     public void incCountRequestable(final long i) {
+        final boolean wasMeaningful = this.owner != null && this.isMeaningful();
         this.countRequestable += i;
+        this.changed(wasMeaningful);
     }
 
     @Override
     public void decCountRequestable(final long i) {
+        final boolean wasMeaningful = this.owner != null && this.isMeaningful();
         this.countRequestable -= i;
+        this.changed(wasMeaningful);
+    }
+
+    /**
+     * Makes this stack a record of the given list, which is told about every change of {@link #isMeaningful()} from
+     * now on. Copies never inherit the owner.
+     */
+    public void attach(final IMeaningfulRecordListener owner) {
+        this.owner = owner;
+    }
+
+    /**
+     * Called when the owning list drops this record. A meaningful record is no longer counted by it.
+     */
+    public void detach() {
+        if (this.owner != null && this.isMeaningful()) {
+            this.owner.onMeaningfulChanged(false);
+        }
+        this.owner = null;
+    }
+
+    private void changed(final boolean wasMeaningful) {
+        if (this.owner != null) {
+            final boolean meaningful = this.isMeaningful();
+            if (meaningful != wasMeaningful) {
+                this.owner.onMeaningfulChanged(meaningful);
+            }
+        }
     }
 
     protected byte getType( final long num )
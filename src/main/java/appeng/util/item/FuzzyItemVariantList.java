@@ -46,6 +46,10 @@ class FuzzyItemVariantList extends ItemVariantList {
     // We NEVER put any keys in this map that are not AESharedItemStacks.
     private final Object2ObjectSortedMap<Object, IAEItemStack> records = new Object2ObjectAVLTreeMap<>(COMPARATOR);
 
+    FuzzyItemVariantList(final IMeaningfulRecordListener parent) {
+        super(parent);
+    }
+
     @Override
     public Collection<IAEItemStack> findFuzzy(final IAEItemStack filter, final FuzzyMode fuzzy) {
         ItemStack itemStack = filter.getDefinition();
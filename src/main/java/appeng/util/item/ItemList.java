@@ -35,6 +35,7 @@ import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
 import appeng.api.config.FuzzyMode;
 import appeng.api.storage.data.IAEItemStack;
 import appeng.api.storage.data.IItemList;
+import appeng.util.StorageConsistencyChecks;
 
 public final class ItemList implements IItemList<IAEItemStack> {
 
@@ -46,6 +47,14 @@ public final class ItemList implements IItemList<IAEItemStack> {
      */
     private final AtomicInteger version = new AtomicInteger(0);
 
+    /**
+     * Running total of meaningful stacks over all sub-lists. Records report their own changes through their sub-list,
+     * so stacks handed out by {@link #findPrecise}, {@link #findFuzzy} or {@link #iterator()} may be changed by the
+     * caller at any time.
+     */
+    private int size;
+    private final IMeaningfulRecordListener sizeTracker = meaningful -> this.size += meaningful ? 1 : -1;
+
     @Override
     public IAEItemStack findPrecise(final IAEItemStack itemStack) {
         if (itemStack == null) {
@@ -68,7 +77,7 @@ public final class ItemList implements IItemList<IAEItemStack> {
 
     @Override
     public boolean isEmpty() {
-        return !this.iterator().hasNext();
+        return this.size() == 0;
     }
 
     @Override
@@ -126,12 +135,17 @@ public final class ItemList implements IItemList<IAEItemStack> {
 
     @Override
     public int size() {
-        int size = 0;
-        for (ItemVariantList entry : records.values()) {
-            size += entry.size();
+        if (StorageConsistencyChecks.isEnabled()) {
+            int recounted = 0;
+            for (ItemVariantList entry : this.records.values()) {
+                final int actual = entry.recount();
+                StorageConsistencyChecks.verify("ItemVariantList size", entry.size(), actual);
+                recounted += actual;
+            }
+            StorageConsistencyChecks.verify("ItemList size", this.size, recounted);
         }
 
-        return size;
+        return this.size;
     }
 
     @Override
@@ -152,9 +166,9 @@ public final class ItemList implements IItemList<IAEItemStack> {
 
     private ItemVariantList makeRecordMap(Item item) {
         if (item.isDamageable() ) {
-            return new FuzzyItemVariantList();
+            return new FuzzyItemVariantList(this.sizeTracker);
         } else {
-            return new NormalItemVariantList();
+            return new NormalItemVariantList(this.sizeTracker);
         }
     }
 
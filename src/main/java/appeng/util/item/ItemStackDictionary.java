@@ -0,0 +1,143 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2014, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.util.item;
+
+
+import javax.annotation.Nullable;
+
+import io.netty.buffer.ByteBuf;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+
+import net.minecraft.item.ItemStack;
+import net.minecraftforge.fml.common.network.ByteBufUtils;
+
+import appeng.api.storage.data.IAEItemStack;
+
+
+/**
+ * Item types already sent to a client during one GUI session, so that later updates only need their id and amounts.
+ *
+ * The server side hands out ids, but only remembers an item type once the packet defining it was actually sent. The
+ * client side keeps every definition it received. Both sides are dropped when the GUI closes.
+ */
+public final class ItemStackDictionary
+{
+	private static final int DEFINITION = 0x01;
+	private static final int CRAFTABLE = 0x40;
+	private static final int MAX_ID_BYTES = 5;
+
+	// server
+	private final Object2IntMap<IAEItemStack> ids = new Object2IntOpenHashMap<>();
+	private int nextId = 0;
+
+	// client
+	private final Int2ObjectMap<IAEItemStack> definitions = new Int2ObjectOpenHashMap<>();
+
+	public ItemStackDictionary()
+	{
+		this.ids.defaultReturnValue( -1 );
+	}
+
+	/**
+	 * @return the id the client knows this item type by, or -1 if it was not sent yet.
+	 */
+	public int getId( final IAEItemStack is )
+	{
+		return this.ids.getInt( is );
+	}
+
+	public int allocateId()
+	{
+		return this.nextId++;
+	}
+
+	/**
+	 * Remembers the item types a packet defined, once that packet has been sent.
+	 */
+	public void commit( final Object2IntMap<IAEItemStack> introduced )
+	{
+		for( final Object2IntMap.Entry<IAEItemStack> e : introduced.object2IntEntrySet() )
+		{
+			this.ids.putIfAbsent( e.getKey(), e.getIntValue() );
+		}
+	}
+
+	public void clear()
+	{
+		this.ids.clear();
+		this.definitions.clear();
+	}
+
+	public static void write( final ByteBuf out, final IAEItemStack is, final int id, final boolean definition )
+	{
+		final AEItemStack stack = (AEItemStack) is;
+		final byte mask = (byte) ( ( definition ? DEFINITION : 0 ) | ( stack.getType( stack.getStackSize() ) << 2 ) | ( stack
+				.getType( stack.getCountRequestable() ) << 4 ) | ( stack.isCraftable() ? CRAFTABLE : 0 ) );
+
+		out.writeByte( mask );
+		ByteBufUtils.writeVarInt( out, id, MAX_ID_BYTES );
+
+		if( definition )
+		{
+			ByteBufUtils.writeTag( out, stack.getDefinition().serializeNBT() );
+		}
+
+		stack.putPacketValue( out, stack.getStackSize() );
+		stack.putPacketValue( out, stack.getCountRequestable() );
+	}
+
+	/**
+	 * @return the stack, or null if it refers to an item type this client never received.
+	 */
+	@Nullable
+	public IAEItemStack read( final ByteBuf in )
+	{
+		final byte mask = in.readByte();
+		final byte stackType = (byte) ( ( mask & 0x0C ) >> 2 );
+		final byte countReqType = (byte) ( ( mask & 0x30 ) >> 4 );
+		final int id = ByteBufUtils.readVarInt( in, MAX_ID_BYTES );
+
+		if( ( mask & DEFINITION ) != 0 )
+		{
+			final AEItemStack definition = AEItemStack.fromItemStack( new ItemStack( ByteBufUtils.readTag( in ) ) );
+			if( definition != null )
+			{
+				this.definitions.put( id, definition );
+			}
+		}
+
+		final long stackSize = AEStack.getPacketValue( stackType, in );
+		final long countRequestable = AEStack.getPacketValue( countReqType, in );
+
+		final IAEItemStack definition = this.definitions.get( id );
+		if( definition == null )
+		{
+			return null;
+		}
+
+		final IAEItemStack item = definition.copy();
+		item.setStackSize( stackSize );
+		item.setCountRequestable( countRequestable );
+		item.setCraftable( ( mask & CRAFTABLE ) != 0 );
+		return item;
+	}
+}
@@ -29,7 +29,17 @@ import appeng.api.storage.data.IAEItemStack;
  * Stores variants of a single type of {@link net.minecraft.item.Item}, i.e. versions with different durability, or
  * different NBT or capabilities.
  */
-abstract class ItemVariantList {
+abstract class ItemVariantList implements IMeaningfulRecordListener {
+
+    /**
+     * Number of meaningful records. Every record reports its own changes, including those made by callers holding it.
+     */
+    private int meaningfulRecords;
+    private final IMeaningfulRecordListener parent;
+
+    ItemVariantList(final IMeaningfulRecordListener parent) {
+        this.parent = parent;
+    }
 
     public void add(final IAEItemStack option) {
         final IAEItemStack st = this.getRecords().get(((AEItemStack) option).getSharedStack());
@@ -92,7 +102,17 @@ abstract class ItemVariantList {
         this.putItemRecord(opt);
     }
 
+    /**
+     * @return the number of meaningful records.
+     */
     public int size() {
+        return this.meaningfulRecords;
+    }
+
+    /**
+     * Walks all records to count the meaningful ones, for {@link appeng.util.StorageConsistencyChecks}.
+     */
+    int recount() {
         int size = 0;
         for (IAEItemStack entry : getRecords().values()) {
             if (entry.isMeaningful()) {
@@ -103,12 +123,23 @@ abstract class ItemVariantList {
         return size;
     }
 
+    @Override
+    public void onMeaningfulChanged(final boolean meaningful) {
+        this.meaningfulRecords += meaningful ? 1 : -1;
+        this.parent.onMeaningfulChanged(meaningful);
+    }
+
     public Iterator<IAEItemStack> iterator() {
         return new MeaningfulItemIterator<>(this.getRecords().values());
     }
 
     private void putItemRecord(final IAEItemStack itemStack) {
         this.getRecords().put(((AEItemStack) itemStack).getSharedStack(), itemStack);
+        ((AEItemStack) itemStack).attach(this);
+
+        if (itemStack.isMeaningful()) {
+            this.onMeaningfulChanged(true);
+        }
     }
 
     abstract Map<AESharedItemStack, IAEItemStack> getRecords();
@@ -62,6 +62,9 @@ public class MeaningfulItemIterator<T extends IAEItemStack> implements Iterator<
                 return item;
             } else {
                 this.parent.remove();
+                if (item instanceof AEStack) {
+                    ((AEStack<?>) item).detach();
+                }
             }
         }
 
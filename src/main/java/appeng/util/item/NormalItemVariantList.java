@@ -35,6 +35,10 @@ class NormalItemVariantList extends ItemVariantList {
 
     private final Reference2ObjectMap<AESharedItemStack, IAEItemStack> records = new Reference2ObjectOpenHashMap<>();
 
+    NormalItemVariantList(final IMeaningfulRecordListener parent) {
+        super(parent);
+    }
+
     @Override
     Map<AESharedItemStack, IAEItemStack> getRecords() {
         return this.records;
@@ -0,0 +1,86 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2015, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.crafting;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+
+public class CraftingJobPauseTest
+{
+
+	@Test
+	public void testPausedPlannerLetsOtherTasksRun() throws Exception
+	{
+		final ForkJoinPool pool = new ForkJoinPool( 1 );
+		final Object monitor = new Object();
+		final AtomicBoolean running = new AtomicBoolean();
+		final CraftingJob.Pause pause = new CraftingJob.Pause( monitor, running::get );
+		final CountDownLatch sleeping = new CountDownLatch( 1 );
+
+		try
+		{
+			final ForkJoinTask<Boolean> paused = pool.submit( () ->
+			{
+				sleeping.countDown();
+				ForkJoinPool.managedBlock( pause );
+				return running.get();
+			} );
+
+			assertTrue( sleeping.await( 5, TimeUnit.SECONDS ) );
+
+			// the only worker is paused, another job's task still has to get a thread.
+			final ForkJoinTask<Integer> other = pool.submit( () -> 42 );
+			assertEquals( 42, (int) other.get( 5, TimeUnit.SECONDS ) );
+			assertFalse( paused.isDone() );
+
+			synchronized( monitor )
+			{
+				running.set( true );
+				monitor.notifyAll();
+			}
+
+			assertTrue( paused.get( 5, TimeUnit.SECONDS ) );
+		}
+		finally
+		{
+			pool.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testRunningJobDoesNotBlock() throws Exception
+	{
+		final AtomicBoolean running = new AtomicBoolean( true );
+		final CraftingJob.Pause pause = new CraftingJob.Pause( new Object(), running::get );
+
+		assertTrue( pause.isReleasable() );
+		ForkJoinPool.managedBlock( pause );
+	}
+}
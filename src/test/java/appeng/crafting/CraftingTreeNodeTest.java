@@ -0,0 +1,148 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2015, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.crafting;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongUnaryOperator;
+
+import org.junit.Test;
+
+
+/**
+ * Runs the bulk request of {@link CraftingTreeNode} against a pattern whose branches fail once they use up a stock.
+ */
+public class CraftingTreeNodeTest
+{
+
+	@Test
+	public void testEverythingAtOnce() throws Exception
+	{
+		final Pattern pattern = new Pattern( 1, 1000 );
+
+		assertEquals( 0, CraftingTreeNode.requestInBatches( 100, times( 1 ), pattern ) );
+		assertEquals( Arrays.asList( 100L ), pattern.batches );
+		assertEquals( 900, pattern.stock );
+	}
+
+	@Test
+	public void testHalvesUntilTheBranchFits() throws Exception
+	{
+		final Pattern pattern = new Pattern( 1, 37 );
+
+		assertEquals( 63, CraftingTreeNode.requestInBatches( 100, times( 1 ), pattern ) );
+		assertEquals( Arrays.asList( 100L, 50L, 25L, 25L, 12L, 12L, 6L, 3L, 1L ), pattern.batches );
+
+		// every failed branch was undone, only the kept ones used the stock.
+		assertEquals( 0, pattern.stock );
+		assertEquals( 37, pattern.made );
+	}
+
+	@Test
+	public void testBatchesRoundUp() throws Exception
+	{
+		final Pattern pattern = new Pattern( 4, 1000 );
+
+		assertEquals( -2, CraftingTreeNode.requestInBatches( 10, times( 4 ), pattern ) );
+		assertEquals( Arrays.asList( 3L ), pattern.batches );
+	}
+
+	@Test
+	public void testStopsWhenThePatternIsUsedUp() throws Exception
+	{
+		final List<Long> batches = new ArrayList<>();
+
+		assertEquals( 100, CraftingTreeNode.requestInBatches( 100, times( 1 ), ( batch, missing ) ->
+		{
+			batches.add( batch );
+			return 0;
+		} ) );
+		assertEquals( Arrays.asList( 100L ), batches );
+	}
+
+	@Test
+	public void testLargeRequestsNeedFewBranches() throws Exception
+	{
+		final long wanted = 1L << 40;
+		final Pattern pattern = new Pattern( 1, 12345 );
+
+		assertEquals( wanted - 12345, CraftingTreeNode.requestInBatches( wanted, times( 1 ), pattern ) );
+		assertEquals( 0, pattern.stock );
+
+		// each kept branch takes the largest batch that still fits, so every power of two is tried at most twice.
+		assertTrue( pattern.batches.size() <= 2 * 41 );
+	}
+
+	private static LongUnaryOperator times( final long perCraft )
+	{
+		return remaining -> remaining / perCraft + ( remaining % perCraft != 0 ? 1 : 0 );
+	}
+
+	/**
+	 * Each craft takes one item of the stock, the stock is saved through an undo log like the tree elements do.
+	 */
+	private static final class Pattern implements CraftingTreeNode.BatchRequest
+	{
+		private final long perCraft;
+		private final List<Long> batches = new ArrayList<>();
+		private long stock;
+		private long made;
+
+		private Pattern( final long perCraft, final long stock )
+		{
+			this.perCraft = perCraft;
+			this.stock = stock;
+		}
+
+		@Override
+		public long request( final long batch, final long missing )
+		{
+			this.batches.add( batch );
+
+			final CraftingUndoLog undo = new CraftingUndoLog( null );
+			undo.record( this, () ->
+			{
+				final long stock = this.stock;
+				final long made = this.made;
+				return () ->
+				{
+					this.stock = stock;
+					this.made = made;
+				};
+			} );
+
+			this.stock -= batch;
+			this.made += batch * this.perCraft;
+
+			if( this.stock < 0 )
+			{
+				undo.rollback();
+				return -1;
+			}
+
+			undo.commit();
+			return batch * this.perCraft;
+		}
+	}
+}
@@ -0,0 +1,124 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2015, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.crafting;
+
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.function.Supplier;
+
+import org.junit.Test;
+
+
+public class CraftingUndoLogTest
+{
+
+	@Test
+	public void testRollbackRestoresTheFirstState()
+	{
+		final Counter a = new Counter( 1 );
+		final CraftingUndoLog log = new CraftingUndoLog( null );
+
+		a.change( log, 2 );
+		a.change( log, 3 );
+		assertEquals( 1, a.saves );
+
+		log.rollback();
+		assertEquals( 1, a.value );
+
+		// a rolled back log starts over.
+		a.change( log, 4 );
+		log.rollback();
+		assertEquals( 1, a.value );
+		assertEquals( 2, a.saves );
+	}
+
+	@Test
+	public void testCommitHandsStatesToTheParent()
+	{
+		final Counter a = new Counter( 1 );
+		final Counter b = new Counter( 5 );
+		final CraftingUndoLog outer = new CraftingUndoLog( null );
+		final CraftingUndoLog inner = new CraftingUndoLog( outer );
+
+		a.change( outer, 2 );
+		a.change( inner, 3 );
+		b.change( inner, 6 );
+		inner.commit();
+
+		assertEquals( 3, a.value );
+		assertEquals( 6, b.value );
+
+		// the outer log keeps its older state of a and takes over b.
+		outer.rollback();
+		assertEquals( 1, a.value );
+		assertEquals( 5, b.value );
+	}
+
+	@Test
+	public void testRollbackKeepsTheParentsChanges()
+	{
+		final Counter a = new Counter( 1 );
+		final Counter b = new Counter( 5 );
+		final CraftingUndoLog outer = new CraftingUndoLog( null );
+		final CraftingUndoLog inner = new CraftingUndoLog( outer );
+
+		a.change( outer, 2 );
+		a.change( inner, 3 );
+		b.change( inner, 6 );
+		inner.rollback();
+
+		assertEquals( 2, a.value );
+		assertEquals( 5, b.value );
+
+		outer.commit();
+		outer.rollback();
+		assertEquals( 2, a.value );
+	}
+
+	/**
+	 * Stands in for a tree element, saving its state through the log before every change.
+	 */
+	private static final class Counter
+	{
+		private int value;
+		private int saves;
+
+		private Counter( final int value )
+		{
+			this.value = value;
+		}
+
+		private void change( final CraftingUndoLog log, final int value )
+		{
+			log.record( this, this.save() );
+			this.value = value;
+		}
+
+		private Supplier<Runnable> save()
+		{
+			return () ->
+			{
+				this.saves++;
+				final int saved = this.value;
+				return () -> this.value = saved;
+			};
+		}
+	}
+}
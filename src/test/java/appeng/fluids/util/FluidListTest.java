@@ -0,0 +1,126 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2015, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.fluids.util;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.Iterator;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import net.minecraft.init.Bootstrap;
+import net.minecraftforge.fluids.FluidRegistry;
+import net.minecraftforge.fluids.FluidStack;
+
+import appeng.api.config.FuzzyMode;
+import appeng.api.storage.data.IAEFluidStack;
+import appeng.util.StorageConsistencyChecks;
+
+
+/**
+ * Changes records through every way {@link FluidList} hands them out, with {@link StorageConsistencyChecks} verifying
+ * the tracked size against a recount on each {@link FluidList#size()}.
+ */
+public class FluidListTest
+{
+
+	@BeforeClass
+	public static void setUp()
+	{
+		Bootstrap.register();
+		StorageConsistencyChecks.setEnabled( true );
+	}
+
+	@AfterClass
+	public static void tearDown()
+	{
+		StorageConsistencyChecks.setEnabled( false );
+	}
+
+	private static IAEFluidStack water( final int amount )
+	{
+		return AEFluidStack.fromFluidStack( new FluidStack( FluidRegistry.WATER, amount ) );
+	}
+
+	private static IAEFluidStack lava( final int amount )
+	{
+		return AEFluidStack.fromFluidStack( new FluidStack( FluidRegistry.LAVA, amount ) );
+	}
+
+	@Test
+	public void testFindPreciseHeldAcrossSize()
+	{
+		final FluidList list = new FluidList();
+		list.add( water( 1000 ) );
+		list.addStorage( lava( 500 ) );
+		assertEquals( 2, list.size() );
+
+		final IAEFluidStack held = list.findPrecise( water( 1 ) );
+		assertEquals( 2, list.size() );
+
+		held.setStackSize( 0 );
+		assertEquals( 1, list.size() );
+
+		held.setCraftable( true );
+		assertEquals( 2, list.size() );
+
+		held.reset();
+		assertEquals( 1, list.size() );
+	}
+
+	@Test
+	public void testFindFuzzy()
+	{
+		final FluidList list = new FluidList();
+		list.add( water( 1000 ) );
+
+		for( final IAEFluidStack found : list.findFuzzy( water( 1 ), FuzzyMode.IGNORE_ALL ) )
+		{
+			found.decStackSize( 1000 );
+		}
+		assertEquals( 0, list.size() );
+	}
+
+	@Test
+	public void testIteratorRemove()
+	{
+		final FluidList list = new FluidList();
+		list.add( water( 1000 ) );
+		list.add( lava( 1000 ) );
+
+		final Iterator<IAEFluidStack> it = list.iterator();
+		assertEquals( 2, list.size() );
+
+		it.hasNext();
+		final IAEFluidStack removed = it.next();
+		it.remove();
+		assertEquals( 1, list.size() );
+
+		removed.setStackSize( 10 );
+		assertEquals( 1, list.size() );
+
+		list.resetStatus();
+		assertEquals( 0, list.size() );
+		assertFalse( list.iterator().hasNext() );
+	}
+}
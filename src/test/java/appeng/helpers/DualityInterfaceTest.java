@@ -0,0 +1,107 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2015, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.helpers;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import net.minecraft.init.Bootstrap;
+import net.minecraft.init.Items;
+import net.minecraft.inventory.InventoryCrafting;
+import net.minecraft.item.ItemStack;
+import net.minecraftforge.items.ItemStackHandler;
+
+import appeng.container.ContainerNull;
+import appeng.util.inv.AdaptorItemHandler;
+
+
+public class DualityInterfaceTest
+{
+
+	@BeforeClass
+	public static void setUp()
+	{
+		Bootstrap.register();
+	}
+
+	private static InventoryCrafting table( final ItemStack... inputs )
+	{
+		final InventoryCrafting table = new InventoryCrafting( new ContainerNull(), 3, 3 );
+		for( int x = 0; x < inputs.length; x++ )
+		{
+			table.setInventorySlotContents( x, inputs[x] );
+		}
+		return table;
+	}
+
+	@Test
+	public void testInputsShareTheFreeSlots()
+	{
+		final AdaptorItemHandler chest = new AdaptorItemHandler( new ItemStackHandler( 9 ) );
+		final InventoryCrafting table = table( new ItemStack( Items.IRON_INGOT, 64 ), new ItemStack( Items.GOLD_INGOT, 64 ) );
+
+		// each input alone fits 9 copies, both together only get 4 slots each.
+		assertEquals( 4, DualityInterface.getBatchCapacity( chest, table, 16 ) );
+		assertEquals( 4, DualityInterface.getBatchCapacity( chest, table, 4 ) );
+		assertEquals( 2, DualityInterface.getBatchCapacity( chest, table, 2 ) );
+	}
+
+	@Test
+	public void testPartlyFilledSlots()
+	{
+		final ItemStackHandler handler = new ItemStackHandler( 3 );
+		handler.setStackInSlot( 0, new ItemStack( Items.IRON_INGOT, 40 ) );
+		handler.setStackInSlot( 1, new ItemStack( Items.DIAMOND, 1 ) );
+		final AdaptorItemHandler chest = new AdaptorItemHandler( handler );
+
+		// the iron tops up its own slot, the gold then only has the last one left.
+		final InventoryCrafting table = table( new ItemStack( Items.IRON_INGOT, 8 ), new ItemStack( Items.GOLD_INGOT, 16 ) );
+		assertEquals( 3, DualityInterface.getBatchCapacity( chest, table, 64 ) );
+
+		// the same item spread over several table slots counts as one input.
+		final InventoryCrafting spread = table( new ItemStack( Items.GOLD_INGOT, 16 ), new ItemStack( Items.GOLD_INGOT, 16 ) );
+		assertEquals( 2, DualityInterface.getBatchCapacity( chest, spread, 64 ) );
+	}
+
+	@Test
+	public void testSimulateAddAll()
+	{
+		final ItemStackHandler handler = new ItemStackHandler( 2 );
+		final AdaptorItemHandler chest = new AdaptorItemHandler( handler );
+
+		assertTrue( chest.simulateAddAll( Arrays.asList( new ItemStack( Items.IRON_INGOT, 64 ), new ItemStack( Items.GOLD_INGOT, 64 ) ) ) );
+		assertFalse( chest.simulateAddAll( Arrays.asList( new ItemStack( Items.IRON_INGOT, 65 ), new ItemStack( Items.GOLD_INGOT, 64 ) ) ) );
+		assertTrue( chest.simulateAddAll( Arrays.asList( new ItemStack( Items.IRON_INGOT, 100 ), new ItemStack( Items.IRON_INGOT, 28 ) ) ) );
+
+		// unstackable items each need their own slot.
+		assertTrue( chest.simulateAddAll( Arrays.asList( new ItemStack( Items.DIAMOND_SWORD ), new ItemStack( Items.DIAMOND_SWORD ) ) ) );
+		assertFalse( chest.simulateAddAll( Arrays.asList( new ItemStack( Items.DIAMOND_SWORD, 2 ), new ItemStack( Items.DIAMOND_SWORD ) ) ) );
+
+		// nothing was really inserted.
+		assertTrue( handler.getStackInSlot( 0 ).isEmpty() );
+		assertTrue( handler.getStackInSlot( 1 ).isEmpty() );
+	}
+}
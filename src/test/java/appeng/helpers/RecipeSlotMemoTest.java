@@ -0,0 +1,257 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2015, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.helpers;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+
+public class RecipeSlotMemoTest
+{
+
+	private static final int THREADS = 4;
+
+	private static long key( final int n )
+	{
+		return RecipeSlotMemo.key( n % 9, 1 + n / 9 % 4000, n / 9 / 4000 );
+	}
+
+	private static boolean accepted( final int n )
+	{
+		return n % 3 != 0;
+	}
+
+	private static int expected( final int n )
+	{
+		return accepted( n ) ? RecipeSlotMemo.ACCEPT : RecipeSlotMemo.DECLINE;
+	}
+
+	@Test
+	public void testKeyPacking()
+	{
+		final int[] slots = { 0, 1, 8 };
+		final int[] ids = { 0, 1, 255, 256, 31999, 65535 };
+		final int[] damages = { 0, 1, 255, 32767, 65535, 65536, Integer.MAX_VALUE };
+		final Set<Long> keys = new HashSet<>();
+
+		for( final int slot : slots )
+		{
+			for( final int id : ids )
+			{
+				for( final int damage : damages )
+				{
+					final long key = RecipeSlotMemo.key( slot, id, damage );
+					assertEquals( "flag bits must stay free", 0, key & 3 );
+					assertTrue( "key collision for " + slot + "/" + id + "/" + damage, keys.add( key ) );
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testPutAndGet()
+	{
+		final RecipeSlotMemo memo = new RecipeSlotMemo();
+
+		// the all zero key still has to be told apart from an empty entry.
+		assertEquals( RecipeSlotMemo.UNKNOWN, memo.get( RecipeSlotMemo.key( 0, 0, 0 ) ) );
+		memo.put( RecipeSlotMemo.key( 0, 0, 0 ), false );
+		assertEquals( RecipeSlotMemo.DECLINE, memo.get( RecipeSlotMemo.key( 0, 0, 0 ) ) );
+
+		memo.put( RecipeSlotMemo.key( 1, 0, 0 ), true );
+		assertEquals( RecipeSlotMemo.ACCEPT, memo.get( RecipeSlotMemo.key( 1, 0, 0 ) ) );
+		assertEquals( RecipeSlotMemo.DECLINE, memo.get( RecipeSlotMemo.key( 0, 0, 0 ) ) );
+
+		// the first answer for a key stays.
+		memo.put( RecipeSlotMemo.key( 1, 0, 0 ), false );
+		assertEquals( RecipeSlotMemo.ACCEPT, memo.get( RecipeSlotMemo.key( 1, 0, 0 ) ) );
+		assertEquals( 2, memo.size() );
+	}
+
+	@Test
+	public void testGrow()
+	{
+		final RecipeSlotMemo memo = new RecipeSlotMemo();
+		final int count = RecipeSlotMemo.INITIAL_CAPACITY * 8;
+
+		for( int n = 0; n < count; n++ )
+		{
+			memo.put( key( n ), accepted( n ) );
+		}
+
+		assertTrue( memo.capacity() > RecipeSlotMemo.INITIAL_CAPACITY );
+		assertTrue( memo.size() * 2 <= memo.capacity() );
+		assertEquals( count, memo.size() );
+
+		for( int n = 0; n < count; n++ )
+		{
+			assertEquals( expected( n ), memo.get( key( n ) ) );
+		}
+	}
+
+	@Test
+	public void testNearMaximumCapacity()
+	{
+		final RecipeSlotMemo memo = new RecipeSlotMemo();
+		final int count = RecipeSlotMemo.MAXIMUM_CAPACITY + 1000;
+
+		for( int n = 0; n < count; n++ )
+		{
+			memo.put( key( n ), accepted( n ) );
+		}
+
+		// the table stops growing and fills up, everything past that is simply not remembered.
+		assertEquals( RecipeSlotMemo.MAXIMUM_CAPACITY, memo.capacity() );
+		assertEquals( RecipeSlotMemo.MAXIMUM_CAPACITY, memo.size() );
+
+		int known = 0;
+		for( int n = 0; n < count; n++ )
+		{
+			final int found = memo.get( key( n ) );
+			if( found != RecipeSlotMemo.UNKNOWN )
+			{
+				assertEquals( expected( n ), found );
+				known++;
+			}
+		}
+
+		assertEquals( RecipeSlotMemo.MAXIMUM_CAPACITY, known );
+		assertEquals( RecipeSlotMemo.UNKNOWN, memo.get( key( count ) ) );
+	}
+
+	@Test
+	public void testConcurrentPutOfSameKeys() throws Exception
+	{
+		// stays below the first resize, so every lost CAS has to find the winner's entry and keep the table free of
+		// duplicates.
+		final int count = RecipeSlotMemo.INITIAL_CAPACITY / 2;
+
+		for( int round = 0; round < 200; round++ )
+		{
+			final RecipeSlotMemo memo = new RecipeSlotMemo();
+
+			runConcurrently( thread ->
+			{
+				for( int n = 0; n < count; n++ )
+				{
+					final int k = ( n + thread ) % count;
+					memo.put( key( k ), accepted( k ) );
+				}
+			} );
+
+			assertEquals( count, memo.size() );
+			assertEquals( RecipeSlotMemo.INITIAL_CAPACITY, memo.capacity() );
+			for( int n = 0; n < count; n++ )
+			{
+				assertEquals( expected( n ), memo.get( key( n ) ) );
+			}
+		}
+	}
+
+	@Test
+	public void testGrowWhileOthersWrite() throws Exception
+	{
+		final int perThread = 5000;
+
+		for( int round = 0; round < 20; round++ )
+		{
+			final RecipeSlotMemo memo = new RecipeSlotMemo();
+
+			runConcurrently( thread ->
+			{
+				for( int n = thread * perThread; n < ( thread + 1 ) * perThread; n++ )
+				{
+					memo.put( key( n ), accepted( n ) );
+
+					// whatever survived a resize has to be the right answer.
+					final int found = memo.get( key( n - thread * perThread / 2 ) );
+					if( found != RecipeSlotMemo.UNKNOWN && found != expected( n - thread * perThread / 2 ) )
+					{
+						throw new AssertionError( "wrong answer for " + ( n - thread * perThread / 2 ) );
+					}
+				}
+			} );
+
+			for( int n = 0; n < THREADS * perThread; n++ )
+			{
+				final int found = memo.get( key( n ) );
+				if( found != RecipeSlotMemo.UNKNOWN )
+				{
+					assertEquals( expected( n ), found );
+				}
+			}
+
+			// entries lost to a resize are simply learned again.
+			for( int n = 0; n < THREADS * perThread; n++ )
+			{
+				memo.put( key( n ), accepted( n ) );
+				assertEquals( expected( n ), memo.get( key( n ) ) );
+			}
+		}
+	}
+
+	private interface Worker
+	{
+		void run( int thread );
+	}
+
+	private static void runConcurrently( final Worker worker ) throws Exception
+	{
+		final CountDownLatch start = new CountDownLatch( 1 );
+		final AtomicReference<Throwable> failure = new AtomicReference<>();
+		final Thread[] threads = new Thread[THREADS];
+
+		for( int x = 0; x < THREADS; x++ )
+		{
+			final int thread = x;
+			threads[x] = new Thread( () ->
+			{
+				try
+				{
+					start.await();
+					worker.run( thread );
+				}
+				catch( final Throwable t )
+				{
+					failure.compareAndSet( null, t );
+				}
+			} );
+			threads[x].start();
+		}
+
+		start.countDown();
+		for( final Thread t : threads )
+		{
+			t.join();
+		}
+
+		if( failure.get() != null )
+		{
+			throw new AssertionError( failure.get() );
+		}
+	}
+}
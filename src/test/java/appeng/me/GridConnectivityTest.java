@@ -0,0 +1,363 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2015, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.me;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+
+/**
+ * Cuts connections of random networks the way {@link GridConnection#destroy()} does and checks the grids against a
+ * plain search over every remaining connection.
+ */
+public class GridConnectivityTest
+{
+
+	@Test
+	public void testReplacementEdgeInCycle()
+	{
+		final Network net = new Network( 4 );
+		final Edge e01 = net.connect( 0, 1 );
+		final Edge e12 = net.connect( 1, 2 );
+		final Edge e23 = net.connect( 2, 3 );
+		final Edge e30 = net.connect( 3, 0 );
+
+		assertTrue( e01.tree && e12.tree && e23.tree );
+		assertFalse( e30.tree );
+
+		// the only other connection between the halves takes over.
+		assertNull( net.cut( e12 ) );
+		assertTrue( e30.tree );
+		net.check();
+
+		// now nothing is left to keep the two ends together.
+		assertEquals( new HashSet<>( Arrays.asList( 2, 3 ) ), net.cut( e30 ) );
+		assertEquals( 2, net.grids() );
+		net.check();
+	}
+
+	@Test
+	public void testSplitsSmallerHalf()
+	{
+		final Network net = new Network( 10 );
+		final List<Edge> path = new ArrayList<>();
+		for( int x = 0; x < 9; x++ )
+		{
+			path.add( net.connect( x, x + 1 ) );
+		}
+
+		// the lock step search finishes the two node half first.
+		assertEquals( new HashSet<>( Arrays.asList( 8, 9 ) ), net.cut( path.get( 7 ) ) );
+		net.check();
+
+		assertEquals( new HashSet<>( Arrays.asList( 0 ) ), net.cut( path.get( 0 ) ) );
+		net.check();
+	}
+
+	@Test
+	public void testNonTreeCutKeepsGrid()
+	{
+		final Network net = new Network( 3 );
+		net.connect( 0, 1 );
+		net.connect( 1, 2 );
+		final Edge extra = net.connect( 0, 2 );
+
+		assertFalse( extra.tree );
+		assertNull( net.cut( extra ) );
+		assertEquals( 1, net.grids() );
+		net.check();
+	}
+
+	@Test
+	public void testRandomCutsOnSparseNetworks()
+	{
+		for( long seed = 0; seed < 20; seed++ )
+		{
+			this.cutEverything( new Random( seed ), 300, 360, 1 );
+		}
+	}
+
+	@Test
+	public void testRandomCutsOnDenseNetworks()
+	{
+		for( long seed = 0; seed < 10; seed++ )
+		{
+			this.cutEverything( new Random( seed ), 200, 1000, 1 );
+		}
+	}
+
+	@Test
+	public void testRandomCutsOnLargeNetwork()
+	{
+		this.cutEverything( new Random( 42 ), 20000, 30000, 500 );
+	}
+
+	/**
+	 * Connects random nodes, then cuts the connections in random order until none is left, checking every few cuts.
+	 */
+	private void cutEverything( final Random rand, final int nodes, final int connections, final int checkEvery )
+	{
+		final Network net = new Network( nodes );
+		final List<Edge> edges = new ArrayList<>();
+
+		// a long chain first, so the networks have deep trees as well as many cycles.
+		for( int x = 0; x + 1 < nodes && edges.size() < connections / 2; x++ )
+		{
+			edges.add( net.connect( x, x + 1 ) );
+		}
+
+		while( edges.size() < connections )
+		{
+			final int a = rand.nextInt( nodes );
+			final int b = rand.nextInt( nodes );
+			if( a != b )
+			{
+				edges.add( net.connect( a, b ) );
+			}
+		}
+
+		net.check();
+		Collections.shuffle( edges, rand );
+
+		for( int x = 0; x < edges.size(); x++ )
+		{
+			net.cut( edges.get( x ) );
+
+			if( x % checkEvery == 0 || x == edges.size() - 1 )
+			{
+				net.check();
+			}
+		}
+
+		assertEquals( nodes, net.grids() );
+	}
+
+	private static final class Edge
+	{
+		private final int a;
+		private final int b;
+		private boolean tree;
+
+		private Edge( final int a, final int b )
+		{
+			this.a = a;
+			this.b = b;
+		}
+	}
+
+	/**
+	 * Nodes are numbered, each one remembers the id of its grid like {@link GridNode#getInternalGrid()} does.
+	 */
+	private static final class Network implements GridConnectivity.Graph<Integer, Edge>
+	{
+		private final List<List<Edge>> connections = new ArrayList<>();
+		private final int[] grid;
+		// nodes of each grid while connecting, only used to merge quickly.
+		private final List<List<Integer>> members = new ArrayList<>();
+		private int nextGrid;
+
+		private Network( final int nodes )
+		{
+			this.grid = new int[nodes];
+			for( int x = 0; x < nodes; x++ )
+			{
+				this.connections.add( new ArrayList<>() );
+				this.members.add( new ArrayList<>( Collections.singletonList( x ) ) );
+				this.grid[x] = this.nextGrid++;
+			}
+		}
+
+		private Edge connect( final int a, final int b )
+		{
+			final Edge e = new Edge( a, b );
+			e.tree = this.grid[a] != this.grid[b];
+
+			if( e.tree )
+			{
+				// merges the smaller grid into the larger one.
+				final List<Integer> from = this.members.get( this.grid[a] ).size() < this.members.get( this.grid[b] ).size() ? this.members.get( this.grid[a] ) : this.members.get( this.grid[b] );
+				final int into = from == this.members.get( this.grid[a] ) ? this.grid[b] : this.grid[a];
+				for( final int node : from )
+				{
+					this.grid[node] = into;
+				}
+				this.members.get( into ).addAll( from );
+				from.clear();
+			}
+
+			this.connections.get( a ).add( e );
+			this.connections.get( b ).add( e );
+			return e;
+		}
+
+		/**
+		 * @return the nodes moved to a new grid, null if the grid stayed whole.
+		 */
+		private Set<Integer> cut( final Edge e )
+		{
+			assertTrue( this.connections.get( e.a ).remove( e ) );
+			assertTrue( this.connections.get( e.b ).remove( e ) );
+
+			if( !e.tree )
+			{
+				return null;
+			}
+
+			final Set<Integer> split = GridConnectivity.findSplit( this, e.a, e.b );
+			if( split != null )
+			{
+				assertTrue( split.contains( e.a ) != split.contains( e.b ) );
+
+				final int id = this.nextGrid++;
+				for( final int node : split )
+				{
+					this.grid[node] = id;
+				}
+			}
+
+			return split;
+		}
+
+		private int grids()
+		{
+			final Set<Integer> ids = new HashSet<>();
+			for( final int id : this.grid )
+			{
+				ids.add( id );
+			}
+			return ids.size();
+		}
+
+		/**
+		 * Every grid has to be exactly one component of the connections, and its tree edges a spanning tree of it.
+		 */
+		private void check()
+		{
+			final int[] component = this.components( false );
+			final int[] treeComponent = this.components( true );
+			final int[] gridOf = new int[this.grid.length];
+			Arrays.fill( gridOf, -1 );
+
+			int treeEdges = 0;
+			int count = 0;
+
+			for( int x = 0; x < this.grid.length; x++ )
+			{
+				// the same partition: each component maps to one grid and no grid is shared by two components.
+				if( gridOf[component[x]] < 0 )
+				{
+					gridOf[component[x]] = this.grid[x];
+					count++;
+				}
+				assertEquals( "node " + x + " is in the wrong grid", gridOf[component[x]], this.grid[x] );
+				assertEquals( "the tree does not span the grid of node " + x, component[x], treeComponent[x] );
+
+				for( final Edge e : this.connections.get( x ) )
+				{
+					if( e.tree && e.a == x )
+					{
+						treeEdges++;
+					}
+				}
+			}
+
+			assertEquals( count, this.grids() );
+			// a spanning forest has one edge less than nodes per tree, so the tree edges hold no cycle.
+			assertEquals( this.grid.length - count, treeEdges );
+		}
+
+		/**
+		 * @return the lowest node of the component every node belongs to.
+		 */
+		private int[] components( final boolean treeOnly )
+		{
+			final int[] component = new int[this.grid.length];
+			Arrays.fill( component, -1 );
+			final Deque<Integer> open = new ArrayDeque<>();
+
+			for( int start = 0; start < this.grid.length; start++ )
+			{
+				if( component[start] >= 0 )
+				{
+					continue;
+				}
+
+				component[start] = start;
+				open.add( start );
+
+				while( !open.isEmpty() )
+				{
+					final int node = open.poll();
+					for( final Edge e : this.connections.get( node ) )
+					{
+						final int next = this.otherSide( e, node );
+						if( ( !treeOnly || e.tree ) && component[next] < 0 )
+						{
+							component[next] = start;
+							open.add( next );
+						}
+					}
+				}
+			}
+
+			return component;
+		}
+
+		@Override
+		public Iterable<Edge> connections( final Integer node )
+		{
+			return this.connections.get( node );
+		}
+
+		@Override
+		public Integer otherSide( final Edge connection, final Integer node )
+		{
+			assertNotNull( connection );
+			return connection.a == node ? connection.b : connection.a;
+		}
+
+		@Override
+		public boolean isTreeEdge( final Edge connection )
+		{
+			return connection.tree;
+		}
+
+		@Override
+		public void setTreeEdge( final Edge connection )
+		{
+			connection.tree = true;
+		}
+	}
+}
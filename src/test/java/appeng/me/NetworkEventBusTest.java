@@ -0,0 +1,349 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2015, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.me;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+
+import org.junit.Test;
+
+import appeng.api.networking.IGridHost;
+import appeng.api.networking.IGridNode;
+import appeng.api.networking.events.MENetworkEvent;
+import appeng.api.networking.events.MENetworkEventSubscribe;
+import appeng.api.util.AECableType;
+import appeng.api.util.AEPartLocation;
+import appeng.api.util.IReadOnlyCollection;
+import appeng.util.ReadOnlyCollection;
+
+
+public class NetworkEventBusTest
+{
+
+	@Test
+	public void testPublicHandlersAreCompiled() throws Throwable
+	{
+		final NetworkEventBus.EventInvoker invoker = NetworkEventBus.compile( Machine.class.getMethod( "fail", MENetworkEvent.class ) );
+
+		// a compiled handler is called directly, its exceptions are not wrapped by reflection.
+		try
+		{
+			invoker.invoke( new Machine(), new MENetworkEvent() );
+			fail();
+		}
+		catch( final Failure expected )
+		{
+		}
+	}
+
+	@Test
+	public void testHiddenHandlersFallBackToReflection() throws Throwable
+	{
+		final NetworkEventBus.EventInvoker invoker = NetworkEventBus.compile( Hidden.class.getMethod( "fail", MENetworkEvent.class ) );
+
+		try
+		{
+			invoker.invoke( new Hidden(), new MENetworkEvent() );
+			fail();
+		}
+		catch( final InvocationTargetException expected )
+		{
+			assertTrue( expected.getCause() instanceof Failure );
+		}
+	}
+
+	@Test
+	public void testBothWaysDeliverTheEvent() throws Throwable
+	{
+		final Ping ping = new Ping();
+
+		final Machine machine = new Machine();
+		NetworkEventBus.compile( Machine.class.getMethod( "onPing", Ping.class ) ).invoke( machine, ping );
+		assertEquals( Collections.singletonList( ping ), machine.received );
+
+		final Hidden hidden = new Hidden();
+		NetworkEventBus.compile( Hidden.class.getMethod( "onPing", Ping.class ) ).invoke( hidden, ping );
+		assertEquals( Collections.singletonList( ping ), hidden.received );
+	}
+
+	@Test
+	public void testPostsToCachesAndMachines()
+	{
+		final FakeGrid grid = new FakeGrid();
+		final Cache cache = grid.cache( new Cache() );
+		final Machine a = grid.add( new Machine() );
+		final Machine b = grid.add( new Machine() );
+
+		final Ping ping = new Ping();
+		grid.bus.postEvent( ping );
+
+		assertEquals( 3, ping.getVisitedObjects() );
+		assertEquals( Collections.singletonList( ping ), cache.received );
+		assertEquals( Collections.singletonList( ping ), a.received );
+		assertEquals( Collections.singletonList( ping ), b.received );
+	}
+
+	@Test
+	public void testIndexIsRebuiltWhenItsGridChanges()
+	{
+		final FakeGrid grid = new FakeGrid();
+		final FakeGrid other = new FakeGrid();
+		final Machine a = grid.add( new Machine() );
+		final Machine elsewhere = other.add( new Machine() );
+
+		grid.bus.postEvent( new Ping() );
+		other.bus.postEvent( new Ping() );
+
+		// joins both grids without telling their buses, the built indexes do not know it yet.
+		final Machine quiet = new Machine();
+		grid.machines.get( Machine.class ).add( node( quiet ) );
+		final Machine quietElsewhere = new Machine();
+		other.machines.get( Machine.class ).add( node( quietElsewhere ) );
+
+		grid.bus.postEvent( new Ping() );
+		assertEquals( 0, quiet.received.size() );
+
+		grid.bus.invalidate();
+		grid.bus.postEvent( new Ping() );
+		other.bus.postEvent( new Ping() );
+
+		assertEquals( 1, quiet.received.size() );
+		assertEquals( 3, a.received.size() );
+
+		// the other grid kept its index.
+		assertEquals( 0, quietElsewhere.received.size() );
+		assertEquals( 2, elsewhere.received.size() );
+
+		grid.remove( a );
+		grid.bus.postEvent( new Ping() );
+		assertEquals( 3, a.received.size() );
+		assertEquals( 2, quiet.received.size() );
+	}
+
+	@Test
+	public void testMachineRemovedDuringEventIsSkipped()
+	{
+		final FakeGrid grid = new FakeGrid();
+		final Machine a = grid.add( new Machine() );
+		final Machine b = grid.add( new Machine() );
+		a.onPing = () -> grid.remove( b );
+
+		final Ping ping = new Ping();
+		grid.bus.postEvent( ping );
+
+		assertEquals( 1, ping.getVisitedObjects() );
+		assertEquals( 1, a.received.size() );
+		assertEquals( 0, b.received.size() );
+	}
+
+	@Test
+	public void testCanceledEventStops()
+	{
+		final FakeGrid grid = new FakeGrid();
+		final Machine a = grid.add( new Machine() );
+		final Machine b = grid.add( new Machine() );
+		final Ping ping = new Ping();
+		a.onPing = ping::cancel;
+
+		grid.bus.postEvent( ping );
+
+		assertEquals( 1, a.received.size() );
+		assertEquals( 0, b.received.size() );
+	}
+
+	@Test
+	public void testNewSubscriberClassReachesBuiltIndex()
+	{
+		final FakeGrid grid = new FakeGrid();
+		final Machine a = grid.add( new Machine() );
+		grid.bus.postEvent( new Ping() );
+
+		// joins without the grid invalidating its index, only reading the class tells the bus about it.
+		final Late late = new Late();
+		grid.machines.computeIfAbsent( Late.class, c -> new ArrayList<>() ).add( node( late ) );
+		grid.bus.readClass( Late.class, Late.class );
+
+		final Ping ping = new Ping();
+		grid.bus.postEvent( ping );
+
+		assertEquals( 2, a.received.size() );
+		assertEquals( Collections.singletonList( ping ), late.received );
+	}
+
+	private static IGridNode node( final IGridHost machine )
+	{
+		return (IGridNode) Proxy.newProxyInstance( IGridNode.class.getClassLoader(), new Class[] { IGridNode.class }, ( proxy, method, args ) ->
+		{
+			switch( method.getName() )
+			{
+				case "getMachine":
+					return machine;
+				case "getMachineClass":
+					return machine.getClass();
+				case "equals":
+					return proxy == args[0];
+				case "hashCode":
+					return System.identityHashCode( proxy );
+				default:
+					throw new UnsupportedOperationException( method.getName() );
+			}
+		} );
+	}
+
+	public static class Ping extends MENetworkEvent
+	{
+	}
+
+	private static class Failure extends RuntimeException
+	{
+		private static final long serialVersionUID = 1L;
+	}
+
+	/**
+	 * Keeps its caches and machines like {@link Grid}, invalidating the bus whenever a machine joins or leaves.
+	 */
+	private static final class FakeGrid implements NetworkEventBus.Members
+	{
+		private final Map<Class<?>, Object> caches = new HashMap<>();
+		private final Map<Class<?>, List<IGridNode>> machines = new HashMap<>();
+		private final NetworkEventBus bus = new NetworkEventBus( this );
+
+		private <T> T cache( final T cache )
+		{
+			this.bus.readClass( cache.getClass(), cache.getClass() );
+			this.caches.put( cache.getClass(), cache );
+			return cache;
+		}
+
+		private <T extends IGridHost> T add( final T machine )
+		{
+			this.bus.readClass( machine.getClass(), machine.getClass() );
+			this.machines.computeIfAbsent( machine.getClass(), c -> new ArrayList<>() ).add( node( machine ) );
+			this.bus.invalidate();
+			return machine;
+		}
+
+		private void remove( final IGridHost machine )
+		{
+			assertTrue( this.machines.get( machine.getClass() ).removeIf( node -> node.getMachine() == machine ) );
+			this.bus.invalidate();
+		}
+
+		@Override
+		public Object getCache( final Class<?> c )
+		{
+			return this.caches.get( c );
+		}
+
+		@Override
+		public IReadOnlyCollection<IGridNode> getMachines( final Class<? extends IGridHost> c )
+		{
+			return new ReadOnlyCollection<>( this.machines.getOrDefault( c, Collections.emptyList() ) );
+		}
+	}
+
+	public static class Host implements IGridHost
+	{
+		final List<MENetworkEvent> received = new ArrayList<>();
+
+		@Override
+		public IGridNode getGridNode( @Nonnull final AEPartLocation dir )
+		{
+			return null;
+		}
+
+		@Nonnull
+		@Override
+		public AECableType getCableConnectionType( @Nonnull final AEPartLocation dir )
+		{
+			return AECableType.NONE;
+		}
+
+		@Override
+		public void securityBreak()
+		{
+		}
+	}
+
+	public static class Machine extends Host
+	{
+		private Runnable onPing = () ->
+		{
+		};
+
+		@MENetworkEventSubscribe
+		public void onPing( final Ping e )
+		{
+			this.received.add( e );
+			this.onPing.run();
+		}
+
+		public void fail( final MENetworkEvent e )
+		{
+			throw new Failure();
+		}
+	}
+
+	public static class Late extends Host
+	{
+		@MENetworkEventSubscribe
+		public void onPing( final Ping e )
+		{
+			this.received.add( e );
+		}
+	}
+
+	public static class Cache
+	{
+		private final List<MENetworkEvent> received = new ArrayList<>();
+
+		@MENetworkEventSubscribe
+		public void onPing( final Ping e )
+		{
+			this.received.add( e );
+		}
+	}
+
+	private static class Hidden
+	{
+		private final List<MENetworkEvent> received = new ArrayList<>();
+
+		public void onPing( final Ping e )
+		{
+			this.received.add( e );
+		}
+
+		public void fail( final MENetworkEvent e )
+		{
+			throw new Failure();
+		}
+	}
+}
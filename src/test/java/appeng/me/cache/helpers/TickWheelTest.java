@@ -0,0 +1,416 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2015, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.me.cache.helpers;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import org.junit.Test;
+
+import appeng.api.networking.ticking.TickingRequest;
+
+
+/**
+ * Runs a {@link TickWheel} next to a {@link PriorityQueue} of due ticks, every tracker the wheel hands out has to be
+ * the one the queue expects at that tick.
+ */
+public class TickWheelTest
+{
+
+	private static final int LEVEL = 64;
+	private static final int SPAN = LEVEL * LEVEL;
+
+	@Test
+	public void testCascadeIntoFirstLevel()
+	{
+		final Harness h = new Harness( 0 );
+
+		for( final long due : new long[] { 0, 1, 62, 63, 64, 65, 100, 127, 128, 129, 191, 192, 1000, SPAN - 65, SPAN - 64, SPAN - 1 } )
+		{
+			h.schedule( h.tracker(), due );
+		}
+
+		h.runTo( SPAN + 10, null );
+
+		h.assertFiredAt( 0, 0 );
+		h.assertFiredAt( 4, 64 );
+		h.assertFiredAt( 7, 127 );
+		h.assertFiredAt( 8, 128 );
+		h.assertFiredAt( 15, SPAN - 1 );
+		assertEquals( 0, h.wheel.size() );
+	}
+
+	@Test
+	public void testCascadeFromUnalignedStart()
+	{
+		final Harness h = new Harness( 1000 );
+
+		// right below and above the first level, seen from a tick in the middle of a block.
+		for( int offset = 60; offset < 70; offset++ )
+		{
+			h.schedule( h.tracker(), 1000 + offset );
+		}
+
+		// the block the current tick is in, a whole round ahead.
+		h.schedule( h.tracker(), 1000 + SPAN );
+		h.schedule( h.tracker(), ( 1000 & ~( LEVEL - 1 ) ) + SPAN );
+
+		h.runTo( 1000 + 2 * SPAN, null );
+
+		for( int x = 0; x < 10; x++ )
+		{
+			h.assertFiredAt( x, 1060 + x );
+		}
+		h.assertFiredAt( 10, 1000 + SPAN );
+		h.assertFiredAt( 11, ( 1000 & ~( LEVEL - 1 ) ) + SPAN );
+	}
+
+	@Test
+	public void testBeyondSecondLevel()
+	{
+		final long start = 777;
+		final Harness h = new Harness( start );
+		final long[] offsets = { SPAN - 1, SPAN, SPAN + 1, SPAN + LEVEL, 2 * SPAN - 1, 2 * SPAN, 3 * SPAN + 7, 5 * SPAN + 63 };
+
+		for( final long offset : offsets )
+		{
+			h.schedule( h.tracker(), start + offset );
+		}
+
+		h.runTo( start + 6 * SPAN, null );
+
+		for( int x = 0; x < offsets.length; x++ )
+		{
+			h.assertFiredAt( x, start + offsets[x] );
+		}
+		assertEquals( 0, h.wheel.size() );
+	}
+
+	@Test
+	public void testPastDueRunsNow()
+	{
+		final Harness h = new Harness( 500 );
+		h.schedule( h.tracker(), 10 );
+		h.runTo( 510, null );
+
+		h.assertFiredAt( 0, 500 );
+	}
+
+	@Test
+	public void testRescheduleDuringPoll()
+	{
+		final Harness h = new Harness( 0 );
+		final TickTracker again = h.tracker();
+		final TickTracker next = h.tracker();
+		final TickTracker far = h.tracker();
+		final TickTracker other = h.tracker();
+		final TickTracker moved = h.tracker();
+
+		for( final TickTracker tt : new TickTracker[] { again, next, far, other, moved } )
+		{
+			h.schedule( tt, 70 );
+		}
+
+		final Map<TickTracker, Integer> runs = new IdentityHashMap<>();
+		h.runTo( 70 + 2 * SPAN, ( tt, tick ) ->
+		{
+			final int run = runs.merge( tt, 1, Integer::sum );
+
+			if( tt == again && run < 3 )
+			{
+				// same tick, lands behind the trackers still waiting in this slot.
+				h.schedule( tt, tick );
+			}
+			else if( tt == next && run == 1 )
+			{
+				h.schedule( tt, tick + 1 );
+			}
+			else if( tt == far && run == 1 )
+			{
+				h.schedule( tt, tick + SPAN + 3 );
+			}
+			else if( tt == other )
+			{
+				// moves a tracker which is still waiting for this very tick.
+				h.schedule( moved, tick + LEVEL );
+			}
+		} );
+
+		assertEquals( Arrays.asList( 70L, 70L, 70L ), h.fired( again ) );
+		assertEquals( Arrays.asList( 70L, 71L ), h.fired( next ) );
+		assertEquals( Arrays.asList( 70L, 70L + SPAN + 3 ), h.fired( far ) );
+		assertEquals( Collections.singletonList( 70L ), h.fired( other ) );
+		assertEquals( Collections.singletonList( 134L ), h.fired( moved ) );
+	}
+
+	@Test
+	public void testCancelHeadAndTail()
+	{
+		final Harness h = new Harness( 0 );
+		final TickTracker[] near = new TickTracker[4];
+		final TickTracker[] later = new TickTracker[4];
+
+		for( int x = 0; x < near.length; x++ )
+		{
+			near[x] = h.tracker();
+			h.schedule( near[x], 10 );
+		}
+
+		// all of them share one second level slot.
+		for( int x = 0; x < later.length; x++ )
+		{
+			later[x] = h.tracker();
+			h.schedule( later[x], 200 + x );
+		}
+
+		h.cancel( near[0] );
+		h.cancel( near[3] );
+		h.cancel( later[0] );
+		h.cancel( later[3] );
+		assertFalse( h.wheel.isScheduled( near[0] ) );
+		assertTrue( h.wheel.isScheduled( near[1] ) );
+		assertEquals( 4, h.wheel.size() );
+
+		// cancelling twice or cancelling something never scheduled changes nothing.
+		h.cancel( near[0] );
+		h.cancel( h.tracker() );
+		assertEquals( 4, h.wheel.size() );
+
+		// the slots still append correctly after losing both ends.
+		h.schedule( near[0], 10 );
+		h.schedule( later[3], 203 );
+
+		h.runTo( 300, null );
+
+		assertEquals( Collections.emptyList(), h.fired( near[3] ) );
+		assertEquals( Collections.emptyList(), h.fired( later[0] ) );
+		assertEquals( Collections.singletonList( 10L ), h.fired( near[0] ) );
+		assertEquals( Collections.singletonList( 10L ), h.fired( near[1] ) );
+		assertEquals( Collections.singletonList( 203L ), h.fired( later[3] ) );
+		assertEquals( 0, h.wheel.size() );
+	}
+
+	@Test
+	public void testCancelWhilePolling()
+	{
+		final Harness h = new Harness( 0 );
+		final TickTracker first = h.tracker();
+		final TickTracker middle = h.tracker();
+		final TickTracker last = h.tracker();
+
+		h.schedule( first, 5 );
+		h.schedule( middle, 5 );
+		h.schedule( last, 5 );
+
+		h.runTo( 10, ( tt, tick ) ->
+		{
+			if( tt == first )
+			{
+				h.cancel( last );
+			}
+		} );
+
+		assertEquals( Collections.singletonList( 5L ), h.fired( middle ) );
+		assertEquals( Collections.emptyList(), h.fired( last ) );
+	}
+
+	@Test
+	public void testRandomSchedule()
+	{
+		final Random rand = new Random( 42 );
+		final Harness h = new Harness( 12345 );
+
+		for( int x = 0; x < 200; x++ )
+		{
+			h.schedule( h.tracker(), h.now + randomDelay( rand ) );
+		}
+
+		h.runTo( h.now + 6 * SPAN, ( tt, tick ) ->
+		{
+			if( rand.nextInt( 4 ) == 0 )
+			{
+				h.cancel( h.trackers.get( rand.nextInt( h.trackers.size() ) ) );
+			}
+
+			if( rand.nextInt( 8 ) != 0 )
+			{
+				h.schedule( tt, tick + randomDelay( rand ) );
+			}
+
+			if( rand.nextInt( 4 ) == 0 )
+			{
+				h.schedule( h.trackers.get( rand.nextInt( h.trackers.size() ) ), tick + randomDelay( rand ) );
+			}
+		} );
+	}
+
+	private static long randomDelay( final Random rand )
+	{
+		switch( rand.nextInt( 4 ) )
+		{
+			case 0:
+				return rand.nextInt( LEVEL );
+			case 1:
+				return LEVEL + rand.nextInt( SPAN - LEVEL );
+			case 2:
+				return SPAN + rand.nextInt( 2 * SPAN );
+			default:
+				return rand.nextInt( 3 ) - 1;
+		}
+	}
+
+	private interface Callback
+	{
+		void fired( TickTracker tt, long tick );
+	}
+
+	private static final class Scheduled implements Comparable<Scheduled>
+	{
+		private final TickTracker tracker;
+		private final long due;
+		private final long order;
+
+		private Scheduled( final TickTracker tracker, final long due, final long order )
+		{
+			this.tracker = tracker;
+			this.due = due;
+			this.order = order;
+		}
+
+		@Override
+		public int compareTo( final Scheduled o )
+		{
+			final int byDue = Long.compare( this.due, o.due );
+			return byDue != 0 ? byDue : Long.compare( this.order, o.order );
+		}
+	}
+
+	/**
+	 * Drives the wheel tick by tick and checks every poll against the reference queue.
+	 */
+	private static final class Harness
+	{
+		private final TickWheel wheel;
+		private final PriorityQueue<Scheduled> reference = new PriorityQueue<>();
+		private final Map<TickTracker, Scheduled> pending = new IdentityHashMap<>();
+		private final Map<TickTracker, List<Long>> fired = new IdentityHashMap<>();
+		private final List<TickTracker> trackers = new ArrayList<>();
+		private long now;
+		private long order;
+
+		private Harness( final long start )
+		{
+			this.wheel = new TickWheel( start );
+			this.now = start;
+		}
+
+		private TickTracker tracker()
+		{
+			final TickTracker tt = new TickTracker( new TickingRequest( 1, 1, false, false ), null, null, this.now, null );
+			this.trackers.add( tt );
+			this.fired.put( tt, new ArrayList<>() );
+			return tt;
+		}
+
+		private void schedule( final TickTracker tt, final long due )
+		{
+			this.wheel.schedule( tt, due );
+			this.dropReference( tt );
+
+			final Scheduled s = new Scheduled( tt, Math.max( due, this.now ), this.order++ );
+			this.reference.add( s );
+			this.pending.put( tt, s );
+		}
+
+		private void cancel( final TickTracker tt )
+		{
+			this.wheel.cancel( tt );
+			this.dropReference( tt );
+		}
+
+		private void dropReference( final TickTracker tt )
+		{
+			final Scheduled s = this.pending.remove( tt );
+			if( s != null )
+			{
+				this.reference.remove( s );
+			}
+		}
+
+		private void runTo( final long end, final Callback callback )
+		{
+			while( true )
+			{
+				TickTracker tt;
+				while( ( tt = this.wheel.poll() ) != null )
+				{
+					final Scheduled expected = this.pending.remove( tt );
+					assertNotNull( "fired a tracker the reference does not have at tick " + this.now, expected );
+					assertEquals( "fired at the wrong tick", expected.due, this.now );
+					assertFalse( this.wheel.isScheduled( tt ) );
+					this.reference.remove( expected );
+					this.fired.get( tt ).add( this.now );
+
+					if( callback != null )
+					{
+						callback.fired( tt, this.now );
+					}
+				}
+
+				final Scheduled missed = this.reference.peek();
+				if( missed != null && missed.due <= this.now )
+				{
+					fail( "tracker due at " + missed.due + " did not fire at tick " + this.now );
+				}
+				assertEquals( this.reference.size(), this.wheel.size() );
+
+				if( this.now == end )
+				{
+					return;
+				}
+
+				this.now++;
+				this.wheel.advance( this.now );
+			}
+		}
+
+		private List<Long> fired( final TickTracker tt )
+		{
+			return this.fired.get( tt );
+		}
+
+		private void assertFiredAt( final int tracker, final long tick )
+		{
+			assertEquals( Collections.singletonList( tick ), this.fired.get( this.trackers.get( tracker ) ) );
+		}
+	}
+}
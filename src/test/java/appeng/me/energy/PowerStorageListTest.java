@@ -0,0 +1,239 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2015, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.me.energy;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
+import org.junit.Test;
+
+import appeng.api.config.AccessRestriction;
+import appeng.api.config.Actionable;
+import appeng.api.config.PowerMultiplier;
+import appeng.api.networking.energy.IAEPowerStorage;
+
+
+public class PowerStorageListTest
+{
+
+	private static Storage[] storages( final int count )
+	{
+		final Storage[] storages = new Storage[count];
+		for( int x = 0; x < count; x++ )
+		{
+			storages[x] = new Storage();
+		}
+		return storages;
+	}
+
+	private static List<IAEPowerStorage> contents( final PowerStorageList list )
+	{
+		final List<IAEPowerStorage> contents = new ArrayList<>();
+		for( int slot = 0; slot < list.slots(); slot++ )
+		{
+			if( list.get( slot ) != null )
+			{
+				contents.add( list.get( slot ) );
+			}
+		}
+		return contents;
+	}
+
+	@Test
+	public void testAddKeepsOrderAndRejectsDuplicates()
+	{
+		final PowerStorageList list = new PowerStorageList();
+		final Storage[] s = storages( 20 );
+
+		for( final Storage storage : s )
+		{
+			assertTrue( list.add( storage ) );
+		}
+		assertFalse( list.add( s[3] ) );
+
+		assertEquals( 20, list.slots() );
+		assertEquals( Arrays.asList( (IAEPowerStorage[]) s ), contents( list ) );
+		assertFalse( list.remove( new Storage() ) );
+	}
+
+	@Test
+	public void testRemoveDuringWalk()
+	{
+		final PowerStorageList list = new PowerStorageList();
+		final Storage[] s = storages( 6 );
+		final Storage late = new Storage();
+
+		for( final Storage storage : s )
+		{
+			list.add( storage );
+		}
+
+		final List<IAEPowerStorage> visited = new ArrayList<>();
+		for( int slot = 0; slot < list.slots(); slot++ )
+		{
+			final IAEPowerStorage storage = list.get( slot );
+			if( storage == null )
+			{
+				continue;
+			}
+
+			visited.add( storage );
+
+			if( storage == s[1] )
+			{
+				// drops the current slot, one further ahead and appends a new storage.
+				list.removeSlot( slot );
+				assertTrue( list.remove( s[4] ) );
+				list.add( late );
+			}
+		}
+
+		// the slots stay put during the walk, so nothing is skipped or visited twice.
+		assertEquals( Arrays.asList( s[0], s[1], s[2], s[3], s[5], late ), visited );
+		assertEquals( 7, list.slots() );
+		assertNull( list.get( 1 ) );
+		assertNull( list.get( 4 ) );
+
+		// an empty slot can be removed again without effect.
+		list.removeSlot( 1 );
+		assertEquals( Arrays.asList( s[0], s[2], s[3], s[5], late ), contents( list ) );
+	}
+
+	@Test
+	public void testCompact()
+	{
+		final PowerStorageList list = new PowerStorageList();
+		final Storage[] s = storages( 10 );
+
+		for( final Storage storage : s )
+		{
+			list.add( storage );
+		}
+
+		for( int slot = 0; slot < list.slots(); slot++ )
+		{
+			if( slot % 3 == 0 )
+			{
+				list.removeSlot( slot );
+			}
+		}
+
+		list.compact();
+
+		assertEquals( 6, list.slots() );
+		assertEquals( Arrays.asList( s[1], s[2], s[4], s[5], s[7], s[8] ), contents( list ) );
+		for( int slot = 0; slot < list.slots(); slot++ )
+		{
+			assertTrue( list.get( slot ) != null );
+		}
+
+		// the moved storages are found in their new slots.
+		assertTrue( list.remove( s[8] ) );
+		assertTrue( list.remove( s[2] ) );
+		assertNull( list.get( 1 ) );
+		assertNull( list.get( 5 ) );
+
+		assertTrue( list.add( s[0] ) );
+		assertSame( s[0], list.get( 6 ) );
+
+		list.compact();
+		assertEquals( Arrays.asList( s[1], s[4], s[5], s[7], s[0] ), contents( list ) );
+		assertEquals( 5, list.slots() );
+
+		// nothing to close, nothing changes.
+		list.compact();
+		assertEquals( 5, list.slots() );
+		assertFalse( list.add( s[7] ) );
+	}
+
+	@Test
+	public void testCompactAfterRemovingEverything()
+	{
+		final PowerStorageList list = new PowerStorageList();
+		final Storage[] s = storages( 12 );
+
+		for( final Storage storage : s )
+		{
+			list.add( storage );
+		}
+
+		for( int slot = 0; slot < list.slots(); slot++ )
+		{
+			list.removeSlot( slot );
+		}
+
+		list.compact();
+		assertEquals( 0, list.slots() );
+
+		assertTrue( list.add( s[5] ) );
+		assertSame( s[5], list.get( 0 ) );
+		assertEquals( 1, list.slots() );
+	}
+
+	private static final class Storage implements IAEPowerStorage
+	{
+
+		@Override
+		public double extractAEPower( final double amt, @Nonnull final Actionable mode, @Nonnull final PowerMultiplier usePowerMultiplier )
+		{
+			return 0;
+		}
+
+		@Override
+		public double injectAEPower( final double amt, @Nonnull final Actionable mode )
+		{
+			return amt;
+		}
+
+		@Override
+		public double getAEMaxPower()
+		{
+			return 0;
+		}
+
+		@Override
+		public double getAECurrentPower()
+		{
+			return 0;
+		}
+
+		@Override
+		public boolean isAEPublicPowerStorage()
+		{
+			return true;
+		}
+
+		@Nonnull
+		@Override
+		public AccessRestriction getPowerFlow()
+		{
+			return AccessRestriction.READ_WRITE;
+		}
+	}
+}
@@ -0,0 +1,569 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2015, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.me.pathfinding;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import appeng.api.networking.GridFlags;
+import appeng.api.util.IReadOnlyCollection;
+import appeng.util.ReadOnlyCollection;
+
+
+/**
+ * Adds and removes cables the way {@link appeng.me.cache.PathGridCache} routes them between controller passes and
+ * checks the routes and channels against routing the whole network again.
+ */
+public class PathRouterTest
+{
+
+	@Test
+	public void testShortcutReroutesTheFarSide()
+	{
+		final Network net = new Network();
+		final Item controller = net.node( true, false );
+		final List<Item> chain = net.chain( controller, 6 );
+		net.update();
+		assertEquals( 12, net.router.getDepth( chain.get( 5 ) ) );
+
+		net.link( controller, chain.get( 5 ) );
+		net.update();
+
+		assertEquals( 2, net.router.getDepth( chain.get( 5 ) ) );
+		assertEquals( 4, net.router.getDepth( chain.get( 4 ) ) );
+		assertEquals( 6, net.router.getDepth( chain.get( 3 ) ) );
+		assertEquals( 6, net.router.getDepth( chain.get( 2 ) ) );
+		net.check();
+	}
+
+	@Test
+	public void testRemovalTakesTheLongerWay()
+	{
+		final Network net = new Network();
+		final Item controller = net.node( true, false );
+		final List<Item> chain = net.chain( controller, 4 );
+		net.link( chain.get( 3 ), controller );
+		net.update();
+		net.check();
+
+		net.remove( net.linkBetween( controller, chain.get( 0 ) ) );
+		net.update();
+
+		assertEquals( 8, net.router.getDepth( chain.get( 0 ) ) );
+		net.check();
+	}
+
+	@Test
+	public void testUnreachableItemsWaitForACable()
+	{
+		final Network net = new Network();
+		final Item controller = net.node( true, false );
+		final List<Item> chain = net.chain( controller, 5 );
+		net.update();
+
+		net.remove( chain.get( 1 ) );
+		net.update();
+		assertEquals( -1, net.router.getDepth( chain.get( 4 ) ) );
+		net.check();
+
+		net.link( chain.get( 0 ), chain.get( 2 ) );
+		net.update();
+		assertEquals( 8, net.router.getDepth( chain.get( 4 ) ) );
+		net.check();
+	}
+
+	@Test
+	public void testControllersNeverRouteToEachOther()
+	{
+		final Network net = new Network();
+		final Item a = net.node( true, false );
+		final Item b = net.node( true, false );
+		final Item between = net.link( a, b );
+		final Item device = net.node( false, true );
+		net.link( b, device );
+		net.update();
+
+		assertEquals( -1, net.router.getDepth( between ) );
+		assertEquals( 2, net.router.getDepth( device ) );
+		net.check();
+	}
+
+	@Test
+	public void testRandomChanges()
+	{
+		for( long seed = 0; seed < 30; seed++ )
+		{
+			final Random rand = new Random( seed );
+			final Network net = new Network();
+			final List<Item> nodes = new ArrayList<>();
+			nodes.add( net.node( true, false ) );
+			nodes.add( net.node( true, false ) );
+
+			for( int step = 0; step < 300; step++ )
+			{
+				final int action = rand.nextInt( 10 );
+				if( action < 4 || nodes.size() < 4 )
+				{
+					final Item node = net.node( false, rand.nextBoolean() );
+					net.link( nodes.get( rand.nextInt( nodes.size() ) ), node );
+					nodes.add( node );
+				}
+				else if( action < 7 )
+				{
+					final Item a = nodes.get( rand.nextInt( nodes.size() ) );
+					final Item b = nodes.get( rand.nextInt( nodes.size() ) );
+					if( a != b )
+					{
+						net.link( a, b );
+					}
+				}
+				else if( action < 8 )
+				{
+					final Item node = nodes.get( 2 + rand.nextInt( nodes.size() - 2 ) );
+					net.remove( node );
+					nodes.remove( node );
+				}
+				else
+				{
+					final List<Item> links = net.links();
+					if( !links.isEmpty() )
+					{
+						net.remove( links.get( rand.nextInt( links.size() ) ) );
+					}
+				}
+
+				net.update();
+				net.check();
+			}
+		}
+	}
+
+	private static class Item implements IPathItem
+	{
+		private final List<IPathItem> options = new ArrayList<>();
+		private final EnumSet<GridFlags> flags;
+		private final boolean controller;
+		private IPathItem route;
+		private int channels;
+
+		private Item( final boolean controller, final boolean device )
+		{
+			this.controller = controller;
+			this.flags = device ? EnumSet.of( GridFlags.REQUIRE_CHANNEL ) : EnumSet.noneOf( GridFlags.class );
+		}
+
+		@Override
+		public IPathItem getControllerRoute()
+		{
+			return this.route;
+		}
+
+		@Override
+		public void setControllerRoute( final IPathItem fast, final boolean zeroOut )
+		{
+			this.route = fast;
+			if( zeroOut )
+			{
+				this.channels = 0;
+			}
+		}
+
+		@Override
+		public boolean canSupportMoreChannels()
+		{
+			return true;
+		}
+
+		@Override
+		public IReadOnlyCollection<IPathItem> getPossibleOptions()
+		{
+			return new ReadOnlyCollection<>( this.options );
+		}
+
+		@Override
+		public void incrementChannelCount( final int usedChannels )
+		{
+			this.channels += usedChannels;
+		}
+
+		@Override
+		public int getChannelCount()
+		{
+			return this.channels;
+		}
+
+		@Override
+		public EnumSet<GridFlags> getFlags()
+		{
+			return this.flags;
+		}
+
+		@Override
+		public void finalizeChannels()
+		{
+		}
+	}
+
+	private static final class Link extends Item
+	{
+		private final Item a;
+		private final Item b;
+
+		private Link( final Item a, final Item b )
+		{
+			super( false, false );
+			this.a = a;
+			this.b = b;
+			super.options.addAll( Arrays.asList( a, b ) );
+		}
+	}
+
+	/**
+	 * Keeps the routes and channels like the grid cache does, every device takes one channel on each item of its route.
+	 */
+	private static final class Network implements PathRouter.Host
+	{
+		private final List<Item> items = new ArrayList<>();
+		private final Map<IPathItem, IPathItem> routes = new HashMap<>();
+		private final PathRouter router = new PathRouter( this.routes );
+		private final Set<IPathItem> detached = new LinkedHashSet<>();
+
+		private Item node( final boolean controller, final boolean device )
+		{
+			final Item node = new Item( controller, device );
+			this.items.add( node );
+
+			if( controller )
+			{
+				this.routes.put( node, null );
+			}
+			else
+			{
+				this.detached.add( node );
+			}
+
+			return node;
+		}
+
+		private Link link( final Item a, final Item b )
+		{
+			final Link link = new Link( a, b );
+			this.items.add( link );
+			a.options.add( link );
+			b.options.add( link );
+			this.detached.add( link );
+			return link;
+		}
+
+		private List<Item> chain( final Item start, final int length )
+		{
+			final List<Item> chain = new ArrayList<>();
+			Item last = start;
+			for( int x = 0; x < length; x++ )
+			{
+				final Item next = this.node( false, true );
+				this.link( last, next );
+				chain.add( next );
+				last = next;
+			}
+			return chain;
+		}
+
+		private Link linkBetween( final Item a, final Item b )
+		{
+			for( final IPathItem option : a.options )
+			{
+				final Link link = (Link) option;
+				if( link.a == b || link.b == b )
+				{
+					return link;
+				}
+			}
+			throw new IllegalArgumentException();
+		}
+
+		private List<Item> links()
+		{
+			final List<Item> links = new ArrayList<>();
+			for( final Item item : this.items )
+			{
+				if( item instanceof Link )
+				{
+					links.add( item );
+				}
+			}
+			return links;
+		}
+
+		/**
+		 * Removes a node with its links or a single link, like removing a cable or a connection does.
+		 */
+		private void remove( final Item item )
+		{
+			if( item instanceof Link )
+			{
+				final Link link = (Link) item;
+				assertTrue( this.detach( link ) );
+				this.detached.remove( link );
+				link.a.options.remove( link );
+				link.b.options.remove( link );
+				this.items.remove( link );
+				return;
+			}
+
+			for( final IPathItem option : new ArrayList<>( item.options ) )
+			{
+				this.remove( (Item) option );
+			}
+
+			assertTrue( this.detach( item ) );
+			this.detached.remove( item );
+			this.items.remove( item );
+		}
+
+		private void update()
+		{
+			assertTrue( this.router.route( this.detached, this ) );
+		}
+
+		@Override
+		public boolean isPartOfGrid( final IPathItem pi )
+		{
+			return this.items.contains( pi );
+		}
+
+		@Override
+		public boolean canRoute( final IPathItem pi )
+		{
+			return !( pi instanceof Link && ( (Link) pi ).a.controller && ( (Link) pi ).b.controller );
+		}
+
+		@Override
+		public void routed( final IPathItem pi )
+		{
+			if( pi.getFlags().contains( GridFlags.REQUIRE_CHANNEL ) )
+			{
+				for( IPathItem at = pi; at != null; at = this.routes.get( at ) )
+				{
+					at.incrementChannelCount( 1 );
+				}
+			}
+		}
+
+		@Override
+		public boolean detach( final IPathItem root )
+		{
+			if( !this.routes.containsKey( root ) )
+			{
+				this.detached.add( root );
+				return true;
+			}
+
+			final int through = root.getChannelCount();
+			for( IPathItem at = this.routes.get( root ); at != null; at = this.routes.get( at ) )
+			{
+				at.incrementChannelCount( -through );
+			}
+
+			for( final IPathItem pi : this.router.getRoutedThrough( root ) )
+			{
+				this.router.remove( pi );
+				pi.setControllerRoute( null, true );
+				this.detached.add( pi );
+			}
+
+			return true;
+		}
+
+		/**
+		 * Compares the routes with a plain search from the controllers, and the channels with routing everything
+		 * again.
+		 */
+		private void check()
+		{
+			final Map<Item, Integer> expected = this.search();
+			final PathRouter fresh = new PathRouter( new HashMap<>( this.routes ) );
+
+			for( final Item item : this.items )
+			{
+				final int depth = expected.containsKey( item ) ? expected.get( item ) : -1;
+				assertEquals( depth, this.router.getDepth( item ) );
+				assertEquals( depth, fresh.getDepth( item ) );
+				assertEquals( depth >= 0, this.routes.containsKey( item ) );
+
+				if( depth > 0 )
+				{
+					final IPathItem route = this.routes.get( item );
+					assertSame( route, item.route );
+					assertTrue( item.options.contains( route ) );
+					assertEquals( depth - 1, this.router.getDepth( route ) );
+				}
+			}
+
+			final Map<Item, Integer> used = this.countChannels( this.routes );
+			final Map<Item, Integer> repathed = this.repath();
+			int total = 0;
+			int totalRepathed = 0;
+
+			for( final Item item : this.items )
+			{
+				assertEquals( used.getOrDefault( item, 0 ).intValue(), item.channels );
+				total += item.channels;
+				totalRepathed += repathed.getOrDefault( item, 0 );
+			}
+
+			assertEquals( totalRepathed, total );
+			assertTrue( this.detached.isEmpty() );
+		}
+
+		/**
+		 * @return the channels every item carries for the given routes.
+		 */
+		private Map<Item, Integer> countChannels( final Map<IPathItem, IPathItem> routes )
+		{
+			final Map<Item, Integer> used = new HashMap<>();
+			for( final Item item : this.items )
+			{
+				if( routes.containsKey( item ) && item.flags.contains( GridFlags.REQUIRE_CHANNEL ) )
+				{
+					for( IPathItem at = item; at != null; at = routes.get( at ) )
+					{
+						used.merge( (Item) at, 1, Integer::sum );
+					}
+				}
+			}
+			return used;
+		}
+
+		/**
+		 * Routes a copy of the network from its controllers only.
+		 */
+		private Map<Item, Integer> repath()
+		{
+			final Map<IPathItem, IPathItem> routes = new HashMap<>();
+			final Set<IPathItem> open = new LinkedHashSet<>();
+
+			for( final Item item : this.items )
+			{
+				if( item.controller )
+				{
+					routes.put( item, null );
+				}
+				else
+				{
+					open.add( item );
+				}
+			}
+
+			final PathRouter.Host host = new PathRouter.Host()
+			{
+				@Override
+				public boolean isPartOfGrid( final IPathItem pi )
+				{
+					return Network.this.isPartOfGrid( pi );
+				}
+
+				@Override
+				public boolean canRoute( final IPathItem pi )
+				{
+					return Network.this.canRoute( pi );
+				}
+
+				@Override
+				public void routed( final IPathItem pi )
+				{
+				}
+
+				@Override
+				public boolean detach( final IPathItem pi )
+				{
+					throw new AssertionError( "a controller pass never finds a shorter way" );
+				}
+			};
+
+			// restores the routes and channels of the real network afterwards.
+			final Map<Item, IPathItem> before = new HashMap<>();
+			final Map<Item, Integer> channels = new HashMap<>();
+			for( final Item item : this.items )
+			{
+				before.put( item, item.route );
+				channels.put( item, item.channels );
+			}
+
+			assertTrue( new PathRouter( routes ).route( open, host ) );
+
+			for( final Item item : this.items )
+			{
+				item.route = before.get( item );
+				item.channels = channels.get( item );
+			}
+
+			return this.countChannels( routes );
+		}
+
+		/**
+		 * @return the distance of every reachable item to the closest controller.
+		 */
+		private Map<Item, Integer> search()
+		{
+			final Map<Item, Integer> depths = new HashMap<>();
+			final Deque<Item> open = new ArrayDeque<>();
+
+			for( final Item item : this.items )
+			{
+				if( item.controller )
+				{
+					depths.put( item, 0 );
+					open.add( item );
+				}
+			}
+
+			while( !open.isEmpty() )
+			{
+				final Item item = open.poll();
+				for( final IPathItem option : item.options )
+				{
+					if( !depths.containsKey( option ) && this.canRoute( option ) )
+					{
+						depths.put( (Item) option, depths.get( item ) + 1 );
+						open.add( (Item) option );
+					}
+				}
+			}
+
+			return depths;
+		}
+	}
+}
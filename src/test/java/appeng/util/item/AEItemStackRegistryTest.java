@@ -0,0 +1,170 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2015, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.util.item;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import net.minecraft.init.Bootstrap;
+import net.minecraft.init.Items;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
+
+import appeng.core.AELog;
+
+
+/**
+ * Interning has to hand out one shared stack per item, damage and NBT, from any number of threads at once.
+ *
+ * {@link #testThroughput()} also logs the interning rate at 1, 4 and 16 threads, the build has no JMH to measure it
+ * more precisely.
+ */
+public class AEItemStackRegistryTest
+{
+
+	private static final int KINDS = 256;
+	private static final int LOOKUPS_PER_THREAD = 200_000;
+
+	@BeforeClass
+	public static void setUp()
+	{
+		Bootstrap.register();
+	}
+
+	private static ItemStack kind( final int n, final int count )
+	{
+		final ItemStack is = new ItemStack( n % 2 == 0 ? Items.DIAMOND_SWORD : Items.IRON_INGOT, count, n / 4 % 32 );
+		if( n % 4 >= 2 )
+		{
+			final NBTTagCompound tag = new NBTTagCompound();
+			tag.setInteger( "kind", n );
+			is.setTagCompound( tag );
+		}
+		return is;
+	}
+
+	@Test
+	public void testInterning()
+	{
+		final ItemStack input = kind( 2, 17 );
+		final AESharedItemStack shared = AEItemStackRegistry.getRegisteredStack( input );
+
+		assertEquals( 17, input.getCount() );
+		assertEquals( 1, shared.getDefinition().getCount() );
+		assertSame( shared, AEItemStackRegistry.getRegisteredStack( kind( 2, 1 ) ) );
+		assertSame( shared, AEItemStackRegistry.getRegisteredStack( kind( 2, 64 ) ) );
+
+		// other damage, other NBT and no NBT all get their own definition.
+		assertNotSame( shared, AEItemStackRegistry.getRegisteredStack( kind( 6, 17 ) ) );
+		assertNotSame( shared, AEItemStackRegistry.getRegisteredStack( kind( 10, 17 ) ) );
+		assertNotSame( shared, AEItemStackRegistry.getRegisteredStack( kind( 0, 17 ) ) );
+	}
+
+	@Test
+	public void testThroughput() throws Exception
+	{
+		for( final int threads : new int[] { 1, 4, 16 } )
+		{
+			final double rate = this.intern( threads );
+			AELog.info( "Interned %.0f stacks per second with %d threads", rate, threads );
+		}
+	}
+
+	/**
+	 * @return lookups per second over all threads.
+	 */
+	private double intern( final int threads ) throws Exception
+	{
+		// holds the shared stacks, the registry only keeps them weakly.
+		final AESharedItemStack[] expected = new AESharedItemStack[KINDS];
+		final ItemStack[][] inputs = new ItemStack[threads][KINDS];
+
+		for( int n = 0; n < KINDS; n++ )
+		{
+			expected[n] = AEItemStackRegistry.getRegisteredStack( kind( n, 1 ) );
+			for( int t = 0; t < threads; t++ )
+			{
+				// fresh stacks for each thread, equal to the interned ones but never the same instance.
+				inputs[t][n] = kind( n, 1 + t );
+			}
+		}
+
+		final CountDownLatch start = new CountDownLatch( 1 );
+		final CountDownLatch done = new CountDownLatch( threads );
+		final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+		for( int t = 0; t < threads; t++ )
+		{
+			final ItemStack[] mine = inputs[t];
+			final Thread thread = new Thread( () ->
+			{
+				try
+				{
+					start.await();
+					for( int x = 0; x < LOOKUPS_PER_THREAD; x++ )
+					{
+						final int n = x % KINDS;
+						if( AEItemStackRegistry.getRegisteredStack( mine[n] ) != expected[n] )
+						{
+							throw new AssertionError( "kind " + n + " was interned twice" );
+						}
+					}
+				}
+				catch( final Throwable e )
+				{
+					failure.compareAndSet( null, e );
+				}
+				finally
+				{
+					done.countDown();
+				}
+			} );
+			thread.start();
+		}
+
+		final long began = System.nanoTime();
+		start.countDown();
+		done.await();
+		final long elapsed = System.nanoTime() - began;
+
+		if( failure.get() != null )
+		{
+			throw new AssertionError( failure.get() );
+		}
+
+		for( int t = 0; t < threads; t++ )
+		{
+			for( int n = 0; n < KINDS; n++ )
+			{
+				assertEquals( "interning changed the input", 1 + t, inputs[t][n].getCount() );
+			}
+		}
+
+		return (double) threads * LOOKUPS_PER_THREAD * TimeUnit.SECONDS.toNanos( 1 ) / Math.max( 1, elapsed );
+	}
+}
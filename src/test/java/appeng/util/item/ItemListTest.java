@@ -0,0 +1,207 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2015, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.util.item;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Iterator;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import net.minecraft.init.Bootstrap;
+import net.minecraft.init.Items;
+import net.minecraft.item.ItemStack;
+
+import appeng.api.config.FuzzyMode;
+import appeng.api.storage.data.IAEItemStack;
+import appeng.util.StorageConsistencyChecks;
+
+
+/**
+ * Changes records through every way {@link ItemList} hands them out, with {@link StorageConsistencyChecks} verifying
+ * the tracked size against a recount on each {@link ItemList#size()}.
+ */
+public class ItemListTest
+{
+
+	@BeforeClass
+	public static void setUp()
+	{
+		Bootstrap.register();
+		StorageConsistencyChecks.setEnabled( true );
+	}
+
+	@AfterClass
+	public static void tearDown()
+	{
+		StorageConsistencyChecks.setEnabled( false );
+	}
+
+	private static IAEItemStack stack( final ItemStack is )
+	{
+		return AEItemStack.fromItemStack( is );
+	}
+
+	@Test
+	public void testAddAndMerge()
+	{
+		final ItemList list = new ItemList();
+
+		list.add( stack( new ItemStack( Items.DIAMOND, 3 ) ) );
+		list.addStorage( stack( new ItemStack( Items.DIAMOND, 2 ) ) );
+		list.add( stack( new ItemStack( Items.DIAMOND_SWORD ) ) );
+
+		assertEquals( 2, list.size() );
+		assertEquals( 5, list.findPrecise( stack( new ItemStack( Items.DIAMOND ) ) ).getStackSize() );
+	}
+
+	@Test
+	public void testCraftingAndRequestableRecords()
+	{
+		final ItemList list = new ItemList();
+
+		list.addCrafting( stack( new ItemStack( Items.GOLD_INGOT ) ) );
+		list.addRequestable( stack( new ItemStack( Items.IRON_INGOT ) ).setCountRequestable( 4 ) );
+		list.addRequestable( stack( new ItemStack( Items.COAL ) ) );
+
+		assertEquals( 2, list.size() );
+
+		list.findPrecise( stack( new ItemStack( Items.GOLD_INGOT ) ) ).setCraftable( false );
+		assertEquals( 1, list.size() );
+	}
+
+	@Test
+	public void testFindPreciseHeldAcrossSize()
+	{
+		final ItemList list = new ItemList();
+		list.add( stack( new ItemStack( Items.DIAMOND, 3 ) ) );
+
+		final IAEItemStack held = list.findPrecise( stack( new ItemStack( Items.DIAMOND ) ) );
+		assertNotNull( held );
+		assertEquals( 1, list.size() );
+
+		held.setStackSize( 0 );
+		assertEquals( 0, list.size() );
+		assertTrue( list.isEmpty() );
+
+		held.incStackSize( 7 );
+		assertEquals( 1, list.size() );
+
+		held.decStackSize( 7 );
+		assertEquals( 0, list.size() );
+
+		held.setCountRequestable( 2 );
+		assertEquals( 1, list.size() );
+
+		held.decCountRequestable( 2 );
+		assertEquals( 0, list.size() );
+
+		held.incCountRequestable( 1 );
+		assertEquals( 1, list.size() );
+
+		held.reset();
+		assertEquals( 0, list.size() );
+	}
+
+	@Test
+	public void testFindFuzzy()
+	{
+		final ItemList list = new ItemList();
+		list.add( stack( new ItemStack( Items.DIAMOND_SWORD ) ) );
+		list.add( stack( new ItemStack( Items.DIAMOND_SWORD, 1, 100 ) ) );
+		list.add( stack( new ItemStack( Items.STICK, 4 ) ) );
+		assertEquals( 3, list.size() );
+
+		for( final IAEItemStack found : list.findFuzzy( stack( new ItemStack( Items.DIAMOND_SWORD ) ), FuzzyMode.IGNORE_ALL ) )
+		{
+			found.setStackSize( 0 );
+		}
+		assertEquals( 1, list.size() );
+
+		for( final IAEItemStack found : list.findFuzzy( stack( new ItemStack( Items.STICK ) ), FuzzyMode.IGNORE_ALL ) )
+		{
+			found.setCraftable( true );
+			found.setStackSize( 0 );
+		}
+		assertEquals( 1, list.size() );
+	}
+
+	@Test
+	public void testIteratorAndFirstItem()
+	{
+		final ItemList list = new ItemList();
+		list.add( stack( new ItemStack( Items.DIAMOND, 3 ) ) );
+		list.add( stack( new ItemStack( Items.EMERALD, 2 ) ) );
+		list.add( stack( new ItemStack( Items.DIAMOND_SWORD ) ) );
+		assertEquals( 3, list.size() );
+
+		final Iterator<IAEItemStack> it = list.iterator();
+		final IAEItemStack first = it.next();
+		assertEquals( 3, list.size() );
+
+		first.setStackSize( 0 );
+		assertEquals( 2, list.size() );
+
+		list.getFirstItem().setStackSize( 0 );
+		assertEquals( 1, list.size() );
+
+		list.resetStatus();
+		assertEquals( 0, list.size() );
+		assertFalse( list.iterator().hasNext() );
+	}
+
+	@Test
+	public void testDroppedRecordNoLongerCounts()
+	{
+		final ItemList list = new ItemList();
+		list.add( stack( new ItemStack( Items.DIAMOND, 3 ) ) );
+
+		final IAEItemStack held = list.findPrecise( stack( new ItemStack( Items.DIAMOND ) ) );
+		held.setStackSize( 0 );
+
+		// iterating drops records that are not meaningful anymore.
+		assertFalse( list.iterator().hasNext() );
+		assertEquals( 0, list.size() );
+
+		held.setStackSize( 5 );
+		assertEquals( 0, list.size() );
+
+		list.add( stack( new ItemStack( Items.DIAMOND, 1 ) ) );
+		assertEquals( 1, list.size() );
+		assertEquals( 1, list.findPrecise( stack( new ItemStack( Items.DIAMOND ) ) ).getStackSize() );
+	}
+
+	@Test
+	public void testCopiesAreNotTracked()
+	{
+		final ItemList list = new ItemList();
+		list.add( stack( new ItemStack( Items.DIAMOND, 3 ) ) );
+
+		final IAEItemStack copy = list.findPrecise( stack( new ItemStack( Items.DIAMOND ) ) ).copy();
+		copy.setStackSize( 0 );
+
+		assertEquals( 1, list.size() );
+	}
+}